@@ -7,6 +7,8 @@ import os
 # here we add the repo's root directory to the path variable; everything
 # is imported relative to that to avoid problems
 import pickle
+import json
+import socket
 import subprocess
 import sys
 import time
@@ -28,6 +30,8 @@ def parse():
     parser.add_argument('--num_players', '--p', type=int, default=2, help='Number of players.')
     parser.add_argument('--savedir', '--s', type=str, default='.')
     parser.add_argument('--seed', type=int, default=1)
+    parser.add_argument('--server', type=str, default=None,
+                        help='host:port of a running walton AgentServer, instead of starting walton.jar.')
 
     args = parser.parse_args()
     return args
@@ -47,6 +51,38 @@ def create_csv_from_java(jar_filename, csv_filename, agent_name, player_count,
         process.communicate()  # solves issue where Popen hangs
 
 
+def create_csv_from_server(server, csv_filename, agent_name, player_count,
+                           game_count, seed):
+    # Same games as create_csv_from_java, played by an already running JVM
+    # (java -cp walton.jar com.fossgalaxy.games.fireworks.cluster.AgentServer <threads> <port>)
+    host, port = server.rsplit(':', 1)
+    request = {'id': agent_name, 'agentUnderTest': agent_name,
+               'agentPaired': agent_name, 'players': player_count,
+               'games': game_count, 'seed': seed}
+
+    sock = socket.create_connection((host, int(port)))
+    try:
+        sock.sendall((json.dumps(request) + '\n').encode('utf-8'))
+        sock.shutdown(socket.SHUT_WR)
+        stream = sock.makefile('r')
+
+        # games arrive as they finish, keep them in game order like the jar
+        games = {}
+        for line in stream:
+            response = json.loads(line)
+            if 'error' in response:
+                raise RuntimeError(response['error'])
+            if response.get('done'):
+                break
+            games[response['game']] = response['data']
+    finally:
+        sock.close()
+
+    with open(csv_filename, "w") as csv_file:
+        for game_num in sorted(games):
+            csv_file.write(games[game_num])
+
+
 def create_data_filenames(args):
     # Config csv & pkl file path
     agent_data_filename = args.agent_name + "_" + \
@@ -208,8 +244,12 @@ def act_based_pipeline(args):
 
     start_time = time.time()
     # Create csv on Disk by using Java code
-    create_csv_from_java(jar_filename, csv_filename, args.agent_name,
-                         args.num_players, args.num_games, game_seed)
+    if args.server:
+        create_csv_from_server(args.server, csv_filename, args.agent_name,
+                               args.num_players, args.num_games, game_seed)
+    else:
+        create_csv_from_java(jar_filename, csv_filename, args.agent_name,
+                             args.num_players, args.num_games, game_seed)
     print("Time Elapsed To Generate Csv: {}".format(time.time() - start_time))
 
     # Read csv
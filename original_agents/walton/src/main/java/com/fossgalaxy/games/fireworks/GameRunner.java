@@ -4,6 +4,7 @@ import com.fossgalaxy.games.fireworks.ai.AgentPlayer;
 import com.fossgalaxy.games.fireworks.players.Player;
 import com.fossgalaxy.games.fireworks.state.*;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.ActionResult;
 import com.fossgalaxy.games.fireworks.state.events.CardDrawn;
 import com.fossgalaxy.games.fireworks.state.events.CardReceived;
 import com.fossgalaxy.games.fireworks.state.events.GameEvent;
@@ -14,6 +15,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.fossgalaxy.games.fireworks.utils.DataParserUtils;;
@@ -38,6 +40,10 @@ public class GameRunner {
 
     private int nextPlayer;
 
+    // records the game for the data dump, one per game so games on different threads don't share it
+    private DataParserUtils parser = new DataParserUtils();
+    private Consumer<DataParserUtils> recordWriter = DataParserUtils::writeToDisk;
+
     /**
      * Create a game runner with a given ID and a number of players.
      *
@@ -110,6 +116,17 @@ public class GameRunner {
         playerNames[nPlayers - 1] = name;
     }
 
+    /**
+     * Set what happens to the record of the game once it is over.
+     *
+     * By default the record is written to standard out, see {@link DataParserUtils#writeToDisk()}.
+     *
+     * @param recordWriter called with the record when the game is finished
+     */
+    public void setRecordWriter(Consumer<DataParserUtils> recordWriter) {
+        this.recordWriter = Objects.requireNonNull(recordWriter);
+    }
+
     /**
      * Initialise the game for the players.
      * <p>
@@ -139,8 +156,8 @@ public class GameRunner {
 
         // New
         Deck mydeck = new Deck(state.getDeck());
-        LinkedList<Card> mycards = mydeck.cards;
-        DataParserUtils.RecordStartDeck(mycards);
+        LinkedList<Card> mycards = new LinkedList<>(mydeck.toList());
+        parser.RecordStartDeck(mycards);
 
         // keep track of the messages that should be sent as part of the game setup
         List<GameEvent> initEvents = new ArrayList<>();
@@ -173,7 +190,7 @@ public class GameRunner {
                 start_hands.add(cardInSlot);
             }
         }
-        DataParserUtils.RecordStartHands(start_hands);
+        parser.RecordStartHands(start_hands);
 
         // dispatch the events to the players
         notifyAction(-2, null, initEvents);
@@ -223,8 +240,8 @@ public class GameRunner {
         Collection<GameEvent> events = action.apply(nextPlayer, state);
         // Ensure parser exist
         if (parser != null) {
-            parser.writeData(state, action);
-            // parser.writeAction(action);
+            parser.writeData(state, ActionResult.of(nextPlayer, action, events));
+            // parser.writeAction(result);
             // parser.writeObservation(state);
         }
         notifyAction(nextPlayer, action, events);
@@ -243,7 +260,7 @@ public class GameRunner {
      */
     public GameStats playGame(Long seed) {
         int strikes = 0;
-        DataParserUtils parser = new DataParserUtils();
+        parser = new DataParserUtils();
 
         try {
             assert nPlayers == players.length;
@@ -264,7 +281,7 @@ public class GameRunner {
                     }
                 }
             }
-            parser.writeToDisk();
+            recordWriter.accept(parser);
             return new GameStats(gameID, players.length, state.getScore(), state.getLives(), moves,
                     state.getInfomation(), strikes);
         } catch (Exception ex) {
@@ -0,0 +1,312 @@
+package com.fossgalaxy.games.fireworks.ai;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How much work a search agent may do for a single decision.
+ *
+ * A budget can limit the number of iterations, the wall clock time (measured with {@link System#nanoTime()}), the
+ * number of tree nodes created, or any combination of these. Combined budgets stop as soon as any one of their
+ * limits is reached. Iteration and node limits do not depend on how fast the machine is, so searches using them are
+ * repeatable.
+ *
+ * Budgets are immutable and can be shared between agents, {@link #start()} creates the counter for a single search.
+ * Every limit must be at least 1, and a search is always allowed its first iteration (even if a time limit has
+ * already passed), so a search always has a move to choose.
+ *
+ * In agent spec strings a budget is written as limits joined with '+', each a number followed by a unit:
+ * {@code i} (iterations, the default if no unit is given), {@code n} (nodes), {@code ms}, {@code s} or {@code ns}.
+ * For example {@code mcts[20000:18:1]}, {@code mcts[500ms:18:1]} or {@code mcts[20000i+1s:18:1]}.
+ */
+public final class SearchBudget {
+    private static final long UNLIMITED = -1;
+
+    private final long iterations;
+    private final long nanos;
+    private final long nodes;
+
+    private SearchBudget(long iterations, long nanos, long nodes) {
+        this.iterations = iterations;
+        this.nanos = nanos;
+        this.nodes = nodes;
+    }
+
+    /**
+     * A budget that allows a fixed number of iterations.
+     *
+     * @param iterations the number of iterations allowed
+     * @return the new budget
+     */
+    public static SearchBudget iterations(long iterations) {
+        return new SearchBudget(checkLimit(iterations), UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * A budget that allows searching until a fixed amount of time has passed.
+     *
+     * @param duration the time allowed
+     * @param unit the unit of the duration
+     * @return the new budget
+     */
+    public static SearchBudget time(long duration, TimeUnit unit) {
+        return new SearchBudget(UNLIMITED, checkLimit(unit.toNanos(duration)), UNLIMITED);
+    }
+
+    /**
+     * A budget that allows searching until a number of milliseconds have passed.
+     *
+     * @param millis the time allowed in milliseconds
+     * @return the new budget
+     */
+    public static SearchBudget millis(long millis) {
+        return time(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A budget that allows a fixed number of tree nodes to be created.
+     *
+     * @param nodes the number of nodes allowed
+     * @return the new budget
+     */
+    public static SearchBudget nodes(long nodes) {
+        return new SearchBudget(UNLIMITED, UNLIMITED, checkLimit(nodes));
+    }
+
+    private static long checkLimit(long limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("budget limits must be at least 1, got " + limit);
+        }
+        return limit;
+    }
+
+    /**
+     * Combine this budget with another, the result stops when either would have.
+     *
+     * @param other the budget to combine with
+     * @return a budget with the tightest limits of both
+     */
+    public SearchBudget and(SearchBudget other) {
+        return new SearchBudget(tightest(iterations, other.iterations), tightest(nanos, other.nanos),
+                tightest(nodes, other.nodes));
+    }
+
+    private static long tightest(long a, long b) {
+        if (a == UNLIMITED) {
+            return b;
+        }
+        if (b == UNLIMITED) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * Parse a budget from an agent spec string.
+     *
+     * @param spec the budget, see the class documentation for the format
+     * @return the budget described by the string
+     * @throws IllegalArgumentException if the string is not a valid budget
+     */
+    public static SearchBudget parse(String spec) {
+        SearchBudget budget = null;
+        for (String part : spec.split("\\+")) {
+            SearchBudget limit = parseLimit(part.trim());
+            budget = budget == null ? limit : budget.and(limit);
+        }
+        return budget;
+    }
+
+    private static SearchBudget parseLimit(String limit) {
+        int unitStart = 0;
+        while (unitStart < limit.length() && Character.isDigit(limit.charAt(unitStart))) {
+            unitStart++;
+        }
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("budget limit must start with a number: " + limit);
+        }
+
+        long value = Long.parseLong(limit.substring(0, unitStart));
+        String unit = limit.substring(unitStart);
+        switch (unit) {
+            case "":
+            case "i":
+                return iterations(value);
+            case "n":
+                return nodes(value);
+            case "ns":
+                return time(value, TimeUnit.NANOSECONDS);
+            case "ms":
+                return time(value, TimeUnit.MILLISECONDS);
+            case "s":
+                return time(value, TimeUnit.SECONDS);
+            default:
+                throw new IllegalArgumentException("unknown budget unit '" + unit + "' in " + limit);
+        }
+    }
+
+    /**
+     * Start counting against this budget, the clock starts now.
+     *
+     * @return a counter for a single search
+     */
+    public Tracker start() {
+        return startAt(System.nanoTime());
+    }
+
+    /**
+     * Start counting against this budget, with the clock started at an earlier time.
+     *
+     * @param startNanos when the search started, as given by {@link System#nanoTime()}
+     * @return a counter for a single search
+     */
+    public Tracker startAt(long startNanos) {
+        return new Tracker(this, nanos == UNLIMITED ? 0 : startNanos + nanos);
+    }
+
+    public boolean hasIterationLimit() {
+        return iterations != UNLIMITED;
+    }
+
+    public boolean hasTimeLimit() {
+        return nanos != UNLIMITED;
+    }
+
+    public boolean hasNodeLimit() {
+        return nodes != UNLIMITED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchBudget)) {
+            return false;
+        }
+        SearchBudget that = (SearchBudget) o;
+        return iterations == that.iterations && nanos == that.nanos && nodes == that.nodes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(iterations, nanos, nodes);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (hasIterationLimit()) {
+            builder.append(iterations).append('i');
+        }
+        if (hasTimeLimit()) {
+            if (builder.length() != 0) {
+                builder.append('+');
+            }
+            builder.append(nanos).append("ns");
+        }
+        if (hasNodeLimit()) {
+            if (builder.length() != 0) {
+                builder.append('+');
+            }
+            builder.append(nodes).append('n');
+        }
+        return builder.length() == 0 ? "unlimited" : builder.toString();
+    }
+
+    /**
+     * Counts the work done by one search against a budget.
+     *
+     * The counters are atomic, so a single tracker can be shared by threads searching the same tree.
+     */
+    public static final class Tracker {
+        private final SearchBudget budget;
+        private final long deadline;
+        private final AtomicLong iterations;
+        private final AtomicLong nodes;
+
+        // how often this search gives up its thread, taken from SearchYield when the search starts
+        private final long yieldNanos;
+
+        // when the search should next give up its thread (only a hint, so not atomic)
+        private long nextYield;
+
+        private Tracker(SearchBudget budget, long deadline) {
+            this.budget = budget;
+            this.deadline = deadline;
+            this.iterations = new AtomicLong();
+            this.nodes = new AtomicLong();
+            this.yieldNanos = SearchYield.getIntervalNanos();
+            this.nextYield = System.nanoTime() + yieldNanos;
+        }
+
+        /**
+         * Claim the next iteration, if the budget allows it. The first iteration is always allowed.
+         *
+         * If {@link SearchYield} was enabled on the thread which started the search, this is also where the search
+         * gives up its thread to other games.
+         *
+         * @return true if another iteration should be run, false if the budget is used up
+         */
+        public boolean next() {
+            if (yieldNanos != 0) {
+                yieldIfDue();
+            }
+
+            long done;
+            do {
+                done = iterations.get();
+                // the first iteration is always run, so the search has a move to choose
+                if (done > 0 && isSpent(done)) {
+                    return false;
+                }
+            } while (!iterations.compareAndSet(done, done + 1));
+            return true;
+        }
+
+        private boolean isSpent(long done) {
+            if (budget.hasIterationLimit() && done >= budget.iterations) {
+                return true;
+            }
+            if (budget.hasNodeLimit() && nodes.get() >= budget.nodes) {
+                return true;
+            }
+            return budget.hasTimeLimit() && System.nanoTime() - deadline >= 0;
+        }
+
+        private void yieldIfDue() {
+            long now = System.nanoTime();
+            if (now - nextYield >= 0) {
+                Thread.yield();
+                nextYield = System.nanoTime() + yieldNanos;
+            }
+        }
+
+        /**
+         * Record nodes added to the search tree.
+         *
+         * @param count the number of new nodes
+         */
+        public void addNodes(int count) {
+            nodes.addAndGet(count);
+        }
+
+        public long getIterations() {
+            return iterations.get();
+        }
+
+        public long getNodes() {
+            return nodes.get();
+        }
+
+        /**
+         * How often this search gives up its thread.
+         *
+         * @return the interval in nanoseconds, 0 if the search never yields
+         */
+        public long getYieldNanos() {
+            return yieldNanos;
+        }
+    }
+}
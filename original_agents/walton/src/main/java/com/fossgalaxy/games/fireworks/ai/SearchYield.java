@@ -0,0 +1,60 @@
+package com.fossgalaxy.games.fireworks.ai;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets search agents share their thread with other games.
+ *
+ * Searches run flat out until their budget is used up, and a virtual thread only gives up its carrier when it blocks.
+ * Without help, a game running a one second search would hold a carrier for the whole second while every other game on
+ * that carrier waits. When a yield interval is set, each search calls {@link Thread#yield()} once per interval (checked
+ * between iterations, see {@link SearchBudget.Tracker#next()}), which puts the game to the back of the scheduler's
+ * queue so the carriers are shared round robin between the games that want them.
+ *
+ * The interval belongs to the thread that sets it, and each search reads it once when its tracker is created, so
+ * games (or tournaments) running side by side in one JVM can't change each other's setting. It is off by default.
+ * Time limited budgets are measured in wall clock time, so a search which yields gets less work done in its time;
+ * iteration and node budgets are not affected.
+ */
+public final class SearchYield {
+    private static final long OFF = 0;
+
+    private static final ThreadLocal<Long> intervalNanos = ThreadLocal.withInitial(() -> OFF);
+
+    private SearchYield() {
+
+    }
+
+    /**
+     * Make searches started on this thread yield their thread after running for the given time.
+     *
+     * @param duration how long a search may run before yielding, 0 to never yield
+     * @param unit the unit of the duration
+     */
+    public static void setInterval(long duration, TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("yield interval cannot be negative, got " + duration);
+        }
+        intervalNanos.set(unit.toNanos(duration));
+    }
+
+    /**
+     * Stop searches started on this thread from yielding.
+     */
+    public static void disable() {
+        intervalNanos.remove();
+    }
+
+    public static boolean isEnabled() {
+        return getIntervalNanos() != OFF;
+    }
+
+    /**
+     * How long a search started on this thread may run before yielding.
+     *
+     * @return the interval in nanoseconds, 0 if searches never yield
+     */
+    public static long getIntervalNanos() {
+        return intervalNanos.get();
+    }
+}
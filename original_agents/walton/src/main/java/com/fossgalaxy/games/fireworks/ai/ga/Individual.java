@@ -6,6 +6,7 @@ import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.Deck;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
+import com.fossgalaxy.games.fireworks.state.UndoRecord;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
 import java.util.*;
@@ -34,11 +35,35 @@ public class Individual {
         Map<Integer, List<Card>> possibleCards = DeckUtils.bindCard(myID, state.getHand(myID), state.getDeck().toList());
         List<Integer> bindOrder = DeckUtils.bindOrder(possibleCards);
 
+        // a single working copy, each evaluation undoes its moves and determinisation before the next one
+        GameState detState = state.getCopy();
+        Deck deck = detState.getDeck();
+        Hand myHand = detState.getHand(myID);
+        Card[] unbound = new Card[myHand.getSize()];
+        boolean[] fromDeck = new boolean[myHand.getSize()];
+        for (int slot = 0; slot < myHand.getSize(); slot++) {
+            unbound[slot] = myHand.getCard(slot);
+        }
+
         double totScore = 0;
 
         for (int i=0; i<NUM_REPEATS; i++) {
-            GameState detState = determinise(state, myID, possibleCards, bindOrder);
+            Map<Integer, Card> myHandCards = DeckUtils.bindCards(bindOrder, possibleCards);
+            for (int slot = 0; slot < myHand.getSize(); slot++) {
+                Card hand = myHandCards.get(slot);
+                myHand.bindCard(slot, hand);
+                fromDeck[slot] = deck.remove(hand);
+            }
+            deck.shuffle(random);
+
             totScore += evaluate(detState, myID);
+
+            for (int slot = 0; slot < myHand.getSize(); slot++) {
+                if (fromDeck[slot]) {
+                    deck.add(myHand.getCard(slot));
+                }
+                myHand.bindCard(slot, unbound[slot]);
+            }
         }
 
         return totScore / NUM_REPEATS;
@@ -56,30 +81,60 @@ public class Individual {
             myHand.bindCard(slot, hand);
             deck.remove(hand);
         }
-        deck.shuffle();
+        deck.shuffle(random);
 
        return clone;
     }
 
+    /**
+     * Play this individual's moves (and random moves for the other players) from the given state.
+     *
+     * The moves are undone before returning (or made on a copy, if the state can't undo them), so the state is left
+     * as it was found.
+     *
+     * @param state the determinised state to play from
+     * @param myID the player this individual is playing as
+     * @return the score reached
+     */
     public int evaluate(GameState state, int myID) {
-        GameState forward = state;
+        if (!state.supportsUndo()) {
+            return evaluateMoves(state.getCopy(), myID, null);
+        }
+
+        Deque<UndoRecord> records = new ArrayDeque<>();
+        int score = evaluateMoves(state, myID, records);
+        while (!records.isEmpty()) {
+            state.undo(records.pop());
+        }
+        return score;
+    }
+
+    private int evaluateMoves(GameState state, int myID, Deque<UndoRecord> records) {
         int myMoves = 0;
         int playerId = 0;
 
-        while(!forward.isGameOver() && myMoves < actions.length) {
-            List<Action> possible = new ArrayList<>(Utils.generateActions(playerId, forward));
+        while(!state.isGameOver() && myMoves < actions.length) {
+            List<Action> possible = new ArrayList<>(Utils.generateActions(playerId, state));
             if (playerId == myID) {
                 Action myAction = possible.get( Math.abs(actions[myMoves++] % possible.size()) );
-                myAction.apply(playerId, forward);
+                apply(myAction, playerId, state, records);
             } else {
                 //if it's someone else's go - make a random move
                 Action myAction = possible.get(random.nextInt(possible.size()));
-                myAction.apply(playerId, forward);
+                apply(myAction, playerId, state, records);
             }
             playerId = (playerId + 1) % state.getPlayerCount();
         }
 
-        return forward.getScore();
+        return state.getScore();
+    }
+
+    private static void apply(Action action, int playerID, GameState state, Deque<UndoRecord> records) {
+        if (records == null) {
+            action.apply(playerID, state);
+        } else {
+            records.push(action.applyUndoable(playerID, state));
+        }
     }
 
     public Individual copy() {
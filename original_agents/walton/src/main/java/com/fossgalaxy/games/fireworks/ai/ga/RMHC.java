@@ -1,25 +1,42 @@
 package com.fossgalaxy.games.fireworks.ai.ga;
 
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
 /**
  * Created by webpigeon on 24/02/17.
+ *
+ * Each iteration of the budget is one mutation and evaluation, node limits do not apply.
  */
 public class RMHC implements Agent {
+    public static final SearchBudget DEFAULT_BUDGET = SearchBudget.millis(1000);
 
-    @Override
-    public Action doMove(int agentID, GameState state) {
-        long finishTime = System.currentTimeMillis() + 1000;
+    private final SearchBudget budget;
+
+    public RMHC() {
+        this(DEFAULT_BUDGET);
+    }
+
+    public RMHC(SearchBudget budget) {
+        this.budget = budget;
+    }
 
+    @AgentBuilderStatic("rmhcBudget")
+    public static RMHC buildRMHC(SearchBudget budget) {
+        return new RMHC(budget);
+    }
 
-        int evals = 0;
+    @Override
+    public Action doMove(int agentID, GameState state) {
+        SearchBudget.Tracker tracker = budget.start();
 
         Individual currBest = new Individual(30).randomise();
         double bestScore = currBest.multiEval(state, agentID);
 
-        while (System.currentTimeMillis() < finishTime) {
+        while (tracker.next()) {
             Individual newGuy = currBest.copy().mutate();
             double newGuyScore = newGuy.multiEval(state, agentID);
 
@@ -27,8 +44,6 @@ public class RMHC implements Agent {
                 currBest = newGuy;
                 bestScore = newGuyScore;
             }
-
-            evals++;
         }
 
         return currBest.getAction(0, agentID, state);
@@ -6,7 +6,8 @@ import com.fossgalaxy.games.fireworks.ai.rule.Rule;
 import com.fossgalaxy.games.fireworks.state.BasicState;
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.GameState;
-import com.fossgalaxy.games.fireworks.state.TimedHand;
+import com.fossgalaxy.games.fireworks.state.HistoryEntry;
+import com.fossgalaxy.games.fireworks.state.OrderedHand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.events.CardInfoColour;
 import com.fossgalaxy.games.fireworks.state.events.CardInfoValue;
@@ -15,6 +16,7 @@ import com.fossgalaxy.games.fireworks.state.events.GameEvent;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Created by piers on 11/11/16.
@@ -36,6 +38,11 @@ public class HatGuessing implements Agent {
 
     private Rule discardOldest;
 
+    // our own copy of the game, built up from the history as it grows
+    private GameState replayed;
+    private int entriesReplayed;
+    private HistoryEntry lastReplayed;
+
     public HatGuessing() {
         this.discardOldest = new DiscardOldestFirst();
         this.lastToldAction = null;
@@ -44,7 +51,7 @@ public class HatGuessing implements Agent {
 
     @Override
     public Action doMove(int agentID, GameState state) {
-        //we're not allowed internal state - so re-play the game to figure out what it should look like
+        //bring our copy of the game up to date with any moves made since our last turn
         replayHistory(state);
 
         // 1. If the most recent recommendation was to play a card and no card has been played since the lat hint, play the recommended card
@@ -72,8 +79,9 @@ public class HatGuessing implements Agent {
         }
 
         // 5. Discard card c 1 (Oldest CardComponent)
-        if (discardOldest.canFire(agentID, state)) {
-            return discardOldest.execute(agentID, state);
+        Action discard = discardOldest.tryFire(agentID, state);
+        if (discard != null) {
+            return discard;
         }
 
         //ok, what happens now? :S
@@ -121,7 +129,7 @@ public class HatGuessing implements Agent {
             return false;
         }
 
-        long copiesInDeck = state.getDeck().toList().stream().filter(card::equals).count();
+        int copiesInDeck = state.getDeck().getCount(card);
 
         //if there is at least 1 copy in the deck we're fine
         if (copiesInDeck > 0) {
@@ -130,7 +138,7 @@ public class HatGuessing implements Agent {
 
         //figure out how many copies have already been discarded/played incorrectly
         int totalCopies = copies[card.value];
-        long copiesIsDiscard = state.getDiscards().stream().filter(card::equals).count();
+        int copiesIsDiscard = state.getDiscardCount(card);
         if (copiesIsDiscard < totalCopies - 1) {
             return false; //we've can't account for all of them in either the discard - they're still in play somewhere
         }
@@ -139,24 +147,49 @@ public class HatGuessing implements Agent {
         return true;
     }
 
+    /**
+     * Apply any history entries we have not seen yet to our copy of the game.
+     *
+     * Only the new entries are replayed, so this does not get slower as the game goes on. If the history is not a
+     * continuation of what we saw last time (a new game, or moves were undone), the game is replayed from the start.
+     *
+     * @param state the state we were given
+     * @return our copy of the game
+     */
     private GameState replayHistory(GameState state) {
-        return fastForward(state.getHistory(), state.getPlayerCount());
-    }
+        List<HistoryEntry> history = state.getActionHistory();
+        if (!isContinuation(state, history)) {
+            replayed = new BasicState(state.getPlayerCount());
+            entriesReplayed = 0;
+            lastReplayed = null;
+
+            //reset history
+            lastToldAction = null;
+            cardsPlayedSinceHint = 0;
+        }
 
-    private GameState fastForward(List<GameEvent> events, int nPlayers) {
-        //create a game state
-        GameState ff = new BasicState(nPlayers);
+        ListIterator<HistoryEntry> entries = history.listIterator(entriesReplayed);
+        while (entries.hasNext()) {
+            HistoryEntry entry = entries.next();
+            for (GameEvent event : entry.history) {
+                event.apply(replayed);
+                applyEffect(replayed, event);
+            }
+            lastReplayed = entry;
+            entriesReplayed++;
+        }
 
-        //reset history
-        lastToldAction = null;
-        cardsPlayedSinceHint = 0;
+        return replayed;
+    }
 
-        for (GameEvent event : events) {
-            event.apply(ff);
-            applyEffect(ff, event);
+    private boolean isContinuation(GameState state, List<HistoryEntry> history) {
+        if (replayed == null || replayed.getPlayerCount() != state.getPlayerCount()) {
+            return false;
         }
-
-        return ff;
+        if (history.size() < entriesReplayed) {
+            return false;
+        }
+        return entriesReplayed == 0 || history.get(entriesReplayed - 1) == lastReplayed;
     }
 
     /**
@@ -170,7 +203,7 @@ public class HatGuessing implements Agent {
      */
     public int getRecommendationForAHand(int agentToTell, GameState state) {
 
-        TimedHand hand = (TimedHand) state.getHand(agentToTell);
+        OrderedHand hand = (OrderedHand) state.getHand(agentToTell);
         Integer[] handOrder = new Integer[]{0, 1, 2, 3};
         Arrays.sort(handOrder, Comparator.comparingInt(hand::getAge));
 
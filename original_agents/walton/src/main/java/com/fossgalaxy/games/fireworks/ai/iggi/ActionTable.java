@@ -0,0 +1,283 @@
+package com.fossgalaxy.games.fireworks.ai.iggi;
+
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HintIndex;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.Hand;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import com.fossgalaxy.games.fireworks.state.actions.TellColour;
+import com.fossgalaxy.games.fireworks.state.actions.TellValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Every action that can be made in a game of a given size, each with a fixed id.
+ *
+ * Ids are laid out as play and discard for each slot, followed by the five colour and five value tells for each
+ * player. There are at most 58 actions (in a five player game), so a set of actions fits in a {@code long} with bit
+ * {@code id} set for each action in the set. {@link #getLegalMoves(int, GameState)} returns the legal moves in this
+ * form, and {@link #randomId(long, Random)} picks from it without building a collection.
+ *
+ * Actions are immutable, so the same instances are shared by everyone using the table.
+ */
+public final class ActionTable {
+    private static final int[] HAND_SIZE = {-1, -1, 5, 5, 4, 4};
+    private static final int VALUES = 5;
+    private static final int TELLS = CardColour.values().length + VALUES;
+    private static final ActionTable[] TABLES = new ActionTable[HAND_SIZE.length];
+
+    static {
+        for (int players = 2; players < HAND_SIZE.length; players++) {
+            TABLES[players] = new ActionTable(players);
+        }
+    }
+
+    private final int playerCount;
+    private final int handSize;
+    private final Action[] actions;
+    private final Map<Action, Integer> ids;
+    private final long[] allMoves;
+
+    private ActionTable(int playerCount) {
+        this.playerCount = playerCount;
+        this.handSize = HAND_SIZE[playerCount];
+        this.actions = new Action[handSize * 2 + playerCount * TELLS];
+        this.ids = new HashMap<>();
+        this.allMoves = new long[playerCount];
+
+        for (int slot = 0; slot < handSize; slot++) {
+            add(getPlayId(slot), new PlayCard(slot));
+            add(getDiscardId(slot), new DiscardCard(slot));
+        }
+        for (int player = 0; player < playerCount; player++) {
+            for (CardColour colour : CardColour.values()) {
+                add(getTellColourId(player, colour), new TellColour(player, colour));
+            }
+            for (int value = 1; value <= VALUES; value++) {
+                add(getTellValueId(player, value), new TellValue(player, value));
+            }
+        }
+
+        long everything = actions.length == Long.SIZE ? -1L : (1L << actions.length) - 1;
+        for (int player = 0; player < playerCount; player++) {
+            // players can't tell themselves about their own hand
+            long ownTells = ((1L << TELLS) - 1) << getTellColourId(player, CardColour.values()[0]);
+            allMoves[player] = everything & ~ownTells;
+        }
+    }
+
+    private void add(int id, Action action) {
+        actions[id] = action;
+        ids.put(action, id);
+    }
+
+    /**
+     * Get the action table for a game size.
+     *
+     * @param playerCount the number of players in the game
+     * @return the shared table for that many players
+     */
+    public static ActionTable forPlayers(int playerCount) {
+        if (playerCount < 2 || playerCount >= TABLES.length) {
+            throw new IllegalArgumentException("no action table for " + playerCount + " players");
+        }
+        return TABLES[playerCount];
+    }
+
+    /**
+     * Find the legal moves for a player.
+     *
+     * The same moves are legal as for {@link Utils#generateActions(int, GameState)}.
+     *
+     * @param playerID the player who is moving
+     * @param state the state of the game
+     * @return a bitmask with the bit for each legal action id set
+     */
+    public long getLegalMoves(int playerID, GameState state) {
+        long legal = getLegalCardMoves(playerID, state);
+        if (state.getInfomation() == 0) {
+            return legal;
+        }
+
+        for (int player = 0; player < playerCount; player++) {
+            if (player == playerID) {
+                continue;
+            }
+
+            Hand hand = state.getHand(player);
+            for (int slot = 0; slot < hand.getSize(); slot++) {
+                Card card = hand.getCard(slot);
+                if (card != null) {
+                    legal |= 1L << getTellColourId(player, card.colour);
+                    legal |= 1L << getTellValueId(player, card.value);
+                }
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Find the legal moves for a player, using a hint index which has already been built for the state.
+     *
+     * @param playerID the player who is moving
+     * @param state the state of the game
+     * @param hints the hint index for the state
+     * @return a bitmask with the bit for each legal action id set
+     */
+    public long getLegalMoves(int playerID, GameState state, HintIndex hints) {
+        long legal = getLegalCardMoves(playerID, state);
+        if (state.getInfomation() == 0) {
+            return legal;
+        }
+
+        for (int player = 0; player < playerCount; player++) {
+            if (player == playerID) {
+                continue;
+            }
+
+            for (CardColour colour : CardColour.values()) {
+                if (hints.getTouched(player, colour) != 0) {
+                    legal |= 1L << getTellColourId(player, colour);
+                }
+            }
+            for (int value = 1; value <= VALUES; value++) {
+                if (hints.getTouched(player, value) != 0) {
+                    legal |= 1L << getTellValueId(player, value);
+                }
+            }
+        }
+        return legal;
+    }
+
+    private long getLegalCardMoves(int playerID, GameState state) {
+        long legal = 0;
+
+        boolean canDiscard = state.getInfomation() != state.getStartingInfomation();
+        Hand myHand = state.getHand(playerID);
+        int slots = Math.min(myHand.getSize(), handSize);
+        for (int slot = 0; slot < slots; slot++) {
+            if (myHand.hasCard(slot)) {
+                legal |= 1L << getPlayId(slot);
+                if (canDiscard) {
+                    legal |= 1L << getDiscardId(slot);
+                }
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Every action a player could make in this size of game, legal or not.
+     *
+     * @param playerID the player who is moving
+     * @return a bitmask with the bit for each action id set
+     */
+    public long getAllMoves(int playerID) {
+        return allMoves[playerID];
+    }
+
+    /**
+     * Pick an id uniformly at random from a set of ids.
+     *
+     * @param ids the ids to choose from, as a bitmask
+     * @param random the random number generator to use
+     * @return one of the ids, or -1 if there were none
+     */
+    public static int randomId(long ids, Random random) {
+        int count = Long.bitCount(ids);
+        if (count == 0) {
+            return -1;
+        }
+
+        long remaining = ids;
+        for (int skip = random.nextInt(count); skip > 0; skip--) {
+            remaining &= remaining - 1;
+        }
+        return Long.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * Convert a set of ids into a list of actions.
+     *
+     * @param ids the ids to convert, as a bitmask
+     * @return the actions, in id order
+     */
+    public List<Action> toList(long ids) {
+        List<Action> list = new ArrayList<>(Long.bitCount(ids));
+        for (long remaining = ids; remaining != 0; remaining &= remaining - 1) {
+            list.add(actions[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return list;
+    }
+
+    /**
+     * Convert a list of actions into a set of ids.
+     *
+     * @param actions the actions to convert, which must all be in this table
+     * @return a bitmask with the bit for each action's id set
+     * @throws IllegalArgumentException if an action is not in this table
+     */
+    public long toMask(Iterable<Action> actions) {
+        long mask = 0;
+        for (Action action : actions) {
+            int id = getId(action);
+            if (id == -1) {
+                throw new IllegalArgumentException("action not in the table for " + playerCount + " players: " + action);
+            }
+            mask |= 1L << id;
+        }
+        return mask;
+    }
+
+    public Action get(int id) {
+        return actions[id];
+    }
+
+    /**
+     * Find the id of an action.
+     *
+     * @param action the action to look up, which does not need to be the shared instance
+     * @return the id of the action, or -1 if it is not in this table
+     */
+    public int getId(Action action) {
+        Integer id = ids.get(action);
+        return id == null ? -1 : id;
+    }
+
+    public int getPlayId(int slot) {
+        return slot * 2;
+    }
+
+    public int getDiscardId(int slot) {
+        return slot * 2 + 1;
+    }
+
+    public int getTellColourId(int player, CardColour colour) {
+        return handSize * 2 + player * TELLS + colour.ordinal();
+    }
+
+    public int getTellValueId(int player, int value) {
+        return handSize * 2 + player * TELLS + CardColour.values().length + value - 1;
+    }
+
+    public List<Action> getActions() {
+        return Collections.unmodifiableList(Arrays.asList(actions));
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int size() {
+        return actions.length;
+    }
+}
@@ -4,9 +4,6 @@ import com.fossgalaxy.games.fireworks.ai.rule.AbstractRule;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 public class LegalRandom extends AbstractRule {
@@ -18,11 +15,12 @@ public class LegalRandom extends AbstractRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
-
-        Collection<Action> actions = Utils.generateActions(playerID, state);
-        List<Action> listAction = new ArrayList<>(actions);
-
-        return listAction.get(random.nextInt(listAction.size()));
+        ActionTable table = ActionTable.forPlayers(state.getPlayerCount());
+        long legal = table.getLegalMoves(playerID, state);
+        if (legal == 0) {
+            return null;
+        }
+        return table.get(ActionTable.randomId(legal, random));
     }
 
 }
@@ -1,6 +1,6 @@
 package com.fossgalaxy.games.fireworks.ai.iggi;
 
-import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HintIndex;
 import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
@@ -10,8 +10,6 @@ import java.util.Collection;
 import java.util.HashSet;
 
 public class Utils {
-    private static final int[] HAND_SIZE = {-1, -1, 5, 5, 4, 4};
-
     private Utils() {
 
     }
@@ -29,31 +27,8 @@ public class Utils {
      * @return a collection of all possible actions
      */
     public static Collection<Action> generateAllActions(int playerID, int numPlayers) {
-
-        HashSet<Action> list = new HashSet<>();
-
-        for (int i = 0; i < HAND_SIZE[numPlayers]; i++) {
-            list.add(new DiscardCard(i));
-            list.add(new PlayCard(i));
-        }
-
-        //Legal Information Actions
-        for (int player = 0; player < numPlayers; player++) {
-            //can't tell self about hand
-            if (player == playerID) {
-                continue;
-            }
-
-
-            for (CardColour colour : CardColour.values()) {
-                list.add(new TellColour(player, colour));
-            }
-            for (int i = 0; i < 5; i++) {
-                list.add(new TellValue(player, i));
-            }
-        }
-
-        return list;
+        ActionTable table = ActionTable.forPlayers(numPlayers);
+        return table.toList(table.getAllMoves(playerID));
     }
 
     /**
@@ -67,41 +42,21 @@ public class Utils {
      * @return a collection of all legal moves
      */
     public static Collection<Action> generateActions(int playerID, GameState state) {
-        HashSet<Action> list = new HashSet<>();
-
-        Hand myHand = state.getHand(playerID);
-        for (int slot = 0; slot < myHand.getSize(); slot++) {
-            if (myHand.hasCard(slot)) {
-                list.add(new PlayCard(slot));
-                if (state.getInfomation() != state.getStartingInfomation()) {
-                    list.add(new DiscardCard(slot));
-                }
-            }
-        }
-
-        //if we have no information, abort
-        if (state.getInfomation() == 0) {
-            return list;
-        }
-
-        //Legal Information Actions
-        for (int player = 0; player < state.getPlayerCount(); player++) {
-            //can't tell self about hand
-            if (player == playerID) {
-                continue;
-            }
-
-            Hand hand = state.getHand(player);
-            for (int slot = 0; slot < hand.getSize(); slot++) {
-                Card card = hand.getCard(slot);
-                if (card != null) {
-                    list.add(new TellColour(player, card.colour));
-                    list.add(new TellValue(player, card.value));
-                }
-            }
-        }
+        ActionTable table = ActionTable.forPlayers(state.getPlayerCount());
+        return table.toList(table.getLegalMoves(playerID, state));
+    }
 
-        return list;
+    /**
+     * Generate all legal actions, using a hint index which has already been built for the state.
+     *
+     * @param playerID the current player ID
+     * @param state the game state to consider
+     * @param hints the hint index for the state
+     * @return a collection of all legal moves
+     */
+    public static Collection<Action> generateActions(int playerID, GameState state, HintIndex hints) {
+        ActionTable table = ActionTable.forPlayers(state.getPlayerCount());
+        return table.toList(table.getLegalMoves(playerID, state, hints));
     }
 
     /**
@@ -118,6 +73,19 @@ public class Utils {
      * @return a collection of 'useful' actions
      */
     public static Collection<Action> generateSuitableActions(int playerID, GameState state) {
+        return generateSuitableActions(playerID, state, new HintIndex(state));
+    }
+
+    /**
+     * Return a list of legal moves, excluding tell actions which don't make any sense.
+     *
+     * @param playerID the current player ID
+     * @param state the current game state
+     * @param hints the hint index for the state
+     * @return a collection of 'useful' actions
+     * @see #generateSuitableActions(int, GameState)
+     */
+    public static Collection<Action> generateSuitableActions(int playerID, GameState state, HintIndex hints) {
         HashSet<Action> list = new HashSet<>();
 
         Hand myHand = state.getHand(playerID);
@@ -142,17 +110,15 @@ public class Utils {
                 continue;
             }
 
-            Hand hand = state.getHand(player);
-            for (int slot = 0; slot < hand.getSize(); slot++) {
-                Card card = hand.getCard(slot);
-                if (card != null) {
-                    if (hand.getKnownColour(slot) == null) {
-                        list.add(new TellColour(player, card.colour));
-                    }
-
-                    if (hand.getKnownValue(slot) == null) {
-                        list.add(new TellValue(player, card.value));
-                    }
+            //only tell if it would tell the player something about a card they didn't know
+            for (CardColour colour : CardColour.values()) {
+                if (hints.getNewInformation(player, colour) != 0) {
+                    list.add(new TellColour(player, colour));
+                }
+            }
+            for (int value = 1; value <= 5; value++) {
+                if (hints.getNewInformation(player, value) != 0) {
+                    list.add(new TellValue(player, value));
                 }
             }
         }
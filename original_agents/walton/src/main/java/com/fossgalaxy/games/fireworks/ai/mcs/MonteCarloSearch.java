@@ -1,7 +1,11 @@
 package com.fossgalaxy.games.fireworks.ai.mcs;
 
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.ai.mcts.MCTS;
+import com.fossgalaxy.games.fireworks.ai.mcts.MCTSNode;
 import com.fossgalaxy.games.fireworks.ai.mcts.MCTSPredictor;
+import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
 import com.fossgalaxy.games.fireworks.annotations.AgentConstructor;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
@@ -23,11 +27,32 @@ public class MonteCarloSearch extends MCTSPredictor {
         super(new Agent[]{policy, policy, policy, policy, policy});
     }
 
+    /**
+     * Constructs a new MC Search player with a given search budget
+     *
+     * @param policy The policy to use instead of Random rollouts
+     * @param budget The budget for each decision
+     */
+    public MonteCarloSearch(Agent policy, SearchBudget budget) {
+        super(new Agent[]{policy, policy, policy, policy, policy}, budget, MCTS.DEFAULT_ROLLOUT_DEPTH,
+                MCTS.DEFAULT_TREE_DEPTH_MUL);
+    }
+
+    @AgentBuilderStatic("flatmcBudget")
+    public static MonteCarloSearch buildFlatMC(Agent policy, SearchBudget budget) {
+        return new MonteCarloSearch(policy, budget);
+    }
+
     @Override
     public Action doMove(int agentID, GameState state) {
         return doSuperMove(agentID, state);
     }
 
+    @Override
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        return doSuperSearch(agentID, state, startNanos);
+    }
+
     @Override
     protected Action selectActionForRollout(GameState state, int agentID) {
         return agents[agentID].doMove(agentID, state.getCopy());
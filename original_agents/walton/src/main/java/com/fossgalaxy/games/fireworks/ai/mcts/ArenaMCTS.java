@@ -0,0 +1,223 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.App;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
+import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.Deck;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.Hand;
+import com.fossgalaxy.games.fireworks.state.UndoRecord;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MCTS which keeps its search tree in a {@link NodeArena}.
+ *
+ * The search is the same as {@link MCTS}, but tree nodes are rows in the arena's arrays rather than objects, and the
+ * arena is reused for every decision. The search settings and the rollout/expansion policies come from a policy
+ * agent, so predictor MCTS can be searched this way too.
+ *
+ * Usage: mctsArena[budget:rolloutDepth:treeDepthMul], mctsArenaND, pmctsArena[agents] or pmctsArenaND[agents]
+ */
+public class ArenaMCTS implements TreeSearchAgent {
+    private static final Logger logger = LoggerFactory.getLogger(ArenaMCTS.class);
+
+    private final MCTS policy;
+    private final NodeArena arena;
+
+    /**
+     * Create an arena based search.
+     *
+     * @param policy the agent that provides the search settings and policies
+     */
+    public ArenaMCTS(MCTS policy) {
+        this.policy = policy;
+        this.arena = new NodeArena();
+    }
+
+    @AgentBuilderStatic(App.MCTS + "Arena")
+    public static ArenaMCTS buildMCTS(SearchBudget budget, int rolloutDepth, int treeDepthMul) {
+        return new ArenaMCTS(new MCTS(budget, rolloutDepth, treeDepthMul, false));
+    }
+
+    @AgentBuilderStatic(App.MCTS + "ArenaND")
+    public static ArenaMCTS buildMCTSND() {
+        return new ArenaMCTS(MCTS.buildMCTSND());
+    }
+
+    @AgentBuilderStatic(App.PREDICTOR_MCTS + "Arena")
+    public static ArenaMCTS buildPredictorMCTS(String agents) {
+        return new ArenaMCTS(new MCTSPredictor(MCTSPredictor.parseAgents(agents)));
+    }
+
+    @AgentBuilderStatic(App.PREDICTOR_MCTS + "ArenaND")
+    public static ArenaMCTS buildPredictorMCTSND(String agents) {
+        return new ArenaMCTS(MCTSPredictor.buildPMCTSND(MCTSPredictor.parseAgents(agents)));
+    }
+
+    @Override
+    public Action doMove(int agentID, GameState state) {
+        MCTSNode root = search(agentID, state);
+
+        Action chosenOne = root.getBestNode().getAction();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Move Chosen by {} was {}", agentID, chosenOne);
+            root.printChildren();
+        }
+        return chosenOne;
+    }
+
+    @Override
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        int root = searchArena(agentID, state, startNanos);
+        return arena.toMCTSNode(root);
+    }
+
+    /**
+     * Build the search tree for the current decision.
+     *
+     * The tree stays valid until the next search, when the arena is cleared.
+     *
+     * @param agentID the player who is making the decision
+     * @param state the current state of the game from that player's perspective, this is not modified
+     * @param startNanos when the decision started, as given by {@link System#nanoTime()}
+     * @return the id of the root node in {@link #getArena()}
+     */
+    public int searchArena(int agentID, GameState state, long startNanos) {
+        SearchBudget.Tracker tracker = policy.budget.startAt(startNanos);
+        int playerCount = state.getPlayerCount();
+        int root = arena.reset(playerCount, (agentID + playerCount - 1) % playerCount);
+        policy.prepareSearch(agentID);
+
+        Map<Integer, List<Card>> possibleCards = DeckUtils.bindCard(agentID, state.getHand(agentID),
+                state.getDeck().toList());
+        List<Integer> bindOrder = DeckUtils.bindOrder(possibleCards);
+
+        // a single working copy, every iteration is undone before the next one starts
+        GameState currentState = state.getCopy();
+        boolean undoable = currentState.supportsUndo();
+        Deck deck = currentState.getDeck();
+        Hand myHand = currentState.getHand(agentID);
+        Card[] unbound = new Card[myHand.getSize()];
+        boolean[] fromDeck = new boolean[myHand.getSize()];
+        for (int slot = 0; slot < myHand.getSize(); slot++) {
+            unbound[slot] = myHand.getCard(slot);
+        }
+        UndoRecord[] records = new UndoRecord[policy.rolloutDepth];
+
+        while (tracker.next()) {
+            IterationObject iterationObject = new IterationObject(agentID);
+
+            Map<Integer, Card> myHandCards = DeckUtils.bindCards(bindOrder, possibleCards);
+            for (int slot = 0; slot < myHand.getSize(); slot++) {
+                Card hand = myHandCards.get(slot);
+                myHand.bindCard(slot, hand);
+                fromDeck[slot] = deck.remove(hand);
+            }
+            deck.shuffle(policy.random);
+
+            // states which can't undo get a throwaway copy of the determinisation instead
+            GameState iterationState = undoable ? currentState : currentState.getCopy();
+            int sizeBefore = arena.size();
+            int current = select(root, iterationState, iterationObject);
+            tracker.addNodes(arena.size() - sizeBefore);
+            arena.backup(current, rollout(iterationState, current, records));
+
+            iterationObject.undo(currentState);
+            for (int slot = 0; slot < myHand.getSize(); slot++) {
+                if (fromDeck[slot]) {
+                    deck.add(myHand.getCard(slot));
+                }
+                myHand.bindCard(slot, unbound[slot]);
+            }
+        }
+
+        logger.debug("searched {} iterations, {} nodes", tracker.getIterations(), arena.size());
+        return root;
+    }
+
+    private int select(int root, GameState state, IterationObject iterationObject) {
+        int current = root;
+        int treeDepth = policy.calculateTreeDepthLimit(state);
+        boolean expandedNode = false;
+
+        while (!state.isGameOver() && arena.getDepth(current) < treeDepth && !expandedNode) {
+            int next;
+            if (arena.fullyExpanded(current, state)) {
+                next = arena.getUCTChild(current, state, policy.random);
+            } else {
+                next = expand(current, state);
+                expandedNode = true;
+            }
+
+            if (next == NodeArena.NONE) {
+                return current;
+            }
+            current = next;
+            iterationObject.apply(arena.getAction(current), arena.getAgent(current), state);
+        }
+        return current;
+    }
+
+    private int expand(int parent, GameState state) {
+        int actionId = NodeArena.NONE;
+
+        Action predicted = policy.predictMove(state, arena.getNextAgent(parent));
+        if (predicted != null) {
+            actionId = arena.indexOf(predicted);
+        }
+        if (actionId == NodeArena.NONE) {
+            actionId = arena.selectUnexpanded(parent, state, policy.random);
+        }
+
+        return actionId == NodeArena.NONE ? NodeArena.NONE : arena.expand(parent, actionId);
+    }
+
+    private int rollout(GameState state, int current, UndoRecord[] records) {
+        int playerID = arena.getNextAgent(current);
+        int moves = 0;
+
+        // states which can't undo are a copy made for this iteration, so they can be played on
+        boolean undoable = state.supportsUndo();
+        while (!state.isGameOver() && moves < records.length) {
+            Action action = policy.selectActionForRollout(state, playerID);
+            if (action == null) {
+                break;
+            }
+            if (undoable) {
+                records[moves] = action.applyUndoable(playerID, state);
+            } else {
+                action.apply(playerID, state);
+            }
+            playerID = (playerID + 1) % state.getPlayerCount();
+            moves++;
+        }
+
+        int score = state.getScore();
+        for (int i = moves - 1; undoable && i >= 0; i--) {
+            state.undo(records[i]);
+            records[i] = null;
+        }
+        return score;
+    }
+
+    public NodeArena getArena() {
+        return arena;
+    }
+
+    @Override
+    public void receiveID(int agentID, String[] names) {
+        policy.receiveID(agentID, names);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Arena(%s)", policy);
+    }
+}
@@ -0,0 +1,254 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A search tree node which can be shared between several search threads.
+ *
+ * The actions a node can be expanded with are fixed when it is created, so each one is given a slot. Children are
+ * published into their slot with a compare-and-set, and the number of times each action was legal when the node was
+ * passed through is kept in an atomic array indexed the same way. No locks are taken.
+ *
+ * Statistics use virtual loss: a node's visit count is increased as soon as a thread descends into it, before the
+ * rollout has finished. Until the score is backed up the visit counts as a loss, which steers other threads towards
+ * different parts of the tree. Backing up only adds the score, so the virtual visit becomes a real one.
+ *
+ * Reads of score and visits are not taken together, so a thread may see a visit without its score. This only makes
+ * a node look slightly worse for the length of a rollout, which is the point of virtual loss anyway.
+ */
+public class ConcurrentMCTSNode {
+    private static final int MAX_SCORE = 25;
+    private static final double EPSILON = 1e-6;
+
+    private final double expConst;
+    private final Action moveToState;
+    private final int agentId;
+    private final ConcurrentMCTSNode parent;
+    private final int depth;
+
+    private final Action[] actions;
+    private final AtomicReferenceArray<ConcurrentMCTSNode> children;
+    private final AtomicIntegerArray legalChildVisits;
+
+    private final AtomicLong score;
+    private final AtomicLong visits;
+
+    public ConcurrentMCTSNode(int agentId, double expConst, Collection<Action> allActions) {
+        this(null, agentId, null, expConst, allActions);
+    }
+
+    private ConcurrentMCTSNode(ConcurrentMCTSNode parent, int agentId, Action moveToState, double expConst,
+                               Collection<Action> allActions) {
+        this.parent = parent;
+        this.agentId = agentId;
+        this.moveToState = moveToState;
+        this.expConst = expConst;
+        this.depth = (parent == null) ? 0 : parent.depth + 1;
+
+        this.actions = allActions.toArray(new Action[0]);
+        this.children = new AtomicReferenceArray<>(actions.length);
+        this.legalChildVisits = new AtomicIntegerArray(actions.length);
+
+        this.score = new AtomicLong();
+        this.visits = new AtomicLong();
+    }
+
+    /**
+     * Count a thread entering this node.
+     *
+     * This is the virtual loss, the matching score is added by {@link #backup(int)}.
+     *
+     * @return the number of visits including this one
+     */
+    public long addVirtualLoss() {
+        return visits.incrementAndGet();
+    }
+
+    /**
+     * Add the result of a rollout to this node and all of its parents.
+     *
+     * Every node on the path must already have been entered with {@link #addVirtualLoss()}.
+     *
+     * @param score the score at the end of the rollout
+     */
+    public void backup(int score) {
+        ConcurrentMCTSNode current = this;
+        while (current != null) {
+            current.score.addAndGet(score);
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Get the child created by a given action, creating it if no thread has done so yet.
+     *
+     * If two threads expand the same action at the same time, both get the node that was published first.
+     *
+     * @param action the action to expand
+     * @param state the state at this node
+     * @return the child, or null if the action cannot be made from this node
+     */
+    public ConcurrentMCTSNode expand(Action action, GameState state) {
+        int slot = indexOf(action);
+        if (slot == -1) {
+            return null;
+        }
+
+        ConcurrentMCTSNode existing = children.get(slot);
+        if (existing != null) {
+            return existing;
+        }
+
+        int playerCount = state.getPlayerCount();
+        int childAgent = getNextAgent(state);
+        Collection<Action> childActions = Utils.generateAllActions((childAgent + 1) % playerCount, playerCount);
+
+        ConcurrentMCTSNode created = new ConcurrentMCTSNode(this, childAgent, action, expConst, childActions);
+        if (children.compareAndSet(slot, null, created)) {
+            return created;
+        }
+        return children.get(slot);
+    }
+
+    public ConcurrentMCTSNode getUCTNode(GameState state) {
+        double bestScore = -Double.MAX_VALUE;
+        ConcurrentMCTSNode bestChild = null;
+
+        int nextPlayer = getNextAgent(state);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int slot = 0; slot < actions.length; slot++) {
+            if (!actions[slot].isLegal(nextPlayer, state)) {
+                continue;
+            }
+
+            // legal children and legal unexpanded actions both count towards the exploration term
+            int legalVisits = legalChildVisits.incrementAndGet(slot);
+            ConcurrentMCTSNode child = children.get(slot);
+            if (child == null) {
+                continue;
+            }
+
+            double childScore = child.getUCTValue(legalVisits) + (random.nextDouble() * EPSILON);
+            if (childScore > bestScore) {
+                bestScore = childScore;
+                bestChild = child;
+            }
+        }
+
+        return bestChild;
+    }
+
+    private double getUCTValue(int legalVisits) {
+        long n = visits.get();
+        if (n == 0) {
+            return Double.MAX_VALUE;
+        }
+        return ((score.get() / (double) MAX_SCORE) / n) + (expConst * Math.sqrt(Math.log(legalVisits) / n));
+    }
+
+    public boolean fullyExpanded(GameState state) {
+        int nextPlayer = getNextAgent(state);
+        for (int slot = 0; slot < actions.length; slot++) {
+            if (children.get(slot) == null && actions[slot].isLegal(nextPlayer, state)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<Action> getLegalMoves(GameState state) {
+        int nextPlayer = getNextAgent(state);
+        List<Action> legal = new ArrayList<>();
+        for (int slot = 0; slot < actions.length; slot++) {
+            if (children.get(slot) == null && actions[slot].isLegal(nextPlayer, state)) {
+                legal.add(actions[slot]);
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * The player who makes the moves leading out of this node.
+     *
+     * @param state the state being searched
+     * @return the ID of the player after this node's player
+     */
+    public int getNextAgent(GameState state) {
+        return (agentId + 1) % state.getPlayerCount();
+    }
+
+    public int getAgent() {
+        return agentId;
+    }
+
+    public Action getAction() {
+        return moveToState;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getScore() {
+        return score.get();
+    }
+
+    public long getVisits() {
+        return visits.get();
+    }
+
+    public List<ConcurrentMCTSNode> getChildren() {
+        List<ConcurrentMCTSNode> expanded = new ArrayList<>();
+        for (int slot = 0; slot < actions.length; slot++) {
+            ConcurrentMCTSNode child = children.get(slot);
+            if (child != null) {
+                expanded.add(child);
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Copy this node and its children into a single threaded node.
+     *
+     * Only the statistics needed to pick a move are copied, the result has no grandchildren.
+     *
+     * @return a node with the same statistics and children as this one
+     */
+    public MCTSNode toMCTSNode() {
+        MCTSNode node = new MCTSNode(agentId, moveToState, expConst, Collections.emptyList());
+        node.addStatistics(score.get(), (int) visits.get());
+
+        for (ConcurrentMCTSNode child : getChildren()) {
+            MCTSNode copy = new MCTSNode(node, child.agentId, child.moveToState, expConst, Collections.emptyList());
+            copy.addStatistics(child.score.get(), (int) child.visits.get());
+            node.addChild(copy);
+        }
+        return node;
+    }
+
+    private int indexOf(Action action) {
+        for (int slot = 0; slot < actions.length; slot++) {
+            if (actions[slot].equals(action)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CNODE(%d: %s %d/%d)", depth, moveToState, score.get(), visits.get());
+    }
+}
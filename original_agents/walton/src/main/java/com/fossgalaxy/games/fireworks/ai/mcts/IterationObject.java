@@ -1,5 +1,12 @@
 package com.fossgalaxy.games.fireworks.ai.mcts;
 
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.UndoRecord;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 /**
  * Created by piers on 05/10/16.
  */
@@ -8,9 +15,42 @@ public class IterationObject {
     private int agentID;
     private int livesLostMyGo;
     private int pointsGainedMyGo;
+    private final Deque<UndoRecord> undoRecords;
 
     public IterationObject(int agentID) {
         this.agentID = agentID;
+        this.undoRecords = new ArrayDeque<>();
+    }
+
+    /**
+     * Apply an action to the iteration's state, remembering how to reverse it.
+     *
+     * If the state can't undo actions (see {@link GameState#supportsUndo()}) the action is just applied, so the
+     * search must give each iteration its own copy of the state.
+     *
+     * @param action the action to apply
+     * @param playerID the player performing the action
+     * @param state the state being searched
+     */
+    public void apply(Action action, int playerID, GameState state) {
+        if (state.supportsUndo()) {
+            undoRecords.push(action.applyUndoable(playerID, state));
+        } else {
+            action.apply(playerID, state);
+        }
+    }
+
+    /**
+     * Reverse every action applied during this iteration, most recent first.
+     *
+     * Actions applied to a state which can't undo were not recorded, and are left in place.
+     *
+     * @param state the state the actions were applied to
+     */
+    public void undo(GameState state) {
+        while (!undoRecords.isEmpty()) {
+            state.undo(undoRecords.pop());
+        }
     }
 
     public void incrementLivesLostMyGo() {
@@ -1,9 +1,5 @@
 package com.fossgalaxy.games.fireworks.ai.mcts;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -11,7 +7,8 @@ import java.util.Random;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.ai.iggi.ActionTable;
 import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
 import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
 import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
@@ -20,32 +17,39 @@ import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.Deck;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
+import com.fossgalaxy.games.fireworks.state.HistoryEntry;
+import com.fossgalaxy.games.fireworks.state.UndoRecord;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.utils.DebugUtils;
 
 /**
  * Created by WebPigeon on 09/08/2016.
  */
-public class MCTS implements Agent {
+public class MCTS implements TreeSearchAgent {
     public static final int DEFAULT_ITERATIONS = 50_000;
     public static final int DEFAULT_ROLLOUT_DEPTH = 18;
     public static final int DEFAULT_TREE_DEPTH_MUL = 1;
     public static final int NO_LIMIT = 100;
     protected static final boolean OLD_UCT_BEHAVIOUR = false;
 
-    protected final int roundLength;
+    protected final SearchBudget budget;
     protected final int rolloutDepth;
     protected final int treeDepthMul;
     protected final Random random;
     protected final Logger logger = LoggerFactory.getLogger(MCTS.class);
 
+    private final boolean reuseTree;
+    private MCTSNode lastRoot;
+    private HistoryEntry lastEntry;
+    private int lastHistorySize;
+
     private final boolean calcTree = false;
 
     /**
      * Create a default MCTS implementation.
      * <p>
-     * This creates an MCTS agent that has a default roll-out length of 50_000
-     * iterations, a depth of 18 and a tree multiplier of 1.
+     * This creates an MCTS agent that has a default budget of 50_000
+     * iterations, a roll-out depth of 18 and a tree multiplier of 1.
      */
     public MCTS() {
         this(DEFAULT_ITERATIONS, DEFAULT_ROLLOUT_DEPTH, DEFAULT_TREE_DEPTH_MUL);
@@ -55,12 +59,41 @@ public class MCTS implements Agent {
         this(roundLength, DEFAULT_ROLLOUT_DEPTH, DEFAULT_TREE_DEPTH_MUL);
     }
 
-    @AgentConstructor("mcts")
     public MCTS(int roundLength, int rolloutDepth, int treeDepthMul) {
-        this.roundLength = roundLength;
+        this(SearchBudget.iterations(roundLength), rolloutDepth, treeDepthMul);
+    }
+
+    /**
+     * Create an MCTS agent with a given search budget.
+     *
+     * As a plain number is read as an iteration count, older agent strings such as mcts[50000:18:1] still work.
+     *
+     * @param budget       the budget for each decision, see {@link SearchBudget#parse(String)}
+     * @param rolloutDepth the maximum number of moves in a roll-out
+     * @param treeDepthMul the tree depth limit, as a multiple of the number of players
+     */
+    @AgentConstructor("mcts")
+    public MCTS(SearchBudget budget, int rolloutDepth, int treeDepthMul) {
+        this(budget, rolloutDepth, treeDepthMul, true);
+    }
+
+    /**
+     * Create an MCTS agent, choosing if the search tree is kept between decisions.
+     *
+     * When the tree is kept, the next search starts from the node reached by the moves made since the last decision,
+     * if they were all explored. Otherwise it starts from an empty tree.
+     *
+     * @param budget       the budget for each decision, see {@link SearchBudget#parse(String)}
+     * @param rolloutDepth the maximum number of moves in a roll-out
+     * @param treeDepthMul the tree depth limit, as a multiple of the number of players
+     * @param reuseTree    true if the tree should be kept between decisions
+     */
+    public MCTS(SearchBudget budget, int rolloutDepth, int treeDepthMul, boolean reuseTree) {
+        this.budget = budget;
         this.rolloutDepth = rolloutDepth;
         this.treeDepthMul = treeDepthMul;
         this.random = new Random();
+        this.reuseTree = reuseTree;
     }
 
     @AgentBuilderStatic("mctsND")
@@ -68,11 +101,31 @@ public class MCTS implements Agent {
         return new MCTS(MCTS.DEFAULT_ITERATIONS, MCTS.NO_LIMIT, MCTS.NO_LIMIT);
     }
 
+    @AgentBuilderStatic("mctsNDBudget")
+    public static MCTS buildMCTSND(SearchBudget budget) {
+        return new MCTS(budget, MCTS.NO_LIMIT, MCTS.NO_LIMIT);
+    }
+
     @Override
     public Action doMove(int agentID, GameState state) {
-        long finishTime = System.currentTimeMillis() + 1000;
-        MCTSNode root = new MCTSNode((agentID + state.getPlayerCount() - 1) % state.getPlayerCount(), null,
-                Utils.generateAllActions(agentID, state.getPlayerCount()));
+        MCTSNode root = search(agentID, state);
+
+        Action chosenOne = root.getBestNode().getAction();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Move Chosen by {} was {}", agentID, chosenOne);
+            root.printChildren();
+        }
+        return chosenOne;
+    }
+
+    @Override
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        SearchBudget.Tracker tracker = budget.startAt(startNanos);
+        MCTSNode root = reuseTree ? findReusableRoot(agentID, state) : null;
+        if (root == null) {
+            root = new MCTSNode((agentID + state.getPlayerCount() - 1) % state.getPlayerCount(), null,
+                    Utils.generateAllActions(agentID, state.getPlayerCount()));
+        }
 
         Map<Integer, List<Card>> possibleCards = DeckUtils.bindCard(agentID, state.getHand(agentID),
                 state.getDeck().toList());
@@ -96,29 +149,51 @@ public class MCTS implements Agent {
             DebugUtils.printTable(logger, state);
         }
 
-        // for (int round = 0; round < roundLength; round++) {
-        while (System.currentTimeMillis() < finishTime) {
+        // a single working copy, every iteration is undone before the next one starts
+        GameState currentState = state.getCopy();
+        boolean undoable = currentState.supportsUndo();
+        Deck deck = currentState.getDeck();
+        Hand myHand = currentState.getHand(agentID);
+        Card[] unbound = new Card[myHand.getSize()];
+        boolean[] fromDeck = new boolean[myHand.getSize()];
+        for (int slot = 0; slot < myHand.getSize(); slot++) {
+            unbound[slot] = myHand.getCard(slot);
+        }
+
+        while (tracker.next()) {
             // find a leaf node
-            GameState currentState = state.getCopy();
             IterationObject iterationObject = new IterationObject(agentID);
 
             Map<Integer, Card> myHandCards = DeckUtils.bindCards(bindOrder, possibleCards);
 
-            Deck deck = currentState.getDeck();
-            Hand myHand = currentState.getHand(agentID);
             for (int slot = 0; slot < myHand.getSize(); slot++) {
                 Card hand = myHandCards.get(slot);
                 myHand.bindCard(slot, hand);
-                deck.remove(hand);
+                fromDeck[slot] = deck.remove(hand);
             }
-            deck.shuffle();
-
-            MCTSNode current = select(root, currentState, iterationObject);
-            int score = rollout(currentState, current);
+            deck.shuffle(random);
+
+            // states which can't undo get a throwaway copy of the determinisation instead
+            GameState iterationState = undoable ? currentState : currentState.getCopy();
+            MCTSNode current = select(root, iterationState, iterationObject);
+            if (current.getVisits() == 0) {
+                // nodes are only backed up once, so an unvisited node was created this iteration
+                tracker.addNodes(1);
+            }
+            int score = rollout(iterationState, current);
             current.backup(score);
             if (calcTree) {
                 System.err.println(root.printD3());
             }
+
+            // walk back up the tree and undo the determinisation
+            iterationObject.undo(currentState);
+            for (int slot = 0; slot < myHand.getSize(); slot++) {
+                if (fromDeck[slot]) {
+                    deck.add(myHand.getCard(slot));
+                }
+                myHand.bindCard(slot, unbound[slot]);
+            }
         }
 
         if (logger.isInfoEnabled()) {
@@ -140,12 +215,53 @@ public class MCTS implements Agent {
             }
         }
 
-        Action chosenOne = root.getBestNode().getAction();
-        if (logger.isTraceEnabled()) {
-            logger.trace("Move Chosen by {} was {}", agentID, chosenOne);
-            root.printChildren();
+        if (reuseTree) {
+            List<HistoryEntry> history = state.getActionHistory();
+            lastRoot = root;
+            lastHistorySize = history.size();
+            lastEntry = history.isEmpty() ? null : history.get(history.size() - 1);
         }
-        return chosenOne;
+
+        return root;
+    }
+
+    /**
+     * Find the node in the last search tree that matches the moves made since then.
+     *
+     * The moves are taken from the state's history, which must carry on from the history seen by the last search.
+     *
+     * @param agentID the player who is making the decision
+     * @param state the current state of the game
+     * @return the node to use as the new root, or null if the moves made were not in the tree
+     */
+    private MCTSNode findReusableRoot(int agentID, GameState state) {
+        MCTSNode node = lastRoot;
+        lastRoot = null;
+
+        List<HistoryEntry> history = state.getActionHistory();
+        if (node == null || history.size() <= lastHistorySize) {
+            return null;
+        }
+        if (lastHistorySize > 0 && history.get(lastHistorySize - 1) != lastEntry) {
+            // not the same game
+            return null;
+        }
+
+        for (HistoryEntry entry : history.subList(lastHistorySize, history.size())) {
+            node = node.getChild(entry.action);
+            if (node == null || node.getAgent() != entry.playerID) {
+                return null;
+            }
+        }
+
+        int playerCount = state.getPlayerCount();
+        if (node.getAgent() != (agentID + playerCount - 1) % playerCount) {
+            return null;
+        }
+
+        logger.debug("reusing subtree with {} visits", node.getVisits());
+        node.makeRoot(Utils.generateAllActions(agentID, playerCount));
+        return node;
     }
 
     protected MCTSNode select(MCTSNode root, GameState state, IterationObject iterationObject) {
@@ -176,7 +292,7 @@ public class MCTS implements Agent {
 
             Action action = current.getAction();
             if (action != null) {
-                action.apply(agent, state);
+                iterationObject.apply(action, agent, state);
             }
 
             if (iterationObject.isMyGo(agent)) {
@@ -204,20 +320,33 @@ public class MCTS implements Agent {
      * @return the next action to be added to the tree from this state.
      */
     protected Action selectActionForExpand(GameState state, MCTSNode node, int agentID) {
-        Collection<Action> legalActions = node.getLegalMoves(state, agentID);
-        if (legalActions.isEmpty()) {
+        ActionTable table = ActionTable.forPlayers(state.getPlayerCount());
+        long legalActions = node.getLegalMoveIds(state, agentID, table);
+        if (legalActions == 0) {
             return null;
         }
 
-        Iterator<Action> actionItr = legalActions.iterator();
+        return table.get(ActionTable.randomId(legalActions, random));
+    }
 
-        int selected = random.nextInt(legalActions.size());
-        Action curr = actionItr.next();
-        for (int i = 0; i < selected; i++) {
-            curr = actionItr.next();
-        }
+    /**
+     * Prepare for a new decision, before any iterations are run.
+     *
+     * @param agentID the player who is making the decision
+     */
+    protected void prepareSearch(int agentID) {
+        // nothing to reset by default
+    }
 
-        return curr;
+    /**
+     * The move a player is expected to make, if this search models them with a fixed policy.
+     *
+     * @param state   the game state to travel from
+     * @param agentID the player making the move
+     * @return the predicted move, or null if the player's moves should be searched over
+     */
+    protected Action predictMove(GameState state, int agentID) {
+        return null;
     }
 
     protected MCTSNode expand(MCTSNode parent, GameState state) {
@@ -238,28 +367,60 @@ public class MCTS implements Agent {
         return child;
     }
 
+    /**
+     * Select the next move for a rollout.
+     *
+     * @param state    the state of the rollout
+     * @param playerID the player who is moving
+     * @return the move to make, or null if the player has no legal moves (which ends the rollout)
+     */
     protected Action selectActionForRollout(GameState state, int playerID) {
-        Collection<Action> legalActions = Utils.generateActions(playerID, state);
-
-        List<Action> listAction = new ArrayList<>(legalActions);
-        Collections.shuffle(listAction);
-
-        return listAction.get(0);
+        ActionTable table = ActionTable.forPlayers(state.getPlayerCount());
+        long legalActions = table.getLegalMoves(playerID, state);
+        if (legalActions == 0) {
+            return null;
+        }
+        return table.get(ActionTable.randomId(legalActions, random));
     }
 
+    /**
+     * Play out the rest of the game from the current state.
+     *
+     * The moves made are undone before returning (or made on a copy, if the state can't undo them), so the state is
+     * left as it was found.
+     *
+     * @param state the state to roll out from
+     * @param current the node the rollout starts from
+     * @return the score at the end of the rollout
+     */
     protected int rollout(GameState state, MCTSNode current) {
         int playerID = (current.getAgent() + 1) % state.getPlayerCount();
         int moves = 0;
 
-        while (!state.isGameOver() && moves < rolloutDepth) {
-            Action action = selectActionForRollout(state, playerID);
-            action.apply(playerID, state);
-            playerID = (playerID + 1) % state.getPlayerCount();
+        boolean undoable = state.supportsUndo();
+        GameState playout = undoable ? state : state.getCopy();
+        UndoRecord[] records = new UndoRecord[rolloutDepth];
+        while (!playout.isGameOver() && moves < rolloutDepth) {
+            Action action = selectActionForRollout(playout, playerID);
+            if (action == null) {
+                break;
+            }
+            if (undoable) {
+                records[moves] = action.applyUndoable(playerID, playout);
+            } else {
+                action.apply(playerID, playout);
+            }
+            playerID = (playerID + 1) % playout.getPlayerCount();
             moves++;
         }
 
-        current.backupRollout(moves, state.getScore());
-        return state.getScore();
+        int score = playout.getScore();
+        for (int i = moves - 1; undoable && i >= 0; i--) {
+            playout.undo(records[i]);
+        }
+
+        current.backupRollout(moves, score);
+        return score;
     }
 
     @Override
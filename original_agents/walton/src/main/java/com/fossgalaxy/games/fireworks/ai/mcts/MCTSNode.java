@@ -1,5 +1,6 @@
 package com.fossgalaxy.games.fireworks.ai.mcts;
 
+import com.fossgalaxy.games.fireworks.ai.iggi.ActionTable;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.stats.BasicStats;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,11 +31,14 @@ public class MCTSNode {
     private final double expConst;
     private final Action moveToState;
     private final int agentId;
-    private final MCTSNode parent;
+    private MCTSNode parent;
     private final List<MCTSNode> children;
-    private final Collection<Action> allUnexpandedActions;
+    private Collection<Action> allUnexpandedActions;
+    // the unexpanded actions as action table ids, built the first time they are asked for
+    private ActionTable unexpandedTable;
+    private long unexpandedIds;
     private final Random random;
-    private final int depth;
+    private int depth;
     private final Logger logger = LoggerFactory.getLogger(MCTSNode.class);
 
     private double score;
@@ -87,6 +92,9 @@ public class MCTSNode {
 
     public void addChild(MCTSNode node) {
         allUnexpandedActions.remove(node.getAction());
+        if (unexpandedTable != null) {
+            unexpandedIds &= ~(1L << unexpandedTable.getId(node.getAction()));
+        }
         children.add(node);
     }
 
@@ -186,6 +194,70 @@ public class MCTSNode {
         return depth;
     }
 
+    public double getScore() {
+        return score;
+    }
+
+    public int getVisits() {
+        return visits;
+    }
+
+    /**
+     * Add the statistics from another tree's root to this node and its children.
+     *
+     * Children are matched by action, any that this node has not expanded are created. This is used to combine the
+     * trees built by a root parallel search.
+     *
+     * @param other the root of the other tree
+     */
+    public void mergeChildren(MCTSNode other) {
+        addStatistics(other.score, other.visits);
+
+        for (MCTSNode otherChild : other.children) {
+            MCTSNode child = getChild(otherChild.moveToState);
+            if (child == null) {
+                child = new MCTSNode(this, otherChild.agentId, otherChild.moveToState, expConst, Collections.emptyList());
+                addChild(child);
+            }
+            child.addStatistics(otherChild.score, otherChild.visits);
+        }
+    }
+
+    /**
+     * Add results gathered elsewhere to this node, without touching its parents.
+     *
+     * @param score the total score to add
+     * @param visits the number of visits to add
+     */
+    void addStatistics(double score, int visits) {
+        this.score += score;
+        this.visits += visits;
+    }
+
+    /**
+     * Detach this node from its parent so it can be used as the root of a new search.
+     *
+     * The statistics of this node and its subtree are kept. Depths are renumbered so this node is at depth 0, and
+     * the unexpanded actions are replaced with those given, minus any that already have a child.
+     *
+     * @param allActions every action the next player could make from this node
+     */
+    void makeRoot(Collection<Action> allActions) {
+        parent = null;
+        shiftDepth(depth);
+
+        allUnexpandedActions = new ArrayList<>(allActions);
+        allUnexpandedActions.removeAll(getAllActionsExpandedAlready());
+        unexpandedTable = null;
+    }
+
+    private void shiftDepth(int offset) {
+        depth -= offset;
+        for (MCTSNode child : children) {
+            child.shiftDepth(offset);
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("NODE(%d: %s %f)", getDepth(), moveToState, score);
@@ -234,6 +306,27 @@ public class MCTSNode {
         return allUnexpandedActions.stream().filter(action -> action.isLegal(nextId, state)).collect(Collectors.toList());
     }
 
+    /**
+     * The legal moves from this node which have not been expanded yet, as action table ids.
+     *
+     * The unexpanded moves are converted to ids on the first call, and kept up to date as children are added.
+     *
+     * @param state the state at this node
+     * @param nextId the player who is moving
+     * @param table the action table for the game
+     * @return a bitmask with the id of each legal unexpanded move set
+     */
+    public long getLegalMoveIds(GameState state, int nextId, ActionTable table) {
+        if (unexpandedTable != table) {
+            unexpandedIds = table.toMask(allUnexpandedActions);
+            unexpandedTable = table;
+        }
+        if (unexpandedIds == 0) {
+            return 0;
+        }
+        return table.getLegalMoves(nextId, state) & unexpandedIds;
+    }
+
     public Collection<Action> getAllActionsExpandedAlready() {
         ArrayList<Action> actions = new ArrayList<>();
         children.forEach(node -> actions.add(node.getAction()));
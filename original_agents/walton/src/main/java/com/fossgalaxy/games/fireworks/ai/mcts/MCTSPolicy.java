@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.ai.mcts;
 
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
 import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
 import com.fossgalaxy.games.fireworks.annotations.AgentConstructor;
 import com.fossgalaxy.games.fireworks.state.GameState;
@@ -21,12 +22,17 @@ public class MCTSPolicy extends MCTS {
         this.rolloutPolicy = rolloutPolicy;
     }
 
-    @AgentConstructor("mctsPolicy")
     public MCTSPolicy(int roundLength, int rolloutDepth, int treeDepthMul, Agent rollout) {
         super(roundLength, rolloutDepth, treeDepthMul);
         this.rolloutPolicy = rollout;
     }
 
+    @AgentConstructor("mctsPolicy")
+    public MCTSPolicy(SearchBudget budget, int rolloutDepth, int treeDepthMul, Agent rollout) {
+        super(budget, rolloutDepth, treeDepthMul);
+        this.rolloutPolicy = rollout;
+    }
+
     @AgentBuilderStatic("mctsPolicyND")
     public static MCTSPolicy buildPolicyND(Agent rolloutPolicy) {
         return new MCTSPolicy(MCTS.DEFAULT_ITERATIONS, MCTS.NO_LIMIT, MCTS.NO_LIMIT, rolloutPolicy);
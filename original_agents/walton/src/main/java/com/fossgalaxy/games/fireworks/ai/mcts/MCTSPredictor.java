@@ -4,6 +4,7 @@ import java.util.Arrays;
 
 import com.fossgalaxy.games.fireworks.App;
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
 import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
 import com.fossgalaxy.games.fireworks.annotations.AgentConstructor;
 import com.fossgalaxy.games.fireworks.annotations.Parameter;
@@ -43,16 +44,39 @@ public class MCTSPredictor extends MCTS {
         this.agents = agents;
     }
 
+    public MCTSPredictor(Agent[] agents, SearchBudget budget, int rolloutDepth, int treeDepthMul) {
+        super(budget, rolloutDepth, treeDepthMul);
+        this.agents = agents;
+    }
+
     @AgentBuilderStatic(App.PREDICTOR_MCTSND)
     @Parameter(id=0, func="parseAgents")
     public static MCTSPredictor buildPMCTSND(Agent[] agents) {
         return new MCTSPredictor(agents, MCTS.DEFAULT_ITERATIONS, MCTS.NO_LIMIT, MCTS.NO_LIMIT);
     }
 
+    //usage: pmctsBudget[500ms:iggi|iggi|null]
+    @AgentBuilderStatic(App.PREDICTOR_MCTS + "Budget")
+    @Parameter(id=1, func="parseAgents")
+    public static MCTSPredictor buildPMCTS(SearchBudget budget, Agent[] agents) {
+        return new MCTSPredictor(agents, budget, MCTS.DEFAULT_ROLLOUT_DEPTH, MCTS.DEFAULT_TREE_DEPTH_MUL);
+    }
+
+    @AgentBuilderStatic(App.PREDICTOR_MCTSND + "Budget")
+    @Parameter(id=1, func="parseAgents")
+    public static MCTSPredictor buildPMCTSND(SearchBudget budget, Agent[] agents) {
+        return new MCTSPredictor(agents, budget, MCTS.NO_LIMIT, MCTS.NO_LIMIT);
+    }
+
+    @Override
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        prepareSearch(agentID);
+        return super.search(agentID, state, startNanos);
+    }
+
     @Override
-    public Action doMove(int agentID, GameState state) {
+    protected void prepareSearch(int agentID) {
         agents[agentID] = null;
-        return super.doMove(agentID, state);
     }
 
     public static Agent[] parseAgents(String agentsStr) {
@@ -70,6 +94,10 @@ public class MCTSPredictor extends MCTS {
         return super.doMove(agentID, state);
     }
 
+    protected MCTSNode doSuperSearch(int agentID, GameState state, long startNanos) {
+        return super.search(agentID, state, startNanos);
+    }
+
     @Override
     protected MCTSNode select(MCTSNode root, GameState state, IterationObject iterationObject) {
         MCTSNode current = root;
@@ -108,7 +136,7 @@ public class MCTSPredictor extends MCTS {
             int agent = current.getAgent();
             Action action = current.getAction();
             if (action != null) {
-                action.apply(agent, state);
+                iterationObject.apply(action, agent, state);
             }
 
             if (iterationObject.isMyGo(agent)) {
@@ -129,9 +157,18 @@ public class MCTSPredictor extends MCTS {
      */
     @Override
     protected Action selectActionForExpand(GameState state, MCTSNode node, int agentID) {
-        if (agents[agentID] == null) {
+        Action predicted = predictMove(state, agentID);
+        if (predicted == null) {
             return super.selectActionForExpand(state, node, agentID);
         }
+        return predicted;
+    }
+
+    @Override
+    protected Action predictMove(GameState state, int agentID) {
+        if (agents[agentID] == null) {
+            return null;
+        }
         GameState fiddled = fiddleTheDeck(state, agentID);
 
         try {
@@ -139,7 +176,7 @@ public class MCTSPredictor extends MCTS {
         } catch (IllegalStateException ex) {
             logger.error("agent could not make a move.", ex);
             DebugUtils.printState(logger, state);
-            return super.selectActionForExpand(state, node, agentID);
+            return null;
         }
     }
 
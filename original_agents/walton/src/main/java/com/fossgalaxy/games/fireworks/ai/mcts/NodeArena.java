@@ -0,0 +1,325 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.ActionTable;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * A search tree stored as parallel arrays, indexed by node id.
+ *
+ * Each node is a row across the arrays: its parent, the player who moved into it, the id of that move in the
+ * action table, its depth, statistics and the first of its children. Children are chained through
+ * {@link #getNextSibling(int)}, and a bitmask records which actions have already been expanded. Nodes hold no
+ * objects, so building a tree of hundreds of thousands of nodes allocates nothing once the arrays are large enough.
+ *
+ * The arena is cleared between decisions and the arrays are kept, growing only when a search needs more nodes than
+ * any before it.
+ *
+ * Moves are stored as their id in the {@link ActionTable} for the current game size, so the legal moves at a node
+ * can be found with a single bitmask. A child's legal visit count (used in place of its parent's visits in the UCT
+ * formula) starts when the child is created.
+ */
+public final class NodeArena {
+    public static final int NONE = -1;
+
+    private static final int MAX_SCORE = 25;
+    private static final double EPSILON = 1e-6;
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final double expConst;
+
+    private ActionTable table;
+
+    private int size;
+    private int[] parent;
+    private int[] agent;
+    private int[] action;
+    private int[] depth;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] visits;
+    private int[] legalVisits;
+    private double[] score;
+    private long[] expanded;
+
+    public NodeArena() {
+        this(MCTSNode.DEFAULT_EXP_CONST, DEFAULT_CAPACITY);
+    }
+
+    public NodeArena(double expConst, int capacity) {
+        this.expConst = expConst;
+        allocate(Math.max(1, capacity));
+    }
+
+    private void allocate(int capacity) {
+        parent = new int[capacity];
+        agent = new int[capacity];
+        action = new int[capacity];
+        depth = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        visits = new int[capacity];
+        legalVisits = new int[capacity];
+        score = new double[capacity];
+        expanded = new long[capacity];
+    }
+
+    private void grow() {
+        int capacity = parent.length * 2;
+        parent = Arrays.copyOf(parent, capacity);
+        agent = Arrays.copyOf(agent, capacity);
+        action = Arrays.copyOf(action, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        visits = Arrays.copyOf(visits, capacity);
+        legalVisits = Arrays.copyOf(legalVisits, capacity);
+        score = Arrays.copyOf(score, capacity);
+        expanded = Arrays.copyOf(expanded, capacity);
+    }
+
+    /**
+     * Remove all nodes and create a new root.
+     *
+     * @param playerCount the number of players in the game being searched
+     * @param rootAgent the player who made the move leading to the root, the first move searched is the next player's
+     * @return the id of the root node
+     */
+    public int reset(int playerCount, int rootAgent) {
+        table = ActionTable.forPlayers(playerCount);
+        size = 0;
+        return newNode(NONE, rootAgent, NONE);
+    }
+
+    private int newNode(int parentId, int agentId, int actionId) {
+        if (size == parent.length) {
+            grow();
+        }
+
+        int node = size++;
+        parent[node] = parentId;
+        agent[node] = agentId;
+        action[node] = actionId;
+        depth[node] = parentId == NONE ? 0 : depth[parentId] + 1;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        visits[node] = 0;
+        legalVisits[node] = 0;
+        score[node] = 0;
+        expanded[node] = 0;
+        return node;
+    }
+
+    /**
+     * Add a child to a node, or find the existing child for that move.
+     *
+     * @param node the parent node
+     * @param actionId the id of the move in the action table
+     * @return the id of the child
+     */
+    public int expand(int node, int actionId) {
+        if ((expanded[node] & (1L << actionId)) != 0) {
+            return getChild(node, actionId);
+        }
+
+        int child = newNode(node, getNextAgent(node), actionId);
+        nextSibling[child] = firstChild[node];
+        firstChild[node] = child;
+        expanded[node] |= 1L << actionId;
+        return child;
+    }
+
+    /**
+     * Check if there are no legal moves from a node which have not been expanded.
+     *
+     * @param node the node to check
+     * @param state the state at that node
+     * @return true if every legal move has a child
+     */
+    public boolean fullyExpanded(int node, GameState state) {
+        return getUnexpandedMoves(node, state) == 0;
+    }
+
+    /**
+     * Pick a legal move from a node which has not been expanded yet.
+     *
+     * @param node the node to expand
+     * @param state the state at that node
+     * @param random the random number generator used to choose between moves
+     * @return the id of the chosen move, or {@link #NONE} if every legal move has been expanded
+     */
+    public int selectUnexpanded(int node, GameState state, Random random) {
+        long unexpanded = getUnexpandedMoves(node, state);
+        return unexpanded == 0 ? NONE : ActionTable.randomId(unexpanded, random);
+    }
+
+    private long getUnexpandedMoves(int node, GameState state) {
+        return table.getLegalMoves(getNextAgent(node), state) & ~expanded[node];
+    }
+
+    /**
+     * Choose the child with the highest UCT value among those legal in this state.
+     *
+     * @param node the node to choose from
+     * @param state the state at that node
+     * @param random used to break ties
+     * @return the child to descend into, or {@link #NONE} if no child is legal
+     */
+    public int getUCTChild(int node, GameState state, Random random) {
+        double bestScore = -Double.MAX_VALUE;
+        int bestChild = NONE;
+
+        long legal = table.getLegalMoves(getNextAgent(node), state);
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if ((legal & (1L << action[child])) == 0) {
+                continue;
+            }
+            legalVisits[child]++;
+
+            double childScore = getUCTValue(child) + (random.nextDouble() * EPSILON);
+            if (childScore > bestScore) {
+                bestScore = childScore;
+                bestChild = child;
+            }
+        }
+        return bestChild;
+    }
+
+    private double getUCTValue(int node) {
+        return ((score[node] / MAX_SCORE) / visits[node])
+                + (expConst * Math.sqrt(Math.log(legalVisits[node]) / visits[node]));
+    }
+
+    /**
+     * Add the result of a rollout to a node and all of its parents.
+     *
+     * @param node the node the rollout started from
+     * @param result the score the rollout reached
+     */
+    public void backup(int node, double result) {
+        for (int current = node; current != NONE; current = parent[current]) {
+            score[current] += result;
+            visits[current]++;
+        }
+    }
+
+    /**
+     * The child of a node with the best average score.
+     *
+     * @param node the node to choose from
+     * @param random used to break ties
+     * @return the best child, or {@link #NONE} if the node has no children
+     */
+    public int getBestChild(int node, Random random) {
+        double bestScore = -Double.MAX_VALUE;
+        int bestChild = NONE;
+
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            double childScore = score[child] / visits[child] + (random.nextDouble() * EPSILON);
+            if (childScore > bestScore) {
+                bestScore = childScore;
+                bestChild = child;
+            }
+        }
+        return bestChild;
+    }
+
+    /**
+     * Copy a node and its children into {@link MCTSNode}s.
+     *
+     * Only the top two levels are copied, which is all that is needed to choose and report a move.
+     *
+     * @param node the node to copy
+     * @return a copy of the node, with copies of its children
+     */
+    public MCTSNode toMCTSNode(int node) {
+        MCTSNode copy = new MCTSNode(agent[node], getAction(node), expConst, Collections.emptyList());
+        copy.addStatistics(score[node], visits[node]);
+
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            MCTSNode childCopy = new MCTSNode(copy, agent[child], getAction(child), expConst,
+                    Collections.emptyList());
+            childCopy.addStatistics(score[child], visits[child]);
+            copy.addChild(childCopy);
+        }
+        return copy;
+    }
+
+    /**
+     * Find the child of a node reached by a move.
+     *
+     * @param node the parent node
+     * @param actionId the id of the move in the action table
+     * @return the child, or {@link #NONE} if the move has not been expanded
+     */
+    public int getChild(int node, int actionId) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (action[child] == actionId) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * The id of a move in the action table.
+     *
+     * @param move the move to look up
+     * @return the id, or {@link #NONE} if the move is not in the table
+     */
+    public int indexOf(Action move) {
+        return table.getId(move);
+    }
+
+    public Action getAction(int node) {
+        return action[node] == NONE ? null : table.get(action[node]);
+    }
+
+    public ActionTable getActionTable() {
+        return table;
+    }
+
+    public int getNextAgent(int node) {
+        return (agent[node] + 1) % table.getPlayerCount();
+    }
+
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    public int getAgent(int node) {
+        return agent[node];
+    }
+
+    public int getDepth(int node) {
+        return depth[node];
+    }
+
+    public int getVisits(int node) {
+        return visits[node];
+    }
+
+    public double getScore(int node) {
+        return score[node];
+    }
+
+    public int getFirstChild(int node) {
+        return firstChild[node];
+    }
+
+    public int getNextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return parent.length;
+    }
+}
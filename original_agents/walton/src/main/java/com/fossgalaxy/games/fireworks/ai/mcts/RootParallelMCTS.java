@@ -0,0 +1,271 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.App;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.ai.mcts.expconst.MCTSExpConst;
+import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Root parallel MCTS.
+ *
+ * Each thread runs its own independent search (with its own determinisations and random number generator) on its own
+ * copy of the state. Once they have all finished, the visit counts and scores of the root's children are summed and
+ * the move with the best average score is chosen.
+ *
+ * The searches run on a pool of daemon threads shared by every parallel agent, with one thread per processor. Agents
+ * are created for every game and never closed, so giving each its own threads would leak them. Asking for more workers
+ * than there are processors still runs that many searches, they just take turns. The calling thread runs one of the
+ * searches itself, along with any the pool hasn't started, so parallel agents can safely be nested.
+ *
+ * A time limit covers the whole parallel search, timed from when {@link #search(int, GameState)} is called. Workers
+ * which have to wait for a thread get less time, rather than overrunning the decision. Iteration and node limits apply
+ * to each worker separately.
+ *
+ * Usage: mctsPar[threads], mctsParBudget[threads:budget], mctsExpConstPar[threads:expConst:rolloutDepth:treeDepthMul],
+ * pmctsPar[threads:agents] or pmctsParBudget[threads:budget:agents]
+ */
+public class RootParallelMCTS implements TreeSearchAgent {
+    private static final Logger logger = LoggerFactory.getLogger(RootParallelMCTS.class);
+
+    private final TreeSearchAgent[] workers;
+
+    /**
+     * Create a root parallel search using the given workers, each search is run as a separate task on the shared pool.
+     *
+     * Workers must not share any mutable state (including predictor agents), as they are run at the same time.
+     *
+     * @param workers the searches to run in parallel
+     */
+    public RootParallelMCTS(TreeSearchAgent[] workers) {
+        if (workers.length == 0) {
+            throw new IllegalArgumentException("at least one worker is required");
+        }
+        this.workers = Arrays.copyOf(workers, workers.length);
+    }
+
+    /**
+     * Create a root parallel search with a number of identical workers.
+     *
+     * @param threads the number of workers, and so searches run at once
+     * @param factory creates a new worker, called once per thread
+     */
+    public RootParallelMCTS(int threads, Supplier<? extends TreeSearchAgent> factory) {
+        this(buildWorkers(threads, factory));
+    }
+
+    private static TreeSearchAgent[] buildWorkers(int threads, Supplier<? extends TreeSearchAgent> factory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("thread count must be at least 1, got " + threads);
+        }
+
+        TreeSearchAgent[] workers = new TreeSearchAgent[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = factory.get();
+        }
+        return workers;
+    }
+
+    @AgentBuilderStatic(App.MCTS + "Par")
+    public static RootParallelMCTS buildMCTS(int threads) {
+        return new RootParallelMCTS(threads, MCTS::new);
+    }
+
+    /**
+     * Build a root parallel MCTS with a budget for each decision.
+     *
+     * @param threads the number of threads to use
+     * @param budget the budget for each worker, see {@link SearchBudget#parse(String)}
+     * @return the root parallel agent
+     */
+    @AgentBuilderStatic(App.MCTS + "ParBudget")
+    public static RootParallelMCTS buildMCTS(int threads, SearchBudget budget) {
+        return new RootParallelMCTS(threads,
+                () -> new MCTS(budget, MCTS.DEFAULT_ROLLOUT_DEPTH, MCTS.DEFAULT_TREE_DEPTH_MUL));
+    }
+
+    @AgentBuilderStatic(App.MCTS + "ParND")
+    public static RootParallelMCTS buildMCTSND(int threads) {
+        return new RootParallelMCTS(threads, () -> new MCTS(MCTS.DEFAULT_ITERATIONS, MCTS.NO_LIMIT, MCTS.NO_LIMIT));
+    }
+
+    @AgentBuilderStatic(App.MCTS + "ParNDBudget")
+    public static RootParallelMCTS buildMCTSND(int threads, SearchBudget budget) {
+        return new RootParallelMCTS(threads, () -> MCTS.buildMCTSND(budget));
+    }
+
+    @AgentBuilderStatic("mctsExpConstPar")
+    public static RootParallelMCTS buildMCTSExpConst(int threads, double expConst, int rolloutDepth, int treeDepthMul) {
+        return new RootParallelMCTS(threads, () -> new MCTSExpConst(expConst, rolloutDepth, treeDepthMul));
+    }
+
+    /**
+     * Build a root parallel predictor MCTS.
+     *
+     * The predictor agents are parsed once per thread, so each worker has its own copies.
+     *
+     * @param threads the number of threads to use
+     * @param agents the predictor agents, in the same format as pmcts
+     * @return the root parallel agent
+     */
+    @AgentBuilderStatic(App.PREDICTOR_MCTS + "Par")
+    public static RootParallelMCTS buildPredictorMCTS(int threads, String agents) {
+        return new RootParallelMCTS(threads, () -> new MCTSPredictor(MCTSPredictor.parseAgents(agents)));
+    }
+
+    /**
+     * Build a root parallel predictor MCTS with a budget for each decision.
+     *
+     * @param threads the number of threads to use
+     * @param budget the budget for each worker, see {@link SearchBudget#parse(String)}
+     * @param agents the predictor agents, in the same format as pmcts
+     * @return the root parallel agent
+     */
+    @AgentBuilderStatic(App.PREDICTOR_MCTS + "ParBudget")
+    public static RootParallelMCTS buildPredictorMCTS(int threads, SearchBudget budget, String agents) {
+        return new RootParallelMCTS(threads,
+                () -> MCTSPredictor.buildPMCTS(budget, MCTSPredictor.parseAgents(agents)));
+    }
+
+    @Override
+    public Action doMove(int agentID, GameState state) {
+        MCTSNode root = search(agentID, state);
+
+        Action chosenOne = root.getBestNode().getAction();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Move Chosen by {} was {}", agentID, chosenOne);
+            root.printChildren();
+        }
+        return chosenOne;
+    }
+
+    @Override
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        if (workers.length == 1) {
+            return workers[0].search(agentID, state, startNanos);
+        }
+
+        // each worker gets its own copy, nothing is shared between the threads; queued workers keep the same start
+        List<Callable<MCTSNode>> searches = new ArrayList<>(workers.length);
+        for (TreeSearchAgent worker : workers) {
+            GameState copy = state.getCopy();
+            searches.add(() -> worker.search(agentID, copy, startNanos));
+        }
+
+        // merge into a new node, the workers may keep their own trees for their next search
+        MCTSNode root = new MCTSNode(Collections.emptyList());
+        for (MCTSNode result : runAll(searches)) {
+            root.mergeChildren(result);
+        }
+
+        logger.debug("merged {} trees, {} root visits", workers.length, root.getVisits());
+        return root;
+    }
+
+    /**
+     * Run tasks on the shared pool and wait for all of them to finish.
+     *
+     * The first task is run on the calling thread, and any task the pool hasn't started by the time the caller is
+     * ready for it is run by the caller as well. This means a search running on a pool thread (such as a parallel
+     * agent used as a predictor, or a tree parallel worker) can run its own parallel search without every pool thread
+     * ending up waiting on work that no thread is free to run.
+     *
+     * @param tasks the tasks to run
+     * @param <T> the type of result
+     * @return the results, in the same order as the tasks
+     */
+    static <T> List<T> runAll(List<Callable<T>> tasks) {
+        List<FutureTask<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(new FutureTask<>(task));
+        }
+
+        ExecutorService pool = getWorkerPool();
+        for (int i = 1; i < futures.size(); i++) {
+            pool.execute(futures.get(i));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (FutureTask<T> future : futures) {
+                // does nothing if the pool has already started it
+                future.run();
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while searching", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("search thread failed", ex.getCause());
+        } finally {
+            // if one failed, don't start the rest
+            for (FutureTask<T> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get the pool parallel searches are run on, creating it the first time it's needed.
+     *
+     * The threads are daemons, so they don't stop the JVM exiting. Use {@link #runAll(List)} rather than submitting
+     * work and waiting for it, as waiting on a pool thread could leave all of the threads waiting.
+     *
+     * @return the shared thread pool
+     */
+    static ExecutorService getWorkerPool() {
+        return WorkerPool.INSTANCE;
+    }
+
+    /**
+     * Holds the shared pool, so it is only created when a parallel search is first run.
+     */
+    private static final class WorkerPool {
+        private static final ExecutorService INSTANCE =
+                newWorkerPool("mcts", Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a fixed size pool of daemon threads for running searches.
+     *
+     * @param prefix the prefix for the thread names
+     * @param threads the number of threads in the pool
+     * @return the new thread pool
+     */
+    private static ExecutorService newWorkerPool(String prefix, int threads) {
+        AtomicInteger threadID = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, String.format("%s-worker-%d", prefix, threadID.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void receiveID(int agentID, String[] names) {
+        for (TreeSearchAgent worker : workers) {
+            worker.receiveID(agentID, names);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RootParallel(%d x %s)", workers.length, workers[0]);
+    }
+}
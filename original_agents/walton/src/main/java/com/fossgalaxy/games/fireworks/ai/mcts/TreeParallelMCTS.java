@@ -0,0 +1,285 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.App;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
+import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.Deck;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.Hand;
+import com.fossgalaxy.games.fireworks.state.UndoRecord;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Tree parallel MCTS.
+ *
+ * All threads search the same tree of {@link ConcurrentMCTSNode}s, each with its own copy of the state, its own
+ * determinisations and its own random number generator. Virtual loss keeps the threads from all following the same
+ * path, and nodes are expanded without locking.
+ *
+ * The search settings (budget, rollout depth and tree depth) and the rollout/expansion policies come from the
+ * worker agents, one of which is used by each thread. The budget is shared, so an iteration budget is the total for
+ * all threads. Predictor workers must have their own predictor agents.
+ *
+ * Like {@link RootParallelMCTS}, the workers run on the pool of threads shared by every parallel agent.
+ *
+ * Usage: mctsTree[threads], mctsTreeND[threads], pmctsTree[threads:agents] or pmctsTreeND[threads:agents]
+ */
+public class TreeParallelMCTS implements TreeSearchAgent {
+    private static final Logger logger = LoggerFactory.getLogger(TreeParallelMCTS.class);
+
+    private final MCTS[] workers;
+
+    /**
+     * Create a tree parallel search, each worker is run as a separate task on the shared pool.
+     *
+     * The workers must be configured the same way, the first worker's settings are used for the search.
+     *
+     * @param workers the policies to use for each thread
+     */
+    public TreeParallelMCTS(MCTS[] workers) {
+        if (workers.length == 0) {
+            throw new IllegalArgumentException("at least one worker is required");
+        }
+        this.workers = Arrays.copyOf(workers, workers.length);
+    }
+
+    /**
+     * Create a tree parallel search with a number of identical workers.
+     *
+     * @param threads the number of threads to use
+     * @param factory creates a new worker, called once per thread
+     */
+    public TreeParallelMCTS(int threads, Supplier<? extends MCTS> factory) {
+        this(buildWorkers(threads, factory));
+    }
+
+    private static MCTS[] buildWorkers(int threads, Supplier<? extends MCTS> factory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("thread count must be at least 1, got " + threads);
+        }
+
+        MCTS[] workers = new MCTS[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = factory.get();
+        }
+        return workers;
+    }
+
+    @AgentBuilderStatic(App.MCTS + "Tree")
+    public static TreeParallelMCTS buildMCTS(int threads) {
+        return new TreeParallelMCTS(threads, MCTS::new);
+    }
+
+    @AgentBuilderStatic(App.MCTS + "TreeND")
+    public static TreeParallelMCTS buildMCTSND(int threads) {
+        return new TreeParallelMCTS(threads, MCTS::buildMCTSND);
+    }
+
+    /**
+     * Build a tree parallel predictor MCTS.
+     *
+     * The predictor agents are parsed once per thread, so each worker has its own copies.
+     *
+     * @param threads the number of threads to use
+     * @param agents the predictor agents, in the same format as pmcts
+     * @return the tree parallel agent
+     */
+    @AgentBuilderStatic(App.PREDICTOR_MCTS + "Tree")
+    public static TreeParallelMCTS buildPredictorMCTS(int threads, String agents) {
+        return new TreeParallelMCTS(threads, () -> new MCTSPredictor(MCTSPredictor.parseAgents(agents)));
+    }
+
+    @AgentBuilderStatic(App.PREDICTOR_MCTS + "TreeND")
+    public static TreeParallelMCTS buildPredictorMCTSND(int threads, String agents) {
+        return new TreeParallelMCTS(threads, () -> MCTSPredictor.buildPMCTSND(MCTSPredictor.parseAgents(agents)));
+    }
+
+    @Override
+    public Action doMove(int agentID, GameState state) {
+        MCTSNode root = search(agentID, state);
+
+        Action chosenOne = root.getBestNode().getAction();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Move Chosen by {} was {}", agentID, chosenOne);
+            root.printChildren();
+        }
+        return chosenOne;
+    }
+
+    @Override
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        return searchTree(agentID, state, startNanos).toMCTSNode();
+    }
+
+    /**
+     * Build the shared search tree for the current decision.
+     *
+     * @param agentID the player who is making the decision
+     * @param state the current state of the game from that player's perspective, this is not modified
+     * @param startNanos when the decision started, as given by {@link System#nanoTime()}
+     * @return the root of the shared tree
+     */
+    public ConcurrentMCTSNode searchTree(int agentID, GameState state, long startNanos) {
+        SearchBudget.Tracker tracker = workers[0].budget.startAt(startNanos);
+        int playerCount = state.getPlayerCount();
+        ConcurrentMCTSNode root = new ConcurrentMCTSNode((agentID + playerCount - 1) % playerCount,
+                MCTSNode.DEFAULT_EXP_CONST, Utils.generateAllActions(agentID, playerCount));
+
+        // the possible bindings are only read by the workers, so can be shared
+        Map<Integer, List<Card>> possibleCards = DeckUtils.bindCard(agentID, state.getHand(agentID),
+                state.getDeck().toList());
+        List<Integer> bindOrder = DeckUtils.bindOrder(possibleCards);
+
+        List<Callable<Integer>> searches = new ArrayList<>(workers.length);
+        for (MCTS worker : workers) {
+            worker.prepareSearch(agentID);
+            GameState copy = state.getCopy();
+            searches.add(() -> runWorker(worker, agentID, copy, root, possibleCards, bindOrder, tracker));
+        }
+
+        int total = 0;
+        for (int iterations : RootParallelMCTS.runAll(searches)) {
+            total += iterations;
+        }
+        logger.debug("{} threads ran {} iterations, {} root visits", workers.length, total, root.getVisits());
+
+        return root;
+    }
+
+    private static int runWorker(MCTS worker, int agentID, GameState state, ConcurrentMCTSNode root,
+                                 Map<Integer, List<Card>> possibleCards, List<Integer> bindOrder,
+                                 SearchBudget.Tracker tracker) {
+        Deck deck = state.getDeck();
+        Hand myHand = state.getHand(agentID);
+        Card[] unbound = new Card[myHand.getSize()];
+        boolean[] fromDeck = new boolean[myHand.getSize()];
+        for (int slot = 0; slot < myHand.getSize(); slot++) {
+            unbound[slot] = myHand.getCard(slot);
+        }
+
+        boolean undoable = state.supportsUndo();
+        int done = 0;
+        while (tracker.next()) {
+            IterationObject iterationObject = new IterationObject(agentID);
+
+            Map<Integer, Card> myHandCards = DeckUtils.bindCards(bindOrder, possibleCards);
+            for (int slot = 0; slot < myHand.getSize(); slot++) {
+                Card hand = myHandCards.get(slot);
+                myHand.bindCard(slot, hand);
+                fromDeck[slot] = deck.remove(hand);
+            }
+            deck.shuffle(worker.random);
+
+            // states which can't undo get a throwaway copy of the determinisation instead
+            GameState iterationState = undoable ? state : state.getCopy();
+            root.addVirtualLoss();
+            ConcurrentMCTSNode current = select(worker, root, iterationState, iterationObject, tracker);
+            current.backup(rollout(worker, iterationState, current));
+
+            iterationObject.undo(state);
+            for (int slot = 0; slot < myHand.getSize(); slot++) {
+                if (fromDeck[slot]) {
+                    deck.add(myHand.getCard(slot));
+                }
+                myHand.bindCard(slot, unbound[slot]);
+            }
+            done++;
+        }
+        return done;
+    }
+
+    private static ConcurrentMCTSNode select(MCTS worker, ConcurrentMCTSNode root, GameState state,
+                                             IterationObject iterationObject, SearchBudget.Tracker tracker) {
+        ConcurrentMCTSNode current = root;
+        int treeDepth = worker.calculateTreeDepthLimit(state);
+        boolean expandedNode = false;
+
+        while (!state.isGameOver() && current.getDepth() < treeDepth && !expandedNode) {
+            ConcurrentMCTSNode next;
+            if (current.fullyExpanded(state)) {
+                next = current.getUCTNode(state);
+            } else {
+                next = expand(worker, current, state);
+                expandedNode = true;
+            }
+
+            if (next == null) {
+                return current;
+            }
+            if (next.addVirtualLoss() == 1) {
+                // only the first thread into a node sees a single visit
+                tracker.addNodes(1);
+            }
+            current = next;
+            iterationObject.apply(current.getAction(), current.getAgent(), state);
+        }
+        return current;
+    }
+
+    private static ConcurrentMCTSNode expand(MCTS worker, ConcurrentMCTSNode parent, GameState state) {
+        int nextAgentID = parent.getNextAgent(state);
+
+        Action action = worker.predictMove(state, nextAgentID);
+        if (action == null) {
+            List<Action> legalActions = parent.getLegalMoves(state);
+            if (legalActions.isEmpty()) {
+                return null;
+            }
+            action = legalActions.get(worker.random.nextInt(legalActions.size()));
+        }
+
+        return parent.expand(action, state);
+    }
+
+    private static int rollout(MCTS worker, GameState state, ConcurrentMCTSNode current) {
+        int playerID = current.getNextAgent(state);
+        int moves = 0;
+
+        // states which can't undo are a copy made for this iteration, so they can be played on
+        boolean undoable = state.supportsUndo();
+        UndoRecord[] records = new UndoRecord[worker.rolloutDepth];
+        while (!state.isGameOver() && moves < worker.rolloutDepth) {
+            Action action = worker.selectActionForRollout(state, playerID);
+            if (action == null) {
+                break;
+            }
+            if (undoable) {
+                records[moves] = action.applyUndoable(playerID, state);
+            } else {
+                action.apply(playerID, state);
+            }
+            playerID = (playerID + 1) % state.getPlayerCount();
+            moves++;
+        }
+
+        int score = state.getScore();
+        for (int i = moves - 1; undoable && i >= 0; i--) {
+            state.undo(records[i]);
+        }
+        return score;
+    }
+
+    @Override
+    public void receiveID(int agentID, String[] names) {
+        for (MCTS worker : workers) {
+            worker.receiveID(agentID, names);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TreeParallel(%d x %s)", workers.length, workers[0]);
+    }
+}
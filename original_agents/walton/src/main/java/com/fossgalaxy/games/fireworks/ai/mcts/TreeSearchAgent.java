@@ -0,0 +1,40 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.state.GameState;
+
+/**
+ * An agent which decides on its move by building a search tree.
+ *
+ * Exposing the tree allows the results of several searches to be combined, see {@link RootParallelMCTS}.
+ */
+public interface TreeSearchAgent extends Agent {
+
+    /**
+     * Build a search tree for the current decision.
+     *
+     * The state passed in will not be modified.
+     *
+     * @param agentID the player who is making the decision
+     * @param state the current state of the game from that player's perspective
+     * @return the root of the search tree, its children are the moves available to the player
+     */
+    default MCTSNode search(int agentID, GameState state) {
+        return search(agentID, state, System.nanoTime());
+    }
+
+    /**
+     * Build a search tree for the current decision, counting any time limit from an earlier start.
+     *
+     * This lets a search run on behalf of another (such as a worker queued by {@link RootParallelMCTS}) stop when the
+     * whole decision's time is up, rather than a full budget after it got a thread. Implementations override this
+     * method rather than {@link #search(int, GameState)}, so both entry points run the same search.
+     *
+     * @param agentID the player who is making the decision
+     * @param state the current state of the game from that player's perspective
+     * @param startNanos when the decision started, as given by {@link System#nanoTime()}
+     * @return the root of the search tree, its children are the moves available to the player
+     */
+    MCTSNode search(int agentID, GameState state, long startNanos);
+
+}
@@ -1,9 +1,5 @@
 package com.fossgalaxy.games.fireworks.ai.mcts.expconst;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -11,10 +7,12 @@ import java.util.Random;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.ai.iggi.ActionTable;
 import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
 import com.fossgalaxy.games.fireworks.ai.mcts.IterationObject;
 import com.fossgalaxy.games.fireworks.ai.mcts.MCTSNode;
+import com.fossgalaxy.games.fireworks.ai.mcts.TreeSearchAgent;
 import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
 import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
 import com.fossgalaxy.games.fireworks.annotations.AgentConstructor;
@@ -30,13 +28,19 @@ import com.fossgalaxy.games.fireworks.utils.DebugUtils;
  *
  * Created by WebPigeon on 09/08/2016.
  */
-public class MCTSExpConst implements Agent {
+public class MCTSExpConst implements TreeSearchAgent {
     public static final int NO_LIMIT = 100;
 
+    /**
+     * The budget used if none is given, one second per decision.
+     */
+    public static final SearchBudget DEFAULT_BUDGET = SearchBudget.millis(1000);
+
     protected final double expConst;
     protected final int rolloutDepth;
     protected final int treeDepthMul;
     protected final Random random;
+    protected final SearchBudget budget;
     protected final Logger logger = LoggerFactory.getLogger(MCTSExpConst.class);
 
     private final boolean calcTree = false;
@@ -47,10 +51,21 @@ public class MCTSExpConst implements Agent {
 
     @AgentConstructor("mctsExpConst")
     public MCTSExpConst(double expConst, int rolloutDepth, int treeDepthMul) {
+        this(expConst, rolloutDepth, treeDepthMul, DEFAULT_BUDGET);
+    }
+
+    public MCTSExpConst(double expConst, int rolloutDepth, int treeDepthMul, SearchBudget budget) {
         this.expConst = expConst;
         this.rolloutDepth = rolloutDepth;
         this.treeDepthMul = treeDepthMul;
         this.random = new Random();
+        this.budget = budget;
+    }
+
+    @AgentBuilderStatic("mctsExpConstBudget")
+    public static MCTSExpConst buildMCTSExpConst(double expConst, int rolloutDepth, int treeDepthMul,
+                                                 SearchBudget budget) {
+        return new MCTSExpConst(expConst, rolloutDepth, treeDepthMul, budget);
     }
 
     @AgentBuilderStatic("mctsExpConstND")
@@ -60,7 +75,31 @@ public class MCTSExpConst implements Agent {
 
     @Override
     public Action doMove(int agentID, GameState state) {
-        long finishTime = System.currentTimeMillis() + 1000;
+        MCTSNode root = search(agentID, state);
+
+        Action chosenOne = root.getBestNode().getAction();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Move Chosen by {} was {}", agentID, chosenOne);
+            root.printChildren();
+        }
+        return chosenOne;
+    }
+
+    /**
+     * Prepare for a new decision, before any iterations are run.
+     *
+     * Subclasses which replace {@link #search(int, GameState)} must call this first.
+     *
+     * @param agentID the player who is making the decision
+     */
+    protected void prepareSearch(int agentID) {
+        // nothing to reset by default
+    }
+
+    @Override
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        prepareSearch(agentID);
+        SearchBudget.Tracker tracker = budget.startAt(startNanos);
         MCTSNode root = new MCTSNode(
                 (agentID + state.getPlayerCount() - 1) % state.getPlayerCount(),
                 null,
@@ -91,8 +130,7 @@ public class MCTSExpConst implements Agent {
             DebugUtils.printTable(logger, state);
         }
 
-//        for (int round = 0; round < roundLength; round++) {
-        while(System.currentTimeMillis() < finishTime){
+        while (tracker.next()) {
             //find a leaf node
             GameState currentState = state.getCopy();
             IterationObject iterationObject = new IterationObject(agentID);
@@ -106,9 +144,12 @@ public class MCTSExpConst implements Agent {
                 myHand.bindCard(slot, hand);
                 deck.remove(hand);
             }
-            deck.shuffle();
+            deck.shuffle(random);
 
             MCTSNode current = select(root, currentState, iterationObject);
+            if (current.getVisits() == 0) {
+                tracker.addNodes(1);
+            }
             int score = rollout(currentState, agentID, current);
             current.backup(score);
             if(calcTree){
@@ -124,12 +165,7 @@ public class MCTSExpConst implements Agent {
             }
         }
 
-        Action chosenOne = root.getBestNode().getAction();
-        if (logger.isTraceEnabled()) {
-            logger.trace("Move Chosen by {} was {}", agentID, chosenOne);
-            root.printChildren();
-        }
-        return chosenOne;
+        return root;
     }
 
     protected MCTSNode select(MCTSNode root, GameState state, IterationObject iterationObject) {
@@ -186,20 +222,13 @@ public class MCTSExpConst implements Agent {
      * @return the next action to be added to the tree from this state.
      */
     protected Action selectActionForExpand(GameState state, MCTSNode node, int agentID) {
-        Collection<Action> legalActions = node.getLegalMoves(state, agentID);
-        if (legalActions.isEmpty()) {
+        ActionTable table = ActionTable.forPlayers(state.getPlayerCount());
+        long legalActions = node.getLegalMoveIds(state, agentID, table);
+        if (legalActions == 0) {
             return null;
         }
 
-        Iterator<Action> actionItr = legalActions.iterator();
-
-        int selected = random.nextInt(legalActions.size());
-        Action curr = actionItr.next();
-        for (int i = 0; i < selected; i++) {
-            curr = actionItr.next();
-        }
-
-        return curr;
+        return table.get(ActionTable.randomId(legalActions, random));
     }
 
     protected MCTSNode expand(MCTSNode parent, GameState state) {
@@ -219,13 +248,20 @@ public class MCTSExpConst implements Agent {
         return child;
     }
 
+    /**
+     * Select the next move for a rollout.
+     *
+     * @param state    the state of the rollout
+     * @param playerID the player who is moving
+     * @return the move to make, or null if the player has no legal moves (which ends the rollout)
+     */
     protected Action selectActionForRollout(GameState state, int playerID) {
-        Collection<Action> legalActions = Utils.generateActions(playerID, state);
-
-        List<Action> listAction = new ArrayList<>(legalActions);
-        Collections.shuffle(listAction);
-
-        return listAction.get(0);
+        ActionTable table = ActionTable.forPlayers(state.getPlayerCount());
+        long legalActions = table.getLegalMoves(playerID, state);
+        if (legalActions == 0) {
+            return null;
+        }
+        return table.get(ActionTable.randomId(legalActions, random));
     }
 
     protected int rollout(GameState state, final int agentID, MCTSNode current) {
@@ -235,6 +271,9 @@ public class MCTSExpConst implements Agent {
 
         while (!state.isGameOver() && moves < rolloutDepth) {
             Action action = selectActionForRollout(state, playerID);
+            if (action == null) {
+                break;
+            }
             action.apply(playerID, state);
             playerID = (playerID + 1) % state.getPlayerCount();
             moves++;
@@ -10,7 +10,6 @@ import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.Deck;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
-import com.fossgalaxy.games.fireworks.state.actions.Action;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,7 +69,8 @@ public class MCTSFixedDet extends MCTSExpConst {
     }
 
     @Override
-    public Action doMove(int agentID, GameState state) {
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        prepareSearch(agentID);
 
         MCTSNode root = new MCTSNode(
                 (agentID + state.getPlayerCount() - 1) % state.getPlayerCount(),
@@ -98,7 +98,7 @@ public class MCTSFixedDet extends MCTSExpConst {
                 myHand.bindCard(slot, hand);
                 deck.remove(hand);
             }
-            deck.shuffle();
+            deck.shuffle(random);
 
 
             for (int itr = 0; itr < iterationsPerWorld; itr++) {
@@ -114,7 +114,7 @@ public class MCTSFixedDet extends MCTSExpConst {
 
         }
 
-        return root.getBestNode().getAction();
+        return root;
     }
 
     @Override
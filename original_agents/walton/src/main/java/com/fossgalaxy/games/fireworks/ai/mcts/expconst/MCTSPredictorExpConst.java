@@ -5,6 +5,7 @@ import java.util.Objects;
 
 import com.fossgalaxy.games.fireworks.App;
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
 import com.fossgalaxy.games.fireworks.ai.mcts.IterationObject;
 import com.fossgalaxy.games.fireworks.ai.mcts.MCTSNode;
 import com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic;
@@ -29,10 +30,20 @@ public class MCTSPredictorExpConst extends MCTSExpConst {
     @AgentConstructor(App.PREDICTOR_MCTS+"ExpConst")
     @Parameter(id=3, func="parseThemAsClones")
     public MCTSPredictorExpConst(double expConst, int rolloutDepth, int treeDepthMul, Agent[] agents) {
-        super(expConst, rolloutDepth, treeDepthMul);
+        this(expConst, rolloutDepth, treeDepthMul, DEFAULT_BUDGET, agents);
+    }
+
+    public MCTSPredictorExpConst(double expConst, int rolloutDepth, int treeDepthMul, SearchBudget budget, Agent[] agents) {
+        super(expConst, rolloutDepth, treeDepthMul, budget);
         this.agents = Objects.requireNonNull(agents);
     }
 
+    @AgentBuilderStatic(App.PREDICTOR_MCTS+"ExpConstBudget")
+    @Parameter(id=4, func="parseThemAsClones")
+    public static MCTSExpConst buildMCTSExpConst(double expConst, int rolloutDepth, int treeDepthMul, SearchBudget budget, Agent[] agents) {
+        return new MCTSPredictorExpConst(expConst, rolloutDepth, treeDepthMul, budget, agents);
+    }
+
     @AgentBuilderStatic(App.PREDICTOR_MCTSND+"ExpConst")
     @Parameter(id=1, func="parseThemAsClones")
     public static MCTSExpConst buildMCTSND(double expConst, Agent[] agents) {
@@ -61,9 +72,8 @@ public class MCTSPredictorExpConst extends MCTSExpConst {
     }
 
     @Override
-    public Action doMove(int agentID, GameState state) {
+    protected void prepareSearch(int agentID) {
         agents[agentID] = null;
-        return super.doMove(agentID, state);
     }
 
     @Override
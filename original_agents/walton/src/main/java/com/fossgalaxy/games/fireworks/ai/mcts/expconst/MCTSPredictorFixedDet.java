@@ -20,7 +20,6 @@ import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.Deck;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
-import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.utils.AgentUtils;
 
 /**
@@ -101,7 +100,8 @@ public class MCTSPredictorFixedDet extends MCTSPredictorExpConst {
     }
 
     @Override
-    public Action doMove(int agentID, GameState state) {
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        prepareSearch(agentID);
 
         MCTSNode root = new MCTSNode(
                 (agentID + state.getPlayerCount() - 1) % state.getPlayerCount(),
@@ -129,7 +129,7 @@ public class MCTSPredictorFixedDet extends MCTSPredictorExpConst {
                 myHand.bindCard(slot, hand);
                 deck.remove(hand);
             }
-            deck.shuffle();
+            deck.shuffle(random);
 
 
             for (int itr = 0; itr < iterationsPerWorld; itr++) {
@@ -145,7 +145,7 @@ public class MCTSPredictorFixedDet extends MCTSPredictorExpConst {
 
         }
 
-        return root.getBestNode().getAction();
+        return root;
     }
 
     @Override
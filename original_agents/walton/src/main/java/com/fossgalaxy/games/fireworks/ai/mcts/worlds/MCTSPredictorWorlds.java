@@ -14,7 +14,6 @@ import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.Deck;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
-import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.utils.AgentUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,7 +98,8 @@ public class MCTSPredictorWorlds extends MCTSPredictorExpConst {
     }
 
     @Override
-    public Action doMove(int agentID, GameState state) {
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        prepareSearch(agentID);
 
         MCTSNode root = new MCTSNode(
                 (agentID + state.getPlayerCount() - 1) % state.getPlayerCount(),
@@ -124,7 +124,7 @@ public class MCTSPredictorWorlds extends MCTSPredictorExpConst {
                 myHand.bindCard(slot, hand);
                 deck.remove(hand);
             }
-            deck.shuffle();
+            deck.shuffle(random);
 
             worlds.add(determinize);
         }
@@ -148,7 +148,7 @@ public class MCTSPredictorWorlds extends MCTSPredictorExpConst {
             }
         }
 
-        return root.getBestNode().getAction();
+        return root;
     }
 
     @Override
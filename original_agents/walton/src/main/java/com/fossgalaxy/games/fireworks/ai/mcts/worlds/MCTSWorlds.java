@@ -11,7 +11,6 @@ import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.Deck;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
-import com.fossgalaxy.games.fireworks.state.actions.Action;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,7 +70,8 @@ public class MCTSWorlds extends MCTSExpConst {
     }
 
     @Override
-    public Action doMove(int agentID, GameState state) {
+    public MCTSNode search(int agentID, GameState state, long startNanos) {
+        prepareSearch(agentID);
 
         MCTSNode root = new MCTSNode(
                 (agentID + state.getPlayerCount() - 1) % state.getPlayerCount(),
@@ -95,7 +95,7 @@ public class MCTSWorlds extends MCTSExpConst {
                 myHand.bindCard(slot, hand);
                 deck.remove(hand);
             }
-            deck.shuffle();
+            deck.shuffle(random);
 
             worlds.add(determinize);
         }
@@ -119,7 +119,7 @@ public class MCTSWorlds extends MCTSExpConst {
         }
 
 
-        return root.getBestNode().getAction();
+        return root;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.ai.osawa;
 
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.annotations.AgentConstructor;
 import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.*;
@@ -11,10 +12,13 @@ import java.util.Random;
  * Make a random (possibly illegal) move.
  * <p>
  * Random biases as presented in 10167-45957-1-PB
+ * <p>
+ * Named OsawaRandomAgent, as RandomAgent is {@link com.fossgalaxy.games.fireworks.ai.RandomAgent}.
  */
 public class RandomAgent implements Agent {
     private Random random;
 
+    @AgentConstructor("OsawaRandomAgent")
     public RandomAgent() {
         this.random = new Random();
     }
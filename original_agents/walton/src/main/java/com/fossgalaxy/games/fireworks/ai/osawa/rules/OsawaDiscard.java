@@ -3,6 +3,7 @@ package com.fossgalaxy.games.fireworks.ai.osawa.rules;
 import com.fossgalaxy.games.fireworks.ai.rule.DiscardSafeCard;
 import com.fossgalaxy.games.fireworks.ai.rule.DiscardUselessCard;
 import com.fossgalaxy.games.fireworks.ai.rule.Rule;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
@@ -29,20 +30,16 @@ public class OsawaDiscard implements Rule {
 
     @Override
     public Action execute(int playerID, GameState state) {
-        if (discardSafe.canFire(playerID, state)) {
-            Action selected = discardSafe.execute(playerID, state);
-            if (selected != null) {
-                return selected;
-            }
-        }
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
 
-        if (discardUseless.canFire(playerID, state)) {
-            Action selected = discardUseless.execute(playerID, state);
-            if (selected != null) {
-                return selected;
-            }
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        Action selected = discardSafe.tryFire(playerID, state, context);
+        if (selected != null) {
+            return selected;
         }
 
-        return null;
+        return discardUseless.tryFire(playerID, state, context);
     }
 }
@@ -33,6 +33,24 @@ public abstract class AbstractDiscardRule implements Rule {
         return action != null;
     }
 
+    @Override
+    public Action tryFire(int playerID, GameState state) {
+        if (state.getInfomation() == state.getStartingInfomation()) {
+            return null;
+        }
+
+        return Rule.super.tryFire(playerID, state);
+    }
+
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        if (state.getInfomation() == state.getStartingInfomation()) {
+            return null;
+        }
+
+        return Rule.super.tryFire(playerID, state, context);
+    }
+
     /**
      * Optimised method for checking if the rule will fire.
      *
@@ -34,6 +34,24 @@ public abstract class AbstractTellRule extends AbstractRule {
         return super.canFire(playerID, state);
     }
 
+    @Override
+    public Action tryFire(int playerID, GameState state) {
+        if (state.getInfomation() == 0) {
+            return null;
+        }
+
+        return super.tryFire(playerID, state);
+    }
+
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        if (state.getInfomation() == 0) {
+            return null;
+        }
+
+        return super.tryFire(playerID, state, context);
+    }
+
     /**
      * Tell a missing piece of information, preferring to tell colour if not known over value.
      *
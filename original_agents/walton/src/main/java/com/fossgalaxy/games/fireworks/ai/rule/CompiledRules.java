@@ -0,0 +1,328 @@
+package com.fossgalaxy.games.fireworks.ai.rule;
+
+import com.fossgalaxy.games.fireworks.ai.rule.finesse.PlayFinesse;
+import com.fossgalaxy.games.fireworks.ai.rule.finesse.PlayFinesseTold;
+import com.fossgalaxy.games.fireworks.ai.rule.finesse.TellFinesse;
+import com.fossgalaxy.games.fireworks.ai.rule.profile.ProfiledRule;
+import com.fossgalaxy.games.fireworks.ai.rule.random.DiscardProbablyUselessCard;
+import com.fossgalaxy.games.fireworks.ai.rule.random.PlayProbablySafeCard;
+import com.fossgalaxy.games.fireworks.ai.rule.wrapper.ConcatRule;
+import com.fossgalaxy.games.fireworks.ai.rule.wrapper.IfRule;
+import com.fossgalaxy.games.fireworks.ai.rule.wrapper.RulePredicate;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An ordered list of rules compiled into a pipeline which picks the same action with less work.
+ *
+ * When a list is compiled:
+ * <ul>
+ *     <li>{@link ConcatRule}s are flattened and {@link IfRule} branches are compiled in place, so they are not
+ *     evaluated through the wrappers.</li>
+ *     <li>The checks made by the abstract rule classes (a tell needs an information token, a discard needs a missing
+ *     token, finesse needs more than two players) are worked out once per decision, and a separate pipeline is kept
+ *     for each combination with the rules that would refuse to fire left out.</li>
+ *     <li>A {@link PlayProbablySafeCard} or {@link DiscardProbablyUselessCard} is removed if an earlier one of the same
+ *     kind with a lower (or equal) threshold has already been tried, as it can never fire.</li>
+ * </ul>
+ *
+ * Rules are only guarded this way when their tryFire is one of the known implementations, anything else is called
+ * through {@link Rule#tryFire(int, GameState, RuleContext)} as before. A {@link ProfiledRule} is looked through, so
+ * profiling doesn't turn these off. The compiled rules hold on to the rule objects,
+ * so a list must be recompiled if it changes.
+ */
+public final class CompiledRules {
+    private static final int HAS_INFORMATION = 1;
+    private static final int CAN_DISCARD = 2;
+    private static final int HAS_PARTNERS = 4;
+    private static final int FLAG_COMBINATIONS = 8;
+
+    /**
+     * The guard each known tryFire makes before handing over to its superclass.
+     */
+    private static final Map<Class<?>, Integer> GUARDS = new HashMap<>();
+
+    static {
+        GUARDS.put(AbstractTellRule.class, HAS_INFORMATION);
+        GUARDS.put(AbstractDiscardRule.class, CAN_DISCARD);
+        GUARDS.put(PlayFinesse.class, HAS_PARTNERS);
+        GUARDS.put(PlayFinesseTold.class, HAS_PARTNERS);
+        GUARDS.put(TellFinesse.class, HAS_PARTNERS);
+    }
+
+    private final Rule[] source;
+    private final Step[][] pipelines;
+
+    private CompiledRules(Rule[] source, List<Step> steps) {
+        this.source = source;
+        this.pipelines = specialise(steps);
+    }
+
+    /**
+     * Compile a list of rules.
+     *
+     * @param rules the rules, in the order they should be tried
+     * @return a pipeline which selects the same action as trying the rules in order
+     */
+    public static CompiledRules compile(List<Rule> rules) {
+        List<Step> steps = new ArrayList<>();
+        Map<Class<?>, Double> tried = new HashMap<>();
+        for (Rule rule : rules) {
+            compile(rule, steps, tried);
+        }
+        return new CompiledRules(rules.toArray(new Rule[0]), steps);
+    }
+
+    private static void compile(Rule rule, List<Step> steps, Map<Class<?>, Double> tried) {
+        Class<?> type = rule.getClass();
+        if (type == ConcatRule.class) {
+            ConcatRule concat = (ConcatRule) rule;
+            compile(concat.getLeft(), steps, tried);
+            compile(concat.getRight(), steps, tried);
+            return;
+        }
+
+        if (type == IfRule.class) {
+            IfRule ifRule = (IfRule) rule;
+            List<Step> success = new ArrayList<>();
+            compile(ifRule.getSuccess(), success, new HashMap<>(tried));
+
+            List<Step> failure = new ArrayList<>();
+            if (ifRule.getFailure() != null) {
+                compile(ifRule.getFailure(), failure, new HashMap<>(tried));
+            }
+            steps.add(new IfStep(ifRule.getPredicate(), specialise(success), specialise(failure)));
+            return;
+        }
+
+        // profiled rules are compiled like the rule they wrap, but still run through the wrapper
+        Rule target = rule instanceof ProfiledRule ? ((ProfiledRule) rule).getRule() : rule;
+        double threshold = getThreshold(target);
+        if (!Double.isNaN(threshold)) {
+            Double lowest = tried.get(target.getClass());
+            if (lowest != null && lowest <= threshold) {
+                // an easier test of the same kind has already failed
+                return;
+            }
+            tried.put(target.getClass(), threshold);
+        }
+
+        steps.add(compileRule(rule, target));
+    }
+
+    private static double getThreshold(Rule rule) {
+        if (rule.getClass() == PlayProbablySafeCard.class) {
+            return ((PlayProbablySafeCard) rule).getThreshold();
+        }
+        if (rule.getClass() == DiscardProbablyUselessCard.class) {
+            return ((DiscardProbablyUselessCard) rule).getThreshold();
+        }
+        return Double.NaN;
+    }
+
+    private static Step compileRule(Rule rule, Rule target) {
+        int requires = 0;
+        Class<?> declarer = getTryFireDeclarer(target.getClass());
+        while (GUARDS.containsKey(declarer)) {
+            requires |= GUARDS.get(declarer);
+            Class<?> parent = declarer.getSuperclass();
+            declarer = (parent == null || !Rule.class.isAssignableFrom(parent)) ? Rule.class : getTryFireDeclarer(parent);
+        }
+
+        if (declarer != Rule.class) {
+            return new OpaqueStep(rule);
+        }
+        if (rule != target) {
+            return new ProfiledStep((ProfiledRule) rule, requires);
+        }
+        return new RuleStep(rule, requires, SinglePass.isSupported(rule.getClass()));
+    }
+
+    private static Class<?> getTryFireDeclarer(Class<?> type) {
+        try {
+            return type.getMethod("tryFire", int.class, GameState.class, RuleContext.class).getDeclaringClass();
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException("not a rule: " + type, ex);
+        }
+    }
+
+    private static Step[][] specialise(List<Step> steps) {
+        Step[][] pipelines = new Step[FLAG_COMBINATIONS][];
+        for (int flags = 0; flags < FLAG_COMBINATIONS; flags++) {
+            List<Step> pipeline = new ArrayList<>();
+            for (Step step : steps) {
+                if ((step.requires & ~flags) == 0) {
+                    pipeline.add(step);
+                }
+            }
+            pipelines[flags] = pipeline.toArray(new Step[0]);
+        }
+        return pipelines;
+    }
+
+    private static int getFlags(GameState state) {
+        int flags = 0;
+        if (state.getInfomation() != 0) {
+            flags |= HAS_INFORMATION;
+        }
+        if (state.getInfomation() != state.getStartingInfomation()) {
+            flags |= CAN_DISCARD;
+        }
+        if (state.getPlayerCount() != 2) {
+            flags |= HAS_PARTNERS;
+        }
+        return flags;
+    }
+
+    private static Action run(Step[] pipeline, int playerID, GameState state, RuleContext context, int flags) {
+        for (Step step : pipeline) {
+            Action selected = step.fire(playerID, state, context, flags);
+            if (selected != null) {
+                return selected;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Select an action.
+     *
+     * @param playerID the player making the decision
+     * @param state the current game state
+     * @return the action chosen by the first rule to fire, or null if none of them fire
+     */
+    public Action evaluate(int playerID, GameState state) {
+        return evaluate(playerID, state, new RuleContext(playerID, state));
+    }
+
+    /**
+     * Select an action, sharing an existing context.
+     *
+     * @param playerID the player making the decision
+     * @param state the current game state
+     * @param context the analysis of the state for this decision
+     * @return the action chosen by the first rule to fire, or null if none of them fire
+     */
+    public Action evaluate(int playerID, GameState state, RuleContext context) {
+        int flags = getFlags(state);
+        return run(pipelines[flags], playerID, state, context, flags);
+    }
+
+    /**
+     * Check if this was compiled from a list of rules.
+     *
+     * @param rules the rules to check
+     * @return true if the list holds the same rule objects, in the same order, as when this was compiled
+     */
+    public boolean isCompiledFrom(List<Rule> rules) {
+        if (rules.size() != source.length) {
+            return false;
+        }
+        for (int i = 0; i < source.length; i++) {
+            if (rules.get(i) != source[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The number of steps left for a state, after guards are taken into account (for testing).
+     *
+     * @param state the state to check
+     * @return the number of top level steps which would be tried
+     */
+    int getPipelineLength(GameState state) {
+        return pipelines[getFlags(state)].length;
+    }
+
+    private abstract static class Step {
+        final int requires;
+
+        Step(int requires) {
+            this.requires = requires;
+        }
+
+        abstract Action fire(int playerID, GameState state, RuleContext context, int flags);
+    }
+
+    /**
+     * A rule whose guards have already been checked, so only the body of {@link Rule#tryFire} is left.
+     */
+    private static final class RuleStep extends Step {
+        private final Rule rule;
+        private final boolean singlePass;
+
+        RuleStep(Rule rule, int requires, boolean singlePass) {
+            super(requires);
+            this.rule = rule;
+            this.singlePass = singlePass;
+        }
+
+        @Override
+        Action fire(int playerID, GameState state, RuleContext context, int flags) {
+            if (singlePass) {
+                return rule.execute(playerID, state, context);
+            }
+            return rule.canFire(playerID, state) ? rule.execute(playerID, state, context) : null;
+        }
+    }
+
+    /**
+     * A profiled rule whose guards have already been checked, the wrapper still records the evaluation.
+     */
+    private static final class ProfiledStep extends Step {
+        private final ProfiledRule rule;
+
+        ProfiledStep(ProfiledRule rule, int requires) {
+            super(requires);
+            this.rule = rule;
+        }
+
+        @Override
+        Action fire(int playerID, GameState state, RuleContext context, int flags) {
+            return rule.tryFireChecked(playerID, state, context);
+        }
+    }
+
+    /**
+     * A rule with its own tryFire, which is left to make its own checks.
+     */
+    private static final class OpaqueStep extends Step {
+        private final Rule rule;
+
+        OpaqueStep(Rule rule) {
+            super(0);
+            this.rule = rule;
+        }
+
+        @Override
+        Action fire(int playerID, GameState state, RuleContext context, int flags) {
+            return rule.tryFire(playerID, state, context);
+        }
+    }
+
+    private static final class IfStep extends Step {
+        private final RulePredicate predicate;
+        private final Step[][] success;
+        private final Step[][] failure;
+
+        IfStep(RulePredicate predicate, Step[][] success, Step[][] failure) {
+            super(0);
+            this.predicate = predicate;
+            this.success = success;
+            this.failure = failure;
+        }
+
+        @Override
+        Action fire(int playerID, GameState state, RuleContext context, int flags) {
+            Step[] branch = predicate.test(playerID, state) ? success[flags] : failure[flags];
+            return run(branch, playerID, state, context, flags);
+        }
+    }
+}
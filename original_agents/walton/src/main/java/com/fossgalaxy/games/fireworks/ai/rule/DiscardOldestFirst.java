@@ -2,7 +2,7 @@ package com.fossgalaxy.games.fireworks.ai.rule;
 
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
-import com.fossgalaxy.games.fireworks.state.TimedHand;
+import com.fossgalaxy.games.fireworks.state.OrderedHand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
 
@@ -15,13 +15,13 @@ public class DiscardOldestFirst extends AbstractDiscardRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
-        //we can't fire if you didn't use a timed hand
+        //we can't fire if you didn't use an ordered hand
         Hand hand = state.getHand(playerID);
-        if (!(hand instanceof TimedHand)) {
+        if (!(hand instanceof OrderedHand)) {
             return null;
         }
 
-        TimedHand timedHand = (TimedHand) state.getHand(playerID);
+        OrderedHand timedHand = (OrderedHand) state.getHand(playerID);
         int slotID = timedHand.getOldestSlot();
 
         return new DiscardCard(slotID);
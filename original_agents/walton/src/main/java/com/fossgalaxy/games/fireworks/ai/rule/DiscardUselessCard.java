@@ -1,7 +1,5 @@
 package com.fossgalaxy.games.fireworks.ai.rule;
 
-import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
-import com.fossgalaxy.games.fireworks.ai.rule.logic.HandUtils;
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.GameState;
@@ -10,7 +8,6 @@ import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * This rule is damage control - we can't get a perfect score because we have discarded a prerequisite card, now we
@@ -20,9 +17,13 @@ public class DiscardUselessCard extends AbstractDiscardRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
 
         Hand myHand = state.getHand(playerID);
-        Map<Integer, List<Card>> possibleCards = null;
         for (int slot = 0; slot < myHand.getSize(); slot++) {
             if ( !myHand.hasCard(slot) ) {
                 continue;
@@ -33,18 +34,15 @@ public class DiscardUselessCard extends AbstractDiscardRule {
                 continue;
             }
 
-            int highestPossible = HandUtils.getHighestScorePossible(state, c);
+            int highestPossible = context.getHighestScorePossible(c);
             Integer knownValue = myHand.getKnownValue(slot);
-            if (HandUtils.isSafeToDiscardHigherThanPossible(state, c, knownValue)) {
+            if (knownValue != null && highestPossible < knownValue) {
                 return new DiscardCard(slot);
             }
 
-            if (possibleCards == null) {
-                possibleCards = DeckUtils.bindBlindCard(playerID, myHand, state.getDeck().toList());
-            }
-
-            if (possibleCards.containsKey(slot) && !possibleCards.get(slot).isEmpty()) {
-                int minimum = possibleCards.get(slot).stream().mapToInt(x -> x.value).min().getAsInt();
+            List<Card> possibleCards = context.getPossibleCards(slot);
+            if (!possibleCards.isEmpty()) {
+                int minimum = possibleCards.stream().mapToInt(x -> x.value).min().getAsInt();
                 if (minimum > highestPossible) {
                     return new DiscardCard(slot);
                 }
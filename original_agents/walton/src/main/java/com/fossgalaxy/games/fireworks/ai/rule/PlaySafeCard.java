@@ -1,15 +1,10 @@
 package com.fossgalaxy.games.fireworks.ai.rule;
 
-import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 /**
  * Play a card if all possible cards that can be in that slot are "safe" to play.
  *
@@ -19,22 +14,20 @@ public class PlaySafeCard extends AbstractRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
-        //descretise my hand
-        Map<Integer, List<Card>> possibleCards = DeckUtils.bindBlindCard(playerID, state.getHand(playerID), state.getDeck().toList());
-
-        //figure out what cards are playable
-        List<Integer> playableSlots = possibleCards.entrySet().stream()
-                .filter(x -> !x.getValue().isEmpty())
-                .filter(x -> x.getValue().stream().allMatch(y -> isPlayable(y, state)))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
 
-        //if nothing is guaranteed to be playable, this rule doesn't fire
-        if (playableSlots.isEmpty()) {
-            return null;
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        //play the first slot where every possible card is playable
+        for (int slot : context.getPossibleCards().keySet()) {
+            if (context.getPlayableProbability(slot) == 1.0) {
+                return new PlayCard(slot);
+            }
         }
 
-        return new PlayCard(playableSlots.get(0));
+        //if nothing is guaranteed to be playable, this rule doesn't fire
+        return null;
     }
 
     public static boolean isPlayable(Card card, GameState state) {
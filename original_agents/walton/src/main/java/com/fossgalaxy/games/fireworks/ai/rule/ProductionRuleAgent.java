@@ -1,6 +1,8 @@
 package com.fossgalaxy.games.fireworks.ai.rule;
 
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.rule.profile.ProfiledRule;
+import com.fossgalaxy.games.fireworks.ai.rule.profile.RuleProfiler;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import org.slf4j.Logger;
@@ -17,14 +19,19 @@ public class ProductionRuleAgent implements Agent {
 
     protected List<Rule> rules;
     protected Agent defaultPolicy;
+    protected boolean singlePass;
+    protected boolean compiled;
+    private CompiledRules pipeline;
 
     public ProductionRuleAgent() {
         this.rules = new ArrayList<>();
         this.defaultPolicy = null;
+        this.singlePass = true;
+        this.compiled = true;
     }
 
     public void addRule(Rule rule) {
-        rules.add(rule);
+        rules.add(RuleProfiler.wrap(rule));
     }
 
     /**
@@ -42,14 +49,65 @@ public class ProductionRuleAgent implements Agent {
         this.defaultPolicy = policy;
     }
 
+    /**
+     * Choose how rules are evaluated.
+     *
+     * In single pass mode (the default) each rule is evaluated with {@link Rule#tryFire(int, GameState)}, so a rule
+     * which fires is only run once. Otherwise canFire is called for each rule followed by execute for the rule which
+     * fires, which was the original behaviour.
+     *
+     * @param singlePass true if rules should be evaluated with tryFire
+     */
+    public void setSinglePass(boolean singlePass) {
+        this.singlePass = singlePass;
+    }
+
+    /**
+     * Choose if single pass evaluation uses a compiled version of the rules.
+     *
+     * The compiled rules (see {@link CompiledRules}) select the same actions, but skip rules which are known not to
+     * fire. They are rebuilt whenever the rule list changes. This is on by default.
+     *
+     * @param compiled true if rules should be compiled before they are evaluated
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    private CompiledRules getPipeline() {
+        if (pipeline == null || !pipeline.isCompiledFrom(rules)) {
+            pipeline = CompiledRules.compile(rules);
+        }
+        return pipeline;
+    }
+
     @Override
     public Action doMove(int agentID, GameState state) {
+        if (singlePass && compiled) {
+            Action selected = getPipeline().evaluate(agentID, state);
+            return selected != null ? selected : doDefaultBehaviour(agentID, state);
+        }
+
+        if (singlePass) {
+            RuleContext context = new RuleContext(agentID, state);
+            for (Rule rule : rules) {
+                Action selected = rule.tryFire(agentID, state, context);
+                if (selected != null) {
+                    return selected;
+                }
+            }
+            return doDefaultBehaviour(agentID, state);
+        }
 
+        RuleContext context = new RuleContext(agentID, state);
         for (Rule rule : rules) {
             if (rule.canFire(agentID, state)) {
-                Action selected = rule.execute(agentID, state);
+                Action selected = rule.execute(agentID, state, context);
                 if (selected == null) {
                     logger.warn("rule "+rule+" reported it could fire, but then did not.");
+                    if (rule instanceof ProfiledRule) {
+                        ((ProfiledRule) rule).getStats().recordNullFire();
+                    }
                     continue;
                 }
 
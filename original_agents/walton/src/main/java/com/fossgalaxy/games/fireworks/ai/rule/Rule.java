@@ -36,6 +36,63 @@ public interface Rule {
 
     Action execute(int playerID, GameState state);
 
+    /**
+     * Execute this rule, using analysis shared with the other rules making the same decision.
+     *
+     * Rules which need the possible cards in the player's hand should override this to take them from the context,
+     * by default the context is ignored.
+     *
+     * @param playerID the playerID of the current agent
+     * @param state the current game state
+     * @param context the analysis of the state for this decision
+     * @return the selected action, or null if the rule does not fire
+     */
+    default Action execute(int playerID, GameState state, RuleContext context) {
+        return execute(playerID, state);
+    }
+
+    /**
+     * Evaluate this rule once, returning the action it selects if it fires.
+     *
+     * A context is only created if the rule could use one, callers evaluating several rules for the same decision
+     * should create one themselves and use {@link #tryFire(int, GameState, RuleContext)} instead. Rules which override
+     * that method with extra checks should override this one as well, or a context is created for every call.
+     *
+     * @param playerID the playerID of the current agent
+     * @param state the current game state
+     * @return the selected action, or null if the rule does not fire
+     * @see #tryFire(int, GameState, RuleContext)
+     */
+    default Action tryFire(int playerID, GameState state) {
+        if (SinglePass.readsContext(getClass())) {
+            return tryFire(playerID, state, new RuleContext(playerID, state));
+        }
+        if (SinglePass.isSupported(getClass())) {
+            return execute(playerID, state);
+        }
+        return canFire(playerID, state) ? execute(playerID, state) : null;
+    }
+
+    /**
+     * Evaluate this rule once, returning the action it selects if it fires.
+     *
+     * This gives the same result as calling {@link #canFire(int, GameState)} followed by
+     * {@link #execute(int, GameState)}, but when canFire is just a check that execute returns an action the rule is
+     * only run once. Rules which override canFire with extra checks should override this method as well, making the
+     * same checks before calling execute; until they do, both methods are called.
+     *
+     * @param playerID the playerID of the current agent
+     * @param state the current game state
+     * @param context the analysis of the state for this decision
+     * @return the selected action, or null if the rule does not fire
+     */
+    default Action tryFire(int playerID, GameState state, RuleContext context) {
+        if (SinglePass.isSupported(getClass())) {
+            return execute(playerID, state, context);
+        }
+        return canFire(playerID, state) ? execute(playerID, state, context) : null;
+    }
+
     default String fancyName(){
         return String.join(" ", (this.getClass().getSimpleName().split("(?=\\p{Upper})")));
     }
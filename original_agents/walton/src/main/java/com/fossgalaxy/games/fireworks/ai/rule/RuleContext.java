@@ -0,0 +1,236 @@
+package com.fossgalaxy.games.fireworks.ai.rule;
+
+import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HandUtils;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HintIndex;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.Hand;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analysis of the state shared by every rule making the same decision.
+ *
+ * Most rules start by working out what could be in each slot of the player's hand, which means scanning the deck once
+ * per slot. A context does this the first time a rule asks and keeps the answer, so an agent with many rules only
+ * pays for it once per move. Everything is computed lazily, so rules which don't need the analysis cost nothing.
+ * The probabilities are worked out from {@link GameState#getUnseenCount(int)}, so they don't need the card lists.
+ *
+ * The context is only valid for the state it was created with, it must not be kept once that state changes.
+ */
+public final class RuleContext {
+    private final int playerID;
+    private final GameState state;
+
+    private Map<Integer, List<Card>> possibleCards;
+    private double[] playable;
+    private double[] useless;
+    private int mostPlayable;
+    private int mostUseless;
+    private int[] highestPossible;
+    private HintIndex hints;
+
+    public RuleContext(int playerID, GameState state) {
+        this.playerID = playerID;
+        this.state = state;
+    }
+
+    public int getPlayerID() {
+        return playerID;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * The cards which could be in each slot of the player's hand, based on what the player has been told.
+     *
+     * @return the possible cards for each slot, as returned by {@link DeckUtils#bindBlindCard}
+     */
+    public Map<Integer, List<Card>> getPossibleCards() {
+        if (possibleCards == null) {
+            possibleCards = DeckUtils.bindBlindCard(playerID, state.getHand(playerID), state.getDeck().toList());
+        }
+        return possibleCards;
+    }
+
+    /**
+     * The cards which could be in a slot of the player's hand.
+     *
+     * @param slot the slot to check
+     * @return the possible cards, empty if the slot is not in the hand
+     */
+    public List<Card> getPossibleCards(int slot) {
+        List<Card> cards = getPossibleCards().get(slot);
+        return cards == null ? Collections.emptyList() : cards;
+    }
+
+    /**
+     * The probability that the card in a slot can be played right now.
+     *
+     * @param slot the slot to check
+     * @return the fraction of possible cards which are playable (NaN if there are none)
+     */
+    public double getPlayableProbability(int slot) {
+        if (playable == null) {
+            computeProbabilities();
+        }
+        return playable[slot];
+    }
+
+    /**
+     * The probability that the card in a slot can never be played.
+     *
+     * @param slot the slot to check
+     * @return the fraction of possible cards which are useless (NaN if there are none)
+     */
+    public double getUselessProbability(int slot) {
+        if (playable == null) {
+            computeProbabilities();
+        }
+        return useless[slot];
+    }
+
+    /**
+     * The slot most likely to be playable, if it is at least as likely as a threshold.
+     *
+     * This is the slot {@link com.fossgalaxy.games.fireworks.ai.rule.random.PlayProbablySafeCard} picks, where ties
+     * go to the later slot. The best slot is found once, so rules with different thresholds only compare against it.
+     *
+     * @param threshold the lowest probability to accept
+     * @return the slot, or -1 if no slot is likely enough
+     */
+    public int getMostPlayableSlot(double threshold) {
+        if (playable == null) {
+            computeProbabilities();
+        }
+        return selectSlot(playable, mostPlayable, threshold);
+    }
+
+    /**
+     * The slot most likely to be useless, if it is at least as likely as a threshold.
+     *
+     * @param threshold the lowest probability to accept
+     * @return the slot, or -1 if no slot is likely enough
+     * @see #getMostPlayableSlot(double)
+     */
+    public int getMostUselessSlot(double threshold) {
+        if (playable == null) {
+            computeProbabilities();
+        }
+        return selectSlot(useless, mostUseless, threshold);
+    }
+
+    private static int selectSlot(double[] probabilities, int best, double threshold) {
+        return best != -1 && probabilities[best] >= threshold ? best : -1;
+    }
+
+    private static int findBest(double[] probabilities) {
+        int best = -1;
+        for (int slot = 0; slot < probabilities.length; slot++) {
+            // NaN (no possible cards) never compares, so empty slots are skipped
+            if (best == -1 ? !Double.isNaN(probabilities[slot]) : probabilities[slot] >= probabilities[best]) {
+                best = slot;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Work out both probabilities for every slot from the unseen count of each card identity.
+     *
+     * This gives the same answer as counting the possible cards in the deck, without building the lists.
+     */
+    private void computeProbabilities() {
+        Hand hand = state.getHand(playerID);
+        playable = new double[hand.getSize()];
+        useless = new double[hand.getSize()];
+
+        boolean[] isPlayable = new boolean[Card.IDENTITIES];
+        boolean[] isUseless = new boolean[Card.IDENTITIES];
+        for (int code = 0; code < Card.IDENTITIES; code++) {
+            isPlayable[code] = isPlayable(Card.fromCode(code));
+            isUseless[code] = HandUtils.isSafeToDiscard(state, code);
+        }
+
+        for (int slot = 0; slot < hand.getSize(); slot++) {
+            int total = 0;
+            int playableCount = 0;
+            int uselessCount = 0;
+            for (int code = 0; code < Card.IDENTITIES; code++) {
+                int count = state.getUnseenCount(code);
+                if (count == 0 || !hand.isPossible(slot, Card.fromCode(code))) {
+                    continue;
+                }
+                total += count;
+                if (isPlayable[code]) {
+                    playableCount += count;
+                }
+                if (isUseless[code]) {
+                    uselessCount += count;
+                }
+            }
+            playable[slot] = (playableCount * 1.0) / total;
+            useless[slot] = (uselessCount * 1.0) / total;
+        }
+
+        mostPlayable = findBest(playable);
+        mostUseless = findBest(useless);
+    }
+
+    /**
+     * Check if a card could be played on the table right now.
+     *
+     * @param card the card to check
+     * @return true if the card is the next one needed for its colour
+     */
+    public boolean isPlayable(Card card) {
+        return state.getTableValue(card.colour) + 1 == card.value;
+    }
+
+    /**
+     * Check if a card can never be played.
+     *
+     * @param card the card to check
+     * @return true if the card is safe to discard, see {@link HandUtils#isSafeToDiscard(GameState, int)}
+     */
+    public boolean isUseless(Card card) {
+        return HandUtils.isSafeToDiscard(state, card.toCode());
+    }
+
+    /**
+     * The highest value which can still be played for a colour.
+     *
+     * @param colour the colour to check
+     * @return the result of {@link HandUtils#getHighestScorePossible(GameState, CardColour)}
+     */
+    public int getHighestScorePossible(CardColour colour) {
+        if (highestPossible == null) {
+            highestPossible = new int[CardColour.values().length];
+            Arrays.fill(highestPossible, -1);
+        }
+        int ordinal = colour.ordinal();
+        if (highestPossible[ordinal] == -1) {
+            highestPossible[ordinal] = HandUtils.getHighestScorePossible(state, colour);
+        }
+        return highestPossible[ordinal];
+    }
+
+    /**
+     * What each hint the player could give would point at.
+     *
+     * @return the hint index for the state, built the first time it is asked for
+     */
+    public HintIndex getHintIndex() {
+        if (hints == null) {
+            hints = new HintIndex(state);
+        }
+        return hints;
+    }
+}
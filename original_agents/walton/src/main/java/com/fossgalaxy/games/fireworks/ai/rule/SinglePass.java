@@ -0,0 +1,74 @@
+package com.fossgalaxy.games.fireworks.ai.rule;
+
+import com.fossgalaxy.games.fireworks.state.GameState;
+
+/**
+ * Decides if a rule can be evaluated by calling execute alone.
+ *
+ * That is safe if the rule's canFire is one of the defaults (which only check that execute returns an action), or if
+ * tryFire was overridden at or below the class which overrode canFire, so it makes the same checks. The answer is
+ * cached per class.
+ */
+public final class SinglePass {
+    private static final ClassValue<Boolean> SUPPORTED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                Class<?> canFire = type.getMethod("canFire", int.class, GameState.class).getDeclaringClass();
+                if (canFire == Rule.class || canFire == AbstractRule.class) {
+                    return true;
+                }
+
+                Class<?> tryFire = type.getMethod("tryFire", int.class, GameState.class, RuleContext.class).getDeclaringClass();
+                return canFire.isAssignableFrom(tryFire);
+            } catch (NoSuchMethodException ex) {
+                return false;
+            }
+        }
+    };
+
+    private static final ClassValue<Boolean> READS_CONTEXT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                Class<?> execute = type.getMethod("execute", int.class, GameState.class, RuleContext.class).getDeclaringClass();
+                if (execute != Rule.class) {
+                    return true;
+                }
+
+                Class<?> tryFire = type.getMethod("tryFire", int.class, GameState.class, RuleContext.class).getDeclaringClass();
+                Class<?> plainTryFire = type.getMethod("tryFire", int.class, GameState.class).getDeclaringClass();
+                return !tryFire.isAssignableFrom(plainTryFire);
+            } catch (NoSuchMethodException ex) {
+                return true;
+            }
+        }
+    };
+
+    private SinglePass() {
+
+    }
+
+    /**
+     * Decide if a rule can be evaluated by calling execute alone, without asking canFire first.
+     *
+     * @param ruleClass the class of the rule
+     * @return true if execute gives the same answer as canFire followed by execute
+     */
+    public static boolean isSupported(Class<?> ruleClass) {
+        return SUPPORTED.get(ruleClass);
+    }
+
+    /**
+     * Decide if a rule could make use of a {@link RuleContext}.
+     *
+     * A rule reads the context if it overrides the context version of execute, or if it overrides the context version
+     * of tryFire (like the wrapper rules, which pass it on) without overriding the plain version alongside it.
+     *
+     * @param ruleClass the class of the rule
+     * @return false if the rule gives the same answers without a context
+     */
+    static boolean readsContext(Class<?> ruleClass) {
+        return READS_CONTEXT.get(ruleClass);
+    }
+}
@@ -2,7 +2,7 @@ package com.fossgalaxy.games.fireworks.ai.rule;
 
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.GameState;
-import com.fossgalaxy.games.fireworks.state.TimedHand;
+import com.fossgalaxy.games.fireworks.state.OrderedHand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
 /**
@@ -24,7 +24,7 @@ public class TellAnyoneAboutOldestUsefulCard extends AbstractTellRule {
 
             int oldestAge = Integer.MAX_VALUE;
             Action bestAction = null;
-            TimedHand hand = (TimedHand)state.getHand(nextPlayer);
+            OrderedHand hand = (OrderedHand)state.getHand(nextPlayer);
 
             for (int slot = 0; slot < state.getHandSize(); slot++) {
 
@@ -1,6 +1,6 @@
 package com.fossgalaxy.games.fireworks.ai.rule;
 
-import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HintIndex;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
@@ -12,28 +12,24 @@ public class TellAnyoneAboutUsefulCard extends AbstractTellRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        HintIndex hints = context.getHintIndex();
 
         for (int i = 0; i < state.getPlayerCount(); i++) {
             int nextPlayer = (playerID + i) % state.getPlayerCount();
-            Hand hand = state.getHand(nextPlayer);
 
             //gard against trying to tell ourselves things
             if (nextPlayer == playerID) {
                 continue;
             }
 
-            for (int slot = 0; slot < state.getHandSize(); slot++) {
-
-                Card card = hand.getCard(slot);
-                if (card == null) {
-                    continue;
-                }
-
-                int currTable = state.getTableValue(card.colour);
-                if (card.value != currTable + 1) {
-                    continue;
-                }
-
+            Hand hand = state.getHand(nextPlayer);
+            for (int playable = hints.getPlayable(nextPlayer); playable != 0; playable &= playable - 1) {
+                int slot = Integer.numberOfTrailingZeros(playable);
                 Action tellAction = tellMissingPrioritiseValue(hand, nextPlayer, slot);
                 if (tellAction != null) {
                     return tellAction;
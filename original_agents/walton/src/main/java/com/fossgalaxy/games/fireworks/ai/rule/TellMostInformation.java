@@ -1,8 +1,8 @@
 package com.fossgalaxy.games.fireworks.ai.rule;
 
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HintIndex;
 import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.GameState;
-import com.fossgalaxy.games.fireworks.state.Hand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.TellColour;
 import com.fossgalaxy.games.fireworks.state.actions.TellValue;
@@ -29,26 +29,23 @@ public class TellMostInformation extends AbstractTellRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        HintIndex hints = context.getHintIndex();
+
         Action bestAction = null;
         int bestAffected = 0;
         for (int player = 0; player < state.getPlayerCount(); player++) {
             if (player == playerID) {
                 continue;
             }
-            // Get all possible hints for this player
-            Hand hand = state.getHand(player);
 
             for (int i = 1; i <= 5; i++) {
-                int totalAffected = 0;
-                for (int slot = 0; slot < state.getHandSize(); slot++) {
-                    if (hand.hasCard(slot)) {
-                        if (!newInformation || hand.getKnownValue(slot) == null) {
-                            if (hand.getCard(slot).value == i) {
-                                totalAffected++;
-                            }
-                        }
-                    }
-                }
+                int affected = newInformation ? hints.getNewInformation(player, i) : hints.getTouched(player, i);
+                int totalAffected = Integer.bitCount(affected);
                 if (totalAffected > bestAffected) {
                     bestAction = new TellValue(player, i);
                     bestAffected = totalAffected;
@@ -56,16 +53,8 @@ public class TellMostInformation extends AbstractTellRule {
             }
 
             for (CardColour colour : CardColour.values()) {
-                int totalAffected = 0;
-                for (int slot = 0; slot < state.getHandSize(); slot++) {
-                    if (hand.hasCard(slot)) {
-                        if (!newInformation || hand.getKnownColour(slot) == null) {
-                            if (hand.getCard(slot).colour == colour) {
-                                totalAffected++;
-                            }
-                        }
-                    }
-                }
+                int affected = newInformation ? hints.getNewInformation(player, colour) : hints.getTouched(player, colour);
+                int totalAffected = Integer.bitCount(affected);
                 if (totalAffected > bestAffected) {
                     bestAction = new TellColour(player, colour);
                     bestAffected = totalAffected;
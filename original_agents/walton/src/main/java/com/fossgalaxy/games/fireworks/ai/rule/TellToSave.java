@@ -1,13 +1,10 @@
 package com.fossgalaxy.games.fireworks.ai.rule;
 
-import com.fossgalaxy.games.fireworks.ai.rule.logic.HandUtils;
-import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HintIndex;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
-import java.util.Collection;
-
 /**
  * Tell a player about a card that is useful and unique even if it is not immediately playable.
  *
@@ -15,34 +12,25 @@ import java.util.Collection;
  * knowing what it is.
  */
 public class TellToSave extends AbstractTellRule {
-    static final int[] COPIES = {0, 3, 2, 2, 2, 1};
-
     @Override
     public Action execute(int playerID, GameState state) {
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
 
-        Collection<Card> discards = state.getDiscards();
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        HintIndex hints = context.getHintIndex();
 
         for (int i = 0; i < state.getPlayerCount(); i++) {
             int nextPlayerID = this.selectPlayer(playerID + i, state);
             if (nextPlayerID == playerID) continue;
             Hand hand = state.getHand(nextPlayerID);
-            // Find unique card in hand
-            for (int slot = 0; slot < hand.getSize(); slot++) {
-                Card card = hand.getCard(slot);
-                if (card == null) continue;
-
-//                System.out.println("Player: " + nextPlayerID + " Has Card: " + card);
-                if (HandUtils.isSafeToDiscard(state, card.colour, card.value)) {
-//                    System.out.println("Card is useless: " + card);
-                    continue;
-                }
-                long duplicatesDiscarded = discards.stream().filter((x) -> x.equals(card)).count();
-                if (duplicatesDiscarded == COPIES[card.value] - 1) {
-                    // Save it
-//                    System.out.println("Last of its kind: " + card);
-                    Action action = tellMissingPrioritiseValue(hand, nextPlayerID, slot);
-                    if(action != null) return action;
-                }
+            // Find the last of its kind in the hand
+            for (int critical = hints.getCritical(nextPlayerID); critical != 0; critical &= critical - 1) {
+                int slot = Integer.numberOfTrailingZeros(critical);
+                // Save it
+                Action action = tellMissingPrioritiseValue(hand, nextPlayerID, slot);
+                if(action != null) return action;
             }
         }
         return null;
@@ -1,10 +1,11 @@
 package com.fossgalaxy.games.fireworks.ai.rule.finesse;
 
 import com.fossgalaxy.games.fireworks.ai.rule.AbstractRule;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
-import com.fossgalaxy.games.fireworks.state.TimedHand;
+import com.fossgalaxy.games.fireworks.state.OrderedHand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
 import com.fossgalaxy.games.fireworks.state.events.CardInfo;
@@ -26,6 +27,18 @@ public class PlayFinesse extends AbstractRule {
         return super.canFire(playerID, state);
     }
 
+    @Override
+    public Action tryFire(int playerID, GameState state) {
+        if(state.getPlayerCount() == 2) return null;
+        return super.tryFire(playerID, state);
+    }
+
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        if(state.getPlayerCount() == 2) return null;
+        return super.tryFire(playerID, state, context);
+    }
+
     @Override
     public Action execute(int playerID, GameState state) {
         LinkedList<GameEvent> eventHistory = state.getHistory();
@@ -78,7 +91,7 @@ public class PlayFinesse extends AbstractRule {
      */
     public static int getNewestCard(GameState state, int playerID) {
         try {
-            TimedHand hand = (TimedHand) state.getHand(playerID);
+            OrderedHand hand = (OrderedHand) state.getHand(playerID);
             return hand.getNewestSlot();
         } catch (ClassCastException ex) {
             return -1;
@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.ai.rule.finesse;
 
 import com.fossgalaxy.games.fireworks.ai.rule.AbstractRule;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
@@ -26,6 +27,18 @@ public class PlayFinesseTold extends AbstractRule {
         return super.canFire(playerID, state);
     }
 
+    @Override
+    public Action tryFire(int playerID, GameState state) {
+        if(state.getPlayerCount() == 2) return null;
+        return super.tryFire(playerID, state);
+    }
+
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        if(state.getPlayerCount() == 2) return null;
+        return super.tryFire(playerID, state, context);
+    }
+
     @Override
     public Action execute(int playerID, GameState state) {
 
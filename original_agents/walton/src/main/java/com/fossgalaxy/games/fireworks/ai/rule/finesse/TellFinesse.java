@@ -2,18 +2,15 @@ package com.fossgalaxy.games.fireworks.ai.rule.finesse;
 
 import com.fossgalaxy.games.fireworks.ai.rule.AbstractTellRule;
 import com.fossgalaxy.games.fireworks.ai.rule.PlaySafeCard;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HintIndex;
 import com.fossgalaxy.games.fireworks.state.Card;
-import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.TellColour;
 import com.fossgalaxy.games.fireworks.state.actions.TellValue;
 
-import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Created by webpigeon on 11/05/17.
  */
@@ -25,8 +22,19 @@ public class TellFinesse extends AbstractTellRule {
         return super.canFire(playerID, state);
     }
 
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        if(state.getPlayerCount() == 2) return null;
+        return super.tryFire(playerID, state, context);
+    }
+
     @Override
     public Action execute(int playerID, GameState state) {
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
         // if this is a 2 player game, we can't do this move.
         if (state.getPlayerCount() == 2) {
             return null;
@@ -47,25 +55,20 @@ public class TellFinesse extends AbstractTellRule {
         //finnesse time
         int finessePlayer = selectPlayer(nextPlayer, state);
         Hand finesseHand = state.getHand(finessePlayer);
-        Map<CardColour, Integer> cardColours = new EnumMap<>(CardColour.class);
-        Map<Integer, Integer> cardValues = new HashMap<>();
+        HintIndex hints = context.getHintIndex();
 
         for (int slot=0; slot<finesseHand.getSize(); slot++) {
             Card finesseCard = finesseHand.getCard(slot);
-            int currColour = cardColours.getOrDefault(finesseCard.colour, 0);
-            cardColours.put(finesseCard.colour, currColour+1);
-
-            int currValue = cardValues.getOrDefault(finesseCard.value, 0);
-            cardValues.put(finesseCard.value, currValue+1);
-        }
-
+            if (finesseCard == null) {
+                continue;
+            }
 
-        for (int slot=0; slot<finesseHand.getSize(); slot++) {
-            Card finesseCard = finesseHand.getCard(slot);
             if (finesseCard.value.equals(newestCard.value+1) && finesseCard.colour.equals(newestCard.colour)) {
+                boolean uniqueColour = Integer.bitCount(hints.getTouched(finessePlayer, finesseCard.colour)) == 1;
+                boolean uniqueValue = Integer.bitCount(hints.getTouched(finessePlayer, finesseCard.value)) == 1;
 
                 //step 1 - prioritise unknown information
-                if (cardColours.get(finesseCard.colour) == 1 && cardValues.get(finesseCard.value) == 1) {
+                if (uniqueColour && uniqueValue) {
                     if (finesseHand.getKnownValue(slot) != null) {
                         return new TellColour(finessePlayer, finesseCard.colour);
                     }
@@ -76,12 +79,12 @@ public class TellFinesse extends AbstractTellRule {
                 }
 
                 //step 2 - if the value is unique go for that
-                if (cardValues.get(finesseCard.value) == 1) {
+                if (uniqueValue) {
                     return new TellValue(finessePlayer, finesseCard.value);
                 }
 
                 //step 3 - the the colour is unique (but not value) then go for that.
-                if (cardColours.get(finesseCard.colour) == 1) {
+                if (uniqueColour) {
                     return new TellColour(finessePlayer, finesseCard.colour);
                 }
 
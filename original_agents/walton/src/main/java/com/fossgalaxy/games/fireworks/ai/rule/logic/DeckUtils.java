@@ -4,7 +4,6 @@ import com.fossgalaxy.games.fireworks.state.*;
 
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 public class DeckUtils {
 
@@ -27,9 +26,15 @@ public class DeckUtils {
         Map<Integer, List<Card>> possible = new HashMap<>();
 
         for (int slot = 0; slot < hand.getSize(); slot++) {
-            final int slotF = slot;
-            List<Card> possibleCards = Collections.unmodifiableList(deck.stream().filter((Card c) -> hand.isCompletePossible(slotF, c)).collect(Collectors.toList()));
-            possible.put(slot, possibleCards);
+            int known = hand.getCardCode(slot);
+            List<Card> possibleCards = new ArrayList<>();
+            for (Card card : deck) {
+                int code = card.toCode();
+                if (known == Card.UNKNOWN ? hand.isPossible(slot, code) : known == code) {
+                    possibleCards.add(card);
+                }
+            }
+            possible.put(slot, Collections.unmodifiableList(possibleCards));
         }
 
         return possible;
@@ -51,9 +56,13 @@ public class DeckUtils {
         Map<Integer, List<Card>> possible = new HashMap<>();
 
         for (int slot = 0; slot < hand.getSize(); slot++) {
-            final int slotF = slot;
-            List<Card> possibleCards = Collections.unmodifiableList(deck.stream().filter((Card c) -> hand.isPossible(slotF, c)).collect(Collectors.toList()));
-            possible.put(slot, possibleCards);
+            List<Card> possibleCards = new ArrayList<>();
+            for (Card card : deck) {
+                if (hand.isPossible(slot, card.toCode())) {
+                    possibleCards.add(card);
+                }
+            }
+            possible.put(slot, Collections.unmodifiableList(possibleCards));
         }
 
         return possible;
@@ -65,7 +74,7 @@ public class DeckUtils {
 
     public static boolean isDiscardable(Card card, GameState state) {
         int tableValue = state.getTableValue(card.colour);
-        if (tableValue >= card.value) {
+        if (tableValue >= card.getValue()) {
             return true;
         }
 
@@ -82,7 +91,8 @@ public class DeckUtils {
     }
 
     public static double getProbablity(List<Card> cards, Integer target) {
-        return getProbablity(cards, (Card c) -> target.equals(c.value));
+        int value = target;
+        return getProbablity(cards, (Card c) -> c.getValue() == value);
     }
 
     public static double getProbablity(List<Card> cards, Predicate<Card> rule) {
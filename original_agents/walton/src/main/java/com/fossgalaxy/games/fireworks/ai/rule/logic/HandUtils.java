@@ -6,15 +6,14 @@ import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.Hand;
 
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
 
 /**
  * Created by piers on 01/12/16.
  */
 public class HandUtils {
 
-    private final static int[] NUM_CARDS = {0, 3, 2, 2, 2, 1};
+    // copies of each value in the deck, indexed by value; shared with HintIndex
+    final static int[] NUM_CARDS = {0, 3, 2, 2, 2, 1};
 
     private HandUtils() {
 
@@ -30,9 +29,8 @@ public class HandUtils {
     public static int getHighestScorePossible(GameState state, CardColour colour) {
         int nextValue = state.getTableValue(colour) + 1;
 
-        Collection<Card> discards = state.getDiscards();
         for (int i = nextValue; i <= 5; i++) {
-            int occurrences = Collections.frequency(discards, new Card(i, colour));
+            int occurrences = state.getDiscardCount(Card.toCode(colour, i));
 
             //if all of this value have already been discarded, the previous value is the highest
             if (occurrences == NUM_CARDS[i]) {
@@ -69,9 +67,27 @@ public class HandUtils {
      * @return Whether it is discardable
      */
     public static boolean isSafeToDiscard(GameState state, int player, int slot) {
-        Hand hand = state.getHand(player);
-        Card card = hand.getCard(slot);
-        return card != null && isSafeToDiscard(state, card.colour, card.value);
+        int code = state.getHand(player).getCardCode(slot);
+        return code != Card.UNKNOWN && isSafeToDiscard(state, code);
+    }
+
+    /**
+     * Returns true if a card identity is safe to discard.
+     *
+     * This is the same test as {@link #isSafeToDiscard(GameState, CardColour, Integer)}, without any boxing.
+     *
+     * @param state The game state
+     * @param code The card code, see {@link Card#toCode()}
+     * @return Whether it is discardable
+     */
+    public static boolean isSafeToDiscard(GameState state, int code) {
+        CardColour colour = Card.colourOf(code);
+        int value = Card.valueOf(code);
+        int tableValue = state.getTableValue(colour);
+        return tableValue == 5
+                || tableValue >= value
+                || value <= getMinTableValue(state)
+                || getHighestScorePossible(state, colour) < value;
     }
 
     public static boolean isSafeToDiscard(GameState state, CardColour c, Integer value) {
@@ -105,7 +121,7 @@ public class HandUtils {
     public static int hasUnidentifiedCard(Hand hand, int value){
         for(int slot = 0; slot < hand.getSize(); slot++){
             if(hand.hasCard(slot)) {
-                if (hand.getKnownValue(slot) == null && hand.getCard(slot).value == value) {
+                if (hand.getKnownValueAsInt(slot) == Card.UNKNOWN && hand.getCard(slot).getValue() == value) {
                     return slot;
                 }
             }
@@ -133,9 +149,10 @@ public class HandUtils {
     }
 
     public static int getMinTableValue(GameState state) {
-        return Arrays.stream(CardColour.values())
-                .map(state::getTableValue)
-                .mapToInt(Integer::intValue)
-                .min().getAsInt();
+        int min = Integer.MAX_VALUE;
+        for (CardColour colour : CardColour.values()) {
+            min = Math.min(min, state.getTableValue(colour));
+        }
+        return min;
     }
 }
@@ -0,0 +1,172 @@
+package com.fossgalaxy.games.fireworks.ai.rule.logic;
+
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.Hand;
+
+/**
+ * What every possible hint would do in a state.
+ *
+ * Tell rules usually loop over each player, slot and colour or value to find out which cards a hint would point at.
+ * The index does this once: for every player and every colour and value it records, as bitmasks over slot numbers,
+ * the slots the hint would touch and the touched slots where the player doesn't already know that colour or value.
+ * It also keeps which slots hold a playable or a critical card (the last copy of a card that is still needed), so
+ * rules can ask if a hint touches one of those without looking at the cards again.
+ *
+ * Slot {@code n} is bit {@code 1 << n} in every mask. Cards we can't see (our own hand) are treated as missing.
+ * The index is only valid for the state it was built from.
+ */
+public final class HintIndex {
+    private static final int COLOURS = CardColour.values().length;
+    private static final int HINTS = COLOURS + 5;
+
+    private final int[] cards;
+    private final int[] playable;
+    private final int[] critical;
+    private final int[] touched;
+    private final int[] newInformation;
+
+    public HintIndex(GameState state) {
+        int players = state.getPlayerCount();
+        this.cards = new int[players];
+        this.playable = new int[players];
+        this.critical = new int[players];
+        this.touched = new int[players * HINTS];
+        this.newInformation = new int[players * HINTS];
+
+        int minTableValue = HandUtils.getMinTableValue(state);
+        int[] highestPossible = new int[COLOURS];
+        for (CardColour colour : CardColour.values()) {
+            highestPossible[colour.ordinal()] = HandUtils.getHighestScorePossible(state, colour);
+        }
+
+        for (int player = 0; player < players; player++) {
+            Hand hand = state.getHand(player);
+            for (int slot = 0; slot < hand.getSize(); slot++) {
+                Card card = hand.getCard(slot);
+                if (card == null) {
+                    continue;
+                }
+
+                int bit = 1 << slot;
+                cards[player] |= bit;
+
+                int tableValue = state.getTableValue(card.colour);
+                if (tableValue + 1 == card.value) {
+                    playable[player] |= bit;
+                }
+
+                // the same test as HandUtils.isSafeToDiscard, with the per-colour work done up front
+                boolean useless = tableValue >= card.value
+                        || card.value <= minTableValue
+                        || highestPossible[card.colour.ordinal()] < card.value;
+                if (!useless && state.getDiscardCount(card) == HandUtils.NUM_CARDS[card.value] - 1) {
+                    critical[player] |= bit;
+                }
+
+                int colourHint = player * HINTS + card.colour.ordinal();
+                touched[colourHint] |= bit;
+                if (hand.getKnownColourOrdinal(slot) == Card.UNKNOWN) {
+                    newInformation[colourHint] |= bit;
+                }
+
+                int valueHint = player * HINTS + COLOURS + card.value - 1;
+                touched[valueHint] |= bit;
+                if (hand.getKnownValueAsInt(slot) == Card.UNKNOWN) {
+                    newInformation[valueHint] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * The slots in a player's hand which hold a card we can see.
+     *
+     * @param player the player to check
+     * @return the slots as a bitmask
+     */
+    public int getCards(int player) {
+        return cards[player];
+    }
+
+    /**
+     * The slots in a player's hand which hold a card that could be played right now.
+     *
+     * @param player the player to check
+     * @return the slots as a bitmask
+     */
+    public int getPlayable(int player) {
+        return playable[player];
+    }
+
+    /**
+     * The slots in a player's hand which hold the last copy of a card that is still needed.
+     *
+     * @param player the player to check
+     * @return the slots as a bitmask
+     */
+    public int getCritical(int player) {
+        return critical[player];
+    }
+
+    /**
+     * The slots a colour hint would point at.
+     *
+     * @param player the player being told
+     * @param colour the colour being told
+     * @return the slots as a bitmask, 0 if the hint is not legal
+     */
+    public int getTouched(int player, CardColour colour) {
+        return touched[player * HINTS + colour.ordinal()];
+    }
+
+    /**
+     * The slots a value hint would point at.
+     *
+     * @param player the player being told
+     * @param value the value being told
+     * @return the slots as a bitmask, 0 if the hint is not legal
+     */
+    public int getTouched(int player, int value) {
+        return touched[player * HINTS + COLOURS + value - 1];
+    }
+
+    /**
+     * The slots a colour hint would point at where the player does not already know the colour.
+     *
+     * @param player the player being told
+     * @param colour the colour being told
+     * @return the slots as a bitmask
+     */
+    public int getNewInformation(int player, CardColour colour) {
+        return newInformation[player * HINTS + colour.ordinal()];
+    }
+
+    /**
+     * The slots a value hint would point at where the player does not already know the value.
+     *
+     * @param player the player being told
+     * @param value the value being told
+     * @return the slots as a bitmask
+     */
+    public int getNewInformation(int player, int value) {
+        return newInformation[player * HINTS + COLOURS + value - 1];
+    }
+
+    public boolean touchesPlayable(int player, CardColour colour) {
+        return (getTouched(player, colour) & playable[player]) != 0;
+    }
+
+    public boolean touchesPlayable(int player, int value) {
+        return (getTouched(player, value) & playable[player]) != 0;
+    }
+
+    public boolean touchesCritical(int player, CardColour colour) {
+        return (getTouched(player, colour) & critical[player]) != 0;
+    }
+
+    public boolean touchesCritical(int player, int value) {
+        return (getTouched(player, value) & critical[player]) != 0;
+    }
+}
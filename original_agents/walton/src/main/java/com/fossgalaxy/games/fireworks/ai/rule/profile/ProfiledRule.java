@@ -0,0 +1,118 @@
+package com.fossgalaxy.games.fireworks.ai.rule.profile;
+
+import com.fossgalaxy.games.fireworks.ai.rule.Rule;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
+import com.fossgalaxy.games.fireworks.ai.rule.SinglePass;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+
+/**
+ * A rule which records how it is used before handing over to the rule it wraps.
+ *
+ * Every call to tryFire or canFire counts as an evaluation. The time spent in the wrapped rule and the number of
+ * actions it returns are recorded as well. The wrapper makes the same decisions as the rule it wraps.
+ */
+public class ProfiledRule implements Rule {
+    private final Rule rule;
+    private final RuleStats stats;
+
+    public ProfiledRule(Rule rule, RuleStats stats) {
+        this.rule = rule;
+        this.stats = stats;
+    }
+
+    @Override
+    public boolean canFire(int playerID, GameState state) {
+        long start = System.nanoTime();
+        boolean canFire = rule.canFire(playerID, state);
+        stats.recordEvaluation(System.nanoTime() - start);
+        return canFire;
+    }
+
+    @Override
+    public boolean couldFire(int playerID, GameState state) {
+        return rule.couldFire(playerID, state);
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state) {
+        long start = System.nanoTime();
+        Action action = rule.execute(playerID, state);
+        return recordExecute(action, System.nanoTime() - start);
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        long start = System.nanoTime();
+        Action action = rule.execute(playerID, state, context);
+        return recordExecute(action, System.nanoTime() - start);
+    }
+
+    private Action recordExecute(Action action, long elapsed) {
+        stats.recordTime(elapsed);
+        if (action != null) {
+            stats.recordFire();
+        }
+        return action;
+    }
+
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        return profile(playerID, state, context, false);
+    }
+
+    /**
+     * Evaluate the wrapped rule, for a caller which has already made the checks in the rule's own tryFire.
+     *
+     * This is how {@link com.fossgalaxy.games.fireworks.ai.rule.CompiledRules} runs a profiled rule once its guards
+     * have been worked out for the decision.
+     *
+     * @param playerID the playerID of the current agent
+     * @param state the current game state
+     * @param context the analysis of the state for this decision
+     * @return the selected action, or null if the rule does not fire
+     */
+    public Action tryFireChecked(int playerID, GameState state, RuleContext context) {
+        return profile(playerID, state, context, true);
+    }
+
+    private Action profile(int playerID, GameState state, RuleContext context, boolean checked) {
+        long start = System.nanoTime();
+        Action action;
+        if (SinglePass.isSupported(rule.getClass())) {
+            action = checked ? rule.execute(playerID, state, context) : rule.tryFire(playerID, state, context);
+        } else if (rule.canFire(playerID, state)) {
+            // the same two steps as the rule's tryFire, split so a rule which backs out can be counted
+            action = rule.execute(playerID, state, context);
+            if (action == null) {
+                stats.recordNullFire();
+            }
+        } else {
+            action = null;
+        }
+
+        stats.recordEvaluation(System.nanoTime() - start);
+        if (action != null) {
+            stats.recordFire();
+        }
+        return action;
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    public RuleStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String fancyName() {
+        return rule.fancyName();
+    }
+
+    @Override
+    public String toString() {
+        return rule.toString();
+    }
+}
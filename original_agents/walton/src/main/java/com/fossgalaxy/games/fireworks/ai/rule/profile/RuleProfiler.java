@@ -0,0 +1,160 @@
+package com.fossgalaxy.games.fireworks.ai.rule.profile;
+
+import com.fossgalaxy.games.fireworks.ai.rule.Rule;
+import com.google.gson.GsonBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects per rule statistics for rule based agents.
+ *
+ * Profiling is off unless the FIREWORKS_RULE_PROFILE environment variable is set (or {@link #setEnabled(boolean)} is
+ * called). When it is on, rules added to a {@link com.fossgalaxy.games.fireworks.ai.rule.ProductionRuleAgent} are
+ * wrapped in a {@link ProfiledRule}. When it is off, rules are added as they are, so the only cost is a check when an
+ * agent is built.
+ *
+ * Statistics are kept per rule name (see {@link Rule#fancyName()}), so they add up across all the agents and games in
+ * a run. If the environment variable is set, its value is the file the statistics are written to when the JVM exits:
+ * JSON if the name ends in .json, otherwise CSV.
+ */
+public final class RuleProfiler {
+    public static final String PROFILE_ENV = "FIREWORKS_RULE_PROFILE";
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleProfiler.class);
+    private static final Map<String, RuleStats> STATS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    static {
+        String output = System.getenv(PROFILE_ENV);
+        if (output != null && !output.isEmpty()) {
+            enabled = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeFile(output)));
+        }
+    }
+
+    private RuleProfiler() {
+
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn profiling on or off.
+     *
+     * This only affects rules added to agents after the call.
+     *
+     * @param enabled true if rules should be profiled
+     */
+    public static void setEnabled(boolean enabled) {
+        RuleProfiler.enabled = enabled;
+    }
+
+    /**
+     * Wrap a rule so it is profiled, if profiling is on.
+     *
+     * @param rule the rule to wrap
+     * @return a profiled version of the rule, or the rule itself if profiling is off (or it is already profiled)
+     */
+    public static Rule wrap(Rule rule) {
+        if (!enabled || rule instanceof ProfiledRule) {
+            return rule;
+        }
+        return new ProfiledRule(rule, getStats(rule.fancyName()));
+    }
+
+    /**
+     * Get the statistics for a rule name, creating them if needed.
+     *
+     * @param name the name of the rule
+     * @return the statistics for all rules with that name
+     */
+    public static RuleStats getStats(String name) {
+        return STATS.computeIfAbsent(name, RuleStats::new);
+    }
+
+    /**
+     * The statistics collected so far.
+     *
+     * @return the statistics for each rule, most expensive first
+     */
+    public static List<RuleStats> getAllStats() {
+        List<RuleStats> all = new ArrayList<>(STATS.values());
+        all.sort(Comparator.comparingLong(RuleStats::getNanos).reversed().thenComparing(RuleStats::getName));
+        return all;
+    }
+
+    /**
+     * Forget all statistics collected so far.
+     */
+    public static void reset() {
+        STATS.clear();
+    }
+
+    /**
+     * Write the statistics as CSV, with a header row.
+     *
+     * @param writer where to write the statistics
+     */
+    public static void writeCsv(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        out.println("rule,evaluations,fires,nanos,nullFires");
+        for (RuleStats stats : getAllStats()) {
+            out.println(String.format("\"%s\",%d,%d,%d,%d", stats.getName().replace("\"", "\"\""),
+                    stats.getEvaluations(), stats.getFires(), stats.getNanos(), stats.getNullFires()));
+        }
+        out.flush();
+    }
+
+    /**
+     * Write the statistics as a JSON array, with one object per rule.
+     *
+     * @param writer where to write the statistics
+     */
+    public static void writeJson(Writer writer) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (RuleStats stats : getAllStats()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rule", stats.getName());
+            row.put("evaluations", stats.getEvaluations());
+            row.put("fires", stats.getFires());
+            row.put("nanos", stats.getNanos());
+            row.put("nullFires", stats.getNullFires());
+            rows.add(row);
+        }
+
+        PrintWriter out = new PrintWriter(writer);
+        out.println(new GsonBuilder().setPrettyPrinting().create().toJson(rows));
+        out.flush();
+    }
+
+    /**
+     * Write the statistics to a file, as JSON if the filename ends in .json and CSV otherwise.
+     *
+     * @param filename the file to write to
+     */
+    public static void writeFile(String filename) {
+        try (Writer writer = new FileWriter(filename)) {
+            if (filename.endsWith(".json")) {
+                writeJson(writer);
+            } else {
+                writeCsv(writer);
+            }
+        } catch (IOException ex) {
+            logger.error("unable to write rule profile to {}", filename, ex);
+        }
+    }
+}
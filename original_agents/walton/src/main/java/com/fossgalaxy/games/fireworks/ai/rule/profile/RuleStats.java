@@ -0,0 +1,81 @@
+package com.fossgalaxy.games.fireworks.ai.rule.profile;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for a single rule, shared by every agent using a rule with the same name.
+ *
+ * Counters can be updated from several threads at once.
+ */
+public final class RuleStats {
+    private final String name;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder fires = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder nullFires = new LongAdder();
+
+    RuleStats(String name) {
+        this.name = name;
+    }
+
+    void recordEvaluation(long elapsed) {
+        evaluations.increment();
+        nanos.add(elapsed);
+    }
+
+    void recordTime(long elapsed) {
+        nanos.add(elapsed);
+    }
+
+    void recordFire() {
+        fires.increment();
+    }
+
+    /**
+     * Record that the rule said it could fire, but then did not return an action.
+     */
+    public void recordNullFire() {
+        nullFires.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The number of times the rule was asked if it fires.
+     *
+     * @return the number of calls to tryFire or canFire
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * The number of times the rule returned an action.
+     *
+     * @return the number of actions returned
+     */
+    public long getFires() {
+        return fires.sum();
+    }
+
+    /**
+     * Total time spent in the rule.
+     *
+     * @return the time spent in tryFire, canFire and execute, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    public long getNullFires() {
+        return nullFires.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d evaluations, %d fires, %d ns, %d null fires", name, getEvaluations(),
+                getFires(), getNanos(), getNullFires());
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Optional instrumentation for measuring how often rules fire and how long they take.
+ */
+package com.fossgalaxy.games.fireworks.ai.rule.profile;
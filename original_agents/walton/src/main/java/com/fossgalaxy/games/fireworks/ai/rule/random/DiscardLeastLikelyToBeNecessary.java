@@ -1,8 +1,8 @@
 package com.fossgalaxy.games.fireworks.ai.rule.random;
 
 import com.fossgalaxy.games.fireworks.ai.rule.AbstractDiscardRule;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
-import com.fossgalaxy.games.fireworks.ai.rule.logic.HandUtils;
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
@@ -24,12 +24,17 @@ public class DiscardLeastLikelyToBeNecessary extends AbstractDiscardRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
-        Map<Integer, List<Card>> possibleCards = DeckUtils.bindBlindCard(playerID, state.getHand(playerID), state.getDeck().toList());
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        Map<Integer, List<Card>> possibleCards = context.getPossibleCards();
 
         double bestSoFar = 1.0;
         int bestSlot = -1;
         for (Map.Entry<Integer, List<Card>> entry : possibleCards.entrySet()) {
-            double probability = DeckUtils.getProbablity(entry.getValue(), x -> isNecessary(x, state));
+            double probability = DeckUtils.getProbablity(entry.getValue(), x -> isNecessary(x, state, context));
             if (probability <= bestSoFar) {
                 bestSlot = entry.getKey();
                 bestSoFar = probability;
@@ -43,9 +48,9 @@ public class DiscardLeastLikelyToBeNecessary extends AbstractDiscardRule {
     }
 
     // Is necessary if remaining copies of this card
-    private boolean isNecessary(Card card, GameState state) {
+    private boolean isNecessary(Card card, GameState state, RuleContext context) {
         // Can't be necessary if needed again.
-        if (HandUtils.isSafeToDiscard(state, card.colour, card.value)) {
+        if (context.isUseless(card)) {
             return false;
         }
 
@@ -54,9 +59,6 @@ public class DiscardLeastLikelyToBeNecessary extends AbstractDiscardRule {
 
         // Is it last one?
         // Is a card necessary if someone else has it?
-//        long count = state.getDeck().toList().stream().filter(x -> x.equals(card)).count();
-        long discardCount = state.getDiscards().stream().filter(x -> x.equals(card)).count();
-//        return count == 0;
-        return discardCount == cardCopies[card.value] - 1;
+        return state.getDiscardCount(card) == cardCopies[card.value] - 1;
     }
 }
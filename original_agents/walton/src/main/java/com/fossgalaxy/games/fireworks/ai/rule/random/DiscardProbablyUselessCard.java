@@ -1,16 +1,11 @@
 package com.fossgalaxy.games.fireworks.ai.rule.random;
 
 import com.fossgalaxy.games.fireworks.ai.rule.AbstractDiscardRule;
-import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
-import com.fossgalaxy.games.fireworks.ai.rule.logic.HandUtils;
-import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * Created by piers on 12/12/16.
  * <p>
@@ -37,23 +32,18 @@ public class DiscardProbablyUselessCard extends AbstractDiscardRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
-        Map<Integer, List<Card>> possibleCards = DeckUtils.bindBlindCard(playerID, state.getHand(playerID), state.getDeck().toList());
-
-        double bestSoFar = threshold;
-        int bestSlot = -1;
-        for (Map.Entry<Integer, List<Card>> entry : possibleCards.entrySet()) {
-            double probability = DeckUtils.getProbablity(entry.getValue(), x -> isUseless(x, state));
-            if(probability >= bestSoFar){
-                bestSlot = entry.getKey();
-                bestSoFar = probability;
-            }
-        }
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        int bestSlot = context.getMostUselessSlot(threshold);
         if(bestSlot == -1) return null;
         return new DiscardCard(bestSlot);
     }
 
-    private boolean isUseless(Card card, GameState state) {
-        return HandUtils.isSafeToDiscard(state, card.colour, card.value);
+    public double getThreshold() {
+        return threshold;
     }
 
     @Override
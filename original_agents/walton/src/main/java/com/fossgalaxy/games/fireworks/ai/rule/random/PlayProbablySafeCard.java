@@ -1,15 +1,12 @@
 package com.fossgalaxy.games.fireworks.ai.rule.random;
 
 import com.fossgalaxy.games.fireworks.ai.rule.AbstractRule;
-import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * Created by piers on 08/11/16.
  */
@@ -27,17 +24,12 @@ public class PlayProbablySafeCard extends AbstractRule {
 
     @Override
     public Action execute(int playerID, GameState state) {
-        Map<Integer, List<Card>> possibleCards = DeckUtils.bindBlindCard(playerID, state.getHand(playerID), state.getDeck().toList());
-
-        double bestSoFar = threshold;
-        int bestSlot = -1;
-        for (Map.Entry<Integer, List<Card>> entry : possibleCards.entrySet()) {
-            double probability = DeckUtils.getProbablity(entry.getValue(), x -> isPlayable(x, state));
-            if (probability >= bestSoFar) {
-                bestSlot = entry.getKey();
-                bestSoFar = probability;
-            }
-        }
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        int bestSlot = context.getMostPlayableSlot(threshold);
         if (bestSlot == -1) return null;
         return new PlayCard(bestSlot);
     }
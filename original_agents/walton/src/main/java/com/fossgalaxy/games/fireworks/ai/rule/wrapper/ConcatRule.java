@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.ai.rule.wrapper;
 
 import com.fossgalaxy.games.fireworks.ai.rule.Rule;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
@@ -22,12 +23,31 @@ public class ConcatRule implements Rule{
         return left.canFire(playerID, state) || right.canFire(playerID, state);
     }
 
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        Action leftAction = left.tryFire(playerID, state, context);
+        return (leftAction == null) ? right.tryFire(playerID, state, context) : leftAction;
+    }
+
     @Override
     public Action execute(int playerID, GameState state) {
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
         if(!left.couldFire(playerID, state)){
-            return right.execute(playerID, state);
+            return right.execute(playerID, state, context);
         }
-        Action leftAction = left.execute(playerID, state);
-        return (leftAction == null) ? right.execute(playerID, state) : leftAction;
+        Action leftAction = left.execute(playerID, state, context);
+        return (leftAction == null) ? right.execute(playerID, state, context) : leftAction;
+    }
+
+    public Rule getLeft() {
+        return left;
+    }
+
+    public Rule getRight() {
+        return right;
     }
 }
@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.ai.rule.wrapper;
 
 import com.fossgalaxy.games.fireworks.ai.rule.Rule;
+import com.fossgalaxy.games.fireworks.ai.rule.RuleContext;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 
@@ -11,39 +12,94 @@ import java.util.function.BiFunction;
  */
 public class IfRule implements Rule {
 
-    private final BiFunction<Integer, GameState, Boolean> predicate;
+    private final RulePredicate predicate;
     private final Rule success;
     private final Rule failure;
 
 
-    public IfRule(BiFunction<Integer, GameState, Boolean> predicate, Rule success) {
+    public IfRule(RulePredicate predicate, Rule success) {
         this(predicate, success, null);
     }
 
-    public IfRule(BiFunction<Integer, GameState, Boolean> predicate, Rule success, Rule failure) {
+    public IfRule(RulePredicate predicate, Rule success, Rule failure) {
         this.predicate = predicate;
         this.success = success;
         this.failure = failure;
     }
 
+    /**
+     * @deprecated use {@link #IfRule(RulePredicate, Rule)}, which doesn't box the player ID and result
+     */
+    @Deprecated
+    public IfRule(BiFunction<Integer, GameState, Boolean> predicate, Rule success) {
+        this(asPredicate(predicate), success, null);
+    }
+
+    /**
+     * @deprecated use {@link #IfRule(RulePredicate, Rule, Rule)}, which doesn't box the player ID and result
+     */
+    @Deprecated
+    public IfRule(BiFunction<Integer, GameState, Boolean> predicate, Rule success, Rule failure) {
+        this(asPredicate(predicate), success, failure);
+    }
+
+    private static RulePredicate asPredicate(BiFunction<Integer, GameState, Boolean> predicate) {
+        if (predicate instanceof RulePredicate) {
+            return (RulePredicate) predicate;
+        }
+        return (playerID, state) -> predicate.apply(playerID, state);
+    }
+
     @Override
     public boolean canFire(int playerID, GameState state) {
-        if (predicate.apply(playerID, state)) {
+        if (predicate.test(playerID, state)) {
             return success.canFire(playerID, state);
         } else {
             return failure != null && failure.canFire(playerID, state);
         }
     }
 
+    @Override
+    public Action tryFire(int playerID, GameState state, RuleContext context) {
+        if (predicate.test(playerID, state)) {
+            return success.tryFire(playerID, state, context);
+        } else if (failure != null) {
+            return failure.tryFire(playerID, state, context);
+        }
+        return null;
+    }
+
     @Override
     public Action execute(int playerID, GameState state) {
-        if (predicate.apply(playerID, state)) {
-            return success.execute(playerID, state);
+        return execute(playerID, state, new RuleContext(playerID, state));
+    }
+
+    @Override
+    public Action execute(int playerID, GameState state, RuleContext context) {
+        if (predicate.test(playerID, state)) {
+            return success.execute(playerID, state, context);
         } else {
             if (failure != null) {
-                return failure.execute(playerID, state);
+                return failure.execute(playerID, state, context);
             }
         }
         return null;
     }
+
+    public RulePredicate getPredicate() {
+        return predicate;
+    }
+
+    public Rule getSuccess() {
+        return success;
+    }
+
+    /**
+     * The rule to use when the predicate does not hold.
+     *
+     * @return the failure rule, or null if nothing happens when the predicate does not hold
+     */
+    public Rule getFailure() {
+        return failure;
+    }
 }
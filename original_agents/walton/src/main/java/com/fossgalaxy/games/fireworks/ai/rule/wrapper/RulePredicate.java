@@ -0,0 +1,29 @@
+package com.fossgalaxy.games.fireworks.ai.rule.wrapper;
+
+import com.fossgalaxy.games.fireworks.state.GameState;
+
+import java.util.function.BiFunction;
+
+/**
+ * A condition on the game state, used to decide which branch of an {@link IfRule} to take.
+ *
+ * This is also a BiFunction, so code written against the old BiFunction predicates still works. Being a subtype also
+ * means a lambda passed to the overloaded IfRule constructors picks this version rather than being ambiguous.
+ */
+@FunctionalInterface
+public interface RulePredicate extends BiFunction<Integer, GameState, Boolean> {
+
+    /**
+     * Check the condition.
+     *
+     * @param playerID the player making the decision
+     * @param state the current game state
+     * @return true if the condition holds
+     */
+    boolean test(int playerID, GameState state);
+
+    @Override
+    default Boolean apply(Integer playerID, GameState state) {
+        return test(playerID, state);
+    }
+}
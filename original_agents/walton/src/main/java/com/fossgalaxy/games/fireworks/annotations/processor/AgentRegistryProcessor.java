@@ -0,0 +1,396 @@
+package com.fossgalaxy.games.fireworks.annotations.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Builds the agent registry at compile time.
+ *
+ * This finds the same agents as the classpath scan in AgentFinder: public, concrete agent classes (using their
+ * annotated constructor, or their no-args constructor) and public static methods tagged with AgentBuilderStatic. It
+ * writes a GeneratedAgentRegistry class which registers a factory for each of them, calling the constructor or method
+ * directly, so nothing needs to be scanned or looked up reflectively when the first agent is built.
+ *
+ * If two agents share a name, a static builder method beats a constructor (as it does in the scan), and otherwise the
+ * one whose constructor or method has the first fully qualified name wins. A warning is printed for every clash, as
+ * the other agent can't be built by that name.
+ *
+ * Annotations are referred to by name rather than class, so the processor can be compiled before the rest of the
+ * module (see the compiler plugin set up in the pom).
+ */
+public class AgentRegistryProcessor extends AbstractProcessor {
+    static final String REGISTRY_PACKAGE = "com.fossgalaxy.games.fireworks.utils.agentbuilder";
+    static final String REGISTRY_NAME = "GeneratedAgentRegistry";
+
+    private static final String AGENT = "com.fossgalaxy.games.fireworks.ai.Agent";
+    private static final String AGENT_CONSTRUCTOR = "com.fossgalaxy.games.fireworks.annotations.AgentConstructor";
+    private static final String AGENT_BUILDER_STATIC = "com.fossgalaxy.games.fireworks.annotations.AgentBuilderStatic";
+    private static final String PARAMETER = "com.fossgalaxy.games.fireworks.annotations.Parameter";
+
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+
+    // factories by name, so the output doesn't depend on the order javac hands us the classes
+    private final Map<String, Candidate> factories = new TreeMap<>();
+    private final List<Element> origins = new ArrayList<>();
+    private boolean written;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        // the module always uses some of these, and every class in the round is looked at, annotated or not
+        return new HashSet<>(Arrays.asList(AGENT_CONSTRUCTOR, AGENT_BUILDER_STATIC, PARAMETER));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        // the module's own sources all arrive in the first round, later rounds only hold generated code
+        if (written || roundEnv.processingOver()) {
+            return true;
+        }
+
+        TypeElement agent = elements.getTypeElement(AGENT);
+        if (agent == null) {
+            return true;
+        }
+
+        // agents with only a no-args constructor have no annotations, so every class needs to be looked at
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            visit(type, agent);
+        }
+
+        write();
+        return true;
+    }
+
+    private void visit(TypeElement type, TypeElement agent) {
+        if (isAgentClass(type, agent)) {
+            addConstructor(type);
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (getAnnotation(method, AGENT_BUILDER_STATIC) != null) {
+                addStaticMethod(type, method, agent);
+            }
+        }
+
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            visit(nested, agent);
+        }
+    }
+
+    private boolean isAgentClass(TypeElement type, TypeElement agent) {
+        if (type.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+
+        Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+
+        // inner classes need an instance of their outer class, so they can't be built from a name
+        if (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            return false;
+        }
+
+        return types.isAssignable(types.erasure(type.asType()), types.erasure(agent.asType()));
+    }
+
+    private void addConstructor(TypeElement type) {
+        String clazz = type.getQualifiedName().toString();
+        boolean hasNoArgs = false;
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+
+            AnnotationMirror builder = getAnnotation(constructor, AGENT_CONSTRUCTOR);
+            if (builder != null) {
+                String name = getString(builder, "value");
+                if (name.isEmpty()) {
+                    name = type.getSimpleName().toString();
+                }
+
+                String arguments = getArguments(constructor);
+                if (arguments != null) {
+                    add(name, new Candidate(type, clazz, false, String.format("new RegistryFactory(%s, %s.class, %s, p -> new %s(%s))",
+                            quote(name), clazz, getConverters(type, constructor), clazz, arguments)));
+                }
+                return;
+            }
+
+            hasNoArgs |= constructor.getParameters().isEmpty();
+        }
+
+        if (!hasNoArgs) {
+            // the scan skips these too, they can still be built by hand
+            messager.printMessage(Diagnostic.Kind.NOTE,
+                    "agent has neither an annotated constructor nor a public no-args constructor, it will not be "
+                            + "in the registry", type);
+            return;
+        }
+
+        String name = type.getSimpleName().toString();
+        add(name, new Candidate(type, clazz, false,
+                String.format("new RegistryFactory(%s, %s.class, %s::new)", quote(name), clazz, clazz)));
+    }
+
+    private void addStaticMethod(TypeElement type, ExecutableElement method, TypeElement agent) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || !modifiers.contains(Modifier.STATIC)) {
+            return;
+        }
+
+        if (!types.isAssignable(method.getReturnType(), agent.asType())) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "agent builder methods must return an agent", method);
+            return;
+        }
+
+        String name = getString(getAnnotation(method, AGENT_BUILDER_STATIC), "value");
+        String clazz = type.getQualifiedName().toString();
+
+        String arguments = getArguments(method);
+        if (arguments != null) {
+            add(name, new Candidate(method, clazz + "." + method, true, String.format(
+                    "new RegistryFactory(%s, %s.class, %s, p -> %s.%s(%s))", quote(name), clazz,
+                    getConverters(type, method), clazz, method.getSimpleName(), arguments)));
+        }
+    }
+
+    private void add(String name, Candidate candidate) {
+        origins.add(candidate.origin);
+
+        Candidate existing = factories.get(name);
+        if (existing == null) {
+            factories.put(name, candidate);
+            return;
+        }
+
+        Candidate winner = existing.beats(candidate) ? existing : candidate;
+        Candidate loser = winner == existing ? candidate : existing;
+        messager.printMessage(Diagnostic.Kind.WARNING, "there is already an agent called " + name + ", "
+                + winner.key + " will be used instead of " + loser.key, candidate.origin);
+        factories.put(name, winner);
+    }
+
+    /**
+     * Cast each element of the parameter array to the type the constructor or method expects.
+     *
+     * @return the argument list, or null if one of the types can't be written out
+     */
+    private String getArguments(ExecutableElement executable) {
+        List<String> arguments = new ArrayList<>();
+        List<? extends VariableElement> parameters = executable.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            TypeMirror parameter = types.erasure(parameters.get(i).asType());
+            if (parameter.getKind().isPrimitive()) {
+                parameter = types.boxedClass((PrimitiveType) parameter).asType();
+            } else if (parameter.getKind() != TypeKind.DECLARED && parameter.getKind() != TypeKind.ARRAY) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "agent parameters must be classes, arrays or primitives",
+                        executable);
+                return null;
+            }
+            arguments.add(String.format("(%s) p[%d]", parameter, i));
+        }
+        return String.join(", ", arguments);
+    }
+
+    /**
+     * Pick how each parameter is converted from a string, in the same way as AgentFinder.
+     *
+     * A parameter with a Parameter annotation uses the named static method on the agent, enums use valueOf and
+     * anything else uses the converter the finder has for its type. Method references are cast so they still get a
+     * String parameter in the raw array.
+     */
+    private String getConverters(TypeElement type, ExecutableElement executable) {
+        Map<Integer, String> funcs = new HashMap<>();
+        for (AnnotationMirror mirror : executable.getAnnotationMirrors()) {
+            if (isAnnotation(mirror, PARAMETER)) {
+                Integer id = (Integer) getValue(mirror, "id");
+                if (!funcs.containsKey(id)) {
+                    funcs.put(id, getString(mirror, "func"));
+                }
+            }
+        }
+
+        List<String> converters = new ArrayList<>();
+        List<? extends VariableElement> parameters = executable.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            TypeMirror parameter = types.erasure(parameters.get(i).asType());
+
+            String func = funcs.get(i);
+            if (func != null) {
+                if (!hasConverterMethod(type, func)) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                            "parameter " + i + " wants to use " + func + "(String), but there is no public static "
+                                    + "method with that name", executable);
+                }
+                converters.add(String.format("(Function<String, ?>) %s::%s", type.getQualifiedName(), func));
+            } else if (isEnum(parameter)) {
+                converters.add(String.format("(Function<String, ?>) %s::valueOf", parameter));
+            } else {
+                converters.add(String.format("finder.getConverter(%s.class)", parameter));
+            }
+        }
+
+        if (converters.isEmpty()) {
+            return "new Function[0]";
+        }
+        return String.format("new Function[]{%s}", String.join(", ", converters));
+    }
+
+    private boolean hasConverterMethod(TypeElement type, String func) {
+        TypeMirror string = elements.getTypeElement(String.class.getName()).asType();
+        for (Element member : elements.getAllMembers(type)) {
+            if (member.getKind() != ElementKind.METHOD || !member.getSimpleName().contentEquals(func)) {
+                continue;
+            }
+
+            ExecutableElement method = (ExecutableElement) member;
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.PUBLIC) && modifiers.contains(Modifier.STATIC)
+                    && method.getParameters().size() == 1
+                    && types.isSameType(method.getParameters().get(0).asType(), string)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && types.asElement(type).getKind() == ElementKind.ENUM;
+    }
+
+    private void write() {
+        written = true;
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(REGISTRY_PACKAGE + "." + REGISTRY_NAME,
+                    origins.toArray(new Element[0]));
+            try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+                out.println("package " + REGISTRY_PACKAGE + ";");
+                out.println();
+                out.println("import java.util.function.Function;");
+                out.println();
+                out.println("/**");
+                out.println(" * Agent factories found at compile time, generated by AgentRegistryProcessor.");
+                out.println(" */");
+                out.println("public final class " + REGISTRY_NAME + " implements AgentRegistry {");
+                out.println();
+                out.println("    @Override");
+                // the converter arrays are raw, as there's no way to create a generic array without a warning
+                out.println("    @SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+                out.println("    public void register(AgentFinder finder) {");
+                for (Candidate candidate : factories.values()) {
+                    out.println("        finder.addFactory(" + candidate.factory + ");");
+                }
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException ex) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "unable to write the agent registry: " + ex.getMessage());
+        }
+    }
+
+    private static AnnotationMirror getAnnotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (isAnnotation(mirror, annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAnnotation(AnnotationMirror mirror, String annotation) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation);
+    }
+
+    private Object getValue(AnnotationMirror mirror, String key) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(key)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private String getString(AnnotationMirror mirror, String key) {
+        Object value = getValue(mirror, key);
+        return value == null ? "" : value.toString();
+    }
+
+    private String quote(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    /**
+     * A factory for one of the agents found, and where it came from.
+     */
+    private static final class Candidate {
+        private final Element origin;
+        private final String key;
+        private final boolean method;
+        private final String factory;
+
+        private Candidate(Element origin, String key, boolean method, String factory) {
+            this.origin = origin;
+            this.key = key;
+            this.method = method;
+            this.factory = factory;
+        }
+
+        private boolean beats(Candidate other) {
+            if (method != other.method) {
+                return method;
+            }
+            return key.compareTo(other.key) <= 0;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.fossgalaxy.games.fireworks.GameStats;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A long running game server for the data generation pipeline.
+ *
+ * Running walton.jar once per batch pays for JVM start up, the agent classpath scan and JIT warm up every time. The
+ * server is started once and then plays batches sent to it, so all of that is only paid for the first batch.
+ *
+ * Requests are newline delimited JSON, one batch per line:
+ * <pre>{"id": "iggi-2", "agentUnderTest": "iggi", "agentPaired": "iggi", "players": 2, "games": 10, "seed": 1}</pre>
+ * agentPaired defaults to the agent under test and gameType (normal or cheat) to normal. A batch plays the same games
+ * as {@code PredictorRunnerSingle [agentUnderTest] [agentPaired] [players] [games] [seed]}, see
+ * {@link Matchup#batch(String, String, int, int, long, String)}.
+ *
+ * Each game is sent back as soon as it finishes, one JSON object per line, tagged with the batch id and the game's
+ * number within the batch. The data field holds the lines the jar would have printed for that game, numbered from 0
+ * for each batch, so concatenating them gives the same CSV file. Once every game in a batch is done a final line with
+ * {@code "done": true} and the number of games played and failed is sent. Bad requests get a line with an error field.
+ * Games from different batches share one pool of threads, so responses for batches sent together can be interleaved.
+ * Only a few games per thread are queued at once (across every connection), once that many are waiting the server
+ * stops reading requests until some of them finish, so a client sending a large backlog can't fill the heap.
+ *
+ * Arguments: [threads] [port]. Threads defaults to the number of processors. Without a port, requests are read from
+ * standard in and responses written to standard out (anything else printed to standard out is moved to standard
+ * error). With a port, the server listens on localhost and each connection is a separate request stream.
+ */
+public class AgentServer {
+    private static final Logger logger = LoggerFactory.getLogger(AgentServer.class);
+
+    /**
+     * How many games to queue per thread, enough to keep the threads busy between requests.
+     */
+    private static final int QUEUED_PER_THREAD = 2;
+
+    private final Gson gson;
+    private final ExecutorService games;
+    private final Semaphore queued;
+
+    /**
+     * Create a server which plays games on a fixed number of threads.
+     *
+     * @param threads the number of games to play at once
+     */
+    public AgentServer(int threads) {
+        this.gson = new Gson();
+        this.games = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "agent-server-game");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.queued = new Semaphore(threads * QUEUED_PER_THREAD, true);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        AgentServer server = new AgentServer(threads);
+
+        if (args.length > 1) {
+            server.listen(Integer.parseInt(args[1]));
+            return;
+        }
+
+        // standard out is the response stream, stop anything else (game records, chatty agents) ending up in it
+        PrintStream stdout = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        System.setOut(System.err);
+
+        server.serve(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                new OutputStreamWriter(stdout, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Accept connections on a local port until the JVM is stopped.
+     *
+     * @param port the port to listen on
+     * @throws IOException if the port cannot be opened
+     */
+    public void listen(int port) throws IOException {
+        try (ServerSocket socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            logger.info("agent server listening on {}", socket.getLocalSocketAddress());
+            while (!socket.isClosed()) {
+                Socket client = socket.accept();
+                Thread thread = new Thread(() -> serveClient(client), "agent-server-" + client.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    private void serveClient(Socket client) {
+        try (Socket socket = client) {
+            serve(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8),
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            logger.warn("connection from {} failed", client.getRemoteSocketAddress(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Play every batch requested on a stream.
+     *
+     * This returns once the input is closed and every batch sent on it is finished. Reading stops while the server
+     * has as many games queued as it allows.
+     *
+     * @param input where requests are read from
+     * @param output where responses are written to
+     * @throws IOException if the input cannot be read
+     * @throws InterruptedException if interrupted while waiting for batches to finish
+     */
+    public void serve(Reader input, Writer output) throws IOException, InterruptedException {
+        ResponseWriter responses = new ResponseWriter(output);
+        // batches still being played, each one removes itself once its done line is sent
+        Set<CompletableFuture<Void>> batches = ConcurrentHashMap.newKeySet();
+
+        BufferedReader reader = new BufferedReader(input);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            Request request;
+            try {
+                request = gson.fromJson(line, Request.class);
+                request.validate();
+            } catch (JsonParseException | IllegalArgumentException | NullPointerException ex) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("error", "bad request: " + ex.getMessage());
+                error.put("request", line);
+                responses.write(error);
+                continue;
+            }
+
+            CompletableFuture<Void> batch = submit(request, responses);
+            batches.add(batch);
+            batch.whenComplete((ignored, ex) -> batches.remove(batch));
+        }
+
+        try {
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).get();
+        } catch (ExecutionException ex) {
+            // failed games are reported as they happen
+            logger.debug("batch failed", ex);
+        }
+    }
+
+    /**
+     * Start playing the games of a batch, waiting for room in the queue before each game.
+     *
+     * @param request the batch to play
+     * @param responses where to send the results
+     * @return completes once the final response for the batch has been sent
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     */
+    private CompletableFuture<Void> submit(Request request, ResponseWriter responses) throws InterruptedException {
+        List<Matchup> matchups = Matchup.batch(request.agentUnderTest, request.getAgentPaired(), request.players,
+                request.games, request.seed, request.getGameType());
+        AtomicInteger failures = new AtomicInteger();
+
+        CompletableFuture<?>[] results = new CompletableFuture<?>[matchups.size()];
+        for (int game = 0; game < matchups.size(); game++) {
+            Matchup matchup = matchups.get(game);
+            int gameNum = game;
+
+            queued.acquire();
+            results[game] = CompletableFuture.runAsync(() -> responses.write(play(request, gameNum, matchup)), games)
+                    .exceptionally(ex -> {
+                        logger.error("game {} failed", matchup.gameID, ex);
+                        failures.incrementAndGet();
+
+                        Map<String, Object> error = new LinkedHashMap<>();
+                        error.put("id", request.id);
+                        error.put("game", gameNum);
+                        error.put("error", String.valueOf(ex.getCause() == null ? ex : ex.getCause()));
+                        responses.write(error);
+                        return null;
+                    })
+                    .whenComplete((ignored, ex) -> queued.release());
+        }
+
+        return CompletableFuture.allOf(results).thenRun(() -> {
+            Map<String, Object> done = new LinkedHashMap<>();
+            done.put("id", request.id);
+            done.put("done", true);
+            done.put("games", matchups.size() - failures.get());
+            done.put("failures", failures.get());
+            responses.write(done);
+        });
+    }
+
+    private static Map<String, Object> play(Request request, int gameNum, Matchup matchup) {
+        StringBuilder data = new StringBuilder();
+        GameStats stats = matchup.play(record -> data.append(record.format(gameNum)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", request.id);
+        result.put("game", gameNum);
+        result.put("gameID", matchup.gameID);
+        result.put("agentUnderTestIndex", matchup.agentUnderTestIndex);
+        result.put("score", stats.score);
+        result.put("lives", stats.lives);
+        result.put("information", stats.information);
+        result.put("moves", stats.moves);
+        result.put("disqualified", stats.disqal);
+        result.put("data", data.toString());
+        return result;
+    }
+
+    /**
+     * A batch of games, as sent by the client.
+     */
+    private static final class Request {
+        private String id;
+        private String agentUnderTest;
+        private String agentPaired;
+        private String gameType;
+        private int players;
+        private int games;
+        private long seed;
+
+        private void validate() {
+            if (agentUnderTest == null) {
+                throw new IllegalArgumentException("agentUnderTest is required");
+            }
+            if (players < 2 || players > 5) {
+                throw new IllegalArgumentException("players must be between 2 and 5, got " + players);
+            }
+            if (games < 0) {
+                throw new IllegalArgumentException("games cannot be negative, got " + games);
+            }
+            String type = getGameType();
+            if (!Matchup.GAME_NORMAL.equals(type) && !Matchup.GAME_CHEAT.equals(type)) {
+                throw new IllegalArgumentException("unknown game type: " + type);
+            }
+        }
+
+        private String getAgentPaired() {
+            return agentPaired == null ? agentUnderTest : agentPaired;
+        }
+
+        private String getGameType() {
+            return gameType == null ? Matchup.GAME_NORMAL : gameType;
+        }
+    }
+
+    /**
+     * Writes responses as JSON lines, one whole line at a time.
+     */
+    private final class ResponseWriter {
+        private final BufferedWriter out;
+
+        private ResponseWriter(Writer out) {
+            this.out = new BufferedWriter(out);
+        }
+
+        private synchronized void write(Map<String, Object> response) {
+            try {
+                out.write(gson.toJson(response));
+                out.newLine();
+                out.flush();
+            } catch (IOException ex) {
+                logger.warn("unable to send response", ex);
+            }
+        }
+    }
+}
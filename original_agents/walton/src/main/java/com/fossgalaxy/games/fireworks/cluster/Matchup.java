@@ -0,0 +1,237 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.fossgalaxy.games.fireworks.GameRunner;
+import com.fossgalaxy.games.fireworks.GameRunnerCheat;
+import com.fossgalaxy.games.fireworks.GameStats;
+import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.players.Player;
+import com.fossgalaxy.games.fireworks.utils.AgentUtils;
+import com.fossgalaxy.games.fireworks.utils.DataParserUtils;
+import com.fossgalaxy.games.fireworks.utils.SetupUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * A single game between an agent under test and a set of paired agents.
+ *
+ * A matchup describes the game completely (agents, seat, player count, seed and game type), so the same matchup always
+ * plays the same game. New agents are built every time it is played, so matchups can be played on different threads.
+ */
+public final class Matchup {
+    public static final String GAME_NORMAL = "normal";
+    public static final String GAME_CHEAT = "cheat";
+
+    /**
+     * Games are logged with space for this many agents, so rows for all player counts have the same columns.
+     */
+    private static final int MAX_PLAYERS = 5;
+
+    public final String gameID;
+    public final String agentUnderTest;
+    public final String agentPaired;
+    public final String gameType;
+    public final long seed;
+    public final int nPlayers;
+    public final int agentUnderTestIndex;
+    public final int run;
+
+    public Matchup(String gameID, String agentUnderTest, String agentPaired, String gameType, long seed, int nPlayers,
+                   int agentUnderTestIndex, int run) {
+        assert agentUnderTestIndex >= 0 && agentUnderTestIndex < nPlayers : "agent under test is not in the game";
+
+        this.gameID = gameID;
+        this.agentUnderTest = agentUnderTest;
+        this.agentPaired = agentPaired;
+        this.gameType = gameType;
+        this.seed = seed;
+        this.nPlayers = nPlayers;
+        this.agentUnderTestIndex = agentUnderTestIndex;
+        this.run = run;
+    }
+
+    /**
+     * Create a copy of this matchup which is logged under a different game ID.
+     *
+     * @param gameID the new game ID
+     * @return the same game with the new ID
+     */
+    public Matchup withGameID(String gameID) {
+        return new Matchup(gameID, agentUnderTest, agentPaired, gameType, seed, nPlayers, agentUnderTestIndex, run);
+    }
+
+    /**
+     * Create all the games for a line of a matchup file.
+     *
+     * Each line is in the format printed by the generators in this package: the agent under test, the agent it is
+     * paired with, the seed and optionally the game type, separated by spaces.
+     *
+     * @param line the line to parse
+     * @param repeats how many times each game should be played
+     * @param minPlayers the smallest game to play
+     * @param maxPlayers the largest game to play
+     * @return the games described by the line
+     */
+    public static List<Matchup> parse(String line, int repeats, int minPlayers, int maxPlayers) {
+        String[] args = line.trim().split("\\s+");
+        if (args.length < 3) {
+            throw new IllegalArgumentException("matchup should be [agentUnderTest] [agentPaired] [seed]: " + line);
+        }
+
+        String gameType = args.length > 3 ? args[3] : GAME_NORMAL;
+        return expand(args[0], args[1], Long.parseLong(args[2]), gameType, repeats, minPlayers, maxPlayers);
+    }
+
+    /**
+     * Create the games for an agent pairing, for each repeat and player count.
+     *
+     * The seat of the agent under test is picked at random using the seed, in the same way as
+     * {@link MixedAgentGameSingle} does.
+     *
+     * @param agentUnderTest the agent being evaluated
+     * @param agentPaired the agent filling the other seats
+     * @param seed the seed used for deck ordering and seat selection
+     * @param gameType the type of game, {@link #GAME_NORMAL} or {@link #GAME_CHEAT}
+     * @param repeats how many times each game should be played
+     * @param minPlayers the smallest game to play
+     * @param maxPlayers the largest game to play
+     * @return the games, in the order the single threaded runner would play them
+     */
+    public static List<Matchup> expand(String agentUnderTest, String agentPaired, long seed, String gameType,
+                                       int repeats, int minPlayers, int maxPlayers) {
+        Random random = new Random(seed);
+
+        List<Matchup> matchups = new ArrayList<>();
+        for (int run = 0; run < repeats; run++) {
+            for (int nPlayers = minPlayers; nPlayers <= maxPlayers; nPlayers++) {
+                int agentUnderTestIndex = random.nextInt(nPlayers);
+                String gameID = String.format("%d-%s-%s-%d-%d", seed, agentUnderTest, agentPaired, nPlayers, run);
+                matchups.add(new Matchup(gameID, agentUnderTest, agentPaired, gameType, seed, nPlayers,
+                        agentUnderTestIndex, run));
+            }
+        }
+        return matchups;
+    }
+
+    /**
+     * Create the games for a batch of games with a fixed player count.
+     *
+     * Every game gets its own seed and seat for the agent under test, both drawn from the batch seed in the same way as
+     * {@link PredictorRunnerSingle} does. This means a batch plays the same games as running that class with the same
+     * arguments.
+     *
+     * @param agentUnderTest the agent being evaluated
+     * @param agentPaired the agent filling the other seats
+     * @param nPlayers the number of players in each game
+     * @param games the number of games to play
+     * @param seed the seed the game seeds and seats are drawn from
+     * @param gameType the type of game, {@link #GAME_NORMAL} or {@link #GAME_CHEAT}
+     * @return the games, in the order the single threaded runner would play them
+     */
+    public static List<Matchup> batch(String agentUnderTest, String agentPaired, int nPlayers, int games, long seed,
+                                      String gameType) {
+        Random random = new Random(seed);
+        Random seedGenerator = new Random(seed);
+
+        List<Matchup> matchups = new ArrayList<>();
+        for (int run = 0; run < games; run++) {
+            int agentUnderTestIndex = random.nextInt(nPlayers);
+            long gameSeed = seedGenerator.nextLong();
+            String gameID = String.format("%d-%s-%s-%d-%d", gameSeed, agentUnderTest, agentPaired, nPlayers, run);
+            matchups.add(new Matchup(gameID, agentUnderTest, agentPaired, gameType, gameSeed, nPlayers,
+                    agentUnderTestIndex, run));
+        }
+        return matchups;
+    }
+
+    /**
+     * Play the game, using newly built agents.
+     *
+     * @return the result of the game
+     */
+    public GameStats play() {
+        return play(DataParserUtils::writeToDisk);
+    }
+
+    /**
+     * Play the game, using newly built agents.
+     *
+     * @param recordWriter called with the record of the game when it is over, see
+     * {@link GameRunner#setRecordWriter(Consumer)}
+     * @return the result of the game
+     */
+    public GameStats play(Consumer<DataParserUtils> recordWriter) {
+        Agent[] agents = new Agent[nPlayers];
+        String[] agentStr = getAgentNames();
+
+        String realAgentUnderTest = PredictorRunnerSingle.generatePredictorString(agentUnderTest, nPlayers, agentPaired);
+        for (int i = 0; i < nPlayers; i++) {
+            agents[i] = AgentUtils.buildAgent(i == agentUnderTestIndex ? realAgentUnderTest : agentPaired);
+        }
+
+        // the same runners as GameUtils uses
+        GameRunner runner;
+        if (gameType.equals(GAME_CHEAT)) {
+            runner = new GameRunnerCheat(gameID, nPlayers);
+        } else {
+            runner = new GameRunner(gameID, nPlayers, SetupUtils.isZeroLifeVersion());
+        }
+        runner.setRecordWriter(recordWriter);
+
+        for (Player player : SetupUtils.toPlayers(agentStr, agents)) {
+            runner.addPlayer(player);
+        }
+        return runner.playGame(seed);
+    }
+
+    /**
+     * The name of the agent in each seat, padded with nulls to the largest game size.
+     *
+     * @return the agent names
+     */
+    private String[] getAgentNames() {
+        String[] agentStr = new String[MAX_PLAYERS];
+        for (int i = 0; i < nPlayers; i++) {
+            agentStr[i] = i == agentUnderTestIndex ? agentUnderTest : agentPaired;
+        }
+        return agentStr;
+    }
+
+    /**
+     * Format the result of this game as a row of the results CSV.
+     *
+     * @param stats the result of playing this matchup
+     * @return the CSV row, without a line ending
+     */
+    public String toCsv(GameStats stats) {
+        //ensure that agent names are escaped for the CSV file
+        String[] agentStr = getAgentNames();
+        String[] agentStrEscape = new String[agentStr.length];
+        for (int i = 0; i < agentStr.length; i++) {
+            agentStrEscape[i] = String.format("\"%s\"", agentStr[i]);
+        }
+
+        String agentList = String.join(",", agentStrEscape);
+        return String.format("%s,\"%s\",\"%s\",%s,%s,%d,%d,%d,%d,%d,%d,%d",
+                gameID,
+                agentUnderTest,
+                agentPaired,
+                gameType,
+                agentList,
+                seed,
+                stats.nPlayers,
+                stats.information,
+                stats.lives,
+                stats.moves,
+                stats.score,
+                stats.disqal
+        );
+    }
+
+    @Override
+    public String toString() {
+        return gameID;
+    }
+}
@@ -0,0 +1,65 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.fossgalaxy.games.fireworks.utils.SetupUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare the platform and virtual thread schedulers of {@link Tournament}.
+ *
+ * Both schedulers play the same matchups with the same number of threads (carriers, for virtual threads). The game
+ * results are thrown away, and a summary line with the throughput and game latencies is printed for each scheduler.
+ * With a mix of rule based and search agents, the virtual scheduler should keep the latency of the quick games down
+ * without costing throughput.
+ *
+ * Arguments: [matchupFile] [threads] [minPlayers] [maxPlayers] [virtualGames] [sliceMillis], as for
+ * {@link TournamentRunner}, plus the number of games the virtual scheduler has in progress at once and how long
+ * searches run before yielding.
+ */
+public class SchedulerBenchmark {
+    private SchedulerBenchmark() {
+
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("usage: SchedulerBenchmark [matchupFile] [threads] [minPlayers] [maxPlayers] "
+                    + "[virtualGames] [sliceMillis]");
+            System.exit(1);
+        }
+
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int minPlayers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int maxPlayers = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int virtualGames = args.length > 4 ? Integer.parseInt(args[4]) : Tournament.DEFAULT_VIRTUAL_GAMES;
+        long sliceMillis = args.length > 5 ? Long.parseLong(args[5]) : Tournament.DEFAULT_SLICE_MILLIS;
+        int repeats = SetupUtils.getRepeatCount();
+
+        List<Matchup> matchups = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty()) {
+                matchups.addAll(Matchup.parse(line, repeats, minPlayers, maxPlayers));
+            }
+        }
+
+        // play a few games first, so neither scheduler pays for warming up the JIT
+        run(new Tournament(threads), matchups.subList(0, Math.min(matchups.size(), threads * 2)));
+
+        TournamentStats platform = run(new Tournament(threads), matchups);
+        TournamentStats virtual = run(Tournament.virtual(threads, virtualGames, sliceMillis), matchups);
+
+        System.out.println(TournamentStats.csvHeader());
+        System.out.println(platform.toCsv());
+        System.out.println(virtual.toCsv());
+    }
+
+    private static TournamentStats run(Tournament tournament, List<Matchup> matchups) throws InterruptedException {
+        tournament.run(matchups.iterator(), (matchup, stats) -> { });
+        return tournament.getStats();
+    }
+}
@@ -0,0 +1,315 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.fossgalaxy.games.fireworks.GameStats;
+import com.fossgalaxy.games.fireworks.ai.SearchYield;
+import com.fossgalaxy.games.fireworks.utils.DataParserUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Plays a set of matchups concurrently inside a single JVM.
+ *
+ * Each game is one task, and every game builds its own agents, so games share nothing but the (read only) agent
+ * factory. Only a limited number of games are queued at any time, so a long list of matchups doesn't all end up in
+ * memory as pending tasks.
+ *
+ * There are two ways of scheduling the games:
+ * <ul>
+ * <li>platform (the default) - a fixed pool of threads, each playing one game at a time from start to finish.</li>
+ * <li>virtual - every game gets its own virtual thread, and the JVM shares a fixed number of carrier threads between
+ * them. Search agents yield between iterations (see {@link SearchYield}), so thousands of games make progress
+ * together instead of waiting behind long searches. This needs Java 21; on older JVMs the tournament logs a warning
+ * and uses a platform pool instead.</li>
+ * </ul>
+ *
+ * Results are handed to the writer on the thread which called {@link #run(Iterator, BiConsumer)}, in the order the
+ * games finish. This means the writer does not need to be thread safe, but rows will not be in matchup order.
+ */
+public class Tournament {
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    /**
+     * How long a search runs before letting other games have its carrier, when using virtual threads.
+     */
+    public static final long DEFAULT_SLICE_MILLIS = 1;
+
+    /**
+     * How many games are in progress at once when using virtual threads.
+     */
+    public static final int DEFAULT_VIRTUAL_GAMES = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(Tournament.class);
+
+    /**
+     * How many games to queue per thread, enough to keep the threads busy while the writer catches up.
+     */
+    private static final int QUEUED_PER_THREAD = 2;
+
+    private static final String CARRIER_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+
+    private final String scheduler;
+    private final int threads;
+    private final int maxQueued;
+    private final long sliceNanos;
+
+    private Consumer<DataParserUtils> recordWriter = DataParserUtils::writeToDisk;
+    private TournamentStats stats;
+
+    /**
+     * Create a tournament which plays games on a fixed pool of platform threads.
+     *
+     * @param threads the number of games to play at once
+     */
+    public Tournament(int threads) {
+        this(PLATFORM, threads, threads * QUEUED_PER_THREAD, 0);
+    }
+
+    private Tournament(String scheduler, int threads, int maxQueued, long sliceNanos) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("a tournament needs at least one thread");
+        }
+        if (maxQueued < 1) {
+            throw new IllegalArgumentException("a tournament needs to play at least one game at a time");
+        }
+        this.scheduler = scheduler;
+        this.threads = threads;
+        this.maxQueued = maxQueued;
+        this.sliceNanos = sliceNanos;
+    }
+
+    /**
+     * Create a tournament which plays each game on its own virtual thread.
+     *
+     * The number of carriers is passed to the JVM through the {@code jdk.virtualThreadScheduler.parallelism} system
+     * property, which is read once, when the JVM creates its first virtual thread. It is only set if nobody has set it
+     * already (so {@code -Djdk.virtualThreadScheduler.parallelism=n} on the command line wins), and after the first
+     * virtual thread exists every tournament shares the scheduler with the parallelism it started with.
+     *
+     * @param carriers the number of platform threads shared between the games
+     * @param games the number of games in progress at once
+     * @param sliceMillis how long a search may run before yielding to other games, 0 to never yield
+     * @return the new tournament
+     */
+    public static Tournament virtual(int carriers, int games, long sliceMillis) {
+        return new Tournament(VIRTUAL, carriers, games, TimeUnit.MILLISECONDS.toNanos(sliceMillis));
+    }
+
+    /**
+     * Create a tournament which plays each game on its own virtual thread, using the default settings.
+     *
+     * @param carriers the number of platform threads shared between the games
+     * @return the new tournament
+     */
+    public static Tournament virtual(int carriers) {
+        return virtual(carriers, DEFAULT_VIRTUAL_GAMES, DEFAULT_SLICE_MILLIS);
+    }
+
+    /**
+     * Create a tournament for a scheduler name.
+     *
+     * @param scheduler {@link #PLATFORM} or {@link #VIRTUAL}
+     * @param threads the number of threads (or carriers) to use
+     * @return the new tournament
+     */
+    public static Tournament forScheduler(String scheduler, int threads) {
+        switch (scheduler) {
+            case PLATFORM:
+                return new Tournament(threads);
+            case VIRTUAL:
+                return virtual(threads);
+            default:
+                throw new IllegalArgumentException("unknown scheduler: " + scheduler);
+        }
+    }
+
+    /**
+     * Set what happens to the record of each game once it is over.
+     *
+     * By default the records are written to standard out, as {@link Matchup#play()} does. Unlike the results writer,
+     * this is called on the thread which played the game, so it must be thread safe.
+     *
+     * @param recordWriter called with the record of each game when it is finished
+     */
+    public void setRecordWriter(Consumer<DataParserUtils> recordWriter) {
+        this.recordWriter = Objects.requireNonNull(recordWriter);
+    }
+
+    /**
+     * Play every matchup, passing the results to the writer as they finish.
+     *
+     * A game which throws is logged and counted (see {@link #getFailures()}), the rest of the tournament carries on.
+     *
+     * @param matchups the games to play
+     * @param writer called with each finished game and its result
+     * @return the number of games that were played successfully
+     * @throws InterruptedException if the calling thread was interrupted while waiting for games to finish
+     */
+    public int run(Iterator<Matchup> matchups, BiConsumer<Matchup, GameStats> writer) throws InterruptedException {
+        ExecutorService pool = VIRTUAL.equals(scheduler) ? newVirtualExecutor(threads) : null;
+        String used = pool == null ? PLATFORM : VIRTUAL;
+        int queueLimit = maxQueued;
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(threads, new GameThreadFactory());
+            queueLimit = Math.min(maxQueued, threads * QUEUED_PER_THREAD);
+        }
+
+        // searches only need to yield if something else can use the thread
+        long slice = VIRTUAL.equals(used) ? sliceNanos : 0;
+
+        Consumer<DataParserUtils> records = recordWriter;
+        CompletionService<Result> results = new ExecutorCompletionService<>(pool);
+        LatencyLog latencies = new LatencyLog();
+        int failures = 0;
+        long start = System.nanoTime();
+
+        try {
+            int queued = 0;
+            while (queued > 0 || matchups.hasNext()) {
+                while (queued < queueLimit && matchups.hasNext()) {
+                    Matchup matchup = matchups.next();
+                    results.submit(() -> play(matchup, records, slice));
+                    queued++;
+                }
+
+                Future<Result> future = results.take();
+                queued--;
+                try {
+                    Result result = future.get();
+                    writer.accept(result.matchup, result.stats);
+                    latencies.add(result.nanos);
+                } catch (ExecutionException ex) {
+                    logger.error("game failed", ex.getCause());
+                    failures++;
+                }
+            }
+
+            stats = new TournamentStats(used, threads, failures, System.nanoTime() - start, latencies.toArray());
+            return stats.getGames();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The number of games which threw an exception during the last call to {@link #run(Iterator, BiConsumer)}.
+     *
+     * @return the number of failed games
+     */
+    public int getFailures() {
+        return stats == null ? 0 : stats.getFailures();
+    }
+
+    /**
+     * Throughput and latency of the last call to {@link #run(Iterator, BiConsumer)}.
+     *
+     * @return the statistics, or null if the tournament has not been run
+     */
+    public TournamentStats getStats() {
+        return stats;
+    }
+
+    private static Result play(Matchup matchup, Consumer<DataParserUtils> recordWriter, long sliceNanos) {
+        MDC.put("gameID", matchup.gameID);
+        // the game has this thread to itself, so the setting only reaches this game's searches
+        SearchYield.setInterval(sliceNanos, TimeUnit.NANOSECONDS);
+        try {
+            long start = System.nanoTime();
+            GameStats stats = matchup.play(recordWriter);
+            return new Result(matchup, stats, System.nanoTime() - start);
+        } catch (RuntimeException ex) {
+            throw new IllegalStateException("game " + matchup.gameID + " failed", ex);
+        } finally {
+            SearchYield.disable();
+            MDC.remove("gameID");
+        }
+    }
+
+    /**
+     * Create an executor that starts a virtual thread per task.
+     *
+     * This is looked up at runtime so the project still builds and runs on JVMs without virtual threads.
+     *
+     * There is no API for the size of the virtual thread scheduler, only a system property the JVM reads when it
+     * starts the scheduler, so this sets that property (unless it is already set) before the first virtual thread is
+     * made. Once the scheduler is running the property is ignored, see {@link #virtual(int, int, long)}.
+     *
+     * @param carriers the parallelism to ask for, if the virtual thread scheduler has not started yet
+     * @return the executor, or null if this JVM does not support virtual threads
+     */
+    private static ExecutorService newVirtualExecutor(int carriers) {
+        if (System.getProperty(CARRIER_PROPERTY) == null) {
+            System.setProperty(CARRIER_PROPERTY, Integer.toString(carriers));
+        }
+
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException ex) {
+            logger.warn("virtual threads are not available on this JVM, using platform threads instead");
+            return null;
+        }
+    }
+
+    private static final class Result {
+        private final Matchup matchup;
+        private final GameStats stats;
+        private final long nanos;
+
+        private Result(Matchup matchup, GameStats stats, long nanos) {
+            this.matchup = matchup;
+            this.stats = stats;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * A growable list of game latencies, only touched by the thread running the tournament.
+     */
+    private static final class LatencyLog {
+        private long[] latencies = new long[64];
+        private int size;
+
+        private void add(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(latencies, size);
+        }
+    }
+
+    /**
+     * Names the game threads and makes them daemons, so a stuck game can't keep the JVM alive after the tournament.
+     */
+    private static final class GameThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "tournament-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.fossgalaxy.games.fireworks.utils.SetupUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+
+/**
+ * Plays a whole matchup file in one JVM, using all the cores of the machine.
+ *
+ * This does the same job as running {@link MixedAgentGameSingle} once per line of the file (which is what the SGE job
+ * scripts do), but plays the games concurrently and only pays for JVM start up and warm up once. The output is the
+ * same CSV format on standard out, although rows come out in the order games finish.
+ *
+ * Arguments: [matchupFile] [threads] [minPlayers] [maxPlayers] [scheduler]. The matchup file is in the format printed
+ * by the generators (agentUnderTest agentPaired seed [gameType]), use - to read it from standard in. Threads defaults
+ * to the number of processors, the player counts default to 2 to 5 and the scheduler (platform or virtual, see
+ * {@link Tournament}) defaults to platform. The number of repeats is taken from FIREWORKS_REPEAT_COUNT, as for the
+ * single game runner.
+ */
+public class TournamentRunner {
+    private static final Logger logger = LoggerFactory.getLogger(TournamentRunner.class);
+
+    private TournamentRunner() {
+
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("usage: TournamentRunner [matchupFile] [threads] [minPlayers] [maxPlayers] [scheduler]");
+            System.exit(1);
+        }
+
+        String matchupFile = args[0];
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int minPlayers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int maxPlayers = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        String scheduler = args.length > 4 ? args[4] : Tournament.PLATFORM;
+        int repeats = SetupUtils.getRepeatCount();
+
+        PrintStream out = System.out;
+        Tournament tournament = Tournament.forScheduler(scheduler, threads);
+
+        try (BufferedReader reader = open(matchupFile)) {
+            Iterator<Matchup> matchups = reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .flatMap(line -> Matchup.parse(line, repeats, minPlayers, maxPlayers).stream())
+                    .iterator();
+
+            tournament.run(matchups, (matchup, stats) -> out.println(matchup.toCsv(stats)));
+            out.flush();
+
+            logger.info("{} ({} failed)", tournament.getStats(), tournament.getFailures());
+        }
+
+        if (tournament.getFailures() > 0) {
+            System.exit(2);
+        }
+    }
+
+    private static BufferedReader open(String filename) throws IOException {
+        if ("-".equals(filename)) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import java.util.Arrays;
+
+/**
+ * Throughput and latency of a finished tournament.
+ *
+ * Latency is the wall clock time each game took to play, from building its agents to the final move. It does not
+ * include time spent waiting for a thread before the game started.
+ */
+public final class TournamentStats {
+    private final String scheduler;
+    private final int threads;
+    private final int games;
+    private final int failures;
+    private final long wallNanos;
+    private final long[] latencies;
+
+    TournamentStats(String scheduler, int threads, int failures, long wallNanos, long[] latencies) {
+        this.scheduler = scheduler;
+        this.threads = threads;
+        this.games = latencies.length;
+        this.failures = failures;
+        this.wallNanos = wallNanos;
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+    }
+
+    /**
+     * The scheduler the games actually ran on.
+     *
+     * @return platform or virtual
+     */
+    public String getScheduler() {
+        return scheduler;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * The number of games that finished successfully.
+     *
+     * @return the number of games played
+     */
+    public int getGames() {
+        return games;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * The number of games finished per second of wall clock time.
+     *
+     * @return the throughput of the tournament
+     */
+    public double getGamesPerSecond() {
+        return wallNanos == 0 ? 0 : games / (wallNanos / 1e9);
+    }
+
+    public double getMeanLatencyNanos() {
+        if (games == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        return total / games;
+    }
+
+    /**
+     * A percentile of the game latencies, using the nearest rank.
+     *
+     * @param percentile the percentile to find, between 0 and 100
+     * @return the latency in nanoseconds, 0 if no games were played
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (games == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * games);
+        return latencies[Math.max(0, Math.min(games - 1, rank - 1))];
+    }
+
+    public long getMaxLatencyNanos() {
+        return games == 0 ? 0 : latencies[games - 1];
+    }
+
+    /**
+     * The header for {@link #toCsv()}.
+     *
+     * @return the CSV header, without a line ending
+     */
+    public static String csvHeader() {
+        return "scheduler,threads,games,failures,seconds,gamesPerSecond,meanLatencyMs,p50LatencyMs,p95LatencyMs,maxLatencyMs";
+    }
+
+    /**
+     * Format these statistics as a CSV row.
+     *
+     * @return the CSV row, without a line ending
+     */
+    public String toCsv() {
+        return String.format("%s,%d,%d,%d,%.3f,%.2f,%.1f,%.1f,%.1f,%.1f", scheduler, threads, games, failures,
+                wallNanos / 1e9, getGamesPerSecond(), getMeanLatencyNanos() / 1e6, getLatencyPercentile(50) / 1e6,
+                getLatencyPercentile(95) / 1e6, getMaxLatencyNanos() / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games on %d %s threads: %.2f games/s, p50 latency %.1f ms", games, threads,
+                scheduler, getGamesPerSecond(), getLatencyPercentile(50) / 1e6);
+    }
+}
@@ -0,0 +1,143 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.fossgalaxy.games.fireworks.GameStats;
+import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.ai.mcts.MCTS;
+import com.fossgalaxy.games.fireworks.ai.mcts.MCTSNode;
+import com.fossgalaxy.games.fireworks.ai.mcts.TreeParallelMCTS;
+import com.fossgalaxy.games.fireworks.ai.mcts.TreeSearchAgent;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.utils.GameUtils;
+import com.fossgalaxy.games.fireworks.utils.SetupUtils;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compare single threaded MCTS with tree parallel MCTS.
+ *
+ * Both agents play the same seeded games against themselves. Every search is timed, and the iterations per second
+ * (taken from the root's visit count) are reported along with the scores of the games. Both agents have the same
+ * budget, by default one second per move.
+ *
+ * Arguments: [players] [games] [seed] [threads] [budget], the thread count defaults to the number of processors and
+ * the budget uses the agent spec format (see {@link SearchBudget#parse(String)}). The searches share one thread per
+ * processor, so asking for more threads than that gives more workers but no more parallelism.
+ * Output is CSV on standard out, one line per game followed by a summary line per agent.
+ */
+public class TreeParallelBenchmark {
+    private TreeParallelBenchmark() {
+
+    }
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        SearchBudget budget = args.length > 4 ? SearchBudget.parse(args[4]) : SearchBudget.millis(1000);
+
+        // tree reuse is off, so the root's visits are the iterations done for that decision
+        Supplier<MCTS> single = () -> new MCTS(budget, MCTS.DEFAULT_ROLLOUT_DEPTH, MCTS.DEFAULT_TREE_DEPTH_MUL, false);
+        Supplier<TreeSearchAgent> tree = () -> new TreeParallelMCTS(threads, single);
+
+        System.out.println("agent,threads,game,seed,score,lives,moves,decisions,iterations,seconds,iterationsPerSecond");
+        Result singleResult = run("mcts", 1, single, players, games, seed);
+        Result treeResult = run("mctsTree", threads, tree, players, games, seed);
+
+        System.out.println("agent,threads,games,meanScore,decisions,iterationsPerSecond");
+        singleResult.printSummary();
+        treeResult.printSummary();
+    }
+
+    private static Result run(String name, int threads, Supplier<? extends TreeSearchAgent> factory, int players,
+                              int games, long seed) {
+        Random seedGenerator = new Random(seed);
+        Result total = new Result(name, threads);
+
+        for (int game = 0; game < games; game++) {
+            long gameSeed = seedGenerator.nextLong();
+
+            Result result = new Result(name, threads);
+            Agent[] agents = new Agent[players];
+            String[] names = new String[players];
+            for (int i = 0; i < players; i++) {
+                agents[i] = new TimedSearch(factory.get(), result);
+                names[i] = name;
+            }
+
+            String gameID = String.format("%s-%d-%d", name, threads, game);
+            GameStats stats = GameUtils.runGame(gameID, gameSeed, SetupUtils.toPlayers(names, agents));
+            result.score += stats.score;
+
+            System.out.println(String.format("%s,%d,%d,%d,%d,%d,%d,%d,%d,%.3f,%.1f", name, threads, game, gameSeed,
+                    stats.score, stats.lives, stats.moves, result.decisions, result.iterations,
+                    result.nanos / 1e9, result.getIterationsPerSecond()));
+            total.add(result);
+        }
+
+        total.games = games;
+        return total;
+    }
+
+    /**
+     * Time each search made by a tree search agent, and count the iterations it performed.
+     */
+    private static class TimedSearch implements Agent {
+        private final TreeSearchAgent agent;
+        private final Result result;
+
+        TimedSearch(TreeSearchAgent agent, Result result) {
+            this.agent = agent;
+            this.result = result;
+        }
+
+        @Override
+        public Action doMove(int agentID, GameState state) {
+            long start = System.nanoTime();
+            MCTSNode root = agent.search(agentID, state);
+            result.nanos += System.nanoTime() - start;
+            result.iterations += root.getVisits();
+            result.decisions++;
+            return root.getBestNode().getAction();
+        }
+
+        @Override
+        public void receiveID(int agentID, String[] names) {
+            agent.receiveID(agentID, names);
+        }
+    }
+
+    private static class Result {
+        private final String name;
+        private final int threads;
+        private int games;
+        private long score;
+        private long decisions;
+        private long iterations;
+        private long nanos;
+
+        Result(String name, int threads) {
+            this.name = name;
+            this.threads = threads;
+        }
+
+        void add(Result other) {
+            score += other.score;
+            decisions += other.decisions;
+            iterations += other.iterations;
+            nanos += other.nanos;
+        }
+
+        double getIterationsPerSecond() {
+            return nanos == 0 ? 0 : iterations / (nanos / 1e9);
+        }
+
+        void printSummary() {
+            System.out.println(String.format("%s,%d,%d,%.2f,%d,%.1f", name, threads, games,
+                    games == 0 ? 0 : score / (double) games, decisions, getIterationsPerSecond()));
+        }
+    }
+}
@@ -4,7 +4,7 @@ import com.fossgalaxy.games.fireworks.human.ui.GameView;
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.Hand;
-import com.fossgalaxy.games.fireworks.state.TimedHand;
+import com.fossgalaxy.games.fireworks.state.OrderedHand;
 
 import javax.swing.*;
 import java.awt.*;
@@ -64,8 +64,8 @@ public class CardComponent extends JComponent {
         g.setColor(GameView.getTextColour(javaColour));
         g.drawString(cardVal, getWidth()/2 - w, getHeight()/2);
 
-        if (hand instanceof TimedHand) {
-            TimedHand th = (TimedHand)hand;
+        if (hand instanceof OrderedHand) {
+            OrderedHand th = (OrderedHand)hand;
             g.drawString(Integer.toString(th.getAge(slot)), 13 + w, 17 + h);
         }
     }
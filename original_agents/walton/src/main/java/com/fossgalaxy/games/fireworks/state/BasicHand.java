@@ -66,6 +66,52 @@ public class BasicHand implements Iterable<Card>, Hand {
         colours[slot] = null;
     }
 
+    /**
+     * The colour the owner was explicitly told about, ignoring any deductions made by subclasses.
+     *
+     * @param slot the slot to query
+     * @return the told colour, or null if the owner has not been told
+     */
+    CardColour getToldColour(int slot) {
+        return colours[slot];
+    }
+
+    /**
+     * The value the owner was explicitly told about, ignoring any deductions made by subclasses.
+     *
+     * @param slot the slot to query
+     * @return the told value, or null if the owner has not been told
+     */
+    Integer getToldValue(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Overwrite the explicitly told information for a slot.
+     *
+     * @param slot the slot to update
+     * @param colour the told colour, or null if the owner has not been told
+     * @param value the told value, or null if the owner has not been told
+     */
+    void setTold(int slot, CardColour colour, Integer value) {
+        colours[slot] = colour;
+        values[slot] = value;
+    }
+
+    /**
+     * Put a card back into a slot without touching any other information.
+     *
+     * This is used when undoing actions, it should not be used during play.
+     *
+     * @param slot the slot to update
+     * @param card the card that was in the slot
+     * @param hasCard true if the slot contained a card
+     */
+    void restoreCard(int slot, Card card, boolean hasCard) {
+        cards[slot] = card;
+        hasCards[slot] = hasCard;
+    }
+
     /**
      * Get the card really present in the slot (or null if unknown).
      * <p>
@@ -110,6 +156,22 @@ public class BasicHand implements Iterable<Card>, Hand {
         return values[slot];
     }
 
+    @Override
+    public int getKnownColourOrdinal(int slot) {
+        return colours[slot] == null ? Card.UNKNOWN : colours[slot].ordinal();
+    }
+
+    @Override
+    public int getKnownValueAsInt(int slot) {
+        return values[slot] == null ? Card.UNKNOWN : values[slot];
+    }
+
+    @Override
+    public int getCardCode(int slot) {
+        Card card = cards[slot];
+        return card == null ? Card.UNKNOWN : card.toCode();
+    }
+
     /**
      * The number of cards which make up this hand.
      * <p>
@@ -177,7 +239,12 @@ public class BasicHand implements Iterable<Card>, Hand {
      */
     @Override
     public void setKnownColour(CardColour colour, Integer[] slots) {
-        for (Integer slot : slots) {
+        setKnownColour(colour, unbox(slots));
+    }
+
+    @Override
+    public void setKnownColour(CardColour colour, int[] slots) {
+        for (int slot : slots) {
             assert colours[slot] == null || colours[slot].equals(colour) : "told about contradictory colours: " + colours[slot] + " " + colour;
             colours[slot] = colour;
         }
@@ -193,12 +260,25 @@ public class BasicHand implements Iterable<Card>, Hand {
      */
     @Override
     public void setKnownValue(Integer value, Integer[] slots) {
-        for (Integer slot : slots) {
-            assert values[slot] == null || values[slot].equals(value) : "told about contradictory values for " + slot + ": " + values[slot] + " " + value;
+        setKnownValue(value.intValue(), unbox(slots));
+    }
+
+    @Override
+    public void setKnownValue(int value, int[] slots) {
+        for (int slot : slots) {
+            assert values[slot] == null || values[slot] == value : "told about contradictory values for " + slot + ": " + values[slot] + " " + value;
             values[slot] = value;
         }
     }
 
+    private static int[] unbox(Integer[] slots) {
+        int[] unboxed = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            unboxed[i] = slots[i];
+        }
+        return unboxed;
+    }
+
     /**
      * Pretty print this hand.
      *
@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.state;
 
 import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.ActionType;
 import com.fossgalaxy.games.fireworks.state.events.GameEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +69,11 @@ public class BasicState implements GameState {
      */
     private final List<Card> discard;
 
+    /**
+     * The number of discarded copies of each card, indexed by card code
+     */
+    private final int[] discardCounts;
+
     /**
      * A history of the game from this agent's perspective.
      */
@@ -110,6 +116,7 @@ public class BasicState implements GameState {
         this.handSize = state.handSize;
         this.deck = new Deck(state.deck);
         this.discard = new ArrayList<>(state.discard);
+        this.discardCounts = state.discardCounts.clone();
         this.information = state.information;
         this.lives = state.lives;
         this.movesLeft = state.movesLeft;
@@ -156,6 +163,7 @@ public class BasicState implements GameState {
         this.deck = new Deck();
         this.table = new EnumMap<>(CardColour.class);
         this.discard = new ArrayList<>();
+        this.discardCounts = new int[Card.IDENTITIES];
         this.movesLeft = playerCount + 1;
         this.historyEntries = new LinkedList<>();
 
@@ -252,6 +260,7 @@ public class BasicState implements GameState {
     public void addToDiscard(Card card) {
         assert card != null;
         discard.add(card);
+        discardCounts[card.toCode()]++;
     }
 
     /**
@@ -304,6 +313,11 @@ public class BasicState implements GameState {
         return Collections.unmodifiableList(discard);
     }
 
+    @Override
+    public int getDiscardCount(int code) {
+        return discardCounts[code];
+    }
+
     /**
      * Get the hand (set of cards in front of) the corresponding player.
      *
@@ -618,6 +632,19 @@ public class BasicState implements GameState {
         return events;
     }
 
+    /**
+     * Overwrite the turn counters.
+     *
+     * This is used when converting from other state representations, it should not be used during play.
+     *
+     * @param movesLeft the number of moves left in the end game
+     * @param turnNumber the current turn number
+     */
+    void restoreCounters(int movesLeft, int turnNumber) {
+        this.movesLeft = movesLeft;
+        this.turnNumber = turnNumber;
+    }
+
     @Override
     public int getTurnNumber() {
         return turnNumber;
@@ -641,4 +668,53 @@ public class BasicState implements GameState {
     public List<HistoryEntry> getActionHistory(){
         return Collections.unmodifiableList(historyEntries);
     }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    @Override
+    public UndoRecord prepareUndo(int playerID, Action action) {
+        return new UndoRecord(this, playerID, action,
+                (player, slot) -> KnowledgeBits.pack(hands[player], slot),
+                player -> hands[player].getDrawTime());
+    }
+
+    @Override
+    public void undo(UndoRecord record) {
+        TimedHand hand = hands[record.owner];
+        historyEntries.removeLast();
+
+        if (record.isCardMove()) {
+            int slot = record.slot;
+            if (record.drew) {
+                deck.add(hand.getCard(slot));
+            }
+            if (record.wasDiscarded(this)) {
+                Card removed = discard.remove(discard.size() - 1);
+                discardCounts[removed.toCode()]--;
+            }
+            if (record.action.getType() == ActionType.PLAY) {
+                if (record.tableValue == 0) {
+                    table.remove(record.card.colour);
+                } else {
+                    table.put(record.card.colour, record.tableValue);
+                }
+            }
+
+            hand.restoreCard(slot, record.card, record.hadCard);
+            hand.restoreKnowledge(slot, record.knowledge[0]);
+            hand.restoreTime(slot, record.age, record.drawTime);
+        } else {
+            for (int slot = 0; slot < record.knowledge.length; slot++) {
+                hand.restoreKnowledge(slot, record.knowledge[slot]);
+            }
+        }
+
+        information = record.information;
+        lives = record.lives;
+        movesLeft = record.movesLeft;
+        turnNumber = record.turnNumber;
+    }
 }
@@ -6,12 +6,104 @@ import java.io.Serializable;
  * A card for the Hanabi card game
  */
 public class Card implements Comparable<Card>, Serializable {
+    /**
+     * The number of distinct card identities (colour and value pairs) in the game.
+     */
+    public static final int IDENTITIES = CardColour.values().length * 5;
+
+    /**
+     * One shared instance per identity, indexed by card code.
+     */
+    private static final Card[] INTERNED = buildInterned();
+
+    /**
+     * Returned by the primitive accessors when a card is unknown or missing.
+     */
+    public static final int UNKNOWN = -1;
+
     public final Integer value;
     public final CardColour colour;
 
+    // primitive copies of the value and identity, so hot paths don't need to unbox
+    private final int intValue;
+    private final int code;
+
     public Card(Integer value, CardColour colour) {
         this.value = value;
         this.colour = colour;
+        this.intValue = value == null ? UNKNOWN : value;
+        this.code = (value == null || colour == null) ? UNKNOWN : toCode(colour, value);
+    }
+
+    private static Card[] buildInterned() {
+        Card[] cards = new Card[IDENTITIES];
+        for (CardColour colour : CardColour.values()) {
+            for (int value = 1; value <= 5; value++) {
+                cards[toCode(colour, value)] = new Card(value, colour);
+            }
+        }
+        return cards;
+    }
+
+    /**
+     * Convert a colour and value into a compact card code between 0 and {@link #IDENTITIES} - 1.
+     *
+     * @param colour the colour of the card
+     * @param value the value of the card (1 to 5)
+     * @return the code for this card identity
+     */
+    public static int toCode(CardColour colour, int value) {
+        return colour.ordinal() * 5 + (value - 1);
+    }
+
+    /**
+     * Get the shared card instance for a card code.
+     *
+     * Cards are immutable, so the returned instance can be freely shared.
+     *
+     * @param code the card code, as returned by {@link #toCode(CardColour, int)}
+     * @return the card with that identity
+     */
+    public static Card fromCode(int code) {
+        return INTERNED[code];
+    }
+
+    /**
+     * The compact code for this card's identity.
+     *
+     * @return the card code for this card
+     */
+    public int toCode() {
+        return code;
+    }
+
+    /**
+     * The value of this card as a primitive.
+     *
+     * @return the value of the card (1 to 5), or {@link #UNKNOWN} if the card has no value
+     */
+    public int getValue() {
+        return intValue;
+    }
+
+    /**
+     * Get the colour of a card code.
+     *
+     * @param code the card code
+     * @return the colour of cards with that code
+     */
+    public static CardColour colourOf(int code) {
+        return INTERNED[code].colour;
+    }
+
+    /**
+     * Get the value of a card code.
+     *
+     * @param code the card code
+     * @return the value of cards with that code (1 to 5)
+     */
+    public static int valueOf(int code) {
+        return code % 5 + 1;
     }
 
     @Override
@@ -2,15 +2,36 @@ package com.fossgalaxy.games.fireworks.state;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents a deck of Hanabi cards.
+ * <p>
+ * The deck is stored as an array of card codes (see {@link Card#toCode()}) with the top of the deck at the end of
+ * the array, along with an index of where each copy of each card identity lives. This makes drawing, counting and
+ * removing a card by identity constant time, and shuffling does not allocate.
+ * <p>
+ * Removing a card from the middle of the deck moves the top card into the gap, so the order of the remaining cards
+ * is not preserved by {@link #remove(Card)}.
  */
 public class Deck implements Serializable {
-    public final LinkedList<Card> cards;
+    private static final int DEFAULT_CAPACITY = 50;
+    private static final int DEFAULT_COPIES = 3;
+
+    private byte[] codes;
+    private int[] ranks;
+    private int[] positions;
+    private final int[] counts;
+    private int copies;
+    private int size;
 
     public Deck() {
-        this.cards = new LinkedList<>();
+        this.codes = new byte[DEFAULT_CAPACITY];
+        this.ranks = new int[DEFAULT_CAPACITY];
+        this.copies = DEFAULT_COPIES;
+        this.positions = new int[Card.IDENTITIES * copies];
+        this.counts = new int[Card.IDENTITIES];
+        this.size = 0;
     }
 
     /**
@@ -21,7 +42,12 @@ public class Deck implements Serializable {
      * @param deck The given deck to be cloned
      */
     public Deck(Deck deck) {
-        this.cards = new LinkedList<>(deck.cards);
+        this.codes = deck.codes.clone();
+        this.ranks = deck.ranks.clone();
+        this.positions = deck.positions.clone();
+        this.counts = deck.counts.clone();
+        this.copies = deck.copies;
+        this.size = deck.size;
     }
 
     /**
@@ -30,7 +56,7 @@ public class Deck implements Serializable {
      * @param card the card to add
      */
     public void add(Card card) {
-        cards.push(card);
+        push(card.toCode());
     }
 
     /**
@@ -39,16 +65,42 @@ public class Deck implements Serializable {
      * @return int number of cards left
      */
     public int getCardsLeft() {
-        return cards.size();
+        return size;
+    }
+
+    /**
+     * Gets the number of copies of a card that are still in the deck.
+     *
+     * @param card the card to count
+     * @return the number of cards in the deck with the same identity
+     */
+    public int getCount(Card card) {
+        return counts[card.toCode()];
+    }
+
+    /**
+     * Gets the number of copies of a card identity that are still in the deck.
+     *
+     * @param code the card code to count
+     * @return the number of cards in the deck with that code
+     */
+    public int getCount(int code) {
+        return counts[code];
     }
 
     /**
      * Gets and removes the top card from the deck
      *
      * @return The card that was on top of the deck
+     * @throws NoSuchElementException if the deck is empty
      */
     public Card getTopCard() {
-        return cards.pop();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int code = codes[size - 1];
+        removeAt(size - 1);
+        return Card.fromCode(code);
     }
 
     /**
@@ -57,13 +109,14 @@ public class Deck implements Serializable {
      * @return boolean are there any cards left?
      */
     public boolean hasCardsLeft() {
-        return !cards.isEmpty();
+        return size != 0;
     }
 
     /**
      * Initialises the deck of cards with a complete set for the game
      */
     public void init() {
+        List<Card> cards = new ArrayList<>(toList());
         for (CardColour c : CardColour.values()) {
             for (int i = 1; i <= 5; i++) {
                 cards.add(new Card(i, c));
@@ -79,17 +132,20 @@ public class Deck implements Serializable {
                 }
             }
         }
+        setCards(cards);
     }
 
     /**
      * shuffle this deck of cards.
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        shuffle(ThreadLocalRandom.current());
     }
 
     public void sort() {
+        List<Card> cards = toList();
         Collections.sort(cards);
+        setCards(cards);
     }
 
     /**
@@ -98,15 +154,142 @@ public class Deck implements Serializable {
      * @param seed the seed to use for the new deck ordering
      */
     public void shuffle(long seed) {
-        Collections.shuffle(cards, new Random(seed));
+        shuffle(new Random(seed));
     }
 
-    public void remove(Card card) {
-        cards.remove(card);
+    /**
+     * Shuffle this deck in place using the provided random number generator.
+     * <p>
+     * This is a Fisher-Yates shuffle that makes the same calls on the generator as
+     * {@link Collections#shuffle(List, Random)}, so a seeded shuffle produces the same ordering as it would for
+     * the list returned by {@link #toList()}.
+     *
+     * @param random the random number generator to use
+     */
+    public void shuffle(Random random) {
+        for (int i = size; i > 1; i--) {
+            swap(size - i, size - 1 - random.nextInt(i));
+        }
     }
 
+    /**
+     * Remove a single copy of a card from the deck, if present.
+     *
+     * @param card the card to remove, null is ignored
+     * @return true if a copy of the card was removed
+     */
+    public boolean remove(Card card) {
+        if (card == null) {
+            return false;
+        }
+
+        int code = card.toCode();
+        int count = counts[code];
+        if (count == 0) {
+            return false;
+        }
+
+        removeAt(positions[code * copies + count - 1]);
+        return true;
+    }
+
+    /**
+     * The cards in this deck, from the top of the deck to the bottom.
+     *
+     * @return a new list containing the cards in the deck
+     */
     public List<Card> toList() {
-        return new LinkedList<>(cards);
+        List<Card> cards = new ArrayList<>(size);
+        for (int i = size - 1; i >= 0; i--) {
+            cards.add(Card.fromCode(codes[i]));
+        }
+        return cards;
+    }
+
+    /**
+     * Replace the contents of this deck with a copy of another deck, keeping the same order.
+     *
+     * @param other the deck to copy
+     */
+    void copyFrom(Deck other) {
+        this.codes = other.codes.clone();
+        this.ranks = other.ranks.clone();
+        this.positions = other.positions.clone();
+        System.arraycopy(other.counts, 0, counts, 0, counts.length);
+        this.copies = other.copies;
+        this.size = other.size;
+    }
+
+    private void setCards(List<Card> cards) {
+        Arrays.fill(counts, 0);
+        size = 0;
+        for (int i = cards.size() - 1; i >= 0; i--) {
+            push(cards.get(i).toCode());
+        }
+    }
+
+    private void push(int code) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, size * 2);
+            ranks = Arrays.copyOf(ranks, size * 2);
+        }
+        if (counts[code] == copies) {
+            growCopies();
+        }
+
+        int rank = counts[code]++;
+        codes[size] = (byte) code;
+        ranks[size] = rank;
+        positions[code * copies + rank] = size;
+        size++;
+    }
+
+    private void removeAt(int pos) {
+        int code = codes[pos];
+
+        // fill the hole in the position index with the last copy of this card
+        int last = --counts[code];
+        int lastPos = positions[code * copies + last];
+        positions[code * copies + ranks[pos]] = lastPos;
+        ranks[lastPos] = ranks[pos];
+
+        // fill the hole in the deck with the top card
+        int top = --size;
+        if (pos != top) {
+            int topCode = codes[top];
+            codes[pos] = (byte) topCode;
+            ranks[pos] = ranks[top];
+            positions[topCode * copies + ranks[top]] = pos;
+        }
+    }
+
+    private void swap(int a, int b) {
+        if (a == b) {
+            return;
+        }
+
+        int codeA = codes[a];
+        int codeB = codes[b];
+        int rankA = ranks[a];
+        int rankB = ranks[b];
+
+        codes[a] = (byte) codeB;
+        ranks[a] = rankB;
+        positions[codeB * copies + rankB] = a;
+
+        codes[b] = (byte) codeA;
+        ranks[b] = rankA;
+        positions[codeA * copies + rankA] = b;
+    }
+
+    private void growCopies() {
+        int newCopies = copies * 2;
+        int[] newPositions = new int[Card.IDENTITIES * newCopies];
+        for (int code = 0; code < Card.IDENTITIES; code++) {
+            System.arraycopy(positions, code * copies, newPositions, code * newCopies, counts[code]);
+        }
+        positions = newPositions;
+        copies = newCopies;
     }
 
     @Override
@@ -117,25 +300,36 @@ public class Deck implements Serializable {
             return false;
 
         Deck deck = (Deck) o;
+        if (size != deck.size) {
+            return false;
+        }
 
-        return cards.equals(deck.cards);
+        for (int i = 0; i < size; i++) {
+            if (codes[i] != deck.codes[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return cards.hashCode();
+        return toList().hashCode();
     }
 
     public static Deck toNormalisedDeck(Deck input) {
         Map<CardColour, CardColour> transformation = new EnumMap<>(CardColour.class);
         int colour = 0;
-        Deck normalised = new Deck();
-        for (Card card : input.cards) {
+        List<Card> cards = new ArrayList<>(input.size);
+        for (Card card : input.toList()) {
             if (!transformation.containsKey(card.colour)) {
                 transformation.put(card.colour, CardColour.values()[colour++]);
             }
-            normalised.cards.add(new Card(card.value, transformation.get(card.colour)));
+            cards.add(new Card(card.value, transformation.get(card.colour)));
         }
+
+        Deck normalised = new Deck();
+        normalised.setCards(cards);
         return normalised;
     }
 
@@ -80,6 +80,45 @@ public interface GameState extends Serializable {
      */
     Collection<Card> getDiscards();
 
+    /**
+     * Get the number of copies of a card identity that have been discarded (or played incorrectly).
+     *
+     * States keep this count as cards are discarded, so this does not scan the discard pile.
+     *
+     * @param code the card code, see {@link Card#toCode()}
+     * @return the number of copies of that card in the discard pile
+     */
+    default int getDiscardCount(int code) {
+        int count = 0;
+        for (Card card : getDiscards()) {
+            if (card.toCode() == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    default int getDiscardCount(Card card) {
+        return getDiscardCount(card.toCode());
+    }
+
+    /**
+     * Get the number of copies of a card identity that have not been seen yet.
+     *
+     * These are the copies in the deck, which for partially observable states includes the cards in our own hand. The
+     * deck keeps a count for each identity, so this does not scan the deck.
+     *
+     * @param code the card code, see {@link Card#toCode()}
+     * @return the number of copies of that card which could still be drawn or be in our hand
+     */
+    default int getUnseenCount(int code) {
+        return getDeck().getCount(code);
+    }
+
+    default int getUnseenCount(Card card) {
+        return getUnseenCount(card.toCode());
+    }
+
     /**
      * Get the hand of a player.
      *
@@ -245,5 +284,45 @@ public interface GameState extends Serializable {
      * @param eventList the resulting events from out perspective.
      */
     void addAction(int playerID, Action action, List<GameEvent> eventList);
-    List<HistoryEntry> getActionHistory(); 
+    List<HistoryEntry> getActionHistory();
+
+    /**
+     * Check if actions applied to this state can be reversed with {@link #undo(UndoRecord)}.
+     *
+     * Search agents walk down and back up a single copy of the state when they can, and fall back on copying the
+     * state for each playout when they can't. Implementations which support undoing should override this along with
+     * {@link #prepareUndo(int, Action)} and {@link #undo(UndoRecord)}.
+     *
+     * @return true if {@link #prepareUndo(int, Action)} and {@link #undo(UndoRecord)} are supported
+     */
+    default boolean supportsUndo() {
+        return false;
+    }
+
+    /**
+     * Capture the parts of this state that applying an action will change.
+     *
+     * This must be called immediately before the action is applied, {@link Action#applyUndoable(int, GameState)}
+     * does both. Only states where {@link #supportsUndo()} is true can do this.
+     *
+     * @param playerID the player who is about to perform the action
+     * @param action the action that is about to be applied
+     * @return a record which can be passed to {@link #undo(UndoRecord)} after the action has been applied
+     * @throws UnsupportedOperationException if {@link #supportsUndo()} is false
+     */
+    default UndoRecord prepareUndo(int playerID, Action action) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support undoing actions");
+    }
+
+    /**
+     * Reverse an action, returning this state to how it was before the action was applied.
+     *
+     * Records must be undone most recent first and only on the state that created them.
+     *
+     * @param record the record returned when the action was applied
+     * @throws UnsupportedOperationException if {@link #supportsUndo()} is false
+     */
+    default void undo(UndoRecord record) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support undoing actions");
+    }
 }
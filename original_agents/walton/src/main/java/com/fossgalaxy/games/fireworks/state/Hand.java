@@ -48,6 +48,39 @@ public interface Hand extends Serializable {
      */
     Integer getKnownValue(int slot);
 
+    /**
+     * Get the code of the card really present in the slot, see {@link #getCard(int)}.
+     *
+     * @param slot the slot to query
+     * @return the card code (see {@link Card#toCode()}), or {@link Card#UNKNOWN} if the card is unknown
+     */
+    default int getCardCode(int slot) {
+        Card card = getCard(slot);
+        return card == null ? Card.UNKNOWN : card.toCode();
+    }
+
+    /**
+     * Get the known colour of this slot as a colour ordinal, see {@link #getKnownColour(int)}.
+     *
+     * @param slot the slot to query
+     * @return the ordinal of the known colour, or {@link Card#UNKNOWN} if the owner doesn't know it
+     */
+    default int getKnownColourOrdinal(int slot) {
+        CardColour colour = getKnownColour(slot);
+        return colour == null ? Card.UNKNOWN : colour.ordinal();
+    }
+
+    /**
+     * Get the known value of this slot as a primitive, see {@link #getKnownValue(int)}.
+     *
+     * @param slot the slot to query
+     * @return the known value, or {@link Card#UNKNOWN} if the owner doesn't know it
+     */
+    default int getKnownValueAsInt(int slot) {
+        Integer value = getKnownValue(slot);
+        return value == null ? Card.UNKNOWN : value;
+    }
+
     /**
      * The number of cards which make up this hand.
      * <p>
@@ -93,6 +126,21 @@ public interface Hand extends Serializable {
      */
     void setKnownColour(CardColour colour, Integer[] slots);
 
+    /**
+     * Sets the known colour of a slot from the perspective of the owner, without boxing.
+     *
+     * @param colour the colour to assign to the slots
+     * @param slots the slots to assign the colour to, in increasing order
+     * @see #setKnownColour(CardColour, Integer[])
+     */
+    default void setKnownColour(CardColour colour, int[] slots) {
+        Integer[] boxed = new Integer[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            boxed[i] = slots[i];
+        }
+        setKnownColour(colour, boxed);
+    }
+
     /**
      * Sets the known value of a slot from the perspective of the owner.
      * <p>
@@ -103,6 +151,21 @@ public interface Hand extends Serializable {
      */
     void setKnownValue(Integer value, Integer[] slots);
 
+    /**
+     * Sets the known value of a slot from the perspective of the owner, without boxing.
+     *
+     * @param value the value to assign to the slots
+     * @param slots the slots to assign the value to, in increasing order
+     * @see #setKnownValue(Integer, Integer[])
+     */
+    default void setKnownValue(int value, int[] slots) {
+        Integer[] boxed = new Integer[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            boxed[i] = slots[i];
+        }
+        setKnownValue((Integer) value, boxed);
+    }
+
     /**
      * Check if this card is possible based on complete infomation.
      *
@@ -121,6 +184,17 @@ public interface Hand extends Serializable {
      */
     boolean isPossible(int slot, Card card);
 
+    /**
+     * check if a card identity is possible, based on the owner's prespective
+     *
+     * @param slot the slot to check
+     * @param code the card code we are considering, see {@link Card#toCode()}
+     * @return true if this card could possibly fit in this slot, false otherwise.
+     */
+    default boolean isPossible(int slot, int code) {
+        return isPossible(slot, Card.fromCode(code));
+    }
+
     /**
      * get possible values for a given slot.
      *
@@ -137,6 +211,34 @@ public interface Hand extends Serializable {
      */
     CardColour[] getPossibleColours(int slot);
 
+    /**
+     * get possible values for a given slot, as a bitmask.
+     *
+     * @param slot the slot to check
+     * @return a bitmask with bit (value - 1) set for each possible value
+     */
+    default int getPossibleValueMask(int slot) {
+        int mask = 0;
+        for (int value : getPossibleValues(slot)) {
+            mask |= 1 << (value - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * get possible colours for a given slot, as a bitmask.
+     *
+     * @param slot the slot to check
+     * @return a bitmask with the bit for each possible colour's ordinal set
+     */
+    default int getPossibleColourMask(int slot) {
+        int mask = 0;
+        for (CardColour colour : getPossibleColours(slot)) {
+            mask |= 1 << colour.ordinal();
+        }
+        return mask;
+    }
+
     /**
      * Has a card of that colour that it knows exactly about
      *
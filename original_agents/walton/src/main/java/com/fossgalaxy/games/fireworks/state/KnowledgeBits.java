@@ -0,0 +1,111 @@
+package com.fossgalaxy.games.fireworks.state;
+
+/**
+ * Helpers for the packed hint knowledge of a single hand slot.
+ *
+ * Bits 0-4 are the colours the slot could be (by ordinal) and bits 5-9 are the values the slot could be
+ * (value - 1). Bits 10-12 hold the colour the owner was explicitly told (ordinal + 1, 0 if not told) and bits
+ * 13-15 hold the value the owner was explicitly told (0 if not told).
+ */
+final class KnowledgeBits {
+    static final int COLOUR_MASK = 0x1F;
+    static final int VALUE_SHIFT = 5;
+    static final int VALUE_MASK = 0x1F << VALUE_SHIFT;
+    static final int TOLD_COLOUR_SHIFT = 10;
+    static final int TOLD_VALUE_SHIFT = 13;
+    static final int TOLD_MASK = 0x7;
+
+    /**
+     * Knowledge for a slot the owner knows nothing about.
+     */
+    static final int NO_KNOWLEDGE = COLOUR_MASK | VALUE_MASK;
+
+    private static final CardColour[] COLOURS = CardColour.values();
+
+    private KnowledgeBits() {
+
+    }
+
+    /**
+     * Pack what the owner of a hand knows about a slot.
+     *
+     * @param hand the hand to read from
+     * @param slot the slot to read
+     * @return the packed knowledge for the slot
+     */
+    static int pack(Hand hand, int slot) {
+        int bits = hand.getPossibleColourMask(slot) | (hand.getPossibleValueMask(slot) << VALUE_SHIFT);
+
+        CardColour toldColour = hand.getKnownColour(slot);
+        Integer toldValue = hand.getKnownValue(slot);
+        if (hand instanceof BasicHand) {
+            BasicHand basic = (BasicHand) hand;
+            toldColour = basic.getToldColour(slot);
+            toldValue = basic.getToldValue(slot);
+        }
+
+        if (toldColour != null) {
+            bits |= (toldColour.ordinal() + 1) << TOLD_COLOUR_SHIFT;
+        }
+        if (toldValue != null) {
+            bits |= toldValue << TOLD_VALUE_SHIFT;
+        }
+        return bits;
+    }
+
+    static CardColour toldColour(int bits) {
+        int told = (bits >>> TOLD_COLOUR_SHIFT) & TOLD_MASK;
+        return told == 0 ? null : COLOURS[told - 1];
+    }
+
+    static Integer toldValue(int bits) {
+        int told = (bits >>> TOLD_VALUE_SHIFT) & TOLD_MASK;
+        return told == 0 ? null : told;
+    }
+
+    /**
+     * The colour known by the owner: the only colour left possible, else the colour they were told.
+     */
+    static CardColour knownColour(int bits) {
+        int colours = bits & COLOUR_MASK;
+        if (Integer.bitCount(colours) == 1) {
+            return COLOURS[Integer.numberOfTrailingZeros(colours)];
+        }
+        return toldColour(bits);
+    }
+
+    /**
+     * The value known by the owner: the only value left possible, else the value they were told.
+     */
+    static Integer knownValue(int bits) {
+        int values = (bits & VALUE_MASK) >>> VALUE_SHIFT;
+        if (Integer.bitCount(values) == 1) {
+            return Integer.numberOfTrailingZeros(values) + 1;
+        }
+        return toldValue(bits);
+    }
+
+    static CardColour[] possibleColours(int bits) {
+        int colours = bits & COLOUR_MASK;
+        CardColour[] possible = new CardColour[Integer.bitCount(colours)];
+        int i = 0;
+        for (int colour = 0; colour < COLOURS.length; colour++) {
+            if ((colours & (1 << colour)) != 0) {
+                possible[i++] = COLOURS[colour];
+            }
+        }
+        return possible;
+    }
+
+    static int[] possibleValues(int bits) {
+        int values = (bits & VALUE_MASK) >>> VALUE_SHIFT;
+        int[] possible = new int[Integer.bitCount(values)];
+        int i = 0;
+        for (int value = 0; value < 5; value++) {
+            if ((values & (1 << value)) != 0) {
+                possible[i++] = value + 1;
+            }
+        }
+        return possible;
+    }
+}
@@ -1,105 +1,139 @@
 package com.fossgalaxy.games.fireworks.state;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * A hand that 'remembers' negative information.
+ *
+ * The colours and values each slot could still be are kept as bitmasks in the {@link KnowledgeBits} layout (colour
+ * ordinals in bits 0-4, value - 1 in bits 5-9), so checking if a card is possible is a single mask test and copying
+ * a hand is an array copy.
  */
 public class NegativeHand extends BasicHand {
-
     //what the agent can infer about it's hand (based on negative information)
-    private final Map<Integer, Set<CardColour>> possibleColours;
-    private final Map<Integer, Set<Integer>> possibleValues;
+    private final int[] possible;
 
     public NegativeHand(NegativeHand hand) {
         super(hand);
-
-        this.possibleColours = copyEnumMap(hand.possibleColours);
-        this.possibleValues = copyMap(hand.possibleValues);
+        this.possible = Arrays.copyOf(hand.possible, hand.possible.length);
     }
 
     public NegativeHand(int size) {
         super(size);
-        this.possibleColours = new HashMap<>();
-        this.possibleValues = new HashMap<>();
+        this.possible = new int[size];
+        Arrays.fill(possible, KnowledgeBits.NO_KNOWLEDGE);
     }
 
-    private static <T> Map<Integer, Set<T>> copyMap(Map<Integer, Set<T>> map) {
-        Map<Integer, Set<T>> mapCopy = new HashMap<>();
-        for (Map.Entry<Integer, Set<T>> entry : map.entrySet()) {
-            mapCopy.put(entry.getKey(), new HashSet<>(entry.getValue()));
-        }
-        return mapCopy;
+    /**
+     * Reset all information about a slot
+     */
+    @Override
+    void clear(int slot) {
+        super.clear(slot);
+        possible[slot] = KnowledgeBits.NO_KNOWLEDGE;
     }
 
-    private static <T extends Enum> Map<Integer, Set<T>> copyEnumMap(Map<Integer, Set<T>> map) {
-        Map<Integer, Set<T>> mapCopy = new HashMap<>();
-        for (Map.Entry<Integer, Set<T>> entry : map.entrySet()) {
-            mapCopy.put(entry.getKey(), EnumSet.copyOf(entry.getValue()));
+    /**
+     * Overwrite the negative information for a slot.
+     *
+     * This is used when converting from other state representations and does not touch any other slot.
+     *
+     * @param slot the slot to update
+     * @param colours the colours the slot could still be
+     * @param values the values the slot could still be
+     */
+    void setPossible(int slot, CardColour[] colours, int[] values) {
+        int bits = 0;
+        for (CardColour colour : colours) {
+            bits |= colourBit(colour);
+        }
+        for (int value : values) {
+            bits |= valueBit(value);
         }
-        return mapCopy;
+        possible[slot] = bits;
+    }
+
+    private static int colourBit(CardColour colour) {
+        return 1 << colour.ordinal();
+    }
+
+    private static int valueBit(int value) {
+        return 1 << (KnowledgeBits.VALUE_SHIFT + value - 1);
     }
 
     /**
-     * Reset all information about a slot
+     * Overwrite everything the owner knows about a slot.
+     *
+     * @param slot the slot to update
+     * @param bits the packed knowledge, see {@link KnowledgeBits}
      */
-    @Override
-    void clear(int slot) {
-        super.clear(slot);
-        possibleColours.put(slot, EnumSet.allOf(CardColour.class));
-        possibleValues.put(slot, new HashSet<>(Arrays.asList(1, 2, 3, 4, 5)));
+    void restoreKnowledge(int slot, int bits) {
+        setTold(slot, KnowledgeBits.toldColour(bits), KnowledgeBits.toldValue(bits));
+        setPossible(slot, KnowledgeBits.possibleColours(bits), KnowledgeBits.possibleValues(bits));
     }
 
     // From this players perspective
     @Override
     public CardColour getKnownColour(int slot) {
-        Set<CardColour> c = possibleColours.get(slot);
-        if (c != null && c.size() == 1) {
-            return c.iterator().next();
+        if (Integer.bitCount(possible[slot] & KnowledgeBits.COLOUR_MASK) == 1) {
+            return KnowledgeBits.knownColour(possible[slot]);
         }
         return super.getKnownColour(slot);
     }
 
     @Override
     public Integer getKnownValue(int slot) {
-        Set<Integer> c = possibleValues.get(slot);
-        if (c != null && c.size() == 1) {
-            return c.iterator().next();
+        if (Integer.bitCount(possible[slot] & KnowledgeBits.VALUE_MASK) == 1) {
+            return KnowledgeBits.knownValue(possible[slot]);
         }
         return super.getKnownValue(slot);
     }
 
     @Override
-    public void setKnownColour(CardColour colour, Integer[] slots) {
+    public int getKnownColourOrdinal(int slot) {
+        int colours = possible[slot] & KnowledgeBits.COLOUR_MASK;
+        if (Integer.bitCount(colours) == 1) {
+            return Integer.numberOfTrailingZeros(colours);
+        }
+        return super.getKnownColourOrdinal(slot);
+    }
+
+    @Override
+    public int getKnownValueAsInt(int slot) {
+        int values = possible[slot] & KnowledgeBits.VALUE_MASK;
+        if (Integer.bitCount(values) == 1) {
+            return Integer.numberOfTrailingZeros(values) - KnowledgeBits.VALUE_SHIFT + 1;
+        }
+        return super.getKnownValueAsInt(slot);
+    }
+
+    @Override
+    public void setKnownColour(CardColour colour, int[] slots) {
+        int bit = colourBit(colour);
         int index = 0;
         for (int slot = 0; slot < getSize(); slot++) {
             if (index < slots.length && slots[index] == slot) {
                 //we found a matching slot
-                possibleColours.put(slot, EnumSet.of(colour));
+                possible[slot] = (possible[slot] & ~KnowledgeBits.COLOUR_MASK) | bit;
                 index++;
             } else {
-                Set<CardColour> colours = possibleColours.get(slot);
-                if (colours != null) {
-                    colours.remove(colour);
-                }
+                possible[slot] &= ~bit;
             }
         }
         super.setKnownColour(colour, slots);
     }
 
     @Override
-    public void setKnownValue(Integer value, Integer[] slots) {
+    public void setKnownValue(int value, int[] slots) {
+        int bit = valueBit(value);
         int index = 0;
         for (int slot = 0; slot < getSize(); slot++) {
             if (index < slots.length && slots[index] == slot) {
                 //we found a matching slot
-                possibleValues.put(slot, new HashSet<Integer>(Arrays.asList(value)));
+                possible[slot] = (possible[slot] & ~KnowledgeBits.VALUE_MASK) | bit;
                 index++;
             } else {
-                Set<Integer> values = possibleValues.get(slot);
-                if (values != null) {
-                    values.remove(value);
-                }
+                possible[slot] &= ~bit;
             }
         }
         super.setKnownValue(value, slots);
@@ -107,46 +141,42 @@ public class NegativeHand extends BasicHand {
 
     @Override
     public int[] getPossibleValues(int slot) {
-        Set<Integer> possible = possibleValues.get(slot);
-        if (possible == null) {
-            return super.getPossibleValues(slot);
-        }
-
-        int[] possibleArr = new int[possible.size()];
-        int i = 0;
-        for (Integer card : possible) {
-            possibleArr[i++] = card;
-        }
-
-        return possibleArr;
+        return KnowledgeBits.possibleValues(possible[slot]);
     }
 
     @Override
     public CardColour[] getPossibleColours(int slot) {
+        return KnowledgeBits.possibleColours(possible[slot]);
+    }
 
-        Set<CardColour> possible = possibleColours.get(slot);
-        if (possible == null) {
-            return super.getPossibleColours(slot);
-        }
+    @Override
+    public int getPossibleColourMask(int slot) {
+        return possible[slot] & KnowledgeBits.COLOUR_MASK;
+    }
 
-        CardColour[] possibleArr = new CardColour[possible.size()];
-        int i = 0;
-        for (CardColour card : possible) {
-            possibleArr[i++] = card;
+    @Override
+    public int getPossibleValueMask(int slot) {
+        return (possible[slot] & KnowledgeBits.VALUE_MASK) >>> KnowledgeBits.VALUE_SHIFT;
+    }
+
+    @Override
+    public boolean isPossible(int slot, Card card) {
+        if (!hasCard(slot)) {
+            return false;
         }
 
-        return possibleArr;
+        int needed = colourBit(card.colour) | valueBit(card.value);
+        return (possible[slot] & needed) == needed;
     }
 
     @Override
-    public boolean isPossible(int slot, Card card) {
+    public boolean isPossible(int slot, int code) {
         if (!hasCard(slot)) {
             return false;
         }
 
-        Set<CardColour> possibleColour = possibleColours.get(slot);
-        Set<Integer> possibleValue = possibleValues.get(slot);
-        return possibleColour.contains(card.colour) && possibleValue.contains(card.value);
+        int needed = (1 << (code / 5)) | (1 << (KnowledgeBits.VALUE_SHIFT + code % 5));
+        return (possible[slot] & needed) == needed;
     }
 
     @Override
@@ -156,18 +186,13 @@ public class NegativeHand extends BasicHand {
         if (!super.equals(o)) return false;
 
         NegativeHand cards = (NegativeHand) o;
-
-        if (possibleColours != null ? !possibleColours.equals(cards.possibleColours) : cards.possibleColours != null)
-            return false;
-        return possibleValues != null ? possibleValues.equals(cards.possibleValues) : cards.possibleValues == null;
-
+        return Arrays.equals(possible, cards.possible);
     }
 
     @Override
     public int hashCode() {
         int result = super.hashCode();
-        result = 31 * result + (possibleColours != null ? possibleColours.hashCode() : 0);
-        result = 31 * result + (possibleValues != null ? possibleValues.hashCode() : 0);
+        result = 31 * result + Arrays.hashCode(possible);
         return result;
     }
 }
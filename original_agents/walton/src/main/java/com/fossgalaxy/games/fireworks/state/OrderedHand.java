@@ -0,0 +1,31 @@
+package com.fossgalaxy.games.fireworks.state;
+
+/**
+ * A hand that keeps track of the order in which cards were drawn.
+ *
+ * This enables moves such as, "tell about oldest" and "discard oldest" without depending on a concrete hand class.
+ */
+public interface OrderedHand extends Hand {
+
+    /**
+     * Get the slot containing the card that has been in the hand the longest.
+     *
+     * @return the oldest slot containing a card, or -1 if the hand is empty
+     */
+    int getOldestSlot();
+
+    /**
+     * Get the slot containing the most recently drawn card.
+     *
+     * @return the newest slot containing a card, or -1 if the hand is empty
+     */
+    int getNewestSlot();
+
+    /**
+     * The time at which the card in this slot was drawn, lower is older.
+     *
+     * @param slot the slot to query
+     * @return the draw time of the card in the slot
+     */
+    int getAge(int slot);
+}
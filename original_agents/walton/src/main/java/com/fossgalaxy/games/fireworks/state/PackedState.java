@@ -0,0 +1,853 @@
+package com.fossgalaxy.games.fireworks.state;
+
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.ActionType;
+import com.fossgalaxy.games.fireworks.state.events.GameEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+import static com.fossgalaxy.games.fireworks.state.KnowledgeBits.*;
+
+/**
+ * A compact game state intended for simulation-heavy agents.
+ *
+ * The whole game (apart from the deck) is stored in a handful of primitive arrays, so creating a copy is a few array
+ * copies rather than a deep copy of maps, lists and hands. It behaves the same as {@link BasicState}, which remains
+ * the reference implementation. Use {@link #PackedState(GameState)} and {@link #toBasicState()} to convert between
+ * the two.
+ *
+ * The only observable difference is that {@link #getDiscards()} returns the discarded cards sorted by identity rather
+ * than in the order they were discarded.
+ */
+public class PackedState implements GameState {
+    private static final Logger LOG = LoggerFactory.getLogger(PackedState.class);
+
+    private static final int[] HAND_SIZE = {-1, -1, 5, 5, 4, 4};
+    private static final int MAX_INFOMATION = 8;
+    private static final int MAX_LIVES = 3;
+    private static final int MAX_SCORE = CardColour.values().length * 5;
+
+    /**
+     * The card code used for an empty (or unknown) slot.
+     */
+    private static final byte NO_CARD = -1;
+
+    private static final CardColour[] COLOURS = CardColour.values();
+
+    private final int handSize;
+    private final int playerCount;
+
+    /**
+     * Lose all points when lives run out (the {@link NoLifeState} scoring rule).
+     */
+    private final boolean noLifeZero;
+
+    private final Deck deck;
+
+    /**
+     * Current value of the table, indexed by colour ordinal.
+     */
+    private final byte[] table;
+
+    /**
+     * Number of discarded cards, indexed by card code.
+     */
+    private final byte[] discards;
+
+    /**
+     * Cards in hands, indexed by player * handSize + slot, NO_CARD if not known.
+     */
+    private final byte[] cards;
+
+    /**
+     * Slot knowledge (indexed as cards), see {@link KnowledgeBits} for the layout.
+     */
+    private final int[] knowledge;
+
+    /**
+     * Bit (player * handSize + slot) is set if the slot holds a card.
+     */
+    private long hasCards;
+
+    /**
+     * Draw times for each slot (indexed as cards) and the next draw time for each player.
+     */
+    private final int[] ages;
+    private final int[] drawTimes;
+
+    private int information;
+    private int lives;
+    private int movesLeft;
+    private int turnNumber;
+
+    /**
+     * The most recent history entry, entries are immutable and shared between copies.
+     */
+    private HistoryNode history;
+
+    /**
+     * Lazily created views onto each player's hand.
+     */
+    private transient PackedHand[] handViews;
+
+    /**
+     * Create a game that has player count players.
+     *
+     * @param playerCount the number of players to use for this game.
+     */
+    public PackedState(int playerCount) {
+        this(HAND_SIZE[playerCount], playerCount);
+    }
+
+    /**
+     * Create a game state passing in the hand size and number of players.
+     *
+     * @param handSize the number of cards each player should be dealt
+     * @param playerCount the number of players that will be in the game
+     */
+    public PackedState(int handSize, int playerCount) {
+        this(handSize, playerCount, false);
+    }
+
+    private PackedState(int handSize, int playerCount, boolean noLifeZero) {
+        assert handSize != -1;
+        assert playerCount >= 2;
+        assert playerCount <= 5;
+
+        this.handSize = handSize;
+        this.playerCount = playerCount;
+        this.noLifeZero = noLifeZero;
+        this.deck = new Deck();
+        this.table = new byte[COLOURS.length];
+        this.discards = new byte[Card.IDENTITIES];
+        this.cards = new byte[playerCount * handSize];
+        this.knowledge = new int[playerCount * handSize];
+        this.ages = new int[playerCount * handSize];
+        this.drawTimes = new int[playerCount];
+        this.hasCards = 0;
+
+        this.information = MAX_INFOMATION;
+        this.lives = MAX_LIVES;
+        this.movesLeft = playerCount + 1;
+        this.turnNumber = 0;
+        this.history = null;
+
+        Arrays.fill(cards, NO_CARD);
+        Arrays.fill(knowledge, NO_KNOWLEDGE);
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param state the state to copy
+     */
+    protected PackedState(PackedState state) {
+        this.handSize = state.handSize;
+        this.playerCount = state.playerCount;
+        this.noLifeZero = state.noLifeZero;
+        this.deck = new Deck(state.deck);
+        this.table = state.table.clone();
+        this.discards = state.discards.clone();
+        this.cards = state.cards.clone();
+        this.knowledge = state.knowledge.clone();
+        this.ages = state.ages.clone();
+        this.drawTimes = state.drawTimes.clone();
+        this.hasCards = state.hasCards;
+
+        this.information = state.information;
+        this.lives = state.lives;
+        this.movesLeft = state.movesLeft;
+        this.turnNumber = state.turnNumber;
+        this.history = state.history;
+    }
+
+    /**
+     * Convert another game state into a packed state.
+     *
+     * All information observable through the {@link GameState} interface is copied. If the other state is a
+     * {@link NoLifeState} the packed state will score zero when lives run out.
+     *
+     * @param state the state to convert
+     */
+    public PackedState(GameState state) {
+        this(state.getHandSize(), state.getPlayerCount(), isNoLifeZero(state));
+
+        deck.copyFrom(state.getDeck());
+        for (CardColour colour : COLOURS) {
+            table[colour.ordinal()] = (byte) state.getTableValue(colour);
+        }
+        for (Card card : state.getDiscards()) {
+            discards[card.toCode()]++;
+        }
+
+        for (int player = 0; player < playerCount; player++) {
+            Hand hand = state.getHand(player);
+            for (int slot = 0; slot < handSize; slot++) {
+                Card card = hand.getCard(slot);
+                cards[index(player, slot)] = card == null ? NO_CARD : (byte) card.toCode();
+                if (hand.hasCard(slot)) {
+                    hasCards |= 1L << index(player, slot);
+                }
+                setSlotKnowledge(player, slot, KnowledgeBits.pack(hand, slot));
+            }
+
+            if (hand instanceof TimedHand) {
+                TimedHand timed = (TimedHand) hand;
+                for (int slot = 0; slot < handSize; slot++) {
+                    ages[index(player, slot)] = timed.getAge(slot);
+                }
+                drawTimes[player] = timed.getDrawTime();
+            }
+        }
+
+        this.information = state.getInfomation();
+        this.lives = state.getLives();
+        this.movesLeft = state.getMovesLeft();
+        this.turnNumber = state.getTurnNumber();
+
+        for (HistoryEntry entry : state.getActionHistory()) {
+            history = new HistoryNode(entry, history);
+        }
+    }
+
+    private static boolean isNoLifeZero(GameState state) {
+        if (state instanceof PackedState) {
+            return ((PackedState) state).noLifeZero;
+        }
+        return state instanceof NoLifeState;
+    }
+
+    /**
+     * Convert this state into the reference implementation.
+     *
+     * @return a BasicState (or NoLifeState) with the same observable information as this state
+     */
+    public BasicState toBasicState() {
+        BasicState state = noLifeZero ? new NoLifeState(handSize, playerCount) : new BasicState(handSize, playerCount);
+
+        state.getDeck().copyFrom(deck);
+        for (CardColour colour : COLOURS) {
+            if (table[colour.ordinal()] != 0) {
+                state.setTableValue(colour, table[colour.ordinal()]);
+            }
+        }
+        for (Card card : getDiscards()) {
+            state.addToDiscard(card);
+        }
+
+        for (int player = 0; player < playerCount; player++) {
+            TimedHand hand = (TimedHand) state.getHand(player);
+            int[] times = new int[handSize];
+            for (int slot = 0; slot < handSize; slot++) {
+                hand.setCard(slot, getCardAt(player, slot));
+                hand.setHasCard(slot, hasCard(player, slot));
+                times[slot] = ages[index(player, slot)];
+            }
+
+            // told information first, as this also updates the negative information in other slots
+            for (int slot = 0; slot < handSize; slot++) {
+                int bits = getSlotKnowledge(player, slot);
+                CardColour toldColour = toldColour(bits);
+                if (toldColour != null) {
+                    hand.setKnownColour(toldColour, new Integer[]{slot});
+                }
+                Integer toldValue = toldValue(bits);
+                if (toldValue != null) {
+                    hand.setKnownValue(toldValue, new Integer[]{slot});
+                }
+            }
+
+            for (int slot = 0; slot < handSize; slot++) {
+                int bits = getSlotKnowledge(player, slot);
+                hand.setPossible(slot, possibleColours(bits), possibleValues(bits));
+            }
+            hand.restoreTiming(times, drawTimes[player]);
+        }
+
+        state.setInformation(information);
+        state.setLives(lives);
+        state.restoreCounters(movesLeft, turnNumber);
+
+        for (HistoryEntry entry : getActionHistory()) {
+            state.addAction(entry.playerID, entry.action, entry.history);
+        }
+
+        return state;
+    }
+
+    private int index(int player, int slot) {
+        return player * handSize + slot;
+    }
+
+    private int getSlotKnowledge(int player, int slot) {
+        return knowledge[index(player, slot)];
+    }
+
+    private void setSlotKnowledge(int player, int slot, int bits) {
+        knowledge[index(player, slot)] = bits;
+    }
+
+    private boolean hasCard(int player, int slot) {
+        return (hasCards & (1L << index(player, slot))) != 0;
+    }
+
+    @Override
+    public void init() {
+        init(null);
+    }
+
+    @Override
+    public void init(Long seed) {
+        deck.init();
+        if (seed != null) {
+            deck.shuffle(seed);
+        } else {
+            deck.shuffle();
+        }
+        for (int player = 0; player < playerCount; player++) {
+            deal(player);
+        }
+    }
+
+    @Override
+    public void addToDiscard(Card card) {
+        assert card != null;
+        discards[card.toCode()]++;
+    }
+
+    @Override
+    public Card drawFromDeck() {
+        return deck.getTopCard();
+    }
+
+    @Override
+    public Card getCardAt(int player, int slot) {
+        assert player >= 0 : "playerID must be bigger than -1";
+        assert player < playerCount : "player ID higher than number of players";
+
+        byte code = cards[index(player, slot)];
+        return code == NO_CARD ? null : Card.fromCode(code);
+    }
+
+    @Override
+    public Deck getDeck() {
+        return deck;
+    }
+
+    @Override
+    public GameState getCopy() {
+        return new PackedState(this);
+    }
+
+    @Override
+    public void deal(int playerID) {
+        PackedHand hand = (PackedHand) getHand(playerID);
+        for (int slot = 0; slot < handSize; slot++) {
+            hand.setCard(slot, deck.getTopCard());
+        }
+    }
+
+    /**
+     * Return a read only list of discarded cards.
+     *
+     * The discard order is not stored, so the cards are returned sorted by identity.
+     *
+     * @return the cards that have been discarded during this game
+     */
+    @Override
+    public Collection<Card> getDiscards() {
+        List<Card> discardList = new ArrayList<>();
+        for (int code = 0; code < discards.length; code++) {
+            for (int i = 0; i < discards[code]; i++) {
+                discardList.add(Card.fromCode(code));
+            }
+        }
+        return Collections.unmodifiableList(discardList);
+    }
+
+    @Override
+    public int getDiscardCount(int code) {
+        return discards[code];
+    }
+
+    @Override
+    public Hand getHand(int player) {
+        assert player >= 0 : "playerID must be bigger than -1";
+        assert player < playerCount : "player ID higher than number of players";
+
+        if (handViews == null) {
+            handViews = new PackedHand[playerCount];
+        }
+
+        PackedHand view = handViews[player];
+        if (view == null) {
+            view = new PackedHand(player);
+            handViews[player] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Get a version of the hand for a given player, with information about their hand removed.
+     *
+     * @param playerID the playerID of the hand you want to access
+     * @return the hidden information version of the hand
+     */
+    public Hand getPerspective(int playerID) {
+        return new ShieldedHand(getHand(playerID));
+    }
+
+    @Override
+    public int getHandSize() {
+        return handSize;
+    }
+
+    @Override
+    public int getInfomation() {
+        return information;
+    }
+
+    @Override
+    public int getLives() {
+        return lives;
+    }
+
+    @Override
+    public void setLives(int newValue) {
+        assert newValue <= MAX_LIVES;
+        assert newValue >= 0;
+        lives = newValue;
+    }
+
+    @Override
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    @Override
+    public int getScore() {
+        if (noLifeZero && lives == 0) {
+            return 0;
+        }
+        return getTableScore();
+    }
+
+    private int getTableScore() {
+        int total = 0;
+        for (byte value : table) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Override
+    public int getMovesLeft() {
+        return movesLeft;
+    }
+
+    @Override
+    public int getStartingInfomation() {
+        return MAX_INFOMATION;
+    }
+
+    @Override
+    public int getStartingLives() {
+        return MAX_LIVES;
+    }
+
+    @Override
+    public int getTableValue(CardColour colour) {
+        assert colour != null : "colour should never be null";
+        return table[colour.ordinal()];
+    }
+
+    @Override
+    public boolean isGameOver() {
+        if (lives <= 0) {
+            return true;
+        }
+
+        if (!deck.hasCardsLeft() && movesLeft == 0) {
+            return true;
+        }
+
+        return getTableScore() == MAX_SCORE;
+    }
+
+    @Override
+    public void setCardAt(int player, int slot, Card newCard) {
+        getHand(player).setCard(slot, newCard);
+    }
+
+    @Override
+    public void setInformation(int newValue) {
+        assert newValue <= MAX_INFOMATION;
+        assert newValue >= 0;
+        information = newValue;
+    }
+
+    @Override
+    @Deprecated
+    public void setKnownValue(int player, int slot, Integer value, CardColour colour) {
+        getHand(player).bindCard(slot, new Card(value, colour));
+    }
+
+    @Override
+    public void setTableValue(CardColour c, int nextValue) {
+        table[c.ordinal()] = (byte) nextValue;
+    }
+
+    @Override
+    @Deprecated
+    public void tick() {
+        LOG.warn("Tick is handled automaticlly, if you are applying events call actionTick instead");
+    }
+
+    @Override
+    public void actionTick() {
+        turnNumber++;
+        if (!deck.hasCardsLeft()) {
+            movesLeft--;
+        }
+    }
+
+    @Override
+    @Deprecated
+    public LinkedList<GameEvent> getHistory() {
+        LOG.warn("You should be using getActionHistory, getHistory will be removed!");
+
+        LinkedList<GameEvent> events = new LinkedList<>();
+        for (HistoryEntry entry : getActionHistory()) {
+            events.addAll(entry.history);
+        }
+        return events;
+    }
+
+    @Override
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    @Override
+    public void addAction(int playerID, Action action, List<GameEvent> eventList) {
+        history = new HistoryNode(new HistoryEntry(playerID, action, eventList), history);
+    }
+
+    @Override
+    public List<HistoryEntry> getActionHistory() {
+        if (history == null) {
+            return Collections.emptyList();
+        }
+
+        HistoryEntry[] entries = new HistoryEntry[history.size];
+        for (HistoryNode node = history; node != null; node = node.previous) {
+            entries[node.size - 1] = node.entry;
+        }
+        return Collections.unmodifiableList(Arrays.asList(entries));
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
+    @Override
+    public UndoRecord prepareUndo(int playerID, Action action) {
+        return new UndoRecord(this, playerID, action, this::getSlotKnowledge, player -> drawTimes[player]);
+    }
+
+    @Override
+    public void undo(UndoRecord record) {
+        history = history.previous;
+
+        if (record.isCardMove()) {
+            int index = index(record.owner, record.slot);
+            if (record.drew) {
+                deck.add(Card.fromCode(cards[index]));
+            }
+            if (record.wasDiscarded(this)) {
+                discards[record.card.toCode()]--;
+            }
+            if (record.action.getType() == ActionType.PLAY) {
+                table[record.card.colour.ordinal()] = (byte) record.tableValue;
+            }
+
+            cards[index] = record.card == null ? NO_CARD : (byte) record.card.toCode();
+            long bit = 1L << index;
+            hasCards = record.hadCard ? hasCards | bit : hasCards & ~bit;
+            knowledge[index] = record.knowledge[0];
+            ages[index] = record.age;
+            drawTimes[record.owner] = record.drawTime;
+        } else {
+            System.arraycopy(record.knowledge, 0, knowledge, index(record.owner, 0), handSize);
+        }
+
+        information = record.information;
+        lives = record.lives;
+        movesLeft = record.movesLeft;
+        turnNumber = record.turnNumber;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PackedState that = (PackedState) o;
+
+        if (handSize != that.handSize) return false;
+        if (playerCount != that.playerCount) return false;
+        if (noLifeZero != that.noLifeZero) return false;
+        if (information != that.information) return false;
+        if (lives != that.lives) return false;
+        if (movesLeft != that.movesLeft) return false;
+        if (hasCards != that.hasCards) return false;
+        if (!Arrays.equals(table, that.table)) return false;
+        if (!Arrays.equals(discards, that.discards)) return false;
+        if (!Arrays.equals(cards, that.cards)) return false;
+        if (!Arrays.equals(knowledge, that.knowledge)) return false;
+        if (!Arrays.equals(ages, that.ages)) return false;
+        if (!Arrays.equals(drawTimes, that.drawTimes)) return false;
+        return deck.equals(that.deck);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = handSize;
+        result = 31 * result + Arrays.hashCode(cards);
+        result = 31 * result + Arrays.hashCode(knowledge);
+        result = 31 * result + Arrays.hashCode(table);
+        result = 31 * result + Arrays.hashCode(discards);
+        result = 31 * result + deck.hashCode();
+        result = 31 * result + information;
+        result = 31 * result + lives;
+        result = 31 * result + movesLeft;
+        return result;
+    }
+
+    /**
+     * An immutable history entry, linked to the entry before it.
+     *
+     * Copies of the state share these, so copying the history is free.
+     */
+    private static final class HistoryNode implements java.io.Serializable {
+        private final HistoryEntry entry;
+        private final HistoryNode previous;
+        private final int size;
+
+        private HistoryNode(HistoryEntry entry, HistoryNode previous) {
+            this.entry = entry;
+            this.previous = previous;
+            this.size = previous == null ? 1 : previous.size + 1;
+        }
+    }
+
+    /**
+     * A view onto a single player's hand, reads and writes go straight to the state's arrays.
+     *
+     * This behaves the same as {@link TimedHand}.
+     */
+    private final class PackedHand implements OrderedHand {
+        private final int player;
+
+        private PackedHand(int player) {
+            this.player = player;
+        }
+
+        @Override
+        public void init() {
+            for (int slot = 0; slot < handSize; slot++) {
+                clear(slot);
+            }
+        }
+
+        private void clear(int slot) {
+            cards[index(player, slot)] = NO_CARD;
+            setSlotKnowledge(player, slot, NO_KNOWLEDGE);
+        }
+
+        @Override
+        public Card getCard(int slot) {
+            return getCardAt(player, slot);
+        }
+
+        @Override
+        public CardColour getKnownColour(int slot) {
+            return knownColour(getSlotKnowledge(player, slot));
+        }
+
+        @Override
+        public Integer getKnownValue(int slot) {
+            return knownValue(getSlotKnowledge(player, slot));
+        }
+
+        @Override
+        public int getSize() {
+            return handSize;
+        }
+
+        @Override
+        public void setCard(int slot, Card card) {
+            clear(slot);
+            setHasCardBit(slot, card != null);
+            if (card != null) {
+                cards[index(player, slot)] = (byte) card.toCode();
+                ages[index(player, slot)] = drawTimes[player]++;
+            }
+        }
+
+        @Override
+        public void bindCard(int slot, Card card) {
+            cards[index(player, slot)] = card == null ? NO_CARD : (byte) card.toCode();
+        }
+
+        @Override
+        public void setKnownColour(CardColour colour, Integer[] slots) {
+            int colourBit = 1 << colour.ordinal();
+            int index = 0;
+            for (int slot = 0; slot < handSize; slot++) {
+                int bits = getSlotKnowledge(player, slot);
+                if (index < slots.length && slots[index] == slot) {
+                    bits = (bits & ~COLOUR_MASK & ~(TOLD_MASK << TOLD_COLOUR_SHIFT)) | colourBit
+                            | (colour.ordinal() + 1) << TOLD_COLOUR_SHIFT;
+                    index++;
+                } else {
+                    bits &= ~colourBit;
+                }
+                setSlotKnowledge(player, slot, bits);
+            }
+        }
+
+        @Override
+        public void setKnownValue(Integer value, Integer[] slots) {
+            int valueBit = 1 << (VALUE_SHIFT + value - 1);
+            int index = 0;
+            for (int slot = 0; slot < handSize; slot++) {
+                int bits = getSlotKnowledge(player, slot);
+                if (index < slots.length && slots[index] == slot) {
+                    bits = (bits & ~VALUE_MASK & ~(TOLD_MASK << TOLD_VALUE_SHIFT)) | valueBit | value << TOLD_VALUE_SHIFT;
+                    index++;
+                } else {
+                    bits &= ~valueBit;
+                }
+                setSlotKnowledge(player, slot, bits);
+            }
+        }
+
+        @Override
+        public boolean isCompletePossible(int slot, Card card) {
+            byte code = cards[index(player, slot)];
+            if (code != NO_CARD) {
+                return Card.fromCode(code).equals(card);
+            }
+            return isPossible(slot, card);
+        }
+
+        @Override
+        public boolean isPossible(int slot, Card card) {
+            if (!hasCard(slot)) {
+                return false;
+            }
+            int bits = getSlotKnowledge(player, slot);
+            int required = (1 << card.colour.ordinal()) | (1 << (VALUE_SHIFT + card.value - 1));
+            return (bits & required) == required;
+        }
+
+        @Override
+        public int[] getPossibleValues(int slot) {
+            return possibleValues(getSlotKnowledge(player, slot));
+        }
+
+        @Override
+        public CardColour[] getPossibleColours(int slot) {
+            return possibleColours(getSlotKnowledge(player, slot));
+        }
+
+        @Override
+        public boolean hasColour(CardColour colour) {
+            for (int slot = 0; slot < handSize; slot++) {
+                byte code = cards[index(player, slot)];
+                if (code != NO_CARD && Card.fromCode(code).colour == colour) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasValue(Integer value) {
+            for (int slot = 0; slot < handSize; slot++) {
+                byte code = cards[index(player, slot)];
+                if (code != NO_CARD && Card.fromCode(code).value.equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasCard(int slot) {
+            return slot < handSize && PackedState.this.hasCard(player, slot);
+        }
+
+        @Override
+        public void setHasCard(int slot, boolean value) {
+            if (slot < handSize) {
+                setHasCardBit(slot, value);
+                ages[index(player, slot)] = drawTimes[player]++;
+            }
+        }
+
+        private void setHasCardBit(int slot, boolean value) {
+            long bit = 1L << index(player, slot);
+            hasCards = value ? hasCards | bit : hasCards & ~bit;
+        }
+
+        @Override
+        public int getOldestSlot() {
+            int oldest = -1;
+            int oldestTime = Integer.MAX_VALUE;
+            for (int slot = 0; slot < handSize; slot++) {
+                if (hasCard(slot) && ages[index(player, slot)] < oldestTime) {
+                    oldest = slot;
+                    oldestTime = ages[index(player, slot)];
+                }
+            }
+            return oldest;
+        }
+
+        @Override
+        public int getNewestSlot() {
+            int newest = -1;
+            int newestTime = -1;
+            for (int slot = 0; slot < handSize; slot++) {
+                if (hasCard(slot) && ages[index(player, slot)] > newestTime) {
+                    newest = slot;
+                    newestTime = ages[index(player, slot)];
+                }
+            }
+            return newest;
+        }
+
+        @Override
+        public int getAge(int slot) {
+            return ages[index(player, slot)];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder();
+            for (int slot = 0; slot < handSize; slot++) {
+                buf.append(getKnownColour(slot));
+                buf.append(" ");
+                buf.append(getKnownValue(slot));
+                if (slot < handSize - 1) {
+                    buf.append(", ");
+                }
+            }
+            return "I think I have: " + buf.toString();
+        }
+    }
+}
@@ -8,7 +8,7 @@ import java.util.Arrays;
  *
  * This enables moves such as, "tell about oldest" and "discard oldest"
  */
-public class TimedHand extends NegativeHand {
+public class TimedHand extends NegativeHand implements OrderedHand {
     private int[] time;
     private int drawTime;
 
@@ -46,6 +46,43 @@ public class TimedHand extends NegativeHand {
         drawTime++;
     }
 
+    /**
+     * The draw time that will be assigned to the next card.
+     *
+     * @return the next draw time
+     */
+    int getDrawTime() {
+        return drawTime;
+    }
+
+    /**
+     * Overwrite the draw times for this hand.
+     *
+     * This is used when converting from other state representations.
+     *
+     * @param times the draw time of each slot
+     * @param drawTime the draw time that will be assigned to the next card
+     */
+    void restoreTiming(int[] times, int drawTime) {
+        this.time = Arrays.copyOf(times, getSize());
+        this.drawTime = drawTime;
+    }
+
+    /**
+     * Overwrite the draw time of a single slot.
+     *
+     * This is used when undoing actions, it should not be used during play.
+     *
+     * @param slot the slot to update
+     * @param time the draw time of the slot
+     * @param drawTime the draw time that will be assigned to the next card
+     */
+    void restoreTime(int slot, int time, int drawTime) {
+        this.time[slot] = time;
+        this.drawTime = drawTime;
+    }
+
+    @Override
     public int getOldestSlot() {
         int oldest = -1;
         int oldestTime = Integer.MAX_VALUE;
@@ -61,6 +98,7 @@ public class TimedHand extends NegativeHand {
         return oldest;
     }
 
+    @Override
     public int getNewestSlot() {
         int newest = -1;
         int newestTime = -1;
@@ -75,6 +113,7 @@ public class TimedHand extends NegativeHand {
         return newest;
     }
 
+    @Override
     public int getAge(int i) {
         return time[i];
     }
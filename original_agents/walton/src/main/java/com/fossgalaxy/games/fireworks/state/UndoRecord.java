@@ -0,0 +1,139 @@
+package com.fossgalaxy.games.fireworks.state;
+
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.ActionType;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The information needed to reverse a single action applied to a game state.
+ *
+ * Records are created by {@link GameState#prepareUndo(int, Action)} (usually via
+ * {@link Action#applyUndoable(int, GameState)}) and passed back to {@link GameState#undo(UndoRecord)}. Only the parts
+ * of the state the action can change are stored, so this is much cheaper than copying the state.
+ *
+ * Records must be undone in the reverse order to which their actions were applied, on the state that created them.
+ */
+public final class UndoRecord {
+    final int playerID;
+    final Action action;
+
+    final int information;
+    final int lives;
+    final int movesLeft;
+    final int turnNumber;
+
+    /**
+     * The player whose hand the action touches (the player for play/discard, the target for tells).
+     */
+    final int owner;
+
+    /**
+     * The slot replaced by a play or discard, -1 for tells.
+     */
+    final int slot;
+
+    final Card card;
+    final boolean hadCard;
+    final int tableValue;
+    final boolean drew;
+
+    /**
+     * Packed knowledge (see {@link KnowledgeBits}) for the slot replaced, or every slot of the owner's hand for tells.
+     */
+    final int[] knowledge;
+    final int age;
+    final int drawTime;
+
+    /**
+     * Capture the state before an action is applied.
+     *
+     * @param state the state the action will be applied to
+     * @param playerID the player performing the action
+     * @param action the action that will be applied
+     * @param knowledgeOf the packed knowledge for a (player, slot) pair in this state
+     * @param drawTimeOf the draw time that will be assigned to the next card a player draws
+     */
+    UndoRecord(GameState state, int playerID, Action action, IntBinaryOperator knowledgeOf, IntUnaryOperator drawTimeOf) {
+        this.playerID = playerID;
+        this.action = action;
+        this.information = state.getInfomation();
+        this.lives = state.getLives();
+        this.movesLeft = state.getMovesLeft();
+        this.turnNumber = state.getTurnNumber();
+
+        ActionType type = action.getType();
+        if (type == ActionType.PLAY || type == ActionType.DISCARD) {
+            this.owner = playerID;
+            this.slot = action.getCardIndex();
+            this.knowledge = new int[]{knowledgeOf.applyAsInt(owner, slot)};
+            this.drawTime = drawTimeOf.applyAsInt(owner);
+
+            Hand hand = state.getHand(owner);
+            this.card = hand.getCard(slot);
+            this.hadCard = hand.hasCard(slot);
+            this.age = hand instanceof OrderedHand ? ((OrderedHand) hand).getAge(slot) : 0;
+            this.tableValue = card == null ? 0 : state.getTableValue(card.colour);
+            this.drew = state.getDeck().hasCardsLeft();
+        } else {
+            this.owner = action.getTargetOffset();
+            this.slot = -1;
+            this.knowledge = new int[state.getHandSize()];
+            for (int i = 0; i < knowledge.length; i++) {
+                knowledge[i] = knowledgeOf.applyAsInt(owner, i);
+            }
+            this.drawTime = 0;
+            this.card = null;
+            this.hadCard = false;
+            this.age = 0;
+            this.tableValue = 0;
+            this.drew = false;
+        }
+    }
+
+    /**
+     * Check if this record replaced a card in the owner's hand.
+     *
+     * @return true for plays and discards, false for tells
+     */
+    boolean isCardMove() {
+        return slot != -1;
+    }
+
+    /**
+     * Check if applying the action put the card in the discard pile.
+     *
+     * @param state the state after the action was applied
+     * @return true if the card was discarded or misplayed
+     */
+    boolean wasDiscarded(GameState state) {
+        if (action.getType() == ActionType.DISCARD) {
+            return true;
+        }
+        return action.getType() == ActionType.PLAY && state.getTableValue(card.colour) == tableValue;
+    }
+
+    /**
+     * The player who performed the action.
+     *
+     * @return the player ID of the acting player
+     */
+    public int getPlayerID() {
+        return playerID;
+    }
+
+    /**
+     * The action this record reverses.
+     *
+     * @return the action that was applied
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("undo %s by %d", action, playerID);
+    }
+}
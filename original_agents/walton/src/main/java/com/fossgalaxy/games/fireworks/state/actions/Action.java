@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.state.actions;
 
 import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.UndoRecord;
 import com.fossgalaxy.games.fireworks.state.events.GameEvent;
 
 import java.io.Serializable;
@@ -10,6 +11,22 @@ public interface Action extends Serializable {
 
     List<GameEvent> apply(int playerID, GameState state);
 
+    /**
+     * Apply this action, returning a record which can be used to reverse it.
+     *
+     * This allows search agents to walk down and back up a single state rather than copying it, see
+     * {@link GameState#undo(UndoRecord)}.
+     *
+     * @param playerID the player performing the action
+     * @param state the state to apply the action to
+     * @return a record that will restore the state to how it was before the action
+     */
+    default UndoRecord applyUndoable(int playerID, GameState state) {
+        UndoRecord record = state.prepareUndo(playerID, this);
+        apply(playerID, state);
+        return record;
+    }
+
     boolean isLegal(int playerID, GameState state);
 
     ActionType getType();
@@ -0,0 +1,129 @@
+package com.fossgalaxy.games.fireworks.state.actions;
+
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.events.CardDiscarded;
+import com.fossgalaxy.games.fireworks.state.events.CardPlayed;
+import com.fossgalaxy.games.fireworks.state.events.GameEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An action which has been applied, along with what happened when it was.
+ *
+ * Play and discard actions only know which slot they use, the card that was in that slot is taken from the events
+ * the action produced. This keeps actions themselves immutable, so the same instance can be applied to many states.
+ */
+public final class ActionResult {
+    private final int playerID;
+    private final Action action;
+    private final List<GameEvent> events;
+    private final Card card;
+
+    private ActionResult(int playerID, Action action, List<GameEvent> events, Card card) {
+        this.playerID = playerID;
+        this.action = action;
+        this.events = events;
+        this.card = card;
+    }
+
+    /**
+     * Apply an action and record the result.
+     *
+     * @param playerID the player performing the action
+     * @param action the action to apply
+     * @param state the state to apply the action to
+     * @return the result of applying the action
+     */
+    public static ActionResult apply(int playerID, Action action, GameState state) {
+        return of(playerID, action, action.apply(playerID, state));
+    }
+
+    /**
+     * Build the result of an action from the events it produced.
+     *
+     * @param playerID the player who performed the action
+     * @param action the action that was applied
+     * @param events the events returned when it was applied
+     * @return the result of the action
+     */
+    public static ActionResult of(int playerID, Action action, Collection<GameEvent> events) {
+        Card card = null;
+        for (GameEvent event : events) {
+            if (event instanceof CardPlayed) {
+                CardPlayed played = (CardPlayed) event;
+                card = new Card(played.getValue(), played.getColour());
+            } else if (event instanceof CardDiscarded) {
+                CardDiscarded discarded = (CardDiscarded) event;
+                card = new Card(discarded.getValue(), discarded.getColour());
+            }
+        }
+        return new ActionResult(playerID, action, Collections.unmodifiableList(new ArrayList<>(events)), card);
+    }
+
+    public int getPlayerID() {
+        return playerID;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public List<GameEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * The card that was played or discarded.
+     *
+     * @return the card which left the player's hand, or null if this was a tell
+     */
+    public Card getCard() {
+        return card;
+    }
+
+    /**
+     * The colour involved in this action, as a single letter.
+     *
+     * @return the colour of the card played or discarded, otherwise the action's own colour name
+     */
+    public String getColorName() {
+        return card == null ? action.getColorName() : getColorName(card.colour);
+    }
+
+    /**
+     * The rank involved in this action, from 0 to 4.
+     *
+     * @return the rank of the card played or discarded, otherwise the action's own rank
+     */
+    public int getRank() {
+        return card == null ? action.getRank() : card.value - 1;
+    }
+
+    static String getColorName(CardColour colour) {
+        switch (colour) {
+            case RED:
+                return "R";
+            case BLUE:
+                return "B";
+            case GREEN:
+                return "G";
+            case ORANGE:
+                return "Y";
+            case WHITE:
+                return "W";
+            default:
+                return "X";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return card == null ? String.format("%d: %s", playerID, action)
+                : String.format("%d: %s (%s)", playerID, action, card);
+    }
+}
@@ -1,7 +1,6 @@
 package com.fossgalaxy.games.fireworks.state.actions;
 
 import com.fossgalaxy.games.fireworks.state.Card;
-import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.RulesViolation;
 import com.fossgalaxy.games.fireworks.state.events.CardDrawn;
@@ -14,8 +13,6 @@ import java.util.List;
 
 public class PlayCard implements Action {
     public final int slot;
-    public CardColour colour;
-    public int rank;
 
     public PlayCard(int slot) {
         this.slot = slot;
@@ -36,7 +33,7 @@ public class PlayCard implements Action {
         int nextTurn = game.getTurnNumber() + 1;
 
         // check if the card was valid
-        if (nextValue == oldCard.value) {
+        if (nextValue == oldCard.getValue()) {
             game.setTableValue(oldCard.colour, nextValue);
 
             // if you complete a firework, you get an information back
@@ -54,8 +51,6 @@ public class PlayCard implements Action {
             game.setLives(game.getLives() - 1);
         }
 
-        this.colour = oldCard.colour;
-        this.rank = oldCard.value;
         ArrayList<GameEvent> events = new ArrayList<>();
         events.add(new CardPlayed(playerID, slot, oldCard.colour, oldCard.value, nextTurn));
         events.add(new CardReceived(playerID, slot, game.getDeck().hasCardsLeft(), nextTurn));
@@ -105,38 +100,24 @@ public class PlayCard implements Action {
         return -1;
     }
 
+    /**
+     * The card isn't known until the action is applied, see {@link ActionResult#getColorName()}.
+     *
+     * @return "X", as this action does not have a colour of its own
+     */
     @Override
     public String getColorName() {
-        String res = "X";
-        switch (this.colour) {
-        case RED:
-            res = "R";
-            break;
-        case BLUE:
-            res = "B";
-            break;
-        case GREEN:
-            res = "G";
-            break;
-        case ORANGE:
-            res = "Y";
-            break;
-        case WHITE:
-            res = "W";
-            break;
-        default:
-            break;
-        }
-
-        assert (res != "X");
-        return res;
+        return "X";
     }
 
+    /**
+     * The card isn't known until the action is applied, see {@link ActionResult#getRank()}.
+     *
+     * @return -1, as this action does not have a rank of its own
+     */
     @Override
     public int getRank() {
-        int res = this.rank - 1;
-        assert (res >= 0 && res <= 4);
-        return res;
+        return -1;
     }
 
     @Override
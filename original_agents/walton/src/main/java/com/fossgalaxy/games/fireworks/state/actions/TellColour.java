@@ -21,14 +21,20 @@ public class TellColour implements Action {
         Hand hand = game.getHand(player);
         int turnNumber = game.getTurnNumber() + 1;
 
-        List<Integer> slots = new ArrayList<>();
+        int[] touched = new int[hand.getSize()];
+        int count = 0;
         for (int i = 0; i < hand.getSize(); i++) {
             Card card = hand.getCard(i);
-            if (card != null && colour.equals(card.colour)) {
-                slots.add(i);
+            if (card != null && colour == card.colour) {
+                touched[count++] = i;
             }
         }
 
+        List<Integer> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            slots.add(touched[i]);
+        }
+
         if (playerID == player) {
             throw new RulesViolation("you cannot tell yourself things", this);
         }
@@ -43,7 +49,7 @@ public class TellColour implements Action {
         }
 
         game.setInformation(information - 1);
-        hand.setKnownColour(colour, slots.toArray(new Integer[slots.size()]));
+        hand.setKnownColour(colour, Arrays.copyOf(touched, count));
 
         GameEvent cardInformation = new CardInfoColour(playerID, player, colour, slots, turnNumber);
 
@@ -27,14 +27,20 @@ public class TellValue implements Action {
         int turnNumber = game.getTurnNumber();
 
         Hand hand = game.getHand(player);
-        List<Integer> slots = new ArrayList<>();
+        int[] touched = new int[hand.getSize()];
+        int count = 0;
         for (int i = 0; i < hand.getSize(); i++) {
             Card card = hand.getCard(i);
-            if (card != null && value == card.value) {
-                slots.add(i);
+            if (card != null && value == card.getValue()) {
+                touched[count++] = i;
             }
         }
 
+        List<Integer> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            slots.add(touched[i]);
+        }
+
         if (playerID == player) {
             throw new RulesViolation("you cannot tell yourself things", this);
         }
@@ -49,7 +55,7 @@ public class TellValue implements Action {
         }
 
         game.setInformation(information - 1);
-        hand.setKnownValue(value, slots.toArray(new Integer[slots.size()]));
+        hand.setKnownValue(value, Arrays.copyOf(touched, count));
 
         GameEvent cardInformation = new CardInfoValue(playerID, player, value, slots, turnNumber);
 
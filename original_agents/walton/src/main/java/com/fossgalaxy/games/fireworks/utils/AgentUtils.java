@@ -20,6 +20,7 @@ import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.utils.agentbuilder.AgentFactory;
 import com.fossgalaxy.games.fireworks.utils.agentbuilder.AgentFinder;
+import com.fossgalaxy.games.fireworks.utils.agentbuilder.AgentSpec;
 
 import java.util.*;
 import java.util.function.Supplier;
@@ -29,9 +30,9 @@ import java.util.stream.Collectors;
  * Created by webpigeon on 01/12/16.
  */
 public class AgentUtils {
-    public static final String PARAM_START = "[";
-    public static final String PARAM_END = "]";
-    public static final String PARAM_SEPARATOR = ":";
+    public static final String PARAM_START = String.valueOf(AgentSpec.PARAM_START);
+    public static final String PARAM_END = String.valueOf(AgentSpec.PARAM_END);
+    public static final String PARAM_SEPARATOR = String.valueOf(AgentSpec.PARAM_SEPARATOR);
 
     public static final AgentFinder finder = buildFinder();
 
@@ -114,45 +115,17 @@ public class AgentUtils {
         return finder.buildAgent(name, args);
     }
 
-    //noisy[0.9:iggi]
-
-    // Need to split only args and ignore the brackets
+    /**
+     * Build an agent from a description such as {@code noisy[0.9:iggi]}.
+     * <p>
+     * Descriptions are parsed once and cached (see {@link AgentSpec}), so building the same agents over and over only
+     * costs creating the agents.
+     *
+     * @param name the description of the agent
+     * @return the new agent
+     */
     public static Agent buildAgent(String name) {
-        if (name.contains(PARAM_START) && name.contains(PARAM_END)) {
-            String args = name.substring(name.indexOf(PARAM_START) + 1, name.lastIndexOf(PARAM_END));
-            String[] splitArgs = splitArgs(args);
-            String firstPart = name.substring(0, name.indexOf(PARAM_START));
-            return finder.buildAgent(firstPart, splitArgs);
-        }
-        return finder.buildAgent(name);
-    }
-
-    private static String[] splitArgs(String args) {
-        int opens = 0;
-        List<String> partsFound = new ArrayList<>();
-
-        StringBuilder currentParamBuilder = new StringBuilder();
-
-        for (int index = 0; index < args.length(); index++) {
-            char c = args.charAt(index);
-            // handle params open/close
-            if(c == PARAM_START.charAt(0)){
-                opens++;
-            }else if(c == PARAM_END.charAt(0)){
-                opens--;
-            }else if(c == PARAM_SEPARATOR.charAt(0)){
-                if(opens == 0){
-                    partsFound.add(currentParamBuilder.toString());
-                    currentParamBuilder.setLength(0);
-                    continue;
-                }
-            }
-            currentParamBuilder.append(Character.toString(c));
-        }
-        if(!(currentParamBuilder.length() == 0)){
-            partsFound.add(currentParamBuilder.toString());
-        }
-        return partsFound.toArray(new String[partsFound.size()]);
+        return AgentSpec.of(name).build(finder);
     }
 
     /**
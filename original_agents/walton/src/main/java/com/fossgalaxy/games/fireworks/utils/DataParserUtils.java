@@ -2,66 +2,84 @@ package com.fossgalaxy.games.fireworks.utils;
 
 import java.util.LinkedList;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fossgalaxy.games.fireworks.state.Card;
 import com.fossgalaxy.games.fireworks.state.CardColour;
 import com.fossgalaxy.games.fireworks.state.GameState;
-import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.ActionResult;
 
 /**
  * Created by webpigeon on 11/10/16.
  */
 public class DataParserUtils {
+    // games can be played on several threads at once, so each game gets the next number when it is written out
+    private static final AtomicInteger GAME_COUNT = new AtomicInteger();
+
     /**
      * The number of players that were in this game
      */
     public Vector<String[]> all_act_info;
-    public static Vector<String> start_deck;
-    public static Vector<String> start_hands;
-    public static int game_num = -1;
+    public Vector<String> start_deck;
+    public Vector<String> start_hands;
+    public int game_num = -1;
 
     public DataParserUtils() {
         this.all_act_info = new Vector<String[]>();
     }
 
-    public void writeAction(Action action) {
+    public void writeAction(ActionResult result) {
         // act_info: [action_type, played_card_color, played_card_rank]
         String[] act_info = new String[2];
-        act_info[0] = String.format("%s", action.getType());
-        act_info[1] = String.format("%s%s", action.getColorName(), action.getRank()); // FIXME
+        act_info[0] = String.format("%s", result.getAction().getType());
+        act_info[1] = String.format("%s%s", result.getColorName(), result.getRank()); // FIXME
 
         this.all_act_info.add(act_info);
     }
 
-    public void writeData(GameState state, Action action) {
-        writeAction(action);
+    public void writeData(GameState state, ActionResult result) {
+        writeAction(result);
     }
 
     public void writeToDisk() {
-        game_num += 1;
-        writeDeck();
-        writeAct();
+        // write the game in one go, so lines from games on other threads don't end up in the middle of it
+        System.out.print(format(GAME_COUNT.getAndIncrement()));
+    }
+
+    /**
+     * Format the record of this game in the same way as {@link #writeToDisk()}, without writing it anywhere.
+     *
+     * @param gameNum the game number to put at the start of each line
+     * @return the lines for this game, each ending with a newline
+     */
+    public String format(int gameNum) {
+        game_num = gameNum;
+
+        StringBuilder out = new StringBuilder();
+        writeDeck(out);
+        writeAct(out);
+        return out.toString();
     }
 
-    public void writeDeck() {
+    public void writeDeck(StringBuilder out) {
         // Write Start Hands
         for (int k = 0; k < start_hands.size(); k++) {
-            System.out.printf(game_num + "," + "Deck" + "," + start_hands.get(k) + "\n");
+            out.append(game_num + "," + "Deck" + "," + start_hands.get(k) + "\n");
         }
 
         // Write Deck
         for (int k = 0; k < start_deck.size(); k++) {
-            System.out.printf(game_num + "," + "Deck" + "," + start_deck.get(k) + "\n");
+            out.append(game_num + "," + "Deck" + "," + start_deck.get(k) + "\n");
         }
     }
 
-    public void writeAct() {
+    public void writeAct(StringBuilder out) {
         for (int i = 0; i < this.all_act_info.size(); i++) {
             // Write action: action_type, played_card_color, played_card_rank
             // In the future when playing with player > 2, might need to include
             // target_offset
             String[] act_info = this.all_act_info.get(i);
-            System.out.printf(game_num + "," + act_info[0] + "," + act_info[1] + "\n");
+            out.append(game_num + "," + act_info[0] + "," + act_info[1] + "\n");
         }
     }
 
@@ -93,7 +111,7 @@ public class DataParserUtils {
     }
 
     // Recording the starting deck cards when the game is initialized
-    public static void RecordStartDeck(LinkedList<Card> cards) {
+    public void RecordStartDeck(LinkedList<Card> cards) {
         start_deck = new Vector<String>();
         Card curr_card;
 
@@ -105,7 +123,7 @@ public class DataParserUtils {
     }
 
     // Recording the starting hand cards of each player when the game is initialized
-    public static void RecordStartHands(LinkedList<Card> cards) {
+    public void RecordStartHands(LinkedList<Card> cards) {
         start_hands = new Vector<String>();
         Card curr_card;
 
@@ -1,6 +1,7 @@
 package com.fossgalaxy.games.fireworks.utils.agentbuilder;
 
 import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
 import com.fossgalaxy.games.fireworks.ai.mcs.MonteCarloSearch;
 import com.fossgalaxy.games.fireworks.ai.mcts.MCTS;
 import com.fossgalaxy.games.fireworks.ai.mcts.NoisyPredictor;
@@ -19,11 +20,15 @@ import org.reflections.util.ConfigurationBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -31,15 +36,40 @@ import java.util.function.Function;
  */
 public class AgentFinder {
     private static final Logger logger = LoggerFactory.getLogger(AgentFinder.class);
+
+    /**
+     * The registry generated at compile time by the AgentRegistryProcessor.
+     */
+    public static final String GENERATED_REGISTRY =
+            AgentFinder.class.getPackage().getName() + ".GeneratedAgentRegistry";
+
     private final Map<Class<?>, Function<String, ?>> converters;
     private final Map<String, AgentFactory> knownFactories;
+    private final AgentRegistry registry;
 
-    // have we already scanned for agents?
-    private boolean hasScanned;
+    // have we already loaded the registry or scanned for agents? (volatile so games on other threads see them finish)
+    private volatile boolean hasRegistered;
+    private volatile boolean hasScanned;
 
+    /**
+     * Create a finder which uses the generated agent registry, falling back to scanning the classpath for agents it
+     * doesn't know about.
+     */
     public AgentFinder() {
+        this(AgentFinder::registerGenerated);
+    }
+
+    /**
+     * Create a finder which uses a given agent registry, falling back to scanning the classpath for agents it doesn't
+     * know about.
+     *
+     * @param registry the factories to start with
+     */
+    public AgentFinder(AgentRegistry registry) {
         this.converters = new HashMap<>();
-        this.knownFactories = new HashMap<>();
+        this.knownFactories = new ConcurrentHashMap<>();
+        this.registry = registry;
+        this.hasRegistered = false;
         this.hasScanned = false;
 
         buildConverters();
@@ -84,6 +114,7 @@ public class AgentFinder {
         converters.put(boolean.class, Boolean::parseBoolean);
         converters.put(int[].class, AgentFinder::parseIntArray);
         converters.put(Agent.class, AgentUtils::buildAgent);
+        converters.put(SearchBudget.class, SearchBudget::parse);
     }
 
     public static int[] parseIntArray(String data) {
@@ -106,6 +137,16 @@ public class AgentFinder {
         converters.put(clazz, converter);
     }
 
+    /**
+     * Get the converter used for arguments of a given type.
+     *
+     * @param clazz the type of the argument
+     * @return the converter, or null if there isn't one for that type
+     */
+    public Function<String, ?> getConverter(Class<?> clazz) {
+        return converters.get(clazz);
+    }
+
     /**
      * Allow manual insertion of factories.
      *
@@ -116,6 +157,15 @@ public class AgentFinder {
         knownFactories.put(name, factory);
     }
 
+    /**
+     * Allow manual insertion of factories, using the factory's own name.
+     *
+     * @param factory the method that creates the agent
+     */
+    public void addFactory(AgentFactory factory) {
+        knownFactories.put(factory.name(), factory);
+    }
+
     /**
      * Generate an agent with a given name from this factory
      *
@@ -124,11 +174,17 @@ public class AgentFinder {
      * @return The constructed agent
      */
     public Agent buildAgent(String name, String... args) {
-        if (!hasScanned) {
-            scanForAgents();
+        if (!hasRegistered) {
+            loadRegistry();
         }
 
         AgentFactory factory = knownFactories.get(name);
+        if (factory == null && !hasScanned) {
+            // not something the registry knows about, it might be somewhere else on the classpath
+            scanForAgents();
+            factory = knownFactories.get(name);
+        }
+
         if (factory == null) {
             throw new IllegalArgumentException("Unknown factory type: " + name);
         }
@@ -136,13 +192,46 @@ public class AgentFinder {
         return factory.build(args);
     }
 
+    /**
+     * Lazily add the factories from the registry.
+     * <p>
+     * This happens the first time an agent is built, so any converters added before then are used by the registry's
+     * factories.
+     */
+    private synchronized void loadRegistry() {
+        if (hasRegistered) {
+            return;
+        }
+
+        registry.register(this);
+        hasRegistered = true;
+    }
+
+    /**
+     * Register the factories from the generated registry, if the build created one.
+     *
+     * @param finder the finder to add the factories to
+     */
+    private static void registerGenerated(AgentFinder finder) {
+        try {
+            Class<?> generated = Class.forName(GENERATED_REGISTRY);
+            ((AgentRegistry) generated.getDeclaredConstructor().newInstance()).register(finder);
+        } catch (ClassNotFoundException ex) {
+            logger.info("no generated agent registry, agents will be found by scanning the classpath");
+        } catch (ReflectiveOperationException ex) {
+            logger.error("unable to load the generated agent registry", ex);
+        }
+    }
+
     /**
      * A lazy-loaded class scanner.
      * <p>
      * This scans the whole classpath for classes that extend agent, and builds
-     * factories for them.
+     * factories for them. Agents can be built from several threads at once, so
+     * only one of them gets to do the scan. Agents which are already known (from
+     * the registry, or added by hand) are kept.
      */
-    private void scanForAgents() {
+    private synchronized void scanForAgents() {
 
         // ensure that we do not scan more than once - once is enough.
         if (hasScanned) {
@@ -153,17 +242,21 @@ public class AgentFinder {
                 .setScanners(new MethodAnnotationsScanner(), new SubTypesScanner(), new TypeAnnotationsScanner())
                 .setExpandSuperTypes(false));
 
+        Map<String, AgentFactory> found = new HashMap<>();
+
         // find all subtypes of the agent class
-        scanForConstructors(reflections);
+        scanForConstructors(reflections, found);
 
         // find all annotated static methods
-        scanForStaticMethods(reflections);
+        scanForStaticMethods(reflections, found);
+
+        found.forEach(knownFactories::putIfAbsent);
 
         // ensure we do not scan again
         hasScanned = true;
     }
 
-    private void scanForStaticMethods(Reflections reflections) {
+    private void scanForStaticMethods(Reflections reflections, Map<String, AgentFactory> found) {
         Set<Method> methods = reflections.getMethodsAnnotatedWith(AgentBuilderStatic.class);
 
         for (Method method : methods) {
@@ -174,7 +267,7 @@ public class AgentFinder {
 
             try {
                 AgentFactory factory = buildFactory(method);
-                knownFactories.put(factory.name(), factory);
+                found.put(factory.name(), factory);
                 // FIXME
                 // System.out.println("Name: " + factory.name());
             } catch (IllegalArgumentException ex) {
@@ -184,7 +277,7 @@ public class AgentFinder {
         }
     }
 
-    private void scanForConstructors(Reflections reflections) {
+    private void scanForConstructors(Reflections reflections, Map<String, AgentFactory> found) {
         Set<Class<? extends Agent>> agentClazzes = reflections.getSubTypesOf(Agent.class);
         for (Class<? extends Agent> agentClazz : agentClazzes) {
 
@@ -196,7 +289,7 @@ public class AgentFinder {
 
             try {
                 AgentFactory factory = buildFactory(agentClazz);
-                knownFactories.put(factory.name(), factory);
+                found.put(factory.name(), factory);
             } catch (IllegalArgumentException ex) {
                 logger.error("Failed to create agent " + agentClazz, ex);
             }
@@ -271,9 +364,11 @@ public class AgentFinder {
                             throw new IllegalArgumentException("you said params " + i + " was a " + params[i]
                                     + " but the converter wants to give me a " + methodWithThatName.getReturnType());
                         }
-                        convertersInst[i] = (s) -> getConverter(methodWithThatName, s);
+                        MethodHandle handle = MethodHandles.publicLookup().unreflect(methodWithThatName)
+                                .asType(MethodType.methodType(Object.class, String.class));
+                        convertersInst[i] = (s) -> getConverter(handle, s);
                     }
-                } catch (NoSuchMethodException e) {
+                } catch (NoSuchMethodException | IllegalAccessException e) {
                     e.printStackTrace();
                 }
             } else {
@@ -291,10 +386,12 @@ public class AgentFinder {
         return convertersInst;
     }
 
-    private Object getConverter(Method methodWithThatName, String s) {
+    private Object getConverter(MethodHandle methodWithThatName, String s) {
         try {
-            return methodWithThatName.invoke(null, s);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return methodWithThatName.invokeExact(s);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             logger.error("error invoking method {}", e);
         }
         return null;
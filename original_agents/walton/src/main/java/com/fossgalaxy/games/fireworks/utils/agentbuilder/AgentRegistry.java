@@ -0,0 +1,20 @@
+package com.fossgalaxy.games.fireworks.utils.agentbuilder;
+
+/**
+ * A list of agent factories which is known without scanning the classpath.
+ *
+ * The build generates an implementation of this (GeneratedAgentRegistry, see
+ * {@link com.fossgalaxy.games.fireworks.annotations.processor.AgentRegistryProcessor}) covering every agent in this
+ * module, which {@link AgentFinder} loads in place of the classpath scan.
+ */
+@FunctionalInterface
+public interface AgentRegistry {
+
+    /**
+     * Add this registry's factories to a finder.
+     *
+     * @param finder the finder to add the factories to, which also supplies the argument converters
+     */
+    void register(AgentFinder finder);
+
+}
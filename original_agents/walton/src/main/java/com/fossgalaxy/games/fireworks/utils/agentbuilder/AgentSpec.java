@@ -0,0 +1,158 @@
+package com.fossgalaxy.games.fireworks.utils.agentbuilder;
+
+import com.fossgalaxy.games.fireworks.ai.Agent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A parsed agent description, such as {@code iggi} or {@code noisy[0.1:noisy[0.2:iggi]]}.
+ *
+ * The name is everything before the first {@code [}, and the arguments are everything between it and the last
+ * {@code ]}, split on the {@code :} characters which aren't inside another pair of brackets. Arguments are kept as
+ * text, as only the factory knows what they mean; an argument which is an agent is turned back into a spec (and so
+ * looked up in the cache) when the factory's converter builds it.
+ *
+ * Specs are immutable, and parsing is cached, so building the same agents for every seat of every game only costs a
+ * cache lookup per agent on top of creating the agents themselves.
+ */
+public final class AgentSpec {
+    public static final char PARAM_START = '[';
+    public static final char PARAM_END = ']';
+    public static final char PARAM_SEPARATOR = ':';
+
+    /**
+     * How many specs to remember, so generated agent names (from a tuner, say) can't fill the heap.
+     */
+    private static final int MAX_CACHED = 4096;
+
+    private static final Map<String, AgentSpec> CACHE = new ConcurrentHashMap<>();
+
+    private final String text;
+    private final String name;
+    private final String[] args;
+
+    private AgentSpec(String text, String name, String[] args) {
+        this.text = text;
+        this.name = name;
+        this.args = args;
+    }
+
+    /**
+     * Get the spec for some text, parsing it if it hasn't been seen before.
+     *
+     * @param text the agent description
+     * @return the parsed spec
+     */
+    public static AgentSpec of(String text) {
+        AgentSpec spec = CACHE.get(text);
+        if (spec == null) {
+            spec = parse(text);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(text, spec);
+            }
+        }
+        return spec;
+    }
+
+    /**
+     * Parse an agent description, without using the cache.
+     *
+     * @param text the agent description
+     * @return the parsed spec
+     */
+    public static AgentSpec parse(String text) {
+        int start = text.indexOf(PARAM_START);
+        int end = text.lastIndexOf(PARAM_END);
+        if (start == -1 || end == -1) {
+            return new AgentSpec(text, text, new String[0]);
+        }
+
+        return new AgentSpec(text, text.substring(0, start), splitArgs(text.substring(start + 1, end)));
+    }
+
+    private static String[] splitArgs(String args) {
+        int opens = 0;
+        List<String> partsFound = new ArrayList<>();
+
+        int partStart = 0;
+        for (int index = 0; index < args.length(); index++) {
+            char c = args.charAt(index);
+            // handle params open/close
+            if (c == PARAM_START) {
+                opens++;
+            } else if (c == PARAM_END) {
+                opens--;
+            } else if (c == PARAM_SEPARATOR && opens == 0) {
+                partsFound.add(args.substring(partStart, index));
+                partStart = index + 1;
+            }
+        }
+        if (partStart < args.length()) {
+            partsFound.add(args.substring(partStart));
+        }
+        return partsFound.toArray(new String[0]);
+    }
+
+    /**
+     * The name of the factory to build this agent with.
+     *
+     * @return the factory name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int getArgCount() {
+        return args.length;
+    }
+
+    public String getArg(int index) {
+        return args[index];
+    }
+
+    /**
+     * The arguments to pass to the factory.
+     *
+     * @return a copy of the arguments
+     */
+    public String[] getArgs() {
+        return args.clone();
+    }
+
+    /**
+     * Build a new agent from this spec.
+     *
+     * @param finder the finder to look the factory up in
+     * @return the new agent
+     */
+    public Agent build(AgentFinder finder) {
+        // factories only read their arguments, so there's no need to copy them for every agent
+        return finder.buildAgent(name, args);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AgentSpec agentSpec = (AgentSpec) o;
+        return name.equals(agentSpec.name) && Arrays.equals(args, agentSpec.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + Arrays.hashCode(args);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
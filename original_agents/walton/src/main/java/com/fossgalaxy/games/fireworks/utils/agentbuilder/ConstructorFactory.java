@@ -4,8 +4,10 @@ import com.fossgalaxy.games.fireworks.ai.Agent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.function.Function;
 
@@ -17,6 +19,7 @@ public class ConstructorFactory implements AgentFactory {
 
     private final Class<? extends Agent> clazz;
     private final Constructor<?> constructor;
+    private final MethodHandle handle;
     private final Function<String, ?>[] converters;
     private final String name;
 
@@ -28,10 +31,27 @@ public class ConstructorFactory implements AgentFactory {
     public ConstructorFactory(Class<? extends Agent> clazz, Constructor<?> constructor, Function<String, ?>[] converters, String name) {
         this.clazz = clazz;
         this.constructor = constructor;
+        this.handle = bind(constructor);
         this.converters = converters;
         this.name = name;
     }
 
+    /**
+     * Look the constructor up once, as a handle taking an array of arguments.
+     * <p>
+     * Calling through the handle avoids the access checks and argument copying of
+     * {@link Constructor#newInstance(Object...)} on every agent built.
+     */
+    private static MethodHandle bind(Constructor<?> constructor) {
+        try {
+            return MethodHandles.publicLookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("cannot call constructor " + constructor, e);
+        }
+    }
+
 
     @Override
     public Agent build(String... args) {
@@ -49,8 +69,12 @@ public class ConstructorFactory implements AgentFactory {
         }
 
         try {
-            return (Agent)constructor.newInstance(params);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            // invokeExact needs the call to match the handle's type exactly, so cast afterwards
+            Object agent = handle.invokeExact(params);
+            return (Agent) agent;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             LOGGER.error("error building from constructor {}", e);
         }
         return null;
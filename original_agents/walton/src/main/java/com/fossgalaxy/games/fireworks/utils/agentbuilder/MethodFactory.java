@@ -4,7 +4,9 @@ import com.fossgalaxy.games.fireworks.ai.Agent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.function.Function;
@@ -16,6 +18,7 @@ public class MethodFactory implements AgentFactory{
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodFactory.class);
     private final Class<?> clazz;
     private final Method method;
+    private final MethodHandle handle;
     private final Function<String, ?>[] converters;
     private final String name;
 
@@ -26,10 +29,24 @@ public class MethodFactory implements AgentFactory{
     public MethodFactory(Class<?> clazz, Method method, Function<String, ?>[] converters, String name) {
         this.clazz = clazz;
         this.method = method;
+        this.handle = bind(method);
         this.converters = converters;
         this.name = name;
     }
 
+    /**
+     * Look the static method up once, as a handle taking an array of arguments.
+     */
+    private static MethodHandle bind(Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("cannot call method " + method, e);
+        }
+    }
+
     @Override
     public Agent build(String[] args) {
         Object[] params = new Object[0];
@@ -46,8 +63,12 @@ public class MethodFactory implements AgentFactory{
 
 
         try {
-            return (Agent) method.invoke(null, params);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            // invokeExact needs the call to match the handle's type exactly, so cast afterwards
+            Object agent = handle.invokeExact(params);
+            return (Agent) agent;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             LOGGER.error("error building from method: {}", e);
         }
         return null;
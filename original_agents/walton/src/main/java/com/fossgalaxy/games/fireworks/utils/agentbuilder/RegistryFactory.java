@@ -0,0 +1,76 @@
+package com.fossgalaxy.games.fireworks.utils.agentbuilder;
+
+import com.fossgalaxy.games.fireworks.ai.Agent;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A factory which calls an agent's constructor or builder method directly.
+ *
+ * These are created by the generated agent registry. They convert their arguments in the same way as
+ * {@link ConstructorFactory} and {@link MethodFactory}, but skip the reflective call.
+ */
+public class RegistryFactory implements AgentFactory {
+    private final String name;
+    private final Class<?> clazz;
+    private final Function<String, ?>[] converters;
+    private final Function<Object[], ? extends Agent> builder;
+
+    /**
+     * Create a factory for an annotated constructor or static method.
+     *
+     * @param name the name of the agent
+     * @param clazz the class declaring the constructor or method
+     * @param converters how to convert each argument from a string
+     * @param builder calls the constructor or method with the converted arguments
+     */
+    public RegistryFactory(String name, Class<?> clazz, Function<String, ?>[] converters,
+            Function<Object[], ? extends Agent> builder) {
+        this.name = name;
+        this.clazz = clazz;
+        this.converters = converters;
+        this.builder = builder;
+    }
+
+    /**
+     * Create a factory for a no-args constructor, any arguments are ignored.
+     *
+     * @param name the name of the agent
+     * @param clazz the class of the agent
+     * @param constructor calls the constructor
+     */
+    public RegistryFactory(String name, Class<?> clazz, Supplier<? extends Agent> constructor) {
+        this(name, clazz, null, params -> constructor.get());
+    }
+
+    @Override
+    public Agent build(String[] args) {
+        Object[] params = new Object[0];
+        if (converters != null) {
+            if (converters.length != args.length) {
+                throw new IllegalArgumentException("incorrect argument count to build class:" + clazz + ", given: "
+                        + Arrays.toString(args));
+            }
+
+            params = new Object[converters.length];
+            for (int i = 0; i < params.length; i++) {
+                params[i] = converters[i].apply(args[i]);
+            }
+        }
+
+        return builder.apply(params);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("agent factory for: %s - %s, %s", clazz.getSimpleName(), name,
+                Arrays.toString(converters));
+    }
+}
@@ -0,0 +1,148 @@
+package com.fossgalaxy.games.fireworks.ai;
+
+import com.fossgalaxy.games.fireworks.ai.mcts.MCTS;
+import com.fossgalaxy.games.fireworks.ai.mcts.MCTSNode;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSearchBudget {
+
+    @Test
+    public void testIterationBudget() {
+        SearchBudget.Tracker tracker = SearchBudget.iterations(3).start();
+        assertTrue(tracker.next());
+        assertTrue(tracker.next());
+        assertTrue(tracker.next());
+        assertFalse(tracker.next());
+        assertEquals(3, tracker.getIterations());
+    }
+
+    @Test
+    public void testNodeBudget() {
+        SearchBudget.Tracker tracker = SearchBudget.nodes(2).start();
+        assertTrue(tracker.next());
+        tracker.addNodes(1);
+        assertTrue(tracker.next());
+        tracker.addNodes(1);
+        assertFalse(tracker.next());
+    }
+
+    @Test
+    public void testExpiredTimeBudgetRunsOnce() {
+        SearchBudget.Tracker tracker = SearchBudget.time(1, TimeUnit.NANOSECONDS).start();
+        assertTrue(tracker.next());
+        assertFalse(tracker.next());
+        assertEquals(1, tracker.getIterations());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroIterationsRejected() {
+        SearchBudget.iterations(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroTimeRejected() {
+        SearchBudget.parse("0ms");
+    }
+
+    @Test
+    public void testMCTSMovesWithExpiredBudget() {
+        BasicState state = new BasicState(2);
+        state.init(3L);
+
+        MCTS agent = new MCTS(SearchBudget.time(1, TimeUnit.NANOSECONDS), MCTS.DEFAULT_ROLLOUT_DEPTH,
+                MCTS.DEFAULT_TREE_DEPTH_MUL);
+        assertTrue(agent.doMove(0, hideHand(state)).isLegal(0, state));
+    }
+
+    @Test
+    public void testYieldingKeepsIterationBudget() {
+        SearchYield.setInterval(1, TimeUnit.NANOSECONDS);
+        try {
+            SearchBudget.Tracker tracker = SearchBudget.iterations(100).start();
+            int iterations = 0;
+            while (tracker.next()) {
+                iterations++;
+            }
+            assertEquals(100, iterations);
+        } finally {
+            SearchYield.disable();
+        }
+        assertFalse(SearchYield.isEnabled());
+    }
+
+    @Test
+    public void testYieldIntervalIsPerSearch() throws InterruptedException {
+        SearchYield.setInterval(5, TimeUnit.MILLISECONDS);
+        try {
+            SearchBudget.Tracker tracker = SearchBudget.iterations(10).start();
+
+            // another thread (another game) neither sees nor changes this thread's setting
+            long[] seen = new long[1];
+            Thread other = new Thread(() -> {
+                seen[0] = SearchBudget.iterations(10).start().getYieldNanos();
+                SearchYield.setInterval(1, TimeUnit.NANOSECONDS);
+            });
+            other.start();
+            other.join();
+
+            assertEquals(0, seen[0]);
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(5), SearchYield.getIntervalNanos());
+
+            // a search keeps the interval it started with
+            SearchYield.disable();
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(5), tracker.getYieldNanos());
+        } finally {
+            SearchYield.disable();
+        }
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(SearchBudget.iterations(500), SearchBudget.parse("500"));
+        assertEquals(SearchBudget.iterations(500), SearchBudget.parse("500i"));
+        assertEquals(SearchBudget.nodes(20), SearchBudget.parse("20n"));
+        assertEquals(SearchBudget.millis(1000), SearchBudget.parse("1s"));
+        assertEquals(SearchBudget.iterations(500).and(SearchBudget.millis(250)), SearchBudget.parse("500i+250ms"));
+
+        // the tightest limit wins when combining
+        assertEquals(SearchBudget.iterations(10), SearchBudget.parse("100+10"));
+
+        SearchBudget budget = SearchBudget.parse("500i+250ms+20n");
+        assertEquals(budget, SearchBudget.parse(budget.toString()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownUnit() {
+        SearchBudget.parse("10h");
+    }
+
+    @Test
+    public void testMCTSHonoursIterations() {
+        BasicState state = new BasicState(2);
+        state.init(3L);
+
+        MCTSNode root = new MCTS(SearchBudget.iterations(150), MCTS.DEFAULT_ROLLOUT_DEPTH, MCTS.DEFAULT_TREE_DEPTH_MUL)
+                .search(0, hideHand(state));
+        assertEquals(150, root.getVisits());
+    }
+
+    // player 0's view of the state, their cards go back in the deck
+    private static GameState hideHand(GameState state) {
+        GameState view = state.getCopy();
+        for (int slot = 0; slot < view.getHandSize(); slot++) {
+            Card card = view.getCardAt(0, slot);
+            view.getDeck().add(card);
+            view.getHand(0).bindCard(slot, null);
+        }
+        return view;
+    }
+}
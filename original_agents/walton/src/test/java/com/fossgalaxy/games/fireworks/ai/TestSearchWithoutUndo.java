@@ -0,0 +1,84 @@
+package com.fossgalaxy.games.fireworks.ai;
+
+import com.fossgalaxy.games.fireworks.ai.ga.RMHC;
+import com.fossgalaxy.games.fireworks.ai.mcts.ArenaMCTS;
+import com.fossgalaxy.games.fireworks.ai.mcts.MCTS;
+import com.fossgalaxy.games.fireworks.ai.mcts.TreeParallelMCTS;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Search agents have to keep working on states which can't undo actions, by copying them instead.
+ */
+public class TestSearchWithoutUndo {
+
+    private static void checkMove(Agent agent) {
+        NoUndoState state = new NoUndoState(3);
+        state.init(5L);
+        assertFalse(state.supportsUndo());
+
+        // player 0's view of the state, their cards go back in the deck
+        GameState view = state.getCopy();
+        for (int slot = 0; slot < view.getHandSize(); slot++) {
+            Card card = view.getCardAt(0, slot);
+            view.getDeck().add(card);
+            view.getHand(0).bindCard(slot, null);
+        }
+        GameState before = view.getCopy();
+
+        Action action = agent.doMove(0, view);
+        assertTrue(action.isLegal(0, state));
+        assertEquals(before, view);
+    }
+
+    @Test
+    public void testMCTS() {
+        checkMove(new MCTS(SearchBudget.iterations(100), MCTS.DEFAULT_ROLLOUT_DEPTH, MCTS.DEFAULT_TREE_DEPTH_MUL));
+    }
+
+    @Test
+    public void testArenaMCTS() {
+        checkMove(ArenaMCTS.buildMCTS(SearchBudget.iterations(100), MCTS.DEFAULT_ROLLOUT_DEPTH,
+                MCTS.DEFAULT_TREE_DEPTH_MUL));
+    }
+
+    @Test
+    public void testTreeParallelMCTS() {
+        checkMove(new TreeParallelMCTS(2, () -> new MCTS(100)));
+    }
+
+    @Test
+    public void testRMHC() {
+        checkMove(new RMHC(SearchBudget.iterations(20)));
+    }
+
+    /**
+     * A state which, like any state written before undo was added, can only be copied.
+     */
+    private static class NoUndoState extends BasicState {
+        private NoUndoState(int playerCount) {
+            super(playerCount);
+        }
+
+        private NoUndoState(NoUndoState state) {
+            super(state);
+        }
+
+        @Override
+        public GameState getCopy() {
+            return new NoUndoState(this);
+        }
+
+        @Override
+        public boolean supportsUndo() {
+            return false;
+        }
+    }
+}
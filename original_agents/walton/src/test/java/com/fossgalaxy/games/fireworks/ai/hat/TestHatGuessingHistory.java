@@ -0,0 +1,57 @@
+package com.fossgalaxy.games.fireworks.ai.hat;
+
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestHatGuessingHistory {
+    private static final int PLAYERS = 5;
+
+    @Test
+    public void testIncrementalReplayMatchesFreshAgent() {
+        for (long seed = 0; seed < 3; seed++) {
+            BasicState state = new BasicState(PLAYERS);
+            state.init(seed);
+
+            HatGuessing[] agents = new HatGuessing[PLAYERS];
+            for (int i = 0; i < PLAYERS; i++) {
+                agents[i] = create(i);
+            }
+
+            int player = 0;
+            while (!state.isGameOver()) {
+                Action action = agents[player].doMove(player, state);
+
+                // a new agent has to replay the whole game, so should reach the same decision
+                assertEquals("turn " + state.getTurnNumber(), create(player).doMove(player, state), action);
+
+                action.apply(player, state);
+                player = (player + 1) % PLAYERS;
+            }
+        }
+    }
+
+    @Test
+    public void testNewGameResetsHistory() {
+        HatGuessing agent = create(0);
+
+        BasicState first = new BasicState(PLAYERS);
+        first.init(1L);
+        for (int player = 0; player < PLAYERS; player++) {
+            create(player).doMove(player, first).apply(player, first);
+        }
+        agent.doMove(0, first);
+
+        BasicState second = new BasicState(PLAYERS);
+        second.init(2L);
+        assertEquals(create(0).doMove(0, second), agent.doMove(0, second));
+    }
+
+    private static HatGuessing create(int agentID) {
+        HatGuessing agent = new HatGuessing();
+        agent.receiveID(agentID, new String[PLAYERS]);
+        return agent;
+    }
+}
@@ -0,0 +1,101 @@
+package com.fossgalaxy.games.fireworks.ai.iggi;
+
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import com.fossgalaxy.games.fireworks.state.actions.TellColour;
+import com.fossgalaxy.games.fireworks.state.actions.TellValue;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestActionTable {
+
+    @Test
+    public void testIdsRoundTrip() {
+        for (int players = 2; players <= 5; players++) {
+            ActionTable table = ActionTable.forPlayers(players);
+            assertSame(table, ActionTable.forPlayers(players));
+            assertTrue(table.size() <= Long.SIZE);
+
+            Set<Action> seen = new HashSet<>();
+            for (int id = 0; id < table.size(); id++) {
+                Action action = table.get(id);
+                assertTrue(seen.add(action));
+                assertEquals(id, table.getId(action));
+            }
+        }
+
+        ActionTable table = ActionTable.forPlayers(3);
+        assertEquals(table.getTellColourId(2, CardColour.GREEN), table.getId(new TellColour(2, CardColour.GREEN)));
+        assertEquals(table.getTellValueId(1, 5), table.getId(new TellValue(1, 5)));
+        assertEquals(-1, table.getId(new TellValue(1, 0)));
+    }
+
+    @Test
+    public void testAllMovesExcludeOwnTells() {
+        ActionTable table = ActionTable.forPlayers(4);
+        for (Action action : table.toList(table.getAllMoves(1))) {
+            if (action instanceof TellColour) {
+                assertTrue(((TellColour) action).player != 1);
+            }
+            if (action instanceof TellValue) {
+                assertTrue(((TellValue) action).player != 1);
+            }
+        }
+        assertEquals(table.size() - 10, Long.bitCount(table.getAllMoves(1)));
+    }
+
+    @Test
+    public void testLegalMovesMatchIsLegal() {
+        Random random = new Random(7);
+        for (int players = 2; players <= 5; players++) {
+            ActionTable table = ActionTable.forPlayers(players);
+            GameState state = new BasicState(players);
+            state.init(random.nextLong());
+
+            int player = 0;
+            while (!state.isGameOver()) {
+                long legal = table.getLegalMoves(player, state);
+                for (int id = 0; id < table.size(); id++) {
+                    boolean isLegal = table.get(id).isLegal(player, state);
+                    assertEquals(table.get(id).toString(), isLegal, (legal & (1L << id)) != 0);
+                }
+
+                table.get(ActionTable.randomId(legal, random)).apply(player, state);
+                player = (player + 1) % players;
+            }
+        }
+    }
+
+    @Test
+    public void testRandomId() {
+        Random random = new Random(3);
+        assertEquals(-1, ActionTable.randomId(0, random));
+        assertEquals(63, ActionTable.randomId(1L << 63, random));
+
+        long ids = (1L << 2) | (1L << 9) | (1L << 40);
+        int[] counts = new int[Long.SIZE];
+        for (int i = 0; i < 3000; i++) {
+            counts[ActionTable.randomId(ids, random)]++;
+        }
+        assertEquals(3000, counts[2] + counts[9] + counts[40]);
+        assertTrue(counts[2] > 800 && counts[9] > 800 && counts[40] > 800);
+    }
+
+    @Test
+    public void testUnknownActionHasNoId() {
+        ActionTable table = ActionTable.forPlayers(4);
+        assertEquals(-1, table.getId(new PlayCard(4)));
+        assertFalse(table.toList(table.getAllMoves(0)).contains(new PlayCard(4)));
+    }
+}
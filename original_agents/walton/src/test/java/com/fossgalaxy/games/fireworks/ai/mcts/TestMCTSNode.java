@@ -1,6 +1,10 @@
 package com.fossgalaxy.games.fireworks.ai.mcts;
 
+import com.fossgalaxy.games.fireworks.ai.iggi.ActionTable;
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.state.BasicState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
 import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
 import org.junit.Test;
 
@@ -126,6 +130,47 @@ public class TestMCTSNode {
         assertEquals(child, root.getChild(a2));
     }
 
+    @Test
+    public void testLegalMoveIdsFollowExpansion() {
+        BasicState state = new BasicState(2);
+        state.init(1L);
+        ActionTable table = ActionTable.forPlayers(2);
+
+        Action play = new PlayCard(0);
+        Action discard = new DiscardCard(0);
+        MCTSNode root = new MCTSNode(Arrays.asList(play, discard));
+
+        // discards aren't legal with full information tokens
+        assertEquals(1L << table.getPlayId(0), root.getLegalMoveIds(state, 0, table));
+
+        root.addChild(new MCTSNode(root, 0, play, Collections.emptyList()));
+        assertEquals(0, root.getLegalMoveIds(state, 0, table));
+
+        state.setInformation(state.getInfomation() - 1);
+        assertEquals(1L << table.getDiscardId(0), root.getLegalMoveIds(state, 0, table));
+
+        root.makeRoot(Utils.generateAllActions(0, 2));
+        assertEquals(table.getLegalMoves(0, state) & ~(1L << table.getPlayId(0)),
+                root.getLegalMoveIds(state, 0, table));
+    }
+
+    @Test
+    public void testRolloutStopsWithoutLegalMoves() {
+        BasicState state = new BasicState(2);
+        state.init(1L);
+
+        // no cards to play, discard or tell about
+        for (int player = 0; player < 2; player++) {
+            for (int slot = 0; slot < state.getHandSize(); slot++) {
+                state.getHand(player).bindCard(slot, null);
+                state.getHand(player).setHasCard(slot, false);
+            }
+        }
+
+        MCTSNode root = new MCTSNode(1, null, Collections.emptyList());
+        assertEquals(0, new MCTS(10).rollout(state, root));
+    }
+
     public void testFullyExpanded() {
         Action a1 = new PlayCard(0);
         Action a2 = new PlayCard(1);
@@ -0,0 +1,112 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestNodeArena {
+
+    @Test
+    public void testExpandAndBackup() {
+        NodeArena arena = new NodeArena();
+        int root = arena.reset(2, 1);
+        assertNull(arena.getAction(root));
+        assertEquals(0, arena.getNextAgent(root));
+
+        int play = arena.indexOf(new PlayCard(0));
+        int child = arena.expand(root, play);
+        assertEquals(child, arena.expand(root, play));
+        assertEquals(child, arena.getChild(root, play));
+        assertEquals(new PlayCard(0), arena.getAction(child));
+        assertEquals(0, arena.getAgent(child));
+        assertEquals(1, arena.getDepth(child));
+
+        int grandchild = arena.expand(child, arena.indexOf(new PlayCard(1)));
+        assertEquals(1, arena.getAgent(grandchild));
+        arena.backup(grandchild, 10);
+        arena.backup(child, 4);
+
+        assertEquals(2, arena.getVisits(root));
+        assertEquals(14, arena.getScore(root), 0);
+        assertEquals(1, arena.getVisits(grandchild));
+        assertEquals(NodeArena.NONE, arena.getChild(grandchild, play));
+    }
+
+    @Test
+    public void testResetKeepsCapacity() {
+        NodeArena arena = new NodeArena(MCTSNode.DEFAULT_EXP_CONST, 2);
+        int node = arena.reset(3, 0);
+        for (int i = 0; i < 100; i++) {
+            node = arena.expand(node, 0);
+        }
+        int capacity = arena.capacity();
+        assertEquals(101, arena.size());
+
+        int root = arena.reset(3, 0);
+        assertEquals(1, arena.size());
+        assertEquals(capacity, arena.capacity());
+        assertEquals(NodeArena.NONE, arena.getFirstChild(root));
+        assertEquals(0, arena.getVisits(root));
+    }
+
+    @Test
+    public void testFullyExpanded() {
+        BasicState state = new BasicState(2);
+        state.init(5L);
+
+        NodeArena arena = new NodeArena();
+        int root = arena.reset(2, 1);
+        Random random = new Random(1);
+
+        int expansions = 0;
+        while (!arena.fullyExpanded(root, state)) {
+            int actionId = arena.selectUnexpanded(root, state, random);
+            Action action = arena.getActionTable().get(actionId);
+            assertTrue(action.isLegal(0, state));
+            arena.backup(arena.expand(root, actionId), 1);
+            expansions++;
+        }
+        assertTrue(expansions > 0);
+        assertEquals(NodeArena.NONE, arena.selectUnexpanded(root, state, random));
+        assertTrue(arena.getUCTChild(root, state, random) != NodeArena.NONE);
+    }
+
+    @Test
+    public void testSearchHonoursIterations() {
+        BasicState state = new BasicState(2);
+        state.init(3L);
+
+        GameState view = state.getCopy();
+        for (int slot = 0; slot < view.getHandSize(); slot++) {
+            Card card = view.getCardAt(0, slot);
+            view.getDeck().add(card);
+            view.getHand(0).bindCard(slot, null);
+        }
+
+        ArenaMCTS agent = ArenaMCTS.buildMCTS(SearchBudget.iterations(200), MCTS.DEFAULT_ROLLOUT_DEPTH,
+                MCTS.DEFAULT_TREE_DEPTH_MUL);
+        MCTSNode root = agent.search(0, view);
+        assertEquals(200, root.getVisits());
+        assertFalse(root.getChildren().isEmpty());
+        assertTrue(root.getBestNode().getAction().isLegal(0, state));
+
+        // the second search reuses the arrays
+        NodeArena arena = agent.getArena();
+        int capacity = arena.capacity();
+        agent.search(0, view);
+        assertSame(arena, agent.getArena());
+        assertEquals(capacity, arena.capacity());
+    }
+}
@@ -0,0 +1,51 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.GameRunner;
+import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.AgentPlayer;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestParallelWorkerPool {
+
+    private static long countWorkerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("mcts-"))
+                .count();
+    }
+
+    private static void playGames(int games, Supplier<Agent> agent) {
+        for (int game = 0; game < games; game++) {
+            GameRunner runner = new GameRunner("pool-" + game, 2);
+            runner.setRecordWriter(record -> { });
+            for (int player = 0; player < 2; player++) {
+                runner.addPlayer(new AgentPlayer("parallel", agent.get()));
+            }
+            runner.playGame((long) game);
+        }
+    }
+
+    @Test
+    public void testRootParallelThreadCountStaysFlat() {
+        playGames(1, () -> new RootParallelMCTS(3, () -> new MCTS(20)));
+        long threads = countWorkerThreads();
+        assertTrue(threads <= Runtime.getRuntime().availableProcessors());
+
+        playGames(4, () -> new RootParallelMCTS(3, () -> new MCTS(20)));
+        assertEquals(threads, countWorkerThreads());
+    }
+
+    @Test
+    public void testTreeParallelThreadCountStaysFlat() {
+        playGames(1, () -> new TreeParallelMCTS(3, () -> new MCTS(20)));
+        long threads = countWorkerThreads();
+        assertTrue(threads <= Runtime.getRuntime().availableProcessors());
+
+        playGames(4, () -> new TreeParallelMCTS(3, () -> new MCTS(20)));
+        assertEquals(threads, countWorkerThreads());
+    }
+}
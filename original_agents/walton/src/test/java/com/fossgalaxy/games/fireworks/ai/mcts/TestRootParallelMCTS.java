@@ -0,0 +1,137 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.iggi.IGGIFactory;
+import com.fossgalaxy.games.fireworks.ai.mcts.expconst.MCTSFixedDet;
+import com.fossgalaxy.games.fireworks.ai.mcts.expconst.MCTSPredictorFixedDet;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import com.fossgalaxy.games.fireworks.utils.AgentUtils;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestRootParallelMCTS {
+
+    @Test
+    public void testMergeChildren() {
+        Action play = new PlayCard(0);
+        Action discard = new DiscardCard(0);
+
+        MCTSNode first = buildTree(play, 10, 100, discard, 10, 150);
+        MCTSNode second = buildTree(play, 30, 600, null, 0, 0);
+        first.mergeChildren(second);
+
+        assertEquals(40, first.getChild(play).getVisits());
+        assertEquals(700.0, first.getChild(play).getScore(), 0.0001);
+        assertEquals(10, first.getChild(discard).getVisits());
+        assertEquals(2, first.getChildSize());
+    }
+
+    @Test
+    public void testChoosesBestMergedMove() {
+        Action play = new PlayCard(0);
+        Action discard = new DiscardCard(0);
+
+        // alone, the first worker prefers the discard, together the play has the better average
+        TreeSearchAgent[] workers = new TreeSearchAgent[]{
+                new FixedTree(() -> buildTree(play, 10, 100, discard, 10, 150)),
+                new FixedTree(() -> buildTree(play, 30, 600, discard, 30, 300)),
+                new FixedTree(() -> buildTree(play, 10, 200, null, 0, 0))
+        };
+
+        RootParallelMCTS agent = new RootParallelMCTS(workers);
+        GameState state = new BasicState(2);
+        state.init(1L);
+
+        assertEquals(play, agent.doMove(0, state));
+        assertEquals(90, agent.search(0, state).getVisits());
+    }
+
+    @Test
+    public void testFixedDeterminisationWorkers() {
+        GameState view = hideHand(3, 2L);
+
+        // the workers' own searches run 4 worlds of 25 iterations, not the inherited time budget
+        RootParallelMCTS agent = new RootParallelMCTS(2, () -> new MCTSFixedDet(100, 4));
+        assertEquals(200, agent.search(0, view).getVisits());
+
+        Agent[] predictors = {IGGIFactory.buildIGGIPlayer(), IGGIFactory.buildIGGIPlayer(), IGGIFactory.buildIGGIPlayer()};
+        MCTSPredictorFixedDet predictor = new MCTSPredictorFixedDet(60, 3, MCTSNode.DEFAULT_EXP_CONST, predictors);
+        assertEquals(60, predictor.search(0, view).getVisits());
+    }
+
+    @Test
+    public void testTimeBudgetCoversWholeSearch() {
+        GameState view = hideHand(3, 3L);
+
+        // more workers than threads, so most of them wait for a thread before they start
+        int workers = Runtime.getRuntime().availableProcessors() * 4;
+        Agent agent = AgentUtils.buildAgent(String.format("mctsParBudget[%d:250ms]", workers));
+        assertTrue(agent instanceof RootParallelMCTS);
+
+        long start = System.nanoTime();
+        agent.doMove(0, view);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // timing each worker from when it got a thread would take at least 1000ms
+        assertTrue("search took " + elapsedMillis + "ms", elapsedMillis < 750);
+    }
+
+    /**
+     * Build player 0's view of a new game, their cards go back in the deck.
+     */
+    private static GameState hideHand(int players, long seed) {
+        BasicState state = new BasicState(players);
+        state.init(seed);
+
+        GameState view = state.getCopy();
+        for (int slot = 0; slot < view.getHandSize(); slot++) {
+            view.getDeck().add(view.getCardAt(0, slot));
+            view.getHand(0).bindCard(slot, null);
+        }
+        return view;
+    }
+
+    private static MCTSNode buildTree(Action a, int aVisits, int aScore, Action b, int bVisits, int bScore) {
+        MCTSNode root = new MCTSNode(Collections.emptyList());
+        addChild(root, a, aVisits, aScore);
+        if (b != null) {
+            addChild(root, b, bVisits, bScore);
+        }
+        return root;
+    }
+
+    private static void addChild(MCTSNode root, Action action, int visits, int score) {
+        MCTSNode child = new MCTSNode(root, 0, action, Collections.emptyList());
+        root.addChild(child);
+        for (int i = 0; i < visits; i++) {
+            child.backup((double) score / visits);
+        }
+    }
+
+    private static class FixedTree implements TreeSearchAgent {
+        private final java.util.function.Supplier<MCTSNode> tree;
+
+        private FixedTree(java.util.function.Supplier<MCTSNode> tree) {
+            this.tree = tree;
+        }
+
+        @Override
+        public MCTSNode search(int agentID, GameState state, long startNanos) {
+            return tree.get();
+        }
+
+        @Override
+        public Action doMove(int agentID, GameState state) {
+            return search(agentID, state).getBestNode().getAction();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestTreeParallelMCTS {
+
+    @Test
+    public void testVirtualLossBecomesVisit() {
+        GameState state = new BasicState(2);
+        state.init(1L);
+
+        ConcurrentMCTSNode root = new ConcurrentMCTSNode(1, MCTSNode.DEFAULT_EXP_CONST, Utils.generateAllActions(0, 2));
+        ConcurrentMCTSNode child = root.expand(new PlayCard(0), state);
+
+        root.addVirtualLoss();
+        child.addVirtualLoss();
+        assertEquals(1, child.getVisits());
+        assertEquals(0, child.getScore());
+
+        child.backup(10);
+        assertEquals(1, root.getVisits());
+        assertEquals(10, root.getScore());
+        assertEquals(10, child.getScore());
+        assertEquals(0, child.getAgent());
+    }
+
+    @Test
+    public void testConcurrentExpandPublishesOneChild() throws Exception {
+        GameState state = new BasicState(3);
+        state.init(1L);
+
+        ConcurrentMCTSNode root = new ConcurrentMCTSNode(2, MCTSNode.DEFAULT_EXP_CONST, Utils.generateAllActions(0, 3));
+        Action play = new PlayCard(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<ConcurrentMCTSNode>> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tasks.add(() -> root.expand(play, state));
+            }
+
+            ConcurrentMCTSNode first = null;
+            for (Future<ConcurrentMCTSNode> result : executor.invokeAll(tasks)) {
+                if (first == null) {
+                    first = result.get();
+                }
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, root.getChildren().size());
+    }
+
+    @Test
+    public void testSearchSharesIterations() {
+        BasicState state = new BasicState(3);
+        state.init(5L);
+
+        // the searching player cannot see their own cards
+        GameState view = state.getCopy();
+        for (int slot = 0; slot < view.getHandSize(); slot++) {
+            Card card = view.getCardAt(0, slot);
+            view.getDeck().add(card);
+            view.getHand(0).bindCard(slot, null);
+        }
+        GameState before = view.getCopy();
+
+        TreeParallelMCTS agent = new TreeParallelMCTS(4, () -> new MCTS(200));
+        MCTSNode root = agent.search(0, view);
+
+        assertEquals(200, root.getVisits());
+        assertEquals(before, view);
+
+        Action chosen = root.getBestNode().getAction();
+        assertTrue(chosen.isLegal(0, state));
+    }
+
+    @Test(timeout = 60_000)
+    public void testNestedSearchesDoNotDeadlock() {
+        BasicState state = new BasicState(3);
+        state.init(6L);
+
+        GameState view = state.getCopy();
+        for (int slot = 0; slot < view.getHandSize(); slot++) {
+            view.getDeck().add(view.getCardAt(0, slot));
+            view.getHand(0).bindCard(slot, null);
+        }
+
+        // every pool thread ends up running a tree search which wants more pool threads
+        int outer = Runtime.getRuntime().availableProcessors() * 2;
+        RootParallelMCTS agent = new RootParallelMCTS(outer, () -> new TreeParallelMCTS(2, () -> new MCTS(50)));
+
+        assertEquals(outer * 50, agent.search(0, view).getVisits());
+    }
+}
@@ -0,0 +1,129 @@
+package com.fossgalaxy.games.fireworks.ai.mcts;
+
+import com.fossgalaxy.games.fireworks.ai.SearchBudget;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestTreeReuse {
+    private static final int ITERATIONS = 300;
+
+    @Test
+    public void testMakeRoot() {
+        Action play = new PlayCard(0);
+        Action other = new PlayCard(1);
+
+        MCTSNode root = new MCTSNode(Collections.singletonList(play));
+        MCTSNode child = new MCTSNode(root, 0, play, Collections.singletonList(play));
+        root.addChild(child);
+        MCTSNode grandchild = new MCTSNode(child, 1, play, Collections.emptyList());
+        child.addChild(grandchild);
+        grandchild.backup(10);
+
+        child.makeRoot(Arrays.asList(play, other));
+
+        assertEquals(0, child.getDepth());
+        assertEquals(1, grandchild.getDepth());
+        assertEquals(1, child.getVisits());
+        GameState state = new BasicState(2);
+        state.init(1L);
+        assertEquals(Collections.singletonList(other), child.getLegalMoves(state, 1));
+
+        // backups stop at the new root
+        grandchild.backup(5);
+        assertEquals(2, child.getVisits());
+        assertEquals(1, root.getVisits());
+    }
+
+    @Test
+    public void testReusesExploredSubtree() {
+        BasicState state = new BasicState(2);
+        state.init(11L);
+
+        MCTS agent = new MCTS(SearchBudget.iterations(ITERATIONS), MCTS.DEFAULT_ROLLOUT_DEPTH,
+                MCTS.DEFAULT_TREE_DEPTH_MUL);
+        MCTSNode first = agent.search(0, getView(state, 0));
+        MCTSNode mine = first.getBestNode();
+        mine.getAction().apply(0, state);
+
+        MCTSNode partner = getMostVisitedLegal(mine, state);
+        assertNotNull(partner);
+        partner.getAction().apply(1, state);
+        int carried = partner.getVisits();
+
+        MCTSNode second = agent.search(0, getView(state, 0));
+        assertSame(partner, second);
+        assertEquals(0, second.getDepth());
+        assertEquals(carried + ITERATIONS, second.getVisits());
+    }
+
+    @Test
+    public void testFreshTreeWithoutReuse() {
+        BasicState state = new BasicState(2);
+        state.init(11L);
+
+        MCTS agent = new MCTS(SearchBudget.iterations(ITERATIONS), MCTS.DEFAULT_ROLLOUT_DEPTH,
+                MCTS.DEFAULT_TREE_DEPTH_MUL, false);
+        MCTSNode first = agent.search(0, getView(state, 0));
+        first.getBestNode().getAction().apply(0, state);
+        getMostVisitedLegal(first.getBestNode(), state).getAction().apply(1, state);
+
+        MCTSNode second = agent.search(0, getView(state, 0));
+        assertEquals(ITERATIONS, second.getVisits());
+    }
+
+    private static MCTSNode getMostVisitedLegal(MCTSNode node, GameState state) {
+        MCTSNode best = null;
+        for (MCTSNode child : node.getChildren()) {
+            if (child.getAction().isLegal(child.getAgent(), state) && (best == null || child.getVisits() > best.getVisits())) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private static GameState getView(GameState state, int playerID) {
+        GameState view = state.getCopy();
+        for (int slot = 0; slot < view.getHandSize(); slot++) {
+            Card card = view.getCardAt(playerID, slot);
+            if (card != null) {
+                view.getDeck().add(card);
+                view.getHand(playerID).bindCard(slot, null);
+            }
+        }
+        return view;
+    }
+
+    @Test
+    public void testNoReuseOnceGameChanges() {
+        BasicState state = new BasicState(2);
+        state.init(11L);
+        new PlayCard(0).apply(0, state);
+
+        MCTS agent = new MCTS(SearchBudget.iterations(ITERATIONS), MCTS.DEFAULT_ROLLOUT_DEPTH,
+                MCTS.DEFAULT_TREE_DEPTH_MUL);
+        agent.search(1, getView(state, 1));
+
+        // a different game which has reached the next decision should not pick up the old tree
+        BasicState other = new BasicState(2);
+        other.init(12L);
+        new PlayCard(0).apply(0, other);
+        new PlayCard(0).apply(1, other);
+        new PlayCard(0).apply(0, other);
+
+        MCTSNode root = agent.search(1, getView(other, 1));
+        assertNull(root.getAction());
+        assertEquals(ITERATIONS, root.getVisits());
+    }
+}
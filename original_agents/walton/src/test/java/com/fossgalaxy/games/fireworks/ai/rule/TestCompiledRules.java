@@ -0,0 +1,154 @@
+package com.fossgalaxy.games.fireworks.ai.rule;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.ai.rule.profile.ProfiledRule;
+import com.fossgalaxy.games.fireworks.ai.rule.profile.RuleProfiler;
+import com.fossgalaxy.games.fireworks.ai.rule.profile.RuleStats;
+import com.fossgalaxy.games.fireworks.ai.rule.random.DiscardProbablyUselessCard;
+import com.fossgalaxy.games.fireworks.ai.rule.random.DiscardRandomly;
+import com.fossgalaxy.games.fireworks.ai.rule.random.PlayProbablySafeCard;
+import com.fossgalaxy.games.fireworks.ai.rule.random.TellPlayableCard;
+import com.fossgalaxy.games.fireworks.ai.rule.random.TellRandomly;
+import com.fossgalaxy.games.fireworks.ai.rule.wrapper.ConcatRule;
+import com.fossgalaxy.games.fireworks.ai.rule.wrapper.IfRule;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestCompiledRules {
+
+    @Test
+    public void testSameDecisionsAsInterpreted() {
+        Random random = new Random(7L);
+        List<Rule> deterministic = new ArrayList<>();
+        for (Rule rule : RuleSet.getRules()) {
+            // random rules would pick differently on each call, so can't be compared
+            if (!(rule instanceof DiscardRandomly || rule instanceof TellRandomly || rule instanceof TellPlayableCard)) {
+                deterministic.add(rule);
+            }
+        }
+
+        for (int trial = 0; trial < 12; trial++) {
+            List<Rule> rules = new ArrayList<>(deterministic);
+            Collections.shuffle(rules, random);
+            rules = new ArrayList<>(rules.subList(0, 4 + random.nextInt(rules.size() - 4)));
+
+            // wrap a few of them, as the piers and van den bergh agents do
+            rules.set(0, new IfRule((id, state) -> state.getLives() > 1, rules.get(0), rules.get(1)));
+            rules.set(2, new ConcatRule(rules.get(2), new PlayProbablySafeCard(.3)));
+            rules.add(1, new IfRule((id, state) -> state.getInfomation() < 4, new DiscardProbablyUselessCard(.2)));
+
+            checkSameDecisions(rules, 2 + trial % 4, trial);
+        }
+    }
+
+    @Test
+    public void testDominatedThresholdsRemoved() {
+        List<Rule> rules = Arrays.asList(
+                new PlayProbablySafeCard(.4),
+                new PlayProbablySafeCard(.6),
+                new PlayProbablySafeCard(.2),
+                new DiscardProbablyUselessCard(.5),
+                new DiscardProbablyUselessCard(.5)
+        );
+
+        BasicState state = new BasicState(2);
+        state.init(1L);
+        state.setInformation(state.getStartingInfomation() - 1);
+        assertEquals(3, CompiledRules.compile(rules).getPipelineLength(state));
+    }
+
+    @Test
+    public void testGuardsSkipRules() {
+        List<Rule> rules = Arrays.asList(new TellFives(), new DiscardOldestFirst(), new PlaySafeCard());
+        CompiledRules compiled = CompiledRules.compile(rules);
+
+        BasicState state = new BasicState(2);
+        state.init(1L);
+        assertEquals(2, compiled.getPipelineLength(state));
+
+        state.setInformation(0);
+        assertEquals(2, compiled.getPipelineLength(state));
+
+        state.setInformation(4);
+        assertEquals(3, compiled.getPipelineLength(state));
+    }
+
+    @Test
+    public void testProfiledRulesKeepGuardsAndThresholds() {
+        RuleStats stats = RuleProfiler.getStats("TestCompiledRules.discard");
+        List<Rule> rules = Arrays.asList(
+                new ProfiledRule(new TellFives(), RuleProfiler.getStats("TestCompiledRules.tell")),
+                new ProfiledRule(new DiscardOldestFirst(), stats),
+                new ProfiledRule(new PlayProbablySafeCard(.4), RuleProfiler.getStats("TestCompiledRules.play")),
+                new ProfiledRule(new PlayProbablySafeCard(.6), RuleProfiler.getStats("TestCompiledRules.play"))
+        );
+        CompiledRules compiled = CompiledRules.compile(rules);
+
+        BasicState state = new BasicState(2);
+        state.init(1L);
+        assertEquals(2, compiled.getPipelineLength(state));
+
+        state.setInformation(4);
+        assertEquals(3, compiled.getPipelineLength(state));
+
+        // no tells, so the discard is the first rule to fire
+        state.setInformation(0);
+        long evaluations = stats.getEvaluations();
+        assertEquals(new DiscardOldestFirst().tryFire(0, state), compiled.evaluate(0, state));
+        assertEquals(evaluations + 1, stats.getEvaluations());
+    }
+
+    @Test
+    public void testRecompiledWhenRulesChange() {
+        List<Rule> rules = new ArrayList<>();
+        rules.add(new PlaySafeCard());
+        CompiledRules compiled = CompiledRules.compile(rules);
+        assertTrue(compiled.isCompiledFrom(rules));
+
+        rules.add(new DiscardOldestFirst());
+        assertFalse(compiled.isCompiledFrom(rules));
+
+        BasicState state = new BasicState(2);
+        state.init(1L);
+        assertNull(CompiledRules.compile(Collections.emptyList()).evaluate(0, state));
+    }
+
+    private static void checkSameDecisions(List<Rule> rules, int players, long seed) {
+        ProductionRuleAgent compiled = buildAgent(rules);
+        ProductionRuleAgent interpreted = buildAgent(rules);
+        interpreted.setCompiled(false);
+
+        GameState state = new BasicState(players);
+        state.init(seed);
+        Random random = new Random(seed);
+
+        int player = 0;
+        while (!state.isGameOver()) {
+            assertEquals(rules.toString(), interpreted.doMove(player, state), compiled.doMove(player, state));
+
+            List<Action> actions = new ArrayList<>(Utils.generateActions(player, state));
+            actions.get(random.nextInt(actions.size())).apply(player, state);
+            player = (player + 1) % players;
+        }
+    }
+
+    private static ProductionRuleAgent buildAgent(List<Rule> rules) {
+        ProductionRuleAgent agent = new ProductionRuleAgent();
+        rules.forEach(agent::addRule);
+        agent.setDefaultPolicy((id, state) -> Utils.generateActions(id, state).iterator().next());
+        return agent;
+    }
+}
@@ -0,0 +1,131 @@
+package com.fossgalaxy.games.fireworks.ai.rule;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.DeckUtils;
+import com.fossgalaxy.games.fireworks.ai.rule.logic.HandUtils;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TestRuleContext {
+    private BasicState state;
+
+    @Before
+    public void setup() {
+        state = new BasicState(2);
+        state.init(1L);
+    }
+
+    @Test
+    public void testPossibleCardsComputedOnce() {
+        RuleContext context = new RuleContext(0, state);
+        assertSame(context.getPossibleCards(), context.getPossibleCards());
+        assertEquals(DeckUtils.bindBlindCard(0, state.getHand(0), state.getDeck().toList()), context.getPossibleCards());
+    }
+
+    @Test
+    public void testProbabilitiesMatchDeckUtils() {
+        state.setTableValue(CardColour.RED, 2);
+        state.setTableValue(CardColour.BLUE, 1);
+
+        RuleContext context = new RuleContext(0, state);
+        for (Map.Entry<Integer, List<Card>> entry : context.getPossibleCards().entrySet()) {
+            double playable = DeckUtils.getProbablity(entry.getValue(),
+                    x -> state.getTableValue(x.colour) + 1 == x.value);
+            double useless = DeckUtils.getProbablity(entry.getValue(),
+                    x -> HandUtils.isSafeToDiscard(state, x.colour, x.value));
+            assertEquals(playable, context.getPlayableProbability(entry.getKey()), 0);
+            assertEquals(useless, context.getUselessProbability(entry.getKey()), 0);
+        }
+    }
+
+    @Test
+    public void testUselessMatchesHandUtils() {
+        state.setTableValue(CardColour.GREEN, 5);
+        state.setTableValue(CardColour.RED, 1);
+        state.setTableValue(CardColour.WHITE, 1);
+        state.setTableValue(CardColour.ORANGE, 1);
+        state.setTableValue(CardColour.BLUE, 2);
+        state.addToDiscard(new Card(4, CardColour.BLUE));
+        state.addToDiscard(new Card(4, CardColour.BLUE));
+
+        RuleContext context = new RuleContext(0, state);
+        for (CardColour colour : CardColour.values()) {
+            assertEquals(HandUtils.getHighestScorePossible(state, colour), context.getHighestScorePossible(colour));
+            for (int value = 1; value <= 5; value++) {
+                Card card = new Card(value, colour);
+                assertEquals(card.toString(), HandUtils.isSafeToDiscard(state, colour, value), context.isUseless(card));
+            }
+        }
+    }
+
+    @Test
+    public void testThresholdQueriesMatchSlotScan() {
+        Random random = new Random(3L);
+        for (int turn = 0; turn < 40 && !state.isGameOver(); turn++) {
+            int player = turn % state.getPlayerCount();
+            RuleContext context = new RuleContext(player, state);
+            for (int i = 0; i <= 10; i++) {
+                double threshold = i / 10.0;
+                assertEquals(scan(context, threshold, true), context.getMostPlayableSlot(threshold));
+                assertEquals(scan(context, threshold, false), context.getMostUselessSlot(threshold));
+            }
+
+            List<Action> actions = new ArrayList<>(Utils.generateActions(player, state));
+            actions.get(random.nextInt(actions.size())).apply(player, state);
+        }
+    }
+
+    // the search PlayProbablySafeCard and DiscardProbablyUselessCard used to do for each threshold
+    private static int scan(RuleContext context, double threshold, boolean playable) {
+        double bestSoFar = threshold;
+        int bestSlot = -1;
+        for (int slot : context.getPossibleCards().keySet()) {
+            double probability = playable ? context.getPlayableProbability(slot) : context.getUselessProbability(slot);
+            if (probability >= bestSoFar) {
+                bestSlot = slot;
+                bestSoFar = probability;
+            }
+        }
+        return bestSlot;
+    }
+
+    @Test
+    public void testAgentSharesContextBetweenRules() {
+        List<RuleContext> seen = new ArrayList<>();
+        Rule recording = new AbstractRule() {
+            @Override
+            public Action execute(int playerID, GameState state) {
+                return null;
+            }
+
+            @Override
+            public Action execute(int playerID, GameState state, RuleContext context) {
+                seen.add(context);
+                return null;
+            }
+        };
+
+        ProductionRuleAgent agent = new ProductionRuleAgent();
+        agent.addRule(recording);
+        agent.addRule(recording);
+        agent.addRule((playerID, state) -> new PlayCard(0));
+        agent.doMove(0, state);
+
+        assertEquals(2, seen.size());
+        assertSame(seen.get(0), seen.get(1));
+    }
+}
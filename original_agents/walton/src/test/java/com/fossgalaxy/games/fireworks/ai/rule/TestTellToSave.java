@@ -9,12 +9,10 @@ import com.fossgalaxy.games.fireworks.state.actions.TellValue;
 import org.junit.Before;
 import org.junit.Test;
 
-import java.util.Arrays;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
 import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.when;
 
 public class TestTellToSave {
 
@@ -32,11 +30,11 @@ public class TestTellToSave {
     public void testWontTellUselessCard() {
         state = spy(state);
 
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(3, CardColour.BLUE),
                 new Card(3, CardColour.BLUE),
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -51,9 +49,9 @@ public class TestTellToSave {
     @Test
     public void testWillTellUniqueCard(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
             new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -106,9 +104,9 @@ public class TestTellToSave {
     @Test
     public void testWillNotTellUniqueAlreadyKnownAbout(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -125,9 +123,9 @@ public class TestTellToSave {
     @Test
     public void testWillNotTellUniqueAlreadyKnownValue(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -143,9 +141,9 @@ public class TestTellToSave {
     @Test
     public void testWillNotTellUniqueAlreadyKnownColour(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -157,4 +155,10 @@ public class TestTellToSave {
 
         assertEquals(true, instance.canFire(0, state));
     }
+
+    private static void addDiscards(BasicState state, Card... cards) {
+        for (Card card : cards) {
+            state.addToDiscard(card);
+        }
+    }
 }
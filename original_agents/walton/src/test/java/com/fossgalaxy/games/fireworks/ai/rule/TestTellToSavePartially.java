@@ -11,12 +11,10 @@ import com.fossgalaxy.games.fireworks.state.actions.TellValue;
 import org.junit.Before;
 import org.junit.Test;
 
-import java.util.Arrays;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
 import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.when;
 
 public class TestTellToSavePartially {
 
@@ -34,11 +32,11 @@ public class TestTellToSavePartially {
     public void testWontTellUselessCard() {
         state = spy(state);
 
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(3, CardColour.BLUE),
                 new Card(3, CardColour.BLUE),
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -53,9 +51,9 @@ public class TestTellToSavePartially {
     @Test
     public void testWillTellUniqueCard(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
             new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -108,9 +106,9 @@ public class TestTellToSavePartially {
     @Test
     public void testWillNotTellUniqueAlreadyKnownAbout(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -127,9 +125,9 @@ public class TestTellToSavePartially {
     @Test
     public void testWillNotTellUniqueAlreadyKnownValue(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -145,9 +143,9 @@ public class TestTellToSavePartially {
     @Test
     public void testWillNotTellUniqueAlreadyKnownColour(){
         state = spy(state);
-        when(state.getDiscards()).thenReturn(Arrays.asList(
+        addDiscards(state,
                 new Card(4, CardColour.BLUE)
-        ));
+        );
 
         state.getHand(1).setCard(0, new Card(4, CardColour.BLUE));
         state.getHand(1).setCard(1, new Card(1, CardColour.BLUE));
@@ -159,4 +157,10 @@ public class TestTellToSavePartially {
 
         assertEquals(false, instance.canFire(0, state));
     }
+
+    private static void addDiscards(BasicState state, Card... cards) {
+        for (Card card : cards) {
+            state.addToDiscard(card);
+        }
+    }
 }
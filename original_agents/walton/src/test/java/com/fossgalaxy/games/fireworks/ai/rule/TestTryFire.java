@@ -0,0 +1,160 @@
+package com.fossgalaxy.games.fireworks.ai.rule;
+
+import com.fossgalaxy.games.fireworks.ai.rule.wrapper.ConcatRule;
+import com.fossgalaxy.games.fireworks.ai.rule.wrapper.IfRule;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestTryFire {
+    private BasicState state;
+
+    @Before
+    public void setup() {
+        state = new BasicState(2);
+        state.init(1L);
+    }
+
+    @Test
+    public void testRuleRunsOnce() {
+        CountingRule rule = new CountingRule(new PlayCard(0));
+        assertEquals(new PlayCard(0), rule.tryFire(0, state));
+        assertEquals(1, rule.calls);
+    }
+
+    @Test
+    public void testLambdaRuleRunsOnce() {
+        int[] calls = new int[1];
+        Rule rule = (playerID, state) -> {
+            calls[0]++;
+            return new PlayCard(1);
+        };
+        assertEquals(new PlayCard(1), rule.tryFire(0, state));
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    public void testOverriddenCanFireIsRespected() {
+        // a rule written before tryFire existed, which vetoes itself in canFire
+        Rule rule = new CountingRule(new PlayCard(0)) {
+            @Override
+            public boolean canFire(int playerID, GameState state) {
+                return false;
+            }
+        };
+        assertNull(rule.tryFire(0, state));
+    }
+
+    @Test
+    public void testDiscardRuleChecksInformation() {
+        Rule rule = new AbstractDiscardRule() {
+            @Override
+            public Action execute(int playerID, GameState state) {
+                return new DiscardCard(0);
+            }
+        };
+        assertNull(rule.tryFire(0, state));
+
+        state.setInformation(state.getStartingInfomation() - 1);
+        assertEquals(new DiscardCard(0), rule.tryFire(0, state));
+    }
+
+    @Test
+    public void testIfRule() {
+        CountingRule success = new CountingRule(new PlayCard(2));
+        CountingRule failure = new CountingRule(null);
+
+        assertEquals(new PlayCard(2), new IfRule((id, s) -> true, success, failure).tryFire(0, state));
+        assertNull(new IfRule((id, s) -> false, success, failure).tryFire(0, state));
+        assertEquals(1, success.calls);
+        assertEquals(1, failure.calls);
+    }
+
+    @Test
+    public void testProductionRuleAgentModes() {
+        CountingRule first = new CountingRule(null);
+        CountingRule second = new CountingRule(new PlayCard(3));
+
+        ProductionRuleAgent agent = new ProductionRuleAgent();
+        agent.addRule(first);
+        agent.addRule(second);
+
+        assertEquals(new PlayCard(3), agent.doMove(0, state));
+        assertEquals(1, first.calls);
+        assertEquals(1, second.calls);
+
+        agent.setSinglePass(false);
+        assertEquals(new PlayCard(3), agent.doMove(0, state));
+        assertEquals(2, first.calls);
+        assertEquals(3, second.calls);
+    }
+
+    @Test
+    public void testContextOnlyBuiltWhenUsed() {
+        assertFalse(SinglePass.readsContext(CountingRule.class));
+        assertFalse(SinglePass.readsContext(DiscardOldestFirst.class));
+        assertTrue(SinglePass.readsContext(PlaySafeCard.class));
+        assertTrue(SinglePass.readsContext(ConcatRule.class));
+        assertTrue(SinglePass.readsContext(IfRule.class));
+    }
+
+    @Test
+    public void testWrappersShareContext() {
+        ContextRule left = new ContextRule(null);
+        ContextRule right = new ContextRule(new PlayCard(4));
+
+        assertEquals(new PlayCard(4), new ConcatRule(left, right).execute(0, state));
+        assertNotNull(left.context);
+        assertSame(left.context, right.context);
+
+        RuleContext context = new RuleContext(0, state);
+        new IfRule((id, s) -> true, left).execute(0, state, context);
+        assertSame(context, left.context);
+    }
+
+    private static class ContextRule implements Rule {
+        private final Action action;
+        private RuleContext context;
+
+        ContextRule(Action action) {
+            this.action = action;
+        }
+
+        @Override
+        public Action execute(int playerID, GameState state) {
+            return execute(playerID, state, new RuleContext(playerID, state));
+        }
+
+        @Override
+        public Action execute(int playerID, GameState state, RuleContext context) {
+            this.context = context;
+            return action;
+        }
+    }
+
+    private static class CountingRule extends AbstractRule {
+        private final Action action;
+        private int calls;
+
+        CountingRule(Action action) {
+            this.action = action;
+        }
+
+        @Override
+        public Action execute(int playerID, GameState state) {
+            calls++;
+            return action;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.fossgalaxy.games.fireworks.ai.rule.logic;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.ActionTable;
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.Hand;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestHintIndex {
+    private static final int[] COPIES = {0, 3, 2, 2, 2, 1};
+
+    @Test
+    public void testMatchesHandScan() {
+        Random random = new Random(5L);
+        for (int players = 2; players <= 5; players++) {
+            GameState state = new BasicState(players);
+            state.init((long) players);
+
+            int player = 0;
+            while (!state.isGameOver()) {
+                checkIndex(state, new HintIndex(state));
+
+                List<Action> actions = new ArrayList<>(Utils.generateActions(player, state));
+                actions.get(random.nextInt(actions.size())).apply(player, state);
+                player = (player + 1) % players;
+            }
+        }
+    }
+
+    @Test
+    public void testLegalMovesMatchActionTable() {
+        Random random = new Random(9L);
+        GameState state = new BasicState(4);
+        state.init(2L);
+        ActionTable table = ActionTable.forPlayers(4);
+
+        int player = 0;
+        while (!state.isGameOver()) {
+            HintIndex hints = new HintIndex(state);
+            assertEquals(table.getLegalMoves(player, state), table.getLegalMoves(player, state, hints));
+
+            List<Action> actions = new ArrayList<>(Utils.generateActions(player, state, hints));
+            actions.get(random.nextInt(actions.size())).apply(player, state);
+            player = (player + 1) % 4;
+        }
+    }
+
+    private static void checkIndex(GameState state, HintIndex hints) {
+        for (int player = 0; player < state.getPlayerCount(); player++) {
+            Hand hand = state.getHand(player);
+
+            int cards = 0;
+            int playable = 0;
+            int critical = 0;
+            for (int slot = 0; slot < hand.getSize(); slot++) {
+                Card card = hand.getCard(slot);
+                if (card == null) {
+                    continue;
+                }
+                cards |= 1 << slot;
+                if (state.getTableValue(card.colour) + 1 == card.value) {
+                    playable |= 1 << slot;
+                }
+                if (!HandUtils.isSafeToDiscard(state, card.colour, card.value)
+                        && state.getDiscardCount(card) == COPIES[card.value] - 1) {
+                    critical |= 1 << slot;
+                }
+            }
+            assertEquals(cards, hints.getCards(player));
+            assertEquals(playable, hints.getPlayable(player));
+            assertEquals(critical, hints.getCritical(player));
+
+            for (CardColour colour : CardColour.values()) {
+                int touched = 0;
+                int unknown = 0;
+                for (int slot = 0; slot < hand.getSize(); slot++) {
+                    if (hand.getCard(slot) != null && hand.getCard(slot).colour == colour) {
+                        touched |= 1 << slot;
+                        if (hand.getKnownColour(slot) == null) {
+                            unknown |= 1 << slot;
+                        }
+                    }
+                }
+                assertEquals(touched, hints.getTouched(player, colour));
+                assertEquals(unknown, hints.getNewInformation(player, colour));
+                assertEquals((touched & playable) != 0, hints.touchesPlayable(player, colour));
+                assertEquals((touched & critical) != 0, hints.touchesCritical(player, colour));
+            }
+
+            for (int value = 1; value <= 5; value++) {
+                int touched = 0;
+                int unknown = 0;
+                for (int slot = 0; slot < hand.getSize(); slot++) {
+                    if (hand.getCard(slot) != null && hand.getCard(slot).value == value) {
+                        touched |= 1 << slot;
+                        if (hand.getKnownValue(slot) == null) {
+                            unknown |= 1 << slot;
+                        }
+                    }
+                }
+                assertEquals(touched, hints.getTouched(player, value));
+                assertEquals(unknown, hints.getNewInformation(player, value));
+                assertEquals((touched & playable) != 0, hints.touchesPlayable(player, value));
+                assertEquals((touched & critical) != 0, hints.touchesCritical(player, value));
+            }
+        }
+    }
+}
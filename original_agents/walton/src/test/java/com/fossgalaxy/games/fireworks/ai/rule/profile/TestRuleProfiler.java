@@ -0,0 +1,160 @@
+package com.fossgalaxy.games.fireworks.ai.rule.profile;
+
+import com.fossgalaxy.games.fireworks.ai.rule.DiscardOldestFirst;
+import com.fossgalaxy.games.fireworks.ai.rule.PlaySafeCard;
+import com.fossgalaxy.games.fireworks.ai.rule.ProductionRuleAgent;
+import com.fossgalaxy.games.fireworks.ai.rule.Rule;
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestRuleProfiler {
+    private BasicState state;
+
+    @Before
+    public void setup() {
+        RuleProfiler.reset();
+        RuleProfiler.setEnabled(true);
+
+        state = new BasicState(2);
+        state.init(1L);
+        state.setInformation(state.getStartingInfomation() - 1);
+    }
+
+    @After
+    public void tearDown() {
+        RuleProfiler.setEnabled(false);
+        RuleProfiler.reset();
+    }
+
+    @Test
+    public void testDisabledRulesNotWrapped() {
+        RuleProfiler.setEnabled(false);
+        Rule rule = new PlaySafeCard();
+        assertSame(rule, RuleProfiler.wrap(rule));
+    }
+
+    @Test
+    public void testCountsEvaluationsAndFires() {
+        Rule play = new PlaySafeCard();
+        Rule discard = new DiscardOldestFirst();
+
+        ProductionRuleAgent agent = new ProductionRuleAgent();
+        agent.addRule(play);
+        agent.addRule(discard);
+
+        Action expected = play.tryFire(0, state) != null ? play.tryFire(0, state) : discard.tryFire(0, state);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, agent.doMove(0, state));
+        }
+
+        RuleStats playStats = RuleProfiler.getStats(play.fancyName());
+        RuleStats discardStats = RuleProfiler.getStats(discard.fancyName());
+        assertEquals(3, playStats.getEvaluations());
+        assertEquals(3, playStats.getFires() + discardStats.getFires());
+        assertEquals(discardStats.getEvaluations(), discardStats.getFires());
+        assertEquals(0, playStats.getNullFires());
+    }
+
+    @Test
+    public void testStatsSharedAcrossAgents() {
+        for (int i = 0; i < 2; i++) {
+            ProductionRuleAgent agent = new ProductionRuleAgent();
+            agent.addRule(new DiscardOldestFirst());
+            agent.doMove(0, state);
+        }
+        assertEquals(2, RuleProfiler.getStats(new DiscardOldestFirst().fancyName()).getFires());
+    }
+
+    @Test
+    public void testNullFiresRecordedWhenInterpreted() {
+        Rule liar = new Rule() {
+            @Override
+            public boolean canFire(int playerID, GameState state) {
+                return true;
+            }
+
+            @Override
+            public Action execute(int playerID, GameState state) {
+                return null;
+            }
+
+            @Override
+            public String fancyName() {
+                return "Liar";
+            }
+        };
+
+        ProductionRuleAgent agent = new ProductionRuleAgent();
+        agent.setSinglePass(false);
+        agent.addRule(liar);
+        agent.addRule(new DiscardOldestFirst());
+        agent.doMove(0, state);
+
+        RuleStats stats = RuleProfiler.getStats("Liar");
+        assertEquals(1, stats.getEvaluations());
+        assertEquals(0, stats.getFires());
+        assertEquals(1, stats.getNullFires());
+    }
+
+    @Test
+    public void testNullFiresRecordedInSinglePass() {
+        Rule liar = new Rule() {
+            @Override
+            public boolean canFire(int playerID, GameState state) {
+                return true;
+            }
+
+            @Override
+            public Action execute(int playerID, GameState state) {
+                return null;
+            }
+
+            @Override
+            public String fancyName() {
+                return "Liar";
+            }
+        };
+
+        for (boolean compiled : new boolean[]{false, true}) {
+            ProductionRuleAgent agent = new ProductionRuleAgent();
+            agent.setCompiled(compiled);
+            agent.addRule(liar);
+            agent.addRule(new DiscardOldestFirst());
+            agent.doMove(0, state);
+        }
+
+        RuleStats stats = RuleProfiler.getStats("Liar");
+        assertEquals(2, stats.getEvaluations());
+        assertEquals(0, stats.getFires());
+        assertEquals(2, stats.getNullFires());
+    }
+
+    @Test
+    public void testWriteCsvAndJson() {
+        ProductionRuleAgent agent = new ProductionRuleAgent();
+        agent.addRule(new DiscardOldestFirst());
+        agent.doMove(0, state);
+
+        StringWriter csv = new StringWriter();
+        RuleProfiler.writeCsv(csv);
+        String[] lines = csv.toString().trim().split("\\R");
+        assertEquals("rule,evaluations,fires,nanos,nullFires", lines[0]);
+        assertEquals(2, lines.length);
+        assertTrue(lines[1], lines[1].startsWith("\"" + new DiscardOldestFirst().fancyName() + "\",1,1,"));
+
+        StringWriter json = new StringWriter();
+        RuleProfiler.writeJson(json);
+        assertTrue(json.toString(), json.toString().contains("\"fires\": 1"));
+        assertTrue(json.toString(), json.toString().contains("\"nullFires\": 0"));
+    }
+}
@@ -3,6 +3,7 @@ package com.fossgalaxy.games.fireworks.ai.rule.wrapper;
 import com.fossgalaxy.games.fireworks.ai.rule.random.DiscardRandomly;
 import com.fossgalaxy.games.fireworks.ai.rule.random.TellRandomly;
 import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.GameState;
 import com.fossgalaxy.games.fireworks.state.actions.Action;
 import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
 import com.fossgalaxy.games.fireworks.state.actions.TellColour;
@@ -10,6 +11,8 @@ import com.fossgalaxy.games.fireworks.state.actions.TellValue;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.function.BiFunction;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -49,4 +52,15 @@ public class TestIfRule {
         assertNotNull(action);
         assertEquals(DiscardCard.class, action.getClass());
     }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testBiFunctionPredicateStillWorks(){
+        BiFunction<Integer, GameState, Boolean> lowInformation = (id, state) -> state.getInfomation() <= 5;
+        IfRule rule = new IfRule(lowInformation, new DiscardRandomly(), new TellRandomly());
+
+        state.setInformation(4);
+        assertEquals(DiscardCard.class, rule.execute(0, state).getClass());
+        assertEquals(Boolean.TRUE, rule.getPredicate().apply(0, state));
+    }
 }
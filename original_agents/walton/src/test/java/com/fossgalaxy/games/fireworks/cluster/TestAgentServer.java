@@ -0,0 +1,119 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestAgentServer {
+    private static final Gson GSON = new Gson();
+
+    private static List<JsonObject> serve(String requests) throws IOException, InterruptedException {
+        return serve(4, requests);
+    }
+
+    private static List<JsonObject> serve(int threads, String requests) throws IOException, InterruptedException {
+        StringWriter output = new StringWriter();
+        new AgentServer(threads).serve(new StringReader(requests), output);
+
+        List<JsonObject> responses = new ArrayList<>();
+        for (String line : output.toString().split("\n")) {
+            if (!line.trim().isEmpty()) {
+                responses.add(GSON.fromJson(line, JsonObject.class));
+            }
+        }
+        return responses;
+    }
+
+    @Test
+    public void testBatchMatchesSequential() throws IOException, InterruptedException {
+        // hat guessing is deterministic (and only plays five player games), so each game has one outcome
+        List<Matchup> matchups = Matchup.batch("HatGuessing", "HatGuessing", 5, 6, 42, Matchup.GAME_NORMAL);
+        Map<Integer, String> expected = new HashMap<>();
+        for (int game = 0; game < matchups.size(); game++) {
+            int gameNum = game;
+            StringBuilder data = new StringBuilder();
+            matchups.get(game).play(record -> data.append(record.format(gameNum)));
+            expected.put(game, data.toString());
+        }
+
+        List<JsonObject> responses = serve(
+                "{\"id\": \"hat\", \"agentUnderTest\": \"HatGuessing\", \"players\": 5, \"games\": 6, \"seed\": 42}\n");
+        assertEquals(7, responses.size());
+
+        Map<Integer, String> actual = new HashMap<>();
+        for (JsonObject response : responses.subList(0, 6)) {
+            assertEquals("hat", response.get("id").getAsString());
+            int game = response.get("game").getAsInt();
+            assertEquals(matchups.get(game).gameID, response.get("gameID").getAsString());
+            assertEquals(0, response.get("disqualified").getAsInt());
+            assertTrue(response.get("data").getAsString().startsWith(game + ","));
+            actual.put(game, response.get("data").getAsString());
+        }
+        assertEquals(expected, actual);
+
+        JsonObject done = responses.get(6);
+        assertEquals("hat", done.get("id").getAsString());
+        assertTrue(done.get("done").getAsBoolean());
+        assertEquals(6, done.get("games").getAsInt());
+        assertEquals(0, done.get("failures").getAsInt());
+    }
+
+    @Test
+    public void testBadRequestsAreReported() throws IOException, InterruptedException {
+        List<JsonObject> responses = serve("not json\n"
+                + "{\"id\": \"few\", \"agentUnderTest\": \"HatGuessing\", \"players\": 1, \"games\": 1, \"seed\": 1}\n"
+                + "{\"id\": \"ok\", \"agentUnderTest\": \"HatGuessing\", \"players\": 2, \"games\": 1, \"seed\": 1}\n");
+
+        assertEquals(4, responses.size());
+        assertTrue(responses.get(0).has("error"));
+        assertTrue(responses.get(1).has("error"));
+        assertEquals("ok", responses.get(3).get("id").getAsString());
+        assertTrue(responses.get(3).get("done").getAsBoolean());
+    }
+
+    @Test
+    public void testUnknownAgentFailsGame() throws IOException, InterruptedException {
+        List<JsonObject> responses = serve(
+                "{\"id\": \"bad\", \"agentUnderTest\": \"no-such-agent\", \"players\": 2, \"games\": 2, \"seed\": 1}\n");
+
+        assertEquals(3, responses.size());
+        assertTrue(responses.get(0).has("error"));
+        assertTrue(responses.get(1).has("error"));
+        assertEquals(0, responses.get(2).get("games").getAsInt());
+        assertEquals(2, responses.get(2).get("failures").getAsInt());
+    }
+
+    @Test
+    public void testMoreGamesThanQueueAllFinish() throws IOException, InterruptedException {
+        // one thread only queues two games, failed games must give their place back too
+        List<JsonObject> responses = serve(1,
+                "{\"id\": \"a\", \"agentUnderTest\": \"HatGuessing\", \"players\": 2, \"games\": 5, \"seed\": 1}\n"
+                + "{\"id\": \"b\", \"agentUnderTest\": \"no-such-agent\", \"players\": 2, \"games\": 3, \"seed\": 1}\n"
+                + "{\"id\": \"c\", \"agentUnderTest\": \"HatGuessing\", \"players\": 2, \"games\": 4, \"seed\": 2}\n");
+
+        Map<String, Integer> played = new HashMap<>();
+        Map<String, Integer> failed = new HashMap<>();
+        for (JsonObject response : responses) {
+            if (response.has("done")) {
+                played.put(response.get("id").getAsString(), response.get("games").getAsInt());
+                failed.put(response.get("id").getAsString(), response.get("failures").getAsInt());
+            }
+        }
+
+        assertEquals(15, responses.size());
+        assertEquals(Integer.valueOf(5), played.get("a"));
+        assertEquals(Integer.valueOf(3), failed.get("b"));
+        assertEquals(Integer.valueOf(4), played.get("c"));
+    }
+}
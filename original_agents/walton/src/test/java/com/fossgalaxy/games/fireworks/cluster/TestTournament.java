@@ -0,0 +1,150 @@
+package com.fossgalaxy.games.fireworks.cluster;
+
+import com.fossgalaxy.games.fireworks.GameStats;
+import com.fossgalaxy.games.fireworks.ai.SearchYield;
+import com.fossgalaxy.games.fireworks.utils.DataParserUtils;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestTournament {
+
+    @Test
+    public void testExpandMatchesSingleRunnerOrder() {
+        List<Matchup> matchups = Matchup.parse("iggi flawed 42", 2, 2, 5);
+        assertEquals(8, matchups.size());
+
+        for (int i = 0; i < matchups.size(); i++) {
+            Matchup matchup = matchups.get(i);
+            assertEquals(i / 4, matchup.run);
+            assertEquals(2 + i % 4, matchup.nPlayers);
+            assertEquals(Matchup.GAME_NORMAL, matchup.gameType);
+            assertEquals(String.format("42-iggi-flawed-%d-%d", matchup.nPlayers, matchup.run), matchup.gameID);
+            assertTrue(matchup.agentUnderTestIndex < matchup.nPlayers);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseRejectsShortLines() {
+        Matchup.parse("iggi flawed", 1, 2, 5);
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws InterruptedException {
+        // most rule agents fall back on random rules, hat guessing is deterministic so each game has one outcome
+        List<Matchup> matchups = new ArrayList<>();
+        matchups.addAll(Matchup.parse("HatGuessing HatGuessing 42", 2, 2, 5));
+        matchups.addAll(Matchup.parse("HatGuessing HatGuessing 7 cheat", 1, 2, 5));
+
+        Map<String, String> sequential = new HashMap<>();
+        List<DataParserUtils> sequentialRecords = new ArrayList<>();
+        for (Matchup matchup : matchups) {
+            sequential.put(matchup.gameID, matchup.toCsv(matchup.play(sequentialRecords::add)));
+        }
+
+        Map<String, String> parallel = new HashMap<>();
+        List<DataParserUtils> records = Collections.synchronizedList(new ArrayList<>());
+        Tournament tournament = new Tournament(4);
+        tournament.setRecordWriter(records::add);
+        int played = tournament.run(matchups.iterator(),
+                (matchup, stats) -> parallel.put(matchup.gameID, matchup.toCsv(stats)));
+
+        assertEquals(matchups.size(), played);
+        assertEquals(sequentialRecords.size(), records.size());
+        assertEquals(0, tournament.getFailures());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testVirtualMatchesSequential() throws InterruptedException {
+        List<Matchup> matchups = Matchup.parse("HatGuessing HatGuessing 11", 2, 2, 5);
+
+        Map<String, String> sequential = new HashMap<>();
+        for (Matchup matchup : matchups) {
+            sequential.put(matchup.gameID, matchup.toCsv(matchup.play(record -> { })));
+        }
+
+        // on JVMs without virtual threads this falls back to a platform pool, the results should be the same either way
+        Map<String, String> virtual = new HashMap<>();
+        Tournament tournament = Tournament.virtual(2, 16, 1);
+        tournament.setRecordWriter(record -> { });
+        tournament.run(matchups.iterator(), (matchup, stats) -> virtual.put(matchup.gameID, matchup.toCsv(stats)));
+
+        assertEquals(sequential, virtual);
+        assertEquals(matchups.size(), tournament.getStats().getGames());
+        assertFalse(SearchYield.isEnabled());
+    }
+
+    @Test
+    public void testVirtualThreadsUsedWhenAvailable() throws Exception {
+        Method isVirtual;
+        try {
+            isVirtual = Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException ex) {
+            // this JVM has no virtual threads, testVirtualMatchesSequential covers the fallback
+            return;
+        }
+
+        // the record writer runs on the thread which played the game
+        List<Boolean> virtualGames = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> yielding = Collections.synchronizedList(new ArrayList<>());
+        Tournament tournament = Tournament.virtual(2, 16, 1);
+        tournament.setRecordWriter(record -> {
+            try {
+                virtualGames.add((Boolean) isVirtual.invoke(Thread.currentThread()));
+            } catch (ReflectiveOperationException ex) {
+                throw new IllegalStateException(ex);
+            }
+            yielding.add(SearchYield.isEnabled());
+        });
+
+        List<Matchup> matchups = Matchup.parse("HatGuessing HatGuessing 5", 2, 5, 5);
+        tournament.run(matchups.iterator(), (matchup, stats) -> { });
+
+        assertEquals(Tournament.VIRTUAL, tournament.getStats().getScheduler());
+        assertEquals(matchups.size(), virtualGames.size());
+        assertFalse(virtualGames.contains(false));
+        assertFalse(yielding.contains(false));
+        assertFalse(SearchYield.isEnabled());
+    }
+
+    @Test
+    public void testStats() {
+        TournamentStats stats = new TournamentStats(Tournament.PLATFORM, 2, 1, 2_000_000_000L,
+                new long[]{40, 10, 30, 20});
+
+        assertEquals(4, stats.getGames());
+        assertEquals(2.0, stats.getGamesPerSecond(), 1e-9);
+        assertEquals(25.0, stats.getMeanLatencyNanos(), 1e-9);
+        assertEquals(20, stats.getLatencyPercentile(50));
+        assertEquals(40, stats.getLatencyPercentile(95));
+        assertEquals(10, stats.getLatencyPercentile(0));
+        assertEquals(40, stats.getMaxLatencyNanos());
+        assertEquals(TournamentStats.csvHeader().split(",").length, stats.toCsv().split(",").length);
+    }
+
+    @Test
+    public void testFailedGamesAreCounted() throws InterruptedException {
+        List<Matchup> matchups = new ArrayList<>();
+        matchups.add(new Matchup("broken", "noSuchAgent", "HatGuessing", Matchup.GAME_NORMAL, 1L, 2, 0, 0));
+        matchups.addAll(Matchup.parse("HatGuessing HatGuessing 3", 1, 2, 2));
+
+        List<GameStats> results = new ArrayList<>();
+        Tournament tournament = new Tournament(2);
+        tournament.setRecordWriter(record -> { });
+        int played = tournament.run(matchups.iterator(), (matchup, stats) -> results.add(stats));
+
+        assertEquals(1, played);
+        assertEquals(1, results.size());
+        assertEquals(1, tournament.getFailures());
+    }
+}
@@ -2,6 +2,11 @@ package com.fossgalaxy.games.fireworks.engine;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Test;
 
 import com.fossgalaxy.games.fireworks.state.Card;
@@ -53,4 +58,65 @@ public class DeckTest {
 		deck.shuffle();
 	}
 
+	@Test
+	public void testSeededShuffleMatchesCollectionsShuffle() {
+		Deck deck = new Deck();
+		deck.init();
+
+		List<Card> expected = new ArrayList<>(deck.toList());
+		Collections.shuffle(expected, new Random(42));
+		deck.shuffle(new Random(42));
+
+		assertEquals(expected, deck.toList());
+		for (Card card : expected) {
+			assertEquals(card, deck.getTopCard());
+		}
+		assertEquals(false, deck.hasCardsLeft());
+	}
+
+	@Test
+	public void testRemoveByIdentity() {
+		Deck deck = new Deck();
+		deck.init();
+		deck.shuffle(1L);
+
+		Card blueOne = new Card(1, CardColour.BLUE);
+		assertEquals(3, deck.getCount(blueOne));
+		assertEquals(50, deck.getCardsLeft());
+
+		deck.remove(blueOne);
+		deck.remove(blueOne);
+		assertEquals(1, deck.getCount(blueOne));
+		assertEquals(48, deck.getCardsLeft());
+
+		deck.remove(blueOne);
+		deck.remove(blueOne);
+		deck.remove(null);
+		assertEquals(0, deck.getCount(blueOne));
+		assertEquals(47, deck.getCardsLeft());
+		assertEquals(false, deck.toList().contains(blueOne));
+
+		int drawn = 0;
+		while (deck.hasCardsLeft()) {
+			Card card = deck.getTopCard();
+			assertEquals(false, card.equals(blueOne));
+			drawn++;
+		}
+		assertEquals(47, drawn);
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		Deck deck = new Deck();
+		deck.init();
+		Deck copy = new Deck(deck);
+		assertEquals(deck, copy);
+
+		copy.remove(new Card(5, CardColour.RED));
+		copy.shuffle(new Random(3));
+		assertEquals(50, deck.getCardsLeft());
+		assertEquals(1, deck.getCount(new Card(5, CardColour.RED)));
+		assertEquals(0, copy.getCount(new Card(5, CardColour.RED)));
+	}
+
 }
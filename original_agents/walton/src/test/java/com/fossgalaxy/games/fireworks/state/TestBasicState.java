@@ -4,8 +4,11 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 
 import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.DiscardCard;
 import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
 
+import java.util.Collections;
+
 public class TestBasicState {
 	
 	/**
@@ -75,5 +78,30 @@ public class TestBasicState {
 		action2.apply(0, state);
 		assertEquals("game was not over at the end", true, state.isGameOver());
 	}
-	
+
+	/**
+	 * The discard counts should track the discard pile, and copies should have their own counts
+	 */
+	@Test
+	public void testDiscardCounts() {
+		GameState state = new BasicState(2);
+		state.init(5L);
+		state.setInformation(state.getStartingInfomation() - 1);
+
+		Card first = state.getCardAt(0, 0);
+		new DiscardCard(0).apply(0, state);
+		assertEquals(1, state.getDiscardCount(first));
+
+		GameState copy = state.getCopy();
+		copy.addToDiscard(first);
+		assertEquals(2, copy.getDiscardCount(first));
+		assertEquals(1, state.getDiscardCount(first));
+
+		for (int code = 0; code < Card.IDENTITIES; code++) {
+			Card card = Card.fromCode(code);
+			assertEquals(Collections.frequency(copy.getDiscards(), card), copy.getDiscardCount(code));
+			assertEquals(copy.getDeck().getCount(card), copy.getUnseenCount(card));
+		}
+	}
+
 }
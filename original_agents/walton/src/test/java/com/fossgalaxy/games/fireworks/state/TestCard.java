@@ -12,6 +12,7 @@ import static com.fossgalaxy.games.fireworks.state.TestBasicHand.c;
 import static com.fossgalaxy.games.fireworks.state.TestBasicHand.v;
 import static junitparams.JUnitParamsRunner.$;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 /**
  * Created by piers on 29/11/16.
@@ -38,6 +39,25 @@ public class TestCard {
         assertArrayEquals(expected, input);
     }
 
+    @Test
+    public void testCodeRoundTrip() {
+        for (CardColour colour : CardColour.values()) {
+            for (int value = 1; value <= 5; value++) {
+                Card card = new Card(value, colour);
+                assertEquals(value, card.getValue());
+                assertEquals(colour, Card.colourOf(card.toCode()));
+                assertEquals(value, Card.valueOf(card.toCode()));
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownValue() {
+        Card card = new Card(null, RED);
+        assertEquals(Card.UNKNOWN, card.getValue());
+        assertEquals(Card.UNKNOWN, card.toCode());
+    }
+
     public static Card[] cards(Integer[] values, CardColour[] colours) {
         int length = Math.min(values.length, colours.length);
         Card[] cards = new Card[length];
@@ -125,6 +125,33 @@ public class TestNegativeHand {
         assertEquals(expected, hand.isPossible(slot, card));
     }
 
+    @Test
+    public void testPossibleMasks() {
+        hand.setKnownColour(RED, new Integer[]{1});
+        hand.setKnownValue(3, new Integer[]{0, 1});
+
+        assertEquals(1 << RED.ordinal(), hand.getPossibleColourMask(1));
+        assertEquals(0x1F & ~(1 << RED.ordinal()), hand.getPossibleColourMask(0));
+        assertEquals(1 << 2, hand.getPossibleValueMask(0));
+        assertEquals(0x1F & ~(1 << 2), hand.getPossibleValueMask(4));
+
+        assertEquals(true, hand.isPossible(1, new Card(3, RED)));
+        assertEquals(false, hand.isPossible(0, new Card(3, RED)));
+        assertEquals(false, hand.isPossible(4, new Card(3, BLUE)));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        hand.setKnownValue(5, new Integer[]{2});
+        NegativeHand copy = new NegativeHand(hand);
+        assertEquals(hand, copy);
+
+        copy.setKnownColour(GREEN, new Integer[]{2});
+        assertEquals(1 << GREEN.ordinal(), copy.getPossibleColourMask(2));
+        assertEquals(0x1F, hand.getPossibleColourMask(2));
+        assertEquals(false, hand.equals(copy));
+    }
+
     public <T> Set<T> set(T[] values) {
         HashSet<T> set = new HashSet<T>();
         set.addAll(Arrays.asList(values));
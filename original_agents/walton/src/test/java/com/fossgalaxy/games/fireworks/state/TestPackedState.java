@@ -0,0 +1,139 @@
+package com.fossgalaxy.games.fireworks.state;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import com.fossgalaxy.games.fireworks.state.actions.PlayCard;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TestPackedState {
+
+    @Test
+    public void testCreate() {
+        GameState state = new PackedState(3);
+        assertEquals(8, state.getInformation());
+        assertEquals(3, state.getLives());
+        assertEquals(3, state.getPlayerCount());
+        assertEquals(5, state.getHandSize());
+        assertEquals(0, state.getScore());
+        assertEquals(false, state.isGameOver());
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        GameState state = new PackedState(2);
+        state.init(42L);
+
+        GameState copy = state.getCopy();
+        assertEquals(state, copy);
+
+        new PlayCard(0).apply(0, copy);
+        assertEquals(0, state.getActionHistory().size());
+        assertEquals(1, copy.getActionHistory().size());
+        assertEquals(state.getDeck().getCardsLeft() - 1, copy.getDeck().getCardsLeft());
+    }
+
+    @Test
+    public void testMatchesBasicStateDuringPlay() {
+        for (int players = 2; players <= 5; players++) {
+            for (long seed = 0; seed < 10; seed++) {
+                BasicState basic = new BasicState(players);
+                PackedState packed = new PackedState(players);
+                basic.init(seed);
+                packed.init(seed);
+
+                Random random = new Random(seed);
+                int player = 0;
+                while (!basic.isGameOver()) {
+                    assertSameState(basic, packed);
+
+                    List<Action> actions = new ArrayList<>(Utils.generateActions(player, basic));
+                    Action action = actions.get(random.nextInt(actions.size()));
+                    action.apply(player, basic);
+                    action.apply(player, packed);
+                    player = (player + 1) % players;
+                }
+
+                assertSameState(basic, packed);
+                assertEquals(true, packed.isGameOver());
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        BasicState basic = new NoLifeState(4);
+        basic.init(7L);
+
+        Random random = new Random(7L);
+        int player = 0;
+        for (int move = 0; move < 20 && !basic.isGameOver(); move++) {
+            List<Action> actions = new ArrayList<>(Utils.generateActions(player, basic));
+            actions.get(random.nextInt(actions.size())).apply(player, basic);
+            player = (player + 1) % basic.getPlayerCount();
+        }
+
+        PackedState packed = new PackedState(basic);
+        assertSameState(basic, packed);
+
+        BasicState converted = packed.toBasicState();
+        assertEquals(NoLifeState.class, converted.getClass());
+        assertSameState(converted, packed);
+        assertEquals(new PackedState(converted), packed);
+    }
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected.getInfomation(), actual.getInfomation());
+        assertEquals(expected.getLives(), actual.getLives());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getMovesLeft(), actual.getMovesLeft());
+        assertEquals(expected.getTurnNumber(), actual.getTurnNumber());
+        assertEquals(expected.isGameOver(), actual.isGameOver());
+        assertEquals(expected.getDeck(), actual.getDeck());
+
+        List<HistoryEntry> expectedHistory = expected.getActionHistory();
+        List<HistoryEntry> actualHistory = actual.getActionHistory();
+        assertEquals(expectedHistory.size(), actualHistory.size());
+        for (int i = 0; i < expectedHistory.size(); i++) {
+            assertEquals(expectedHistory.get(i).playerID, actualHistory.get(i).playerID);
+            assertEquals(expectedHistory.get(i).action, actualHistory.get(i).action);
+        }
+
+        List<Card> expectedDiscards = new ArrayList<>(expected.getDiscards());
+        expectedDiscards.sort(null);
+        List<Card> actualDiscards = new ArrayList<>(actual.getDiscards());
+        actualDiscards.sort(null);
+        assertEquals(expectedDiscards, actualDiscards);
+
+        for (CardColour colour : CardColour.values()) {
+            assertEquals(expected.getTableValue(colour), actual.getTableValue(colour));
+        }
+
+        for (int player = 0; player < expected.getPlayerCount(); player++) {
+            OrderedHand expectedHand = (OrderedHand) expected.getHand(player);
+            OrderedHand actualHand = (OrderedHand) actual.getHand(player);
+
+            assertEquals(expectedHand.getOldestSlot(), actualHand.getOldestSlot());
+            assertEquals(expectedHand.getNewestSlot(), actualHand.getNewestSlot());
+            for (int slot = 0; slot < expected.getHandSize(); slot++) {
+                assertEquals(expectedHand.getCard(slot), actualHand.getCard(slot));
+                assertEquals(expectedHand.hasCard(slot), actualHand.hasCard(slot));
+                assertEquals(expectedHand.getAge(slot), actualHand.getAge(slot));
+                assertEquals(expectedHand.getKnownColour(slot), actualHand.getKnownColour(slot));
+                assertEquals(expectedHand.getKnownValue(slot), actualHand.getKnownValue(slot));
+                assertArrayEquals(expectedHand.getPossibleColours(slot), actualHand.getPossibleColours(slot));
+
+                int[] expectedValues = expectedHand.getPossibleValues(slot);
+                Arrays.sort(expectedValues);
+                assertArrayEquals(expectedValues, actualHand.getPossibleValues(slot));
+            }
+        }
+    }
+}
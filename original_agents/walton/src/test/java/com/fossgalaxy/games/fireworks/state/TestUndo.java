@@ -0,0 +1,89 @@
+package com.fossgalaxy.games.fireworks.state;
+
+import com.fossgalaxy.games.fireworks.ai.iggi.Utils;
+import com.fossgalaxy.games.fireworks.state.actions.Action;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestUndo {
+
+    @Test
+    public void testUndoSingleMoveBasic() {
+        for (int players = 2; players <= 5; players++) {
+            checkSingleMoves(new BasicState(players), players);
+        }
+    }
+
+    @Test
+    public void testUndoSingleMovePacked() {
+        for (int players = 2; players <= 5; players++) {
+            checkSingleMoves(new PackedState(players), players);
+        }
+    }
+
+    @Test
+    public void testUndoWholeGameBasic() {
+        checkWholeGame(new NoLifeState(3));
+    }
+
+    @Test
+    public void testUndoWholeGamePacked() {
+        checkWholeGame(new PackedState(4));
+    }
+
+    private static void checkSingleMoves(GameState state, long seed) {
+        state.init(seed);
+        Random random = new Random(seed);
+
+        int player = 0;
+        while (!state.isGameOver()) {
+            List<Action> actions = new ArrayList<>(Utils.generateActions(player, state));
+            for (Action action : actions) {
+                GameState before = state.getCopy();
+                UndoRecord record = action.applyUndoable(player, state);
+                state.undo(record);
+                assertSameState(before, state);
+            }
+
+            actions.get(random.nextInt(actions.size())).apply(player, state);
+            player = (player + 1) % state.getPlayerCount();
+        }
+    }
+
+    private static void checkWholeGame(GameState state) {
+        state.init(11L);
+        GameState start = state.getCopy();
+        Random random = new Random(11L);
+
+        Deque<UndoRecord> records = new ArrayDeque<>();
+        int player = 0;
+        while (!state.isGameOver()) {
+            List<Action> actions = new ArrayList<>(Utils.generateActions(player, state));
+            records.push(actions.get(random.nextInt(actions.size())).applyUndoable(player, state));
+            player = (player + 1) % state.getPlayerCount();
+        }
+
+        while (!records.isEmpty()) {
+            state.undo(records.pop());
+        }
+        assertSameState(start, state);
+    }
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected, actual);
+        assertEquals(expected.getTurnNumber(), actual.getTurnNumber());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getActionHistory().size(), actual.getActionHistory().size());
+        assertEquals(expected.getDiscards().size(), actual.getDiscards().size());
+        for (int code = 0; code < Card.IDENTITIES; code++) {
+            assertEquals(expected.getDiscardCount(code), actual.getDiscardCount(code));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.fossgalaxy.games.fireworks.state.actions;
+
+import com.fossgalaxy.games.fireworks.state.BasicState;
+import com.fossgalaxy.games.fireworks.state.Card;
+import com.fossgalaxy.games.fireworks.state.CardColour;
+import com.fossgalaxy.games.fireworks.state.GameState;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestActionResult {
+
+    @Test
+    public void testPlayRecordsCard() {
+        GameState state = new BasicState(2, 5);
+        state.setCardAt(0, 0, new Card(1, CardColour.GREEN));
+        state.setCardAt(0, 1, new Card(3, CardColour.WHITE));
+
+        // the same action applied twice keeps nothing between applications
+        Action play = new PlayCard(0);
+        ActionResult first = ActionResult.apply(0, play, state);
+        state.setCardAt(0, 0, new Card(4, CardColour.ORANGE));
+        ActionResult second = ActionResult.apply(0, play, state);
+
+        assertSame(play, first.getAction());
+        assertEquals(new Card(1, CardColour.GREEN), first.getCard());
+        assertEquals("G", first.getColorName());
+        assertEquals(0, first.getRank());
+        assertEquals("Y", second.getColorName());
+        assertEquals(3, second.getRank());
+        assertEquals(new PlayCard(0), play);
+    }
+
+    @Test
+    public void testDiscardRecordsCard() {
+        GameState state = new BasicState(2, 5);
+        state.setCardAt(1, 1, new Card(5, CardColour.BLUE));
+        state.setInformation(4);
+
+        ActionResult result = ActionResult.apply(1, new DiscardCard(1), state);
+        assertEquals(1, result.getPlayerID());
+        assertEquals("B", result.getColorName());
+        assertEquals(4, result.getRank());
+    }
+
+    @Test
+    public void testTellUsesAction() {
+        GameState state = new BasicState(2, 5);
+        state.setCardAt(1, 0, new Card(2, CardColour.RED));
+
+        ActionResult colour = ActionResult.apply(0, new TellColour(1, CardColour.RED), state);
+        assertNull(colour.getCard());
+        assertEquals("R", colour.getColorName());
+        assertEquals(-1, colour.getRank());
+
+        ActionResult value = ActionResult.apply(0, new TellValue(1, 2), state);
+        assertEquals("X", value.getColorName());
+        assertEquals(1, value.getRank());
+    }
+}
@@ -0,0 +1,118 @@
+package com.fossgalaxy.games.fireworks.utils.agentbuilder;
+
+import com.fossgalaxy.games.fireworks.ai.Agent;
+import com.fossgalaxy.games.fireworks.ai.RandomAgent;
+import com.fossgalaxy.games.fireworks.ai.hat.HatGuessing;
+import com.fossgalaxy.games.fireworks.ai.iggi.IGGIFactory;
+import com.fossgalaxy.games.fireworks.ai.mcts.NoisyPredictor;
+import com.fossgalaxy.games.fireworks.ai.rule.ProductionRuleAgent;
+import com.fossgalaxy.games.fireworks.ai.vanDenBergh.DiscardRules;
+import com.fossgalaxy.games.fireworks.ai.vanDenBergh.HintRules;
+import com.fossgalaxy.games.fireworks.ai.vanDenBergh.VanDenBergh;
+import com.fossgalaxy.games.fireworks.ai.vanDenBergh.VanDenBerghFactory;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestAgentFinder {
+
+    @Test
+    public void testRegistryIsLoadedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        AgentFinder finder = new AgentFinder(f -> {
+            loads.incrementAndGet();
+            f.addFactory(new RegistryFactory("hat", HatGuessing.class, HatGuessing::new));
+        });
+        assertEquals(0, loads.get());
+
+        assertTrue(finder.buildAgent("hat") instanceof HatGuessing);
+        assertTrue(finder.buildAgent("hat") instanceof HatGuessing);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRegistryFactoryConvertsArguments() {
+        Object[][] seen = new Object[1][];
+        AgentFinder finder = new AgentFinder(f -> f.addFactory(new RegistryFactory("args", HatGuessing.class,
+                new Function[]{f.getConverter(int.class), f.getConverter(double.class), f.getConverter(String.class)},
+                p -> {
+                    seen[0] = p;
+                    return new HatGuessing();
+                })));
+
+        finder.buildAgent("args", "3", "0.5", "iggi");
+        assertArrayEquals(new Object[]{3, 0.5, "iggi"}, seen[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings("unchecked")
+    public void testRegistryFactoryChecksArgumentCount() {
+        AgentFinder finder = new AgentFinder(f -> f.addFactory(new RegistryFactory("one", HatGuessing.class,
+                new Function[]{f.getConverter(int.class)}, p -> new HatGuessing())));
+        finder.buildAgent("one", "1", "2");
+    }
+
+    @Test
+    public void testManualFactoriesOverrideRegistry() {
+        AgentFinder finder = new AgentFinder(f -> f.addFactory(new RegistryFactory("hat", HatGuessing.class,
+                HatGuessing::new)));
+        finder.buildAgent("hat");
+
+        Agent noisy = new NoisyPredictor(0.5, new HatGuessing());
+        finder.addFactory("hat", args -> noisy);
+        assertEquals(noisy, finder.buildAgent("hat"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAgentAfterScan() {
+        new AgentFinder(f -> { }).buildAgent("no-such-agent");
+    }
+
+    @Test
+    public void testGeneratedRegistry() throws ReflectiveOperationException {
+        // built by the AgentRegistryProcessor during compilation
+        AgentRegistry generated = (AgentRegistry) Class.forName(AgentFinder.GENERATED_REGISTRY)
+                .getDeclaredConstructor().newInstance();
+
+        AgentFinder finder = new AgentFinder(generated);
+        assertTrue(finder.buildAgent("HatGuessing") instanceof HatGuessing);
+        assertTrue(finder.buildAgent("noisy", "0.5", "HatGuessing") instanceof NoisyPredictor);
+        assertTrue(finder.getFactories().get("iggi") instanceof RegistryFactory);
+        assertTrue(finder.buildAgent("vandenbergh", "0.6", "1.0", HintRules.NEXT_USEFUL_THEN_MOST_CARDS.name(),
+                DiscardRules.MOST_CERTAIN_IS_USELESS.name()) instanceof VanDenBergh);
+
+        // the two random agents used to share a name
+        assertEquals(RandomAgent.class, finder.buildAgent("RandomAgent").getClass());
+        assertEquals(com.fossgalaxy.games.fireworks.ai.osawa.RandomAgent.class,
+                finder.buildAgent("OsawaRandomAgent").getClass());
+    }
+
+    @Test
+    public void testScannedConstructorFactory() {
+        AgentFinder finder = new AgentFinder(f -> { });
+        AgentFactory factory = finder.buildFactory(VanDenBergh.class);
+        assertTrue(factory instanceof ConstructorFactory);
+        assertEquals("vandenbergh", factory.name());
+        assertTrue(factory.build(new String[]{"0.6", "1.0", HintRules.NEXT_USEFUL_THEN_MOST_CARDS.name(),
+                DiscardRules.MOST_CERTAIN_IS_USELESS.name()}) instanceof VanDenBergh);
+    }
+
+    @Test
+    public void testScannedMethodFactory() throws NoSuchMethodException {
+        AgentFinder finder = new AgentFinder(f -> { });
+        AgentFactory factory = finder.buildFactory(IGGIFactory.class.getMethod("buildIGGIPlayer"));
+        assertTrue(factory instanceof MethodFactory);
+        assertTrue(factory.build() instanceof ProductionRuleAgent);
+
+        factory = finder.buildFactory(VanDenBerghFactory.class.getMethod("buildAgent", double.class, double.class,
+                HintRules.class, DiscardRules.class));
+        assertTrue(factory.build(new String[]{"0.6", "1.0", HintRules.NEXT_USEFUL_THEN_MOST_CARDS.name(),
+                DiscardRules.MOST_CERTAIN_IS_USELESS.name()}) instanceof ProductionRuleAgent);
+    }
+}
@@ -0,0 +1,60 @@
+package com.fossgalaxy.games.fireworks.utils.agentbuilder;
+
+import com.fossgalaxy.games.fireworks.ai.hat.HatGuessing;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestAgentSpec {
+
+    @Test
+    public void testPlainName() {
+        AgentSpec spec = AgentSpec.parse("iggi");
+        assertEquals("iggi", spec.getName());
+        assertEquals(0, spec.getArgCount());
+    }
+
+    @Test
+    public void testNestedArgumentsAreKeptWhole() {
+        AgentSpec spec = AgentSpec.parse("Funky[iggi:1:Funky[noisy[0.1:iggi]:1:iggi:2]:2]");
+        assertEquals("Funky", spec.getName());
+        assertArrayEquals(new String[]{"iggi", "1", "Funky[noisy[0.1:iggi]:1:iggi:2]", "2"}, spec.getArgs());
+
+        AgentSpec inner = AgentSpec.parse(spec.getArg(2));
+        assertEquals("Funky", inner.getName());
+        assertArrayEquals(new String[]{"noisy[0.1:iggi]", "1", "iggi", "2"}, inner.getArgs());
+    }
+
+    @Test
+    public void testPredictorList() {
+        AgentSpec spec = AgentSpec.parse("pmctsND[iggi|iggi|iggi]");
+        assertEquals("pmctsND", spec.getName());
+        assertArrayEquals(new String[]{"iggi|iggi|iggi"}, spec.getArgs());
+    }
+
+    @Test
+    public void testEmptyArguments() {
+        // the same splitting as before specs were cached: empty middle arguments are kept, a trailing one is dropped
+        assertArrayEquals(new String[0], AgentSpec.parse("mcts[]").getArgs());
+        assertArrayEquals(new String[]{"a", "", "b"}, AgentSpec.parse("x[a::b]").getArgs());
+        assertArrayEquals(new String[]{"a"}, AgentSpec.parse("x[a:]").getArgs());
+    }
+
+    @Test
+    public void testParsedOnce() {
+        String text = "noisy[0.25:noisy[0.5:iggi]]";
+        assertSame(AgentSpec.of(text), AgentSpec.of(text));
+        assertEquals(AgentSpec.parse(text), AgentSpec.of(text));
+        assertEquals(text, AgentSpec.of(text).toString());
+    }
+
+    @Test
+    public void testBuild() {
+        AgentFinder finder = new AgentFinder(f -> f.addFactory(new RegistryFactory("hat", HatGuessing.class,
+                HatGuessing::new)));
+        assertTrue(AgentSpec.of("hat").build(finder) instanceof HatGuessing);
+    }
+}